@@ -0,0 +1,29 @@
+package me.dibdin.adventofcode.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark entry point - runs JMH with the standard command line options,
+ * always adding the GC profiler so allocation rates are reported alongside the
+ * timings.
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include(ChallengeBenchmark.class.getSimpleName());
+        }
+        builder.addProfiler(GCProfiler.class);
+
+        Options options = builder.build();
+
+        new Runner(options).run();
+    }
+}
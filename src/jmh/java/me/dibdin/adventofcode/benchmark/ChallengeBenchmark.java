@@ -0,0 +1,150 @@
+package me.dibdin.adventofcode.benchmark;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.dibdin.adventofcode.Challenge;
+import me.dibdin.adventofcode.util.ChallengeFactory;
+
+/**
+ * Benchmarks the parsing, part one and part two of every challenge, with both
+ * the example and production inputs.
+ *
+ * Select a subset with, for example, "-p input=2021/15/production", and
+ * compare the strategies of a challenge with, for example,
+ * "-p input=2021/7/production -p strategy=brute-force,closed-form".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChallengeBenchmark {
+
+    /**
+     * The input to benchmark, in the format "year/day/dataset", where dataset is
+     * either example or production
+     */
+    @Param({
+            "2020/1/production", "2020/2/production", "2020/3/production", "2020/4/production",
+            "2020/5/production", "2020/6/production", "2020/7/production", "2021/1/example",
+            "2021/1/production", "2021/2/example", "2021/2/production", "2021/3/example", "2021/3/production",
+            "2021/4/example", "2021/4/production", "2021/5/example", "2021/5/production", "2021/6/example",
+            "2021/6/production", "2021/7/example", "2021/7/production", "2021/8/example", "2021/8/production",
+            "2021/9/example", "2021/9/production", "2021/10/example", "2021/10/production", "2021/11/example",
+            "2021/11/production", "2021/12/example", "2021/12/production", "2021/13/example",
+            "2021/13/production", "2021/14/example", "2021/14/production", "2021/15/example",
+            "2021/15/production", "2021/16/example", "2021/16/production", "2021/17/example",
+            "2021/17/production", "2021/18/example", "2021/18/production", "2021/19/example",
+            "2021/19/production", "2021/20/example", "2021/20/production"
+    })
+    public String input;
+
+    /**
+     * The strategy to solve with, see Challenge.getStrategies
+     */
+    @Param({ Challenge.DEFAULT_STRATEGY })
+    public String strategy;
+
+    /**
+     * Path of the inputs on the classpath, formatted with year and day
+     */
+    private static final String EXAMPLE_PATH = "example-data/year%d/day%d.txt";
+    private static final String PRODUCTION_PATH = "data/year%d/day%d.txt";
+
+    private List<String> lines;
+    private Supplier<Challenge> constructor;
+    private Challenge parsed;
+
+    /**
+     * Load the input into memory, and create a parsed challenge for the solve
+     * benchmarks
+     *
+     * @throws Exception if the challenge or its input can't be found
+     */
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        String[] tokens = input.split("/");
+        int year = Integer.parseInt(tokens[0]);
+        int day = Integer.parseInt(tokens[1]);
+        String path = tokens[2].equals("example") ? EXAMPLE_PATH : PRODUCTION_PATH;
+
+        lines = load(String.format(path, year, day));
+        constructor = ChallengeFactory.getChallengeConstructor(year, day, strategy);
+
+        parsed = constructor.get();
+        parsed.setPuzzleInput(lines.stream());
+    }
+
+    /**
+     * Read a resource into memory
+     *
+     * @param filename the name of the resource
+     * @return the lines of the resource
+     * @throws Exception if the resource can't be read
+     */
+    private static List<String> load(String filename) throws Exception {
+        InputStream stream = ClassLoader.getSystemResourceAsStream(filename);
+        if (stream == null) {
+            throw new FileNotFoundException(filename);
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.toCollection(ArrayList<String>::new));
+        }
+    }
+
+    /**
+     * Create a challenge and parse the input
+     *
+     * @return the parsed challenge
+     */
+    @Benchmark
+    public Challenge parse() {
+        Challenge challenge = constructor.get();
+        challenge.setPuzzleInput(lines.stream());
+        return challenge;
+    }
+
+    /**
+     * Solve part one of the parsed challenge
+     *
+     * @return the result
+     */
+    @Benchmark
+    public long partOne() {
+        return parsed.solvePartOne();
+    }
+
+    /**
+     * Solve part two of the parsed challenge
+     *
+     * @return the result
+     */
+    @Benchmark
+    public long partTwo() {
+        return parsed.solvePartTwo();
+    }
+}
@@ -1,13 +1,51 @@
 package me.dibdin.adventofcode;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
+import me.dibdin.adventofcode.util.ByteInput;
+import me.dibdin.adventofcode.util.CancellationToken;
+import me.dibdin.adventofcode.util.ChallengeEvent;
+import me.dibdin.adventofcode.util.Counter;
+import me.dibdin.adventofcode.util.Phase;
+import me.dibdin.adventofcode.util.PhaseTimer;
+import me.dibdin.adventofcode.util.PhaseTiming;
+import me.dibdin.adventofcode.util.ProgressListener;
+import me.dibdin.adventofcode.util.ScratchArena;
+import me.dibdin.adventofcode.util.SolverMetrics;
+import me.dibdin.adventofcode.util.SolverStrategy;
+
 public abstract class AbstractChallenge implements Challenge {
 
+    // scratch arrays for the hot loops, shared by every challenge solved on a
+    // thread, as a thread only solves one challenge at a time
+    private static final ThreadLocal<ScratchArena> SCRATCH = ThreadLocal.withInitial(ScratchArena::new);
+
     private String name;
     private int year;
     private int day;
 
+    // the most recent measurements of each phase
+    private final EnumMap<Phase, PhaseTiming> timings = new EnumMap<Phase, PhaseTiming>(Phase.class);
+
+    // how to stop, and who to tell about progress, during long running solves
+    private volatile CancellationToken cancellationToken = null;
+    private volatile ProgressListener progressListener = null;
+
+    // counters of events in the hot loops, in the order they were created
+    private final ArrayList<Counter> counters = new ArrayList<Counter>();
+
+    // the algorithms this challenge can solve with, by name, the default first,
+    // and the name of the one to solve with
+    private final LinkedHashMap<String, SolverStrategy> strategies = new LinkedHashMap<String, SolverStrategy>();
+    private volatile String strategy = DEFAULT_STRATEGY;
+
     protected AbstractChallenge(String name, int year, int day) {
         this.name = name;
         this.year = year;
@@ -31,4 +69,195 @@ public abstract class AbstractChallenge implements Challenge {
     public abstract long solvePartOne();
 
     public abstract long solvePartTwo();
+
+    public final void timedSetPuzzleInput(Stream<String> input) {
+        timed(Phase.PARSE, () -> {
+            setPuzzleInput(input);
+            return null;
+        });
+    }
+
+    public final void timedSetPuzzleInput(ByteInput input) {
+        timed(Phase.PARSE, () -> {
+            setPuzzleInput(input);
+            return null;
+        });
+    }
+
+    public final long timedSolvePartOne() {
+        return timed(Phase.PART_ONE, this::solvePartOne);
+    }
+
+    public final long timedSolvePartTwo() {
+        return timed(Phase.PART_TWO, this::solvePartTwo);
+    }
+
+    public final long[] timedSolveBoth() {
+        return timed(Phase.BOTH_PARTS, this::solveBoth);
+    }
+
+    /**
+     * Run one phase of the challenge, recording its timing, its trace event and
+     * its metrics, so that every phase is instrumented in the same way
+     * 
+     * @param <T>   the type of the result
+     * @param phase the phase being run
+     * @param work  runs the phase
+     * @return the result of the phase
+     */
+    private <T> T timed(Phase phase, Supplier<T> work) {
+        ChallengeEvent event = ChallengeEvent.begin(this, phase);
+        SolverMetrics.phaseStarted(this, phase);
+        try {
+            PhaseTimer timer = PhaseTimer.start();
+            T result = work.get();
+            recordTiming(phase, timer.stop());
+            event.commit();
+            return result;
+        } catch (RuntimeException | Error e) {
+            SolverMetrics.phaseFailed(this);
+            throw e;
+        }
+    }
+
+    public void recordTiming(Phase phase, PhaseTiming timing) {
+        synchronized (timings) {
+            timings.put(phase, timing);
+        }
+        SolverMetrics.phaseCompleted(this, phase, timing);
+    }
+
+    public Map<Phase, PhaseTiming> getTimings() {
+        synchronized (timings) {
+            return new EnumMap<Phase, PhaseTiming>(timings);
+        }
+    }
+
+    public Map<String, Long> getCounters() {
+        synchronized (counters) {
+            LinkedHashMap<String, Long> values = new LinkedHashMap<String, Long>();
+            for (Counter counter : counters) {
+                values.put(counter.getName(), counter.get());
+            }
+            return values;
+        }
+    }
+
+    /**
+     * Create a counter, which is reported by getCounters. Create counters as
+     * fields, so the counting code costs nothing when counters are switched off.
+     * 
+     * @param name the name of the counter
+     * @return the counter
+     */
+    protected Counter createCounter(String name) {
+        Counter counter = new Counter(name);
+        synchronized (counters) {
+            counters.add(counter);
+        }
+        return counter;
+    }
+
+    public List<String> getStrategies() {
+        synchronized (strategies) {
+            return strategies.isEmpty() ? List.of(DEFAULT_STRATEGY) : List.copyOf(strategies.keySet());
+        }
+    }
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(String name) throws IllegalArgumentException {
+        List<String> available = getStrategies();
+        if (name.equals(DEFAULT_STRATEGY)) {
+            strategy = available.get(0);
+        } else if (available.contains(name)) {
+            strategy = name;
+        } else {
+            throw new IllegalArgumentException(String.format("No strategy %s for year %d, day %d, only %s", name,
+                    year, day, String.join(", ", available)));
+        }
+    }
+
+    /**
+     * Register a strategy this challenge can solve with. The first strategy
+     * registered is the default. Register strategies from the constructor, and
+     * solve each part with strategy().
+     * 
+     * @param name     the name of the strategy, such as "brute-force"
+     * @param strategy the strategy
+     */
+    protected void addStrategy(String name, SolverStrategy strategy) {
+        synchronized (strategies) {
+            if (strategies.isEmpty()) {
+                this.strategy = name;
+            }
+            strategies.put(name, strategy);
+        }
+    }
+
+    /**
+     * The strategy chosen to solve with
+     * 
+     * @return the strategy
+     * @throws IllegalStateException if no strategies have been registered
+     */
+    protected SolverStrategy strategy() throws IllegalStateException {
+        synchronized (strategies) {
+            SolverStrategy selected = strategies.get(strategy);
+            if (selected == null) {
+                throw new IllegalStateException("No strategies registered");
+            }
+            return selected;
+        }
+    }
+
+    public void setCancellationToken(CancellationToken token) {
+        this.cancellationToken = token;
+    }
+
+    public void setProgressListener(ProgressListener listener) {
+        this.progressListener = listener;
+    }
+
+    /**
+     * The scratch arena of the current thread, for buffers which a hot loop would
+     * otherwise create again on every iteration. See ScratchArena for how long
+     * the arrays may be used.
+     * 
+     * @return the arena
+     */
+    protected ScratchArena scratch() {
+        return SCRATCH.get();
+    }
+
+    /**
+     * Stop if the cancellation token has been cancelled. Call this regularly from
+     * any loop which could run for a long time.
+     * 
+     * @throws CancellationException if the token has been cancelled
+     */
+    protected void checkpoint() throws CancellationException {
+        CancellationToken token = cancellationToken;
+        if (token != null) {
+            token.checkpoint();
+        }
+    }
+
+    /**
+     * Report progress through a long running loop, then stop if the cancellation
+     * token has been cancelled
+     * 
+     * @param done  the number of steps completed so far
+     * @param total the total number of steps, or zero if not known in advance
+     * @throws CancellationException if the token has been cancelled
+     */
+    protected void reportProgress(long done, long total) throws CancellationException {
+        ProgressListener listener = progressListener;
+        if (listener != null) {
+            listener.progress(this, done, total);
+        }
+        checkpoint();
+    }
 }
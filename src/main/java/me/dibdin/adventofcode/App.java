@@ -1,15 +1,118 @@
 package me.dibdin.adventofcode;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.InputMismatchException;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
-import java.util.stream.Stream;
+import java.util.concurrent.CancellationException;
+import java.util.function.Supplier;
 
+import javax.management.JMException;
+
+import me.dibdin.adventofcode.util.BatchRunner;
+import me.dibdin.adventofcode.util.ByteInput;
+import me.dibdin.adventofcode.util.CancellationToken;
+import me.dibdin.adventofcode.util.ChallengeEvent;
 import me.dibdin.adventofcode.util.ChallengeFactory;
+import me.dibdin.adventofcode.util.ChallengeId;
+import me.dibdin.adventofcode.util.ChallengeResult;
+import me.dibdin.adventofcode.util.ChromeTrace;
+import me.dibdin.adventofcode.util.CommandLine;
+import me.dibdin.adventofcode.util.ComplexityProfiler;
+import me.dibdin.adventofcode.util.CostModel;
+import me.dibdin.adventofcode.util.DifferentialCheck;
+import me.dibdin.adventofcode.util.Counter;
+import me.dibdin.adventofcode.util.FlightRecording;
+import me.dibdin.adventofcode.util.GeneratorRegistry;
+import me.dibdin.adventofcode.util.InputGenerator;
+import me.dibdin.adventofcode.util.LatencyHistogram;
+import me.dibdin.adventofcode.util.Phase;
+import me.dibdin.adventofcode.util.PhaseTimer;
+import me.dibdin.adventofcode.util.PhaseTiming;
+import me.dibdin.adventofcode.util.ProgressPrinter;
+import me.dibdin.adventofcode.util.ResultCache;
+import me.dibdin.adventofcode.util.ResultSink;
+import me.dibdin.adventofcode.util.ShardCoordinator;
+import me.dibdin.adventofcode.util.SnapshotCache;
+import me.dibdin.adventofcode.util.SolverDaemon;
+import me.dibdin.adventofcode.util.SolverMetrics;
+import me.dibdin.adventofcode.util.ThroughputRunner;
+import me.dibdin.adventofcode.util.TimingReport;
+import me.dibdin.adventofcode.util.VirtualThreads;
 
 /**
  * Advent of Code app - main entry point
+ *
+ * With no arguments, asks the user which challenge to run. Use "--all" to
+ * solve every challenge in parallel, optionally with "--threads N", and with
+ * "--parallel-parts" to solve the two parts of each challenge at the same time.
+ * The slowest challenges are started first, by a cost model of the time per
+ * byte of input of each phase, recorded in "--cost-model FILE" after each run.
+ * Use "--no-schedule" to start every challenge at once, in day order.
+ *
+ * Results are cached on disk, in "--cache-dir DIR" holding up to
+ * "--cache-size N" results. Use "--no-cache" to always solve.
+ *
+ * Use "--snapshots" to save parsed puzzle input in "--snapshot-dir DIR", so
+ * that later runs can skip parsing.
+ *
+ * Use "--timeout SECONDS" to stop challenges which take too long.
+ *
+ * Use "--repeat N --year Y --day D" to solve a challenge N times, after
+ * "--warmup M" untimed runs, and print percentiles of the time and heap
+ * allocation of each phase. Add "--alloc" to "--all" to print the heap
+ * allocation of each phase of each challenge.
+ *
+ * Start the JVM with "-Dadventofcode.counters=true" to also print counts of
+ * the work done in the hot loops of the challenges.
+ *
+ * Use "--jfr [FILE]" to make a Java Flight Recording while running, then print
+ * the hottest methods of each challenge. Add "--jfr-steps" to also record the
+ * major steps inside some solutions.
+ *
+ * Use "--trace [FILE]" to write a Chrome trace of when each phase and major
+ * step of each challenge ran on each thread, for viewing in Perfetto.
+ *
+ * Use "--daemon" to keep a warmed up JVM running, solving challenges requested
+ * over a loopback socket on "--port N", each within "--timeout SECONDS".
+ * Connections idle for "--idle SECONDS" (default 60) are closed. See
+ * SolverDaemon for the protocol.
+ *
+ * Use "--profile" to solve generated inputs of doubling size for every
+ * challenge, or just "--year Y --day D", until a run takes over "--max-millis
+ * N", then print how the time of each phase grows. The first size is
+ * "--start-size N", and "--seed S" changes the generated inputs.
+ *
+ * Use "--throughput PATH --year Y --day D" to solve one challenge against
+ * every input in a directory, or listed in a manifest file, writing each
+ * result to "--output FILE" as CSV, or as JSON Lines if the file ends in
+ * ".json". At most "--queue N" inputs wait for the "--threads N" threads.
+ * Add "--virtual-threads" to read each input and write its result on a
+ * virtual thread of its own, leaving the threads to parse and solve.
+ *
+ * Use "--strategy NAME" with "--repeat" or a single challenge to solve with
+ * another of the challenge's algorithms, always solving rather than using a
+ * cached result. Use "--check [A,B] --year Y --day D"
+ * to check that two strategies, or the default and every other, give the same
+ * answers for the bundled input and "--inputs N" generated inputs of up to
+ * "--max-size N", from "--seed S".
+ *
+ * Use "--distribute [PATH]" to do the same across "--workers N" worker JVMs,
+ * each with "--worker-heap SIZE". Without a PATH, the bundled input of every
+ * challenge is solved. Jobs which crash or time out a worker are retried
+ * "--retries N" times.
+ *
+ * While running, the challenge being solved, the time of each phase and the
+ * cache hit rates can be watched from JConsole, as MBeans under
+ * "me.dibdin.adventofcode". See SolverMetrics.
  */
 public class App {
     public static void main(String[] args)
@@ -18,6 +121,544 @@ public class App {
         System.out.println( "| Advent of Code |");
         System.out.println( "------------------");
 
+        CommandLine commandLine;
+        try {
+            commandLine = new CommandLine(args);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+
+        // publish metrics over JMX, for watching long sessions
+        try {
+            SolverMetrics.register();
+        } catch (JMException e) {
+            System.out.println("Unable to register the metrics MBeans: " + e.getMessage());
+        }
+
+        // start a flight recording, if requested, or to make a trace from
+        FlightRecording recording = null;
+        if (commandLine.hasOption("jfr") || commandLine.hasOption("trace")) {
+            try {
+                recording = new FlightRecording(commandLine.hasOption("jfr-steps") || commandLine.hasOption("trace"),
+                        commandLine.hasOption("jfr"));
+                recording.start();
+            } catch (IOException | ParseException e) {
+                System.out.println("Unable to start the flight recording: " + e.getMessage());
+                return;
+            }
+        }
+
+        if (commandLine.hasOption("all")) {
+            runAll(commandLine);
+        } else if (commandLine.hasOption("repeat")) {
+            runRepeat(commandLine);
+        } else if (commandLine.hasOption("daemon")) {
+            runDaemon(commandLine);
+        } else if (commandLine.hasOption("profile")) {
+            runProfile(commandLine);
+        } else if (commandLine.hasOption("throughput")) {
+            runThroughput(commandLine);
+        } else if (commandLine.hasOption("distribute")) {
+            runDistributed(commandLine);
+        } else if (commandLine.hasOption("check")) {
+            runCheck(commandLine);
+        } else {
+            runInteractive(commandLine);
+        }
+
+        if (recording != null) {
+            stopRecording(commandLine, recording);
+        }
+    }
+
+    /**
+     * Save the flight recording and summarise it, and convert it to a Chrome
+     * trace, as requested on the command line
+     *
+     * @param commandLine the command line options
+     * @param recording   the recording
+     */
+    private static void stopRecording(CommandLine commandLine, FlightRecording recording) {
+        Path file = null;
+        try {
+            if (commandLine.hasOption("jfr")) {
+                String name = commandLine.getOption("jfr", "true");
+                file = Paths.get(name.equals("true") ? "adventofcode.jfr" : name);
+            } else {
+                file = Files.createTempFile("adventofcode", ".jfr");
+            }
+            recording.stop(file);
+        } catch (IOException e) {
+            System.out.println("Unable to save the flight recording: " + e.getMessage());
+            return;
+        }
+
+        try {
+            if (commandLine.hasOption("jfr")) {
+                System.out.println("");
+                System.out.println("Flight recording saved to " + file);
+                FlightRecording.printHottestFrames(file, 5, System.out);
+            }
+
+            if (commandLine.hasOption("trace")) {
+                String name = commandLine.getOption("trace", "true");
+                Path trace = Paths.get(name.equals("true") ? "adventofcode-trace.json" : name);
+                int spans = ChromeTrace.write(file, trace);
+                System.out.println("");
+                System.out.println("Trace of " + spans + " spans saved to " + trace);
+            }
+        } catch (IOException e) {
+            System.out.println("Unable to summarise the flight recording: " + e.getMessage());
+        } finally {
+            if (!commandLine.hasOption("jfr")) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    // only a temporary file
+                }
+            }
+        }
+    }
+
+    /**
+     * Create the result cache requested on the command line
+     *
+     * @param commandLine the command line options
+     * @return the cache, or null if caching is switched off
+     * @throws IllegalArgumentException if the cache size is not a number
+     */
+    private static ResultCache createResultCache(CommandLine commandLine) throws IllegalArgumentException {
+        if (commandLine.hasOption("no-cache")) {
+            return null;
+        }
+
+        Path directory = Paths.get(commandLine.getOption("cache-dir", ResultCache.getDefaultDirectory().toString()));
+        ResultCache cache = new ResultCache(directory,
+                commandLine.getIntOption("cache-size", ResultCache.DEFAULT_MAX_ENTRIES));
+
+        SolverMetrics metrics = SolverMetrics.getInstance();
+        if (metrics != null) {
+            metrics.setResultCache(cache);
+        }
+        return cache;
+    }
+
+    /**
+     * The time limit for each challenge requested on the command line
+     *
+     * @param commandLine the command line options
+     * @return the time limit, or null if there is no limit
+     * @throws IllegalArgumentException if the time limit is not a number
+     */
+    private static Duration getTimeout(CommandLine commandLine) throws IllegalArgumentException {
+        if (!commandLine.hasOption("timeout")) {
+            return null;
+        }
+        return Duration.ofSeconds(commandLine.getIntOption("timeout", 0));
+    }
+
+    /**
+     * Create the snapshot cache requested on the command line
+     *
+     * @param commandLine the command line options
+     * @return the cache, or null if snapshots are switched off
+     */
+    private static SnapshotCache createSnapshotCache(CommandLine commandLine) {
+        if (!commandLine.hasOption("snapshots")) {
+            return null;
+        }
+
+        Path directory = Paths.get(commandLine.getOption("snapshot-dir", SnapshotCache.getDefaultDirectory().toString()));
+        SnapshotCache cache = new SnapshotCache(directory, SnapshotCache.DEFAULT_MAX_ENTRIES);
+
+        SolverMetrics metrics = SolverMetrics.getInstance();
+        if (metrics != null) {
+            metrics.setSnapshotCache(cache);
+        }
+        return cache;
+    }
+
+    /**
+     * Solve every available challenge, then print a table of the results
+     *
+     * @param commandLine the command line options
+     */
+    private static void runAll(CommandLine commandLine) {
+        try {
+            int threads = commandLine.getIntOption("threads", Runtime.getRuntime().availableProcessors());
+            BatchRunner runner = new BatchRunner(threads);
+            runner.setResultCache(createResultCache(commandLine));
+            runner.setSnapshotCache(createSnapshotCache(commandLine));
+            runner.setTimeout(getTimeout(commandLine));
+            runner.setParallelParts(commandLine.hasOption("parallel-parts"));
+
+            // start the slowest challenges first, as timed on previous runs
+            CostModel costModel = null;
+            Path costFile = Paths.get(commandLine.getOption("cost-model", CostModel.getDefaultPath().toString()));
+            if (!commandLine.hasOption("no-schedule")) {
+                try {
+                    costModel = CostModel.load(costFile);
+                } catch (IOException e) {
+                    System.out.println("Unable to load the cost model: " + e.getMessage());
+                    costModel = new CostModel();
+                }
+                runner.setCostModel(costModel);
+            }
+
+            System.out.println("Solving all challenges using " + threads + " threads");
+            long start = System.nanoTime();
+            List<ChallengeResult> results = runner.runAll();
+            long elapsed = System.nanoTime() - start;
+            runner.shutdown();
+
+            if (costModel != null) {
+                try {
+                    costModel.save(costFile);
+                } catch (IOException e) {
+                    System.out.println("Unable to save the cost model: " + e.getMessage());
+                }
+            }
+
+            System.out.println("");
+            TimingReport.printResults(results, System.out);
+            if (commandLine.hasOption("alloc")) {
+                System.out.println("");
+                TimingReport.printResultAllocations(results, System.out);
+            }
+            if (Counter.ENABLED) {
+                System.out.println("");
+                TimingReport.printResultCounters(results, System.out);
+            }
+            System.out.printf("Wall clock time: %.3f ms%n", elapsed / 1_000_000.0);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Solve a challenge repeatedly, each time with a new instance, then print
+     * percentiles of the time taken by each phase
+     *
+     * @param commandLine the command line options
+     */
+    private static void runRepeat(CommandLine commandLine) {
+        try {
+            int year = commandLine.getIntOption("year", 0);
+            int day = commandLine.getIntOption("day", 0);
+            int repeat = commandLine.getIntOption("repeat", 1);
+            int warmup = commandLine.getIntOption("warmup", 0);
+            String strategy = commandLine.getOption("strategy", Challenge.DEFAULT_STRATEGY);
+
+            Supplier<Challenge> constructor = ChallengeFactory.getChallengeConstructor(year, day, strategy);
+            ByteInput input = ByteInput.forPuzzle(year, day);
+
+            EnumMap<Phase, LatencyHistogram> histograms = new EnumMap<Phase, LatencyHistogram>(Phase.class);
+            EnumMap<Phase, LatencyHistogram> allocations = new EnumMap<Phase, LatencyHistogram>(Phase.class);
+            for (Phase phase : new Phase[] { Phase.PARSE, Phase.PART_ONE, Phase.PART_TWO }) {
+                histograms.put(phase, new LatencyHistogram());
+                allocations.put(phase, new LatencyHistogram());
+            }
+
+            System.out.println("Solving year " + year + ", day " + day + " " + repeat + " times, after " + warmup
+                    + " warmup runs, with the " + constructor.get().getStrategy() + " strategy");
+            for (int i = 0; i < (warmup + repeat); i++) {
+                Challenge challenge = constructor.get();
+                challenge.timedSetPuzzleInput(input);
+                challenge.timedSolvePartOne();
+                challenge.timedSolvePartTwo();
+
+                if (i >= warmup) {
+                    Map<Phase, PhaseTiming> timings = challenge.getTimings();
+                    for (Map.Entry<Phase, LatencyHistogram> entry : histograms.entrySet()) {
+                        PhaseTiming timing = timings.get(entry.getKey());
+                        entry.getValue().record(timing.getWallNanos());
+                        if (timing.getAllocatedBytes() >= 0) {
+                            allocations.get(entry.getKey()).record(timing.getAllocatedBytes());
+                        }
+                    }
+                }
+            }
+
+            System.out.println("");
+            TimingReport.printHistograms(histograms, System.out);
+            if (allocations.get(Phase.PARSE).getCount() > 0) {
+                System.out.println("");
+                TimingReport.printAllocations(allocations, System.out);
+            }
+        } catch (ClassNotFoundException e) {
+            System.out.println("Unable to find Class for the specified year and day");
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        } catch (IOException e) {
+            System.out.println("Unable to load the puzzle input: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Solve generated inputs of growing size, for one challenge or every
+     * challenge with a generator, then print how the time of each phase grows
+     *
+     * @param commandLine the command line options
+     */
+    private static void runProfile(CommandLine commandLine) {
+        try {
+            int year = commandLine.getIntOption("year", 0);
+            int day = commandLine.getIntOption("day", 0);
+            long maxMillis = commandLine.getIntOption("max-millis", 1000);
+            long seed = commandLine.getIntOption("seed", 2021);
+            int startSize = commandLine.getIntOption("start-size", 8);
+            int maxSize = commandLine.getIntOption("max-size", 1 << 24);
+
+            List<ChallengeId> ids = GeneratorRegistry.getAvailableGenerators();
+            if ((year != 0) || (day != 0)) {
+                ids = List.of(new ChallengeId(year, day));
+            }
+
+            ComplexityProfiler profiler = new ComplexityProfiler(maxMillis, seed, startSize, maxSize);
+            ArrayList<ComplexityProfiler.Profile> profiles = new ArrayList<ComplexityProfiler.Profile>();
+            for (ChallengeId id : ids) {
+                InputGenerator generator = GeneratorRegistry.getGenerator(id.getYear(), id.getDay());
+                if (generator == null) {
+                    System.out.println("No input generator for year " + id.getYear() + ", day " + id.getDay());
+                    continue;
+                }
+                Supplier<Challenge> constructor = ChallengeFactory.getChallengeConstructor(id.getYear(),
+                        id.getDay());
+
+                System.out.println("");
+                System.out.println("Profiling year " + id.getYear() + ", day " + id.getDay());
+                ComplexityProfiler.Profile profile = profiler.profile(id, constructor, generator);
+                ComplexityProfiler.print(profile, System.out);
+                profiles.add(profile);
+            }
+
+            if (profiles.size() > 1) {
+                System.out.println("");
+                ComplexityProfiler.printSummary(profiles, System.out);
+            }
+        } catch (ClassNotFoundException e) {
+            System.out.println("Unable to find Class for the specified year and day");
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Solve one challenge against many puzzle inputs, streaming the results to
+     * a file, then print the throughput and the time taken by each phase
+     *
+     * @param commandLine the command line options
+     */
+    private static void runThroughput(CommandLine commandLine) {
+        try {
+            int year = commandLine.getIntOption("year", 0);
+            int day = commandLine.getIntOption("day", 0);
+            int threads = commandLine.getIntOption("threads", Runtime.getRuntime().availableProcessors());
+            boolean threadPerInput = commandLine.hasOption("virtual-threads");
+            int queue = commandLine.getIntOption("queue", threadPerInput ? 1024 : threads * 4);
+            Path output = Paths.get(commandLine.getOption("output", "adventofcode-results.csv"));
+
+            List<Path> inputs = ThroughputRunner.listInputs(Paths.get(commandLine.getOption("throughput", ".")));
+            ThroughputRunner runner = new ThroughputRunner(threads, queue);
+            runner.setTimeout(getTimeout(commandLine));
+            runner.setThreadPerInput(threadPerInput);
+
+            System.out.println("Solving year " + year + ", day " + day + " with " + inputs.size() + " inputs, using "
+                    + threads + " threads");
+            if (threadPerInput) {
+                System.out.println(VirtualThreads.isAvailable() ? "Reading and writing on virtual threads"
+                        : "Virtual threads need Java 21 and the java21 build, so using a platform thread per input");
+            }
+            ThroughputRunner.Summary summary;
+            try (ResultSink sink = new ResultSink(Files.newBufferedWriter(output),
+                    ResultSink.formatOf(output.toString()))) {
+                summary = runner.run(year, day, inputs, sink);
+            } finally {
+                runner.shutdown();
+            }
+
+            System.out.println("");
+            TimingReport.printHistograms(summary.getHistograms(), System.out);
+            System.out.println("");
+            System.out.printf("Solved %d inputs, %d failed, in %.3f ms: %.1f inputs/second%n", summary.getInputs(),
+                    summary.getFailures(), summary.getElapsedNanos() / 1_000_000.0, summary.getInputsPerSecond());
+            System.out.println("Results written to " + output);
+        } catch (ClassNotFoundException e) {
+            System.out.println("Unable to find Class for the specified year and day");
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        } catch (IOException e) {
+            System.out.println("Unable to read the inputs or write the results: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Solve the bundled input and generated inputs of one challenge with two of
+     * its strategies, or the default and each other strategy, and print any
+     * inputs where the answers differ
+     *
+     * @param commandLine the command line options
+     */
+    private static void runCheck(CommandLine commandLine) {
+        try {
+            int year = commandLine.getIntOption("year", 0);
+            int day = commandLine.getIntOption("day", 0);
+            int inputs = commandLine.getIntOption("inputs", 20);
+            int maxSize = commandLine.getIntOption("max-size", 500);
+            long seed = commandLine.getIntOption("seed", 2021);
+
+            Supplier<Challenge> constructor = ChallengeFactory.getChallengeConstructor(year, day);
+            List<String> strategies = constructor.get().getStrategies();
+
+            // the strategies to check, in pairs
+            ArrayList<String[]> pairs = new ArrayList<String[]>();
+            String option = commandLine.getOption("check", "true");
+            if (!option.equals("true")) {
+                String[] names = option.split(",");
+                if (names.length != 2) {
+                    throw new IllegalArgumentException("Option --check takes two strategies, such as A,B");
+                }
+                pairs.add(names);
+            } else {
+                for (int i = 1; i < strategies.size(); i++) {
+                    pairs.add(new String[] { strategies.get(0), strategies.get(i) });
+                }
+            }
+            if (pairs.isEmpty()) {
+                System.out.println("Year " + year + ", day " + day + " has only one strategy");
+                return;
+            }
+
+            ByteInput bundled = ByteInput.forPuzzle(year, day);
+            InputGenerator generator = GeneratorRegistry.getGenerator(year, day);
+            int mismatches = 0;
+            for (String[] pair : pairs) {
+                DifferentialCheck check = new DifferentialCheck(constructor, pair[0], pair[1]);
+                ArrayList<DifferentialCheck.Comparison> comparisons = new ArrayList<DifferentialCheck.Comparison>();
+                comparisons.add(check.compare("bundled input", bundled));
+                if (generator != null) {
+                    comparisons.addAll(check.compareGenerated(generator, inputs, maxSize, seed));
+                }
+
+                System.out.println("");
+                System.out.println("Checking year " + year + ", day " + day + ": " + pair[0] + " against " + pair[1]);
+                mismatches += check.print(comparisons, System.out);
+            }
+
+            System.out.println("");
+            System.out.println((mismatches == 0) ? "Every strategy gave the same answers"
+                    : "Strategies gave different answers for " + mismatches + " inputs");
+        } catch (ClassNotFoundException e) {
+            System.out.println("Unable to find Class for the specified year and day");
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        } catch (IOException e) {
+            System.out.println("Unable to load the puzzle input: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Solve puzzle inputs across worker JVMs, streaming the results to a file,
+     * then print the throughput and the time taken by each phase
+     *
+     * @param commandLine the command line options
+     */
+    private static void runDistributed(CommandLine commandLine) {
+        try {
+            int year = commandLine.getIntOption("year", 0);
+            int day = commandLine.getIntOption("day", 0);
+            int workers = commandLine.getIntOption("workers", Runtime.getRuntime().availableProcessors());
+            int retries = commandLine.getIntOption("retries", 1);
+            Path output = Paths.get(commandLine.getOption("output", "adventofcode-results.csv"));
+
+            // a directory or manifest of inputs for one challenge, or the bundled inputs
+            ArrayList<ShardCoordinator.Input> inputs = new ArrayList<ShardCoordinator.Input>();
+            String source = commandLine.getOption("distribute", "true");
+            if (!source.equals("true")) {
+                for (Path path : ThroughputRunner.listInputs(Paths.get(source))) {
+                    inputs.add(new ShardCoordinator.Input(new ChallengeId(year, day), path));
+                }
+            } else if ((year != 0) || (day != 0)) {
+                inputs.add(new ShardCoordinator.Input(new ChallengeId(year, day)));
+            } else {
+                for (ChallengeId id : ChallengeFactory.getAvailableChallenges()) {
+                    inputs.add(new ShardCoordinator.Input(id));
+                }
+            }
+
+            ArrayList<String> jvmOptions = new ArrayList<String>();
+            if (commandLine.hasOption("worker-heap")) {
+                jvmOptions.add("-Xmx" + commandLine.getOption("worker-heap", ""));
+            }
+
+            System.out.println("Solving " + inputs.size() + " inputs, using " + workers + " worker JVMs");
+            ThroughputRunner.Summary summary;
+            try (ShardCoordinator coordinator = new ShardCoordinator(workers,
+                    ShardCoordinator.localLauncher(jvmOptions));
+                    ResultSink sink = new ResultSink(Files.newBufferedWriter(output),
+                            ResultSink.formatOf(output.toString()))) {
+                coordinator.setTimeout(getTimeout(commandLine));
+                coordinator.setMaxAttempts(retries + 1);
+                summary = coordinator.run(inputs, sink);
+            }
+
+            System.out.println("");
+            TimingReport.printHistograms(summary.getHistograms(), System.out);
+            System.out.println("");
+            System.out.printf("Solved %d inputs, %d failed, in %.3f ms: %.1f inputs/second%n", summary.getInputs(),
+                    summary.getFailures(), summary.getElapsedNanos() / 1_000_000.0, summary.getInputsPerSecond());
+            System.out.println("Results written to " + output);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        } catch (IOException e) {
+            System.out.println("Unable to read the inputs or write the results: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Solve challenges on request, until asked to shut down
+     *
+     * @param commandLine the command line options
+     */
+    private static void runDaemon(CommandLine commandLine) {
+        try {
+            int port = commandLine.getIntOption("port", SolverDaemon.DEFAULT_PORT);
+            int threads = commandLine.getIntOption("threads", Runtime.getRuntime().availableProcessors());
+            int warmup = commandLine.getIntOption("warmup", 0);
+            SolverDaemon daemon = new SolverDaemon(port, threads);
+            daemon.setTimeout(getTimeout(commandLine));
+            daemon.setIdleTimeout(Duration.ofSeconds(
+                    commandLine.getIntOption("idle", (int) SolverDaemon.DEFAULT_IDLE_TIMEOUT.getSeconds())));
+
+            if (warmup > 0) {
+                System.out.println("Warming up with " + warmup + " solves of every challenge, on each of " + threads
+                        + " threads");
+                daemon.warmUp(warmup);
+            }
+
+            System.out.println("Listening on port " + daemon.getPort());
+            daemon.serve();
+            System.out.println("Shut down");
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        } catch (IOException e) {
+            System.out.println("Unable to start the daemon: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Ask the user which challenge to run, then solve it
+     *
+     * @param commandLine the command line options
+     */
+    private static void runInteractive(CommandLine commandLine) {
         int year;
         int day;
         Challenge challenge;
@@ -32,31 +673,73 @@ public class App {
             day = scanner.nextInt();
 
             // get the Class to solve the requested challenge
-            challenge = ChallengeFactory.getChallengeInstance(year, day);
+            challenge = ChallengeFactory.getChallengeInstance(year, day,
+                    commandLine.getOption("strategy", Challenge.DEFAULT_STRATEGY));
 
             // tell the user we're read to go
             System.out.println("");
-            System.out.println("Solving the '" + challenge.getName() + "' Challenge (Year " 
+            System.out.println("Solving the '" + challenge.getName() + "' Challenge (Year "
                                     + challenge.getYear() + ", Day " + challenge.getDay() + ")");
-                                    
-            // Open the input file as an AutoCloseable resource, and make it available as a stream of lines
-            String filename = String.format("data/year%d/day%d.txt", challenge.getYear(), challenge.getDay());
-            try (Stream<String> stream = new BufferedReader(
-                                            new InputStreamReader(
-                                                ClassLoader.getSystemResourceAsStream(filename)))
-                                        .lines()) {
 
-                // Solve the challenge
-                challenge.setPuzzleInput(stream);
+            // Memory-map the input file
+            ChallengeEvent event = ChallengeEvent.begin(challenge, Phase.LOAD);
+            PhaseTimer timer = PhaseTimer.start();
+            ByteInput input = ByteInput.forPuzzle(challenge.getYear(), challenge.getDay());
+            challenge.recordTiming(Phase.LOAD, timer.stop());
+            event.commit();
 
-                // Print the results
-                System.out.println("Part One Result: " + challenge.solvePartOne());
-                System.out.println("Part Two Result: " + challenge.solvePartTwo());
+            // Check for a previous result, otherwise solve the challenge. A strategy
+            // is chosen to check or time it, so always solve with it.
+            ResultCache cache = createResultCache(commandLine);
+            String cacheKey = (cache == null) ? null : ResultCache.createKey(challenge, input);
+            boolean chosenStrategy = !commandLine.getOption("strategy", Challenge.DEFAULT_STRATEGY)
+                    .equals(Challenge.DEFAULT_STRATEGY);
+            long[] results = ((cache == null) || chosenStrategy) ? null : cache.get(cacheKey);
+
+            if (results != null) {
+                System.out.println("Found previous result in the cache");
+            } else {
+                // show progress, and stop if the time limit is reached
+                Duration timeout = getTimeout(commandLine);
+                if (timeout != null) {
+                    challenge.setCancellationToken(new CancellationToken(timeout));
+                }
+                ProgressPrinter progress = new ProgressPrinter(System.out);
+                challenge.setProgressListener(progress);
+
+                SnapshotCache snapshots = createSnapshotCache(commandLine);
+                if (snapshots != null) {
+                    snapshots.setPuzzleInput(challenge, input);
+                } else {
+                    challenge.timedSetPuzzleInput(input);
+                }
+                results = challenge.timedSolveBoth();
+                progress.finish();
+                if (cache != null) {
+                    cache.put(cacheKey, results);
+                }
+            }
+
+            // Print the results
+            System.out.println("Part One Result: " + results[0]);
+            System.out.println("Part Two Result: " + results[1]);
+
+            // Print how long each phase took
+            System.out.println("");
+            TimingReport.printPhases(challenge.getTimings(), System.out);
+            if (Counter.ENABLED && !challenge.getCounters().isEmpty()) {
+                System.out.println("");
+                TimingReport.printCounters(challenge.getCounters(), System.out);
             }
         } catch (ClassNotFoundException e) {
             System.out.println("Unable to find Class for the specified year and day");
         } catch (InputMismatchException e) {
             System.out.println("Please run again with valid input numbers");
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        } catch (CancellationException e) {
+            System.out.println("");
+            System.out.println("Stopped: the time limit was reached");
         } catch (Exception e) {
             System.out.println("Oops!! Something went wrong.");
             e.printStackTrace();
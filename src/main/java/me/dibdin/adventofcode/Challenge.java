@@ -1,9 +1,32 @@
 package me.dibdin.adventofcode;
 
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
+import me.dibdin.adventofcode.util.ByteInput;
+import me.dibdin.adventofcode.util.CancellationToken;
+import me.dibdin.adventofcode.util.Phase;
+import me.dibdin.adventofcode.util.PhaseTiming;
+import me.dibdin.adventofcode.util.ProgressListener;
+
+/**
+ * A solution to an Advent of Code challenge.
+ * 
+ * The puzzle input is parsed once by setPuzzleInput, then either part can be
+ * solved any number of times. Solving must not change the parsed input, so
+ * once setPuzzleInput has returned, both parts may be solved concurrently by
+ * any number of threads, as long as the input is handed over safely (for
+ * example by starting the threads, or submitting tasks to an executor, after
+ * parsing). Setting new puzzle input while solving is not supported.
+ */
 public interface Challenge {
 
+    /**
+     * The name which always selects the default strategy of a challenge
+     */
+    public static final String DEFAULT_STRATEGY = "default";
+
     public String getName();
 
     public int getYear();
@@ -12,7 +35,125 @@ public interface Challenge {
 
     public void setPuzzleInput(Stream<String> input);
 
+    /**
+     * Set the puzzle input from raw bytes. Challenges which can parse bytes
+     * directly should override this; by default the bytes are decoded into lines.
+     * 
+     * @param input the puzzle input
+     */
+    public default void setPuzzleInput(ByteInput input) {
+        setPuzzleInput(input.toLines());
+    }
+
     public long solvePartOne();
 
     public long solvePartTwo();
-}
\ No newline at end of file
+
+    /**
+     * Solve both parts of the puzzle. Challenges where both parts repeat the same
+     * expensive work should override this to do the work once.
+     * 
+     * @return the results, formatted as { PART_ONE, PART_TWO }
+     */
+    public default long[] solveBoth() {
+        return new long[] { solvePartOne(), solvePartTwo() };
+    }
+
+    /**
+     * The names of the strategies this challenge can solve with, the default
+     * first. A challenge with only one algorithm has just the DEFAULT_STRATEGY.
+     * @return the names of the strategies
+     */
+    public List<String> getStrategies();
+
+    /**
+     * The name of the strategy used to solve
+     * @return the name of the strategy
+     */
+    public String getStrategy();
+
+    /**
+     * Choose the strategy used to solve. Choose before solving, as solves which
+     * have already started carry on with the previous strategy.
+     * @param name the name of the strategy, or DEFAULT_STRATEGY
+     * @throws IllegalArgumentException if the challenge has no such strategy
+     */
+    public void setStrategy(String name) throws IllegalArgumentException;
+
+    /**
+     * Set the puzzle input, measuring the time taken as the PARSE phase
+     * 
+     * @param input the puzzle input
+     */
+    public void timedSetPuzzleInput(Stream<String> input);
+
+    /**
+     * Set the puzzle input from raw bytes, measuring the time taken as the PARSE
+     * phase
+     * 
+     * @param input the puzzle input
+     */
+    public void timedSetPuzzleInput(ByteInput input);
+
+    /**
+     * Solve part one, measuring the time taken as the PART_ONE phase
+     * 
+     * @return the result
+     */
+    public long timedSolvePartOne();
+
+    /**
+     * Solve part two, measuring the time taken as the PART_TWO phase
+     * 
+     * @return the result
+     */
+    public long timedSolvePartTwo();
+
+    /**
+     * Solve both parts, measuring the time taken as the BOTH_PARTS phase
+     * 
+     * @return the results, formatted as { PART_ONE, PART_TWO }
+     */
+    public long[] timedSolveBoth();
+
+    /**
+     * Record the measurements for a phase which runs outside the challenge, such
+     * as loading the input
+     * 
+     * @param phase  the phase
+     * @param timing the measurements
+     */
+    public void recordTiming(Phase phase, PhaseTiming timing);
+
+    /**
+     * The most recent measurements of each phase that has been run
+     * 
+     * @return the measurements, by phase
+     */
+    public Map<Phase, PhaseTiming> getTimings();
+
+    /**
+     * The counts of events in the hot loops of the challenge, accumulated over
+     * every solve by this instance. The counts are all zero unless counters are
+     * switched on, see Counter.
+     * 
+     * @return the counts, by counter name
+     */
+    public Map<String, Long> getCounters();
+
+    /**
+     * Set the token which cancels long running solves. Once the token is
+     * cancelled, the challenge stops at its next checkpoint by throwing a
+     * CancellationException.
+     * 
+     * @param token the token, or null to never cancel
+     */
+    public void setCancellationToken(CancellationToken token);
+
+    /**
+     * Set the listener which receives progress reports from long running solves
+     * 
+     * @param listener the listener, or null for no progress reports
+     */
+    public void setProgressListener(ProgressListener listener);
+}
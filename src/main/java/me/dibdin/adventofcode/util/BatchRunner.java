@@ -0,0 +1,491 @@
+package me.dibdin.adventofcode.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import me.dibdin.adventofcode.Challenge;
+
+/**
+ * Solves a batch of challenges in parallel, using a work stealing pool.
+ *
+ * Each challenge is split into load, parse and solve stages, which are
+ * submitted to the pool as separate tasks, so the input of one challenge can
+ * be loaded and parsed while another challenge is being solved.
+ *
+ * Given a cost model, the runner schedules the batch instead. Every challenge
+ * is loaded first, so the size of each input is known, then the parsing and
+ * solving are queued longest first, by the estimate of the model. Challenges
+ * which don't share work between their parts have each part queued as a
+ * separate task once parsed, so the slowest part of the batch starts as soon
+ * as possible, and a batch takes not much longer than its slowest part. The
+ * timings of the batch are recorded in the model, to improve the next
+ * schedule.
+ */
+public class BatchRunner {
+
+    private final ForkJoinPool pool;
+    private final ThreadPoolExecutor scheduler;
+    private final AtomicLong sequence = new AtomicLong();
+    private CostModel costModel = null;
+    private ResultCache cache = null;
+    private SnapshotCache snapshots = null;
+    private Duration timeout = null;
+    private boolean parallelParts = false;
+
+    /**
+     * Helper class to carry a challenge through the stages of the batch
+     */
+    private class Job {
+        private final ChallengeResult result;
+        private Challenge challenge = null;
+        private ByteInput input = null;
+        private long inputBytes = 0;
+        private String cacheKey = null;
+        private long[] cachedResults = null;
+
+        private Job(ChallengeId id) {
+            result = new ChallengeResult(id);
+        }
+    }
+
+    /**
+     * Helper class to queue the tasks of a scheduled batch, longest first, and
+     * otherwise in the order they were queued
+     */
+    private static class Task implements Runnable, Comparable<Task> {
+        private final long cost;
+        private final long order;
+        private final Runnable body;
+
+        private Task(long cost, long order, Runnable body) {
+            this.cost = cost;
+            this.order = order;
+            this.body = body;
+        }
+
+        @Override
+        public void run() {
+            body.run();
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            int compare = Long.compare(other.cost, cost);
+            return (compare != 0) ? compare : Long.compare(order, other.order);
+        }
+    }
+
+    /**
+     * Create a runner which uses the specified number of threads
+     *
+     * @param parallelism the number of threads to use
+     */
+    public BatchRunner(int parallelism) {
+        pool = new ForkJoinPool(parallelism);
+        scheduler = new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<Runnable>(), runnable -> {
+                    Thread thread = new Thread(runnable, "batch-scheduler");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Create a runner which uses every available processor
+     */
+    public BatchRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Schedule the batch longest first, using a model of how long each challenge
+     * takes, and record the timings of the batch in the model
+     *
+     * @param costModel the model, or null to start every challenge at once, in
+     *                  the order requested
+     */
+    public void setCostModel(CostModel costModel) {
+        this.costModel = costModel;
+    }
+
+    /**
+     * Use a cache of results, so that challenges which have already been solved
+     * with the same input and solution are not solved again
+     *
+     * @param cache the cache, or null to always solve
+     */
+    public void setResultCache(ResultCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Use a cache of parsed puzzle input, so that challenges which support
+     * snapshots don't have to parse the same input again
+     *
+     * @param snapshots the cache, or null to always parse
+     */
+    public void setSnapshotCache(SnapshotCache snapshots) {
+        this.snapshots = snapshots;
+    }
+
+    /**
+     * Limit how long each challenge may spend parsing and solving. Challenges
+     * which take longer are cancelled, and reported as errors.
+     *
+     * @param timeout the time limit for each challenge, or null for no limit
+     */
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Solve part one and part two of each challenge as separate tasks, which can
+     * run at the same time, rather than solving both parts together. Challenges
+     * which share work between the parts will repeat that work. When scheduling
+     * with a cost model, the parts of challenges which share no work are always
+     * solved separately.
+     *
+     * @param parallelParts true to solve the parts separately
+     */
+    public void setParallelParts(boolean parallelParts) {
+        this.parallelParts = parallelParts;
+    }
+
+    /**
+     * Solve every challenge that has a solution
+     *
+     * @return the results, in year and day order
+     */
+    public List<ChallengeResult> runAll() {
+        return run(ChallengeFactory.getAvailableChallenges());
+    }
+
+    /**
+     * Solve the requested challenges
+     *
+     * @param ids the year and day of each challenge to solve
+     * @return the results, in the same order as the request
+     */
+    public List<ChallengeResult> run(List<ChallengeId> ids) {
+        if (costModel != null) {
+            return runScheduled(ids);
+        }
+
+        // start all the jobs, with each stage as a separate task in the pool
+        ArrayList<CompletableFuture<ChallengeResult>> futures = new ArrayList<CompletableFuture<ChallengeResult>>();
+        for (ChallengeId id : ids) {
+            Job job = new Job(id);
+            futures.add(CompletableFuture.supplyAsync(() -> load(job), pool)
+                    .thenApplyAsync(this::parse, pool)
+                    .thenComposeAsync(this::solve, pool)
+                    .handle((result, error) -> complete(job, error)));
+        }
+
+        return joinAll(futures);
+    }
+
+    /**
+     * Solve the requested challenges, loading them all, then parsing and solving
+     * them longest first
+     *
+     * @param ids the year and day of each challenge to solve
+     * @return the results, in the same order as the request
+     */
+    private List<ChallengeResult> runScheduled(List<ChallengeId> ids) {
+
+        // load every challenge, to find the size of each input
+        ArrayList<Job> jobs = new ArrayList<Job>();
+        ArrayList<CompletableFuture<Job>> loads = new ArrayList<CompletableFuture<Job>>();
+        for (ChallengeId id : ids) {
+            Job job = new Job(id);
+            jobs.add(job);
+            loads.add(CompletableFuture.supplyAsync(() -> load(job), pool));
+        }
+
+        // then queue the rest of each job, longest first
+        ArrayList<CompletableFuture<ChallengeResult>> futures = new ArrayList<CompletableFuture<ChallengeResult>>();
+        ArrayList<Task> tasks = new ArrayList<Task>();
+        for (int i = 0; i < jobs.size(); i++) {
+            Job job = jobs.get(i);
+            CompletableFuture<ChallengeResult> future = new CompletableFuture<ChallengeResult>();
+            try {
+                loads.get(i).join();
+                if (job.cachedResults != null) {
+                    job.result.setCached(true);
+                    future.complete(setResults(job, job.cachedResults));
+                } else {
+                    tasks.add(createParseTask(job, future));
+                }
+            } catch (CompletionException e) {
+                future.completeExceptionally(e.getCause());
+            }
+            futures.add(future.handle((result, error) -> complete(job, error)));
+        }
+
+        // queue the longest first, as an idle thread takes each task as soon as it
+        // is queued
+        tasks.sort(null);
+        for (Task task : tasks) {
+            scheduler.execute(task);
+        }
+
+        return joinAll(futures);
+    }
+
+    /**
+     * Create the task to parse a challenge, and then solve it, or queue its parts
+     * to be solved separately
+     *
+     * @param job    the job to parse and solve
+     * @param future completed with the result, once solved
+     * @return the task, costed at the estimate of parsing and then solving
+     */
+    private Task createParseTask(Job job, CompletableFuture<ChallengeResult> future) {
+        ChallengeId id = job.result.getId();
+        long parseCost = costModel.estimate(id, Phase.PARSE, job.inputBytes);
+
+        if (!parallelParts && !hasIndependentParts(job.challenge)) {
+            long cost = parseCost + costModel.estimate(id, Phase.BOTH_PARTS, job.inputBytes);
+            return createTask(cost, () -> {
+                try {
+                    parse(job);
+                    future.complete(cacheResults(job, job.challenge.timedSolveBoth()));
+                } catch (RuntimeException | Error e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        }
+
+        long partOneCost = costModel.estimate(id, Phase.PART_ONE, job.inputBytes);
+        long partTwoCost = costModel.estimate(id, Phase.PART_TWO, job.inputBytes);
+        return createTask(parseCost + Math.max(partOneCost, partTwoCost), () -> {
+            try {
+                parse(job);
+            } catch (RuntimeException | Error e) {
+                future.completeExceptionally(e);
+                return;
+            }
+
+            CompletableFuture<Long> partOne = new CompletableFuture<Long>();
+            CompletableFuture<Long> partTwo = new CompletableFuture<Long>();
+            scheduler.execute(createTask(partOneCost, () -> solvePart(job.challenge::timedSolvePartOne, partOne)));
+            scheduler.execute(createTask(partTwoCost, () -> solvePart(job.challenge::timedSolvePartTwo, partTwo)));
+            partOne.thenCombine(partTwo, (one, two) -> cacheResults(job, new long[] { one, two }))
+                    .whenComplete((result, error) -> {
+                        if (error != null) {
+                            future.completeExceptionally(
+                                    (error instanceof CompletionException) ? error.getCause() : error);
+                        } else {
+                            future.complete(result);
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Create a task, ordered after any other task of the same cost
+     *
+     * @param cost the estimated time of the task, in nanoseconds
+     * @param body what the task does
+     * @return the task
+     */
+    private Task createTask(long cost, Runnable body) {
+        return new Task(cost, sequence.getAndIncrement(), body);
+    }
+
+    /**
+     * Solve one part of a challenge
+     *
+     * @param part   the part to solve
+     * @param future completed with the answer, or the error
+     */
+    private static void solvePart(Supplier<Long> part, CompletableFuture<Long> future) {
+        try {
+            future.complete(part.get());
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Whether a challenge solves its two parts without sharing any work, so they
+     * can be solved separately for no more work than solving both together
+     *
+     * @param challenge the challenge
+     * @return true if the challenge doesn't override solveBoth
+     */
+    private static boolean hasIndependentParts(Challenge challenge) {
+        try {
+            return challenge.getClass().getMethod("solveBoth").getDeclaringClass() == Challenge.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Finish the result of a job, whether it was solved or not, and record its
+     * timings in the cost model
+     *
+     * @param job   the job
+     * @param error the error which stopped the job, or null if it was solved
+     * @return the result of the job
+     */
+    private ChallengeResult complete(Job job, Throwable error) {
+        if (job.challenge != null) {
+            job.result.setTimings(job.challenge.getTimings());
+            job.result.setCounters(job.challenge.getCounters());
+        }
+        if (error != null) {
+            job.result.setError((error instanceof CompletionException) ? error.getCause() : error);
+        } else if ((costModel != null) && !job.result.isCached()) {
+            costModel.record(job.result.getId(), job.inputBytes, job.result.getTimings());
+        }
+        return job.result;
+    }
+
+    /**
+     * Wait for every job to complete
+     *
+     * @param futures the result of each job
+     * @return the results, in the same order
+     */
+    private static List<ChallengeResult> joinAll(List<CompletableFuture<ChallengeResult>> futures) {
+        ArrayList<ChallengeResult> results = new ArrayList<ChallengeResult>();
+        for (CompletableFuture<ChallengeResult> future : futures) {
+            results.add(future.join());
+        }
+
+        return results;
+    }
+
+    /**
+     * Shut down the threads used by the runner
+     */
+    public void shutdown() {
+        pool.shutdown();
+        scheduler.shutdown();
+    }
+
+    /**
+     * Create the challenge, and memory-map the puzzle input
+     *
+     * @param job the job to load
+     * @return the job
+     */
+    private Job load(Job job) {
+        PhaseTimer timer = PhaseTimer.start();
+        ChallengeId id = job.result.getId();
+        ChallengeEvent event;
+
+        try {
+            job.challenge = ChallengeFactory.getChallengeInstance(id.getYear(), id.getDay());
+            event = ChallengeEvent.begin(job.challenge, Phase.LOAD);
+            job.result.setName(job.challenge.getName());
+            job.input = ByteInput.forPuzzle(id.getYear(), id.getDay());
+            job.inputBytes = job.input.size();
+
+            // check for a previous result
+            if (cache != null) {
+                job.cacheKey = ResultCache.createKey(job.challenge, job.input);
+                job.cachedResults = cache.get(job.cacheKey);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Unable to create challenge " + id, e);
+        }
+
+        job.challenge.recordTiming(Phase.LOAD, timer.stop());
+        event.commit();
+        return job;
+    }
+
+    /**
+     * Parse the puzzle input, or restore it from a snapshot, unless the results
+     * were cached
+     *
+     * @param job the job to parse
+     * @return the job
+     */
+    private Job parse(Job job) {
+        if (job.cachedResults == null) {
+            if (timeout != null) {
+                job.challenge.setCancellationToken(new CancellationToken(timeout));
+            }
+            if (snapshots != null) {
+                try {
+                    snapshots.setPuzzleInput(job.challenge, job.input);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            } else {
+                job.challenge.timedSetPuzzleInput(job.input);
+            }
+        }
+        job.input = null;
+        return job;
+    }
+
+    /**
+     * Solve both parts of the challenge, unless the results were cached
+     *
+     * @param job the job to solve
+     * @return the result, once both parts are solved
+     */
+    private CompletableFuture<ChallengeResult> solve(Job job) {
+        if (job.cachedResults != null) {
+            job.result.setCached(true);
+            return CompletableFuture.completedFuture(setResults(job, job.cachedResults));
+        }
+
+        if (parallelParts) {
+            CompletableFuture<Long> partOne = CompletableFuture.supplyAsync(job.challenge::timedSolvePartOne, pool);
+            CompletableFuture<Long> partTwo = CompletableFuture.supplyAsync(job.challenge::timedSolvePartTwo, pool);
+            return partOne.thenCombine(partTwo, (one, two) -> cacheResults(job, new long[] { one, two }));
+        }
+
+        return CompletableFuture.completedFuture(cacheResults(job, job.challenge.timedSolveBoth()));
+    }
+
+    /**
+     * Store newly solved results in the cache, and in the result of the job
+     *
+     * @param job     the job which was solved
+     * @param results the results, formatted as { PART_ONE, PART_TWO }
+     * @return the result of the job
+     */
+    private ChallengeResult cacheResults(Job job, long[] results) {
+        if (cache != null) {
+            try {
+                cache.put(job.cacheKey, results);
+            } catch (IOException e) {
+                // the results are still good, even if they can't be cached
+            }
+        }
+        return setResults(job, results);
+    }
+
+    /**
+     * Store the results in the result of the job
+     *
+     * @param job     the job which was solved
+     * @param results the results, formatted as { PART_ONE, PART_TWO }
+     * @return the result of the job
+     */
+    private ChallengeResult setResults(Job job, long[] results) {
+        job.result.setPartOne(results[0]);
+        job.result.setPartTwo(results[1]);
+        return job.result;
+    }
+}
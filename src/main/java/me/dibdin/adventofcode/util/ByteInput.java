@@ -0,0 +1,179 @@
+package me.dibdin.adventofcode.util;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Puzzle input held as raw bytes, normally memory-mapped from a file, so
+ * challenges can parse it without decoding every line into a String first.
+ *
+ * Use lines() to walk through the input with a LineCursor, or toLines() to
+ * decode it for challenges which only accept a stream of Strings.
+ */
+public class ByteInput {
+
+    /**
+     * The temporary file each resource inside a jar has been extracted to, so
+     * that repeated solves of the same resource reuse one file
+     */
+    private static final Map<String, Path> EXTRACTED = new ConcurrentHashMap<String, Path>();
+
+    private final ByteBuffer buffer;
+
+    /**
+     * Create a new input from a buffer
+     *
+     * @param buffer the bytes of the input, from position zero to the limit
+     */
+    private ByteInput(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Memory-map a file as puzzle input
+     *
+     * @param path the file to map
+     * @return the input
+     * @throws IOException if the file can't be mapped
+     */
+    public static ByteInput map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new ByteInput(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Use an array of bytes as puzzle input, without copying it
+     *
+     * @param bytes the bytes of the input
+     * @return the input
+     */
+    public static ByteInput wrap(byte[] bytes) {
+        return new ByteInput(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Memory-map a resource on the classpath. If the resource is inside a jar, it
+     * is first extracted to a temporary file, once for each resource.
+     *
+     * @param name the name of the resource
+     * @return the input
+     * @throws IOException if the resource can't be found or mapped
+     */
+    public static ByteInput forResource(String name) throws IOException {
+        URL url = ClassLoader.getSystemResource(name);
+        if (url == null) {
+            throw new FileNotFoundException("Unable to find puzzle input " + name);
+        }
+
+        if (url.getProtocol().equals("file")) {
+            try {
+                return map(Paths.get(url.toURI()));
+            } catch (URISyntaxException e) {
+                throw new IOException("Invalid resource location " + url, e);
+            }
+        }
+
+        return map(extract(name, url));
+    }
+
+    /**
+     * Extract a resource to a temporary file, so that it can be mapped, or find
+     * the file it has already been extracted to
+     *
+     * @param name the name of the resource
+     * @param url  the location of the resource
+     * @return the extracted file, which is deleted when the JVM exits
+     * @throws IOException if the resource can't be extracted
+     */
+    static Path extract(String name, URL url) throws IOException {
+        try {
+            return EXTRACTED.compute(name, (key, existing) -> {
+                if ((existing != null) && Files.exists(existing)) {
+                    return existing;
+                }
+
+                try {
+                    Path extracted = (existing != null) ? existing : Files.createTempFile("adventofcode", ".txt");
+                    if (existing == null) {
+                        extracted.toFile().deleteOnExit();
+                    }
+                    try (InputStream stream = url.openStream()) {
+                        Files.copy(stream, extracted, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                    return extracted;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Memory-map the bundled puzzle input for a challenge
+     *
+     * @param year the year of the challenge
+     * @param day  the day of the challenge
+     * @return the input
+     * @throws IOException if the input can't be found or mapped
+     */
+    public static ByteInput forPuzzle(int year, int day) throws IOException {
+        return forResource(PuzzleInput.getResourceName(year, day));
+    }
+
+    /**
+     * The size of the input
+     *
+     * @return the number of bytes
+     */
+    public int size() {
+        return buffer.limit();
+    }
+
+    /**
+     * A read-only view of the bytes of the input
+     *
+     * @return the bytes, from position zero to the limit
+     */
+    public ByteBuffer getBuffer() {
+        return buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * Create a new cursor, positioned before the first line of the input
+     *
+     * @return the cursor
+     */
+    public LineCursor lines() {
+        return new LineCursor(buffer);
+    }
+
+    /**
+     * Decode the input as a stream of lines, with the same line endings as
+     * BufferedReader.lines()
+     *
+     * @return the lines of the input
+     */
+    public Stream<String> toLines() {
+        ByteBuffer view = buffer.duplicate();
+        view.position(0);
+        return StandardCharsets.UTF_8.decode(view).toString().lines();
+    }
+}
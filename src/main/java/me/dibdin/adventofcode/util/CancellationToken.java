@@ -0,0 +1,67 @@
+package me.dibdin.adventofcode.util;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Asks a long running challenge to stop, either on request or once a deadline
+ * has passed.
+ *
+ * Cancellation is cooperative: challenges call checkpoint() from their long
+ * loops, which throws a CancellationException once the token is cancelled.
+ */
+public class CancellationToken {
+
+    private final long deadline;
+    private final boolean hasDeadline;
+    private volatile boolean cancelled = false;
+
+    /**
+     * Create a token which is only cancelled on request
+     */
+    public CancellationToken() {
+        this.deadline = 0;
+        this.hasDeadline = false;
+    }
+
+    /**
+     * Create a token which is cancelled on request, or automatically once the
+     * timeout has passed
+     *
+     * @param timeout how long until the token is cancelled
+     */
+    public CancellationToken(Duration timeout) {
+        this.deadline = System.nanoTime() + timeout.toNanos();
+        this.hasDeadline = true;
+    }
+
+    /**
+     * Cancel the token
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Has the token been cancelled, or its deadline passed?
+     *
+     * @return true if cancelled
+     */
+    public boolean isCancelled() {
+        if (!cancelled && hasDeadline && ((System.nanoTime() - deadline) >= 0)) {
+            cancelled = true;
+        }
+        return cancelled;
+    }
+
+    /**
+     * Stop if the token has been cancelled
+     *
+     * @throws CancellationException if the token has been cancelled
+     */
+    public void checkpoint() throws CancellationException {
+        if (isCancelled()) {
+            throw new CancellationException(hasDeadline ? "Deadline exceeded" : "Cancelled");
+        }
+    }
+}
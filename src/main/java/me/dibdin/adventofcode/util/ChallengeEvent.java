@@ -0,0 +1,53 @@
+package me.dibdin.adventofcode.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import me.dibdin.adventofcode.Challenge;
+
+/**
+ * A Java Flight Recorder event for one phase of a challenge, such as loading
+ * the input or solving part one. Recorded whenever a flight recording is
+ * running, so production runs can be profiled without an external profiler.
+ */
+@Name("adventofcode.ChallengePhase")
+@Label("Challenge Phase")
+@Description("Loading, parsing or solving a challenge")
+@Category("Advent of Code")
+@StackTrace(false)
+public class ChallengeEvent extends jdk.jfr.Event {
+
+    @Label("Year")
+    int year;
+
+    @Label("Day")
+    int day;
+
+    @Label("Name")
+    String name;
+
+    @Label("Phase")
+    String phase;
+
+    /**
+     * Create an event, and start timing it
+     *
+     * @param challenge the challenge
+     * @param phase     the phase of the challenge
+     * @return the event, to be committed when the phase ends
+     */
+    public static ChallengeEvent begin(Challenge challenge, Phase phase) {
+        ChallengeEvent event = new ChallengeEvent();
+        if (event.isEnabled()) {
+            event.year = challenge.getYear();
+            event.day = challenge.getDay();
+            event.name = challenge.getName();
+            event.phase = phase.getDescription();
+            event.begin();
+        }
+        return event;
+    }
+}
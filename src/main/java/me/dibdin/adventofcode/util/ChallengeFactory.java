@@ -1,6 +1,7 @@
 package me.dibdin.adventofcode.util;
 
-import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.function.Supplier;
 
 import me.dibdin.adventofcode.Challenge;
 
@@ -11,21 +12,87 @@ public class ChallengeFactory {
 
     /**
      * Returns a new instance of the challenge for the specied year and day
-     * 
+     *
      * @param year the year of the challenge
      * @param day  the day of the challenge
      * @return a new instance of the challenge
-     * @throws ClassNotFoundException
-     * @throws NoSuchMethodException
-     * @throws InstantiationException
-     * @throws IllegalAccessException
-     * @throws InvocationTargetException
+     * @throws ClassNotFoundException if there is no solution for the year and day
      */
-    public static Challenge getChallengeInstance(int year, int day) throws ClassNotFoundException,
-            NoSuchMethodException, InstantiationException, IllegalAccessException, InvocationTargetException {
+    public static Challenge getChallengeInstance(int year, int day) throws ClassNotFoundException {
+        return getChallengeConstructor(year, day).get();
+    }
+
+    /**
+     * Returns the constructor of the challenge for the specified year and day, so
+     * that new instances can be created repeatedly without looking it up again
+     *
+     * @param year the year of the challenge
+     * @param day  the day of the challenge
+     * @return the constructor
+     * @throws ClassNotFoundException if there is no solution for the year and day
+     */
+    public static Supplier<Challenge> getChallengeConstructor(int year, int day) throws ClassNotFoundException {
+        Supplier<Challenge> constructor = ChallengeRegistry.getConstructor(year, day);
+        if (constructor == null) {
+            throw new ClassNotFoundException(String.format("No challenge registered for year %d, day %d", year, day));
+        }
+        return constructor;
+    }
 
-        // find the class, then call it's constructor
-        String name = String.format("me.dibdin.adventofcode.year%d.Day%d", year, day);
-        return (Challenge) Class.forName(name).getConstructor().newInstance();
+    /**
+     * Returns a new instance of the challenge for the specified year and day,
+     * which solves with the specified strategy
+     *
+     * @param year     the year of the challenge
+     * @param day      the day of the challenge
+     * @param strategy the name of the strategy, see Challenge.getStrategies
+     * @return a new instance of the challenge
+     * @throws ClassNotFoundException   if there is no solution for the year and
+     *                                  day
+     * @throws IllegalArgumentException if the challenge has no such strategy
+     */
+    public static Challenge getChallengeInstance(int year, int day, String strategy)
+            throws ClassNotFoundException, IllegalArgumentException {
+        Challenge challenge = getChallengeConstructor(year, day).get();
+        challenge.setStrategy(strategy);
+        return challenge;
+    }
+
+    /**
+     * Returns a constructor of the challenge for the specified year and day,
+     * whose instances solve with the specified strategy
+     *
+     * @param year     the year of the challenge
+     * @param day      the day of the challenge
+     * @param strategy the name of the strategy, see Challenge.getStrategies
+     * @return the constructor
+     * @throws ClassNotFoundException   if there is no solution for the year and
+     *                                  day
+     * @throws IllegalArgumentException if the challenge has no such strategy
+     */
+    public static Supplier<Challenge> getChallengeConstructor(int year, int day, String strategy)
+            throws ClassNotFoundException, IllegalArgumentException {
+        Supplier<Challenge> constructor = getChallengeConstructor(year, day);
+        if (strategy.equals(Challenge.DEFAULT_STRATEGY)) {
+            return constructor;
+        }
+
+        // check the strategy exists now, rather than on every instance
+        constructor.get().setStrategy(strategy);
+        return () -> {
+            Challenge challenge = constructor.get();
+            challenge.setStrategy(strategy);
+            return challenge;
+        };
+    }
+
+    /**
+     * Returns the list of all the challenges which have a solution, in year and
+     * day order
+     *
+     * @return the year and day of each available challenge
+     */
+    public static List<ChallengeId> getAvailableChallenges() {
+        return ChallengeRegistry.getAvailableChallenges();
     }
-}
\ No newline at end of file
+}
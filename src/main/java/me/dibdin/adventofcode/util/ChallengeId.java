@@ -0,0 +1,88 @@
+package me.dibdin.adventofcode.util;
+
+/**
+ * Identifies a challenge by its year and day
+ */
+public class ChallengeId implements Comparable<ChallengeId> {
+    private final int year;
+    private final int day;
+
+    /**
+     * Create a new identifier for the specified year and day
+     *
+     * @param year the year of the challenge
+     * @param day  the day of the challenge
+     */
+    public ChallengeId(int year, int day) {
+        this.year = year;
+        this.day = day;
+    }
+
+    /**
+     * The year of the challenge
+     *
+     * @return the year
+     */
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * The day of the challenge
+     *
+     * @return the day
+     */
+    public int getDay() {
+        return day;
+    }
+
+    /**
+     * Order by year, then by day
+     *
+     * @param other the identifier to compare with
+     * @return negative, zero or positive as this is before, equal to or after other
+     */
+    @Override
+    public int compareTo(ChallengeId other) {
+        if (year != other.year) {
+            return Integer.compare(year, other.year);
+        }
+        return Integer.compare(day, other.day);
+    }
+
+    /**
+     * Returns true if the given object has the same year and day
+     *
+     * @param obj The object to compare for equality
+     * @return True if equal, otherwise false
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof ChallengeId) {
+            ChallengeId other = (ChallengeId) obj;
+            return ((year == other.year) && (day == other.day));
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Return the hashcode for this identifier
+     *
+     * @return the hashcode
+     */
+    @Override
+    public int hashCode() {
+        return (31 * year) + day;
+    }
+
+    /**
+     * Returns a string representation, in the format of "year/day"
+     *
+     * @return the formatted string
+     */
+    @Override
+    public String toString() {
+        return String.format("%d/%d", year, day);
+    }
+}
@@ -0,0 +1,191 @@
+package me.dibdin.adventofcode.util;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import me.dibdin.adventofcode.Challenge;
+
+/**
+ * The live and historical metrics of one challenge, by year and day, fed by
+ * SolverMetrics as phases of any instance of the challenge start and end.
+ *
+ * Each thread can be running one phase of the challenge at a time, so the
+ * parts of a challenge being solved concurrently are tracked separately.
+ */
+public class ChallengeMetrics implements ChallengeMetricsMXBean {
+
+    private final ChallengeId id;
+    private final String name;
+
+    // the phase each thread is running now, and when it started
+    private final ConcurrentHashMap<Thread, RunningPhase> running = new ConcurrentHashMap<Thread, RunningPhase>();
+
+    // guarded by this
+    private final EnumMap<Phase, Long> completed = new EnumMap<Phase, Long>(Phase.class);
+    private final EnumMap<Phase, Long> lastWallNanos = new EnumMap<Phase, Long>(Phase.class);
+    private long totalWallNanos = 0;
+    private long failures = 0;
+    private Map<String, Long> counters = new LinkedHashMap<String, Long>();
+
+    /**
+     * Helper class to hold a phase which is running
+     */
+    private static class RunningPhase {
+        private final Phase phase;
+        private final long startNanos;
+
+        private RunningPhase(Phase phase, long startNanos) {
+            this.phase = phase;
+            this.startNanos = startNanos;
+        }
+    }
+
+    /**
+     * Create the metrics for a challenge
+     *
+     * @param id   the year and day of the challenge
+     * @param name the name of the challenge
+     */
+    public ChallengeMetrics(ChallengeId id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    /**
+     * Record that the current thread has started a phase
+     *
+     * @param phase the phase
+     */
+    void phaseStarted(Phase phase) {
+        running.put(Thread.currentThread(), new RunningPhase(phase, System.nanoTime()));
+    }
+
+    /**
+     * Record that a phase has completed, on the current thread
+     *
+     * @param challenge the instance which completed the phase
+     * @param phase     the phase
+     * @param timing    the measurements of the phase
+     */
+    void phaseCompleted(Challenge challenge, Phase phase, PhaseTiming timing) {
+        running.remove(Thread.currentThread());
+        Map<String, Long> values = challenge.getCounters();
+
+        synchronized (this) {
+            completed.merge(phase, 1L, Long::sum);
+            lastWallNanos.put(phase, timing.getWallNanos());
+            totalWallNanos += timing.getWallNanos();
+            if (!values.isEmpty()) {
+                counters = values;
+            }
+        }
+    }
+
+    /**
+     * Record that the phase the current thread was running has failed
+     */
+    void phaseFailed() {
+        if (running.remove(Thread.currentThread()) != null) {
+            synchronized (this) {
+                failures++;
+            }
+        }
+    }
+
+    @Override
+    public int getYear() {
+        return id.getYear();
+    }
+
+    @Override
+    public int getDay() {
+        return id.getDay();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return !running.isEmpty();
+    }
+
+    @Override
+    public String getCurrentPhase() {
+        RunningPhase latest = latestRunning();
+        return (latest == null) ? "" : latest.phase.getDescription();
+    }
+
+    @Override
+    public double getCurrentPhaseElapsedMillis() {
+        RunningPhase latest = latestRunning();
+        return (latest == null) ? 0 : ((System.nanoTime() - latest.startNanos) / 1_000_000.0);
+    }
+
+    @Override
+    public synchronized long getSolveCount() {
+        return completed.getOrDefault(Phase.PART_ONE, 0L) + completed.getOrDefault(Phase.PART_TWO, 0L)
+                + completed.getOrDefault(Phase.BOTH_PARTS, 0L);
+    }
+
+    @Override
+    public synchronized long getFailureCount() {
+        return failures;
+    }
+
+    @Override
+    public synchronized Map<String, Long> getCompletedPhases() {
+        LinkedHashMap<String, Long> values = new LinkedHashMap<String, Long>();
+        for (Map.Entry<Phase, Long> entry : completed.entrySet()) {
+            values.put(entry.getKey().getDescription(), entry.getValue());
+        }
+        return values;
+    }
+
+    @Override
+    public synchronized Map<String, Double> getLastPhaseMillis() {
+        LinkedHashMap<String, Double> values = new LinkedHashMap<String, Double>();
+        for (Map.Entry<Phase, Long> entry : lastWallNanos.entrySet()) {
+            values.put(entry.getKey().getDescription(), entry.getValue() / 1_000_000.0);
+        }
+        return values;
+    }
+
+    @Override
+    public synchronized double getTotalMillis() {
+        return totalWallNanos / 1_000_000.0;
+    }
+
+    @Override
+    public synchronized Map<String, Long> getCounters() {
+        return new LinkedHashMap<String, Long>(counters);
+    }
+
+    @Override
+    public synchronized void resetStatistics() {
+        completed.clear();
+        lastWallNanos.clear();
+        totalWallNanos = 0;
+        failures = 0;
+        counters = new LinkedHashMap<String, Long>();
+    }
+
+    /**
+     * Find the phase which started most recently, of those running now
+     *
+     * @return the phase, or null if none are running
+     */
+    private RunningPhase latestRunning() {
+        RunningPhase latest = null;
+        for (RunningPhase phase : running.values()) {
+            if ((latest == null) || (phase.startNanos > latest.startNanos)) {
+                latest = phase;
+            }
+        }
+        return latest;
+    }
+}
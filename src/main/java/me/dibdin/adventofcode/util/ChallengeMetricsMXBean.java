@@ -0,0 +1,100 @@
+package me.dibdin.adventofcode.util;
+
+import java.util.Map;
+
+/**
+ * JMX view of the live and historical metrics of one challenge, by year and
+ * day, across every instance of the challenge
+ */
+public interface ChallengeMetricsMXBean {
+
+    /**
+     * The year of the challenge
+     *
+     * @return the year
+     */
+    public int getYear();
+
+    /**
+     * The day of the challenge
+     *
+     * @return the day
+     */
+    public int getDay();
+
+    /**
+     * The name of the challenge
+     *
+     * @return the name
+     */
+    public String getName();
+
+    /**
+     * Is any instance of the challenge running a phase now?
+     *
+     * @return true if running
+     */
+    public boolean isRunning();
+
+    /**
+     * The phase most recently started, if the challenge is running
+     *
+     * @return the description of the phase, or an empty string if not running
+     */
+    public String getCurrentPhase();
+
+    /**
+     * How long the phase most recently started has been running
+     *
+     * @return the time in milliseconds, or zero if not running
+     */
+    public double getCurrentPhaseElapsedMillis();
+
+    /**
+     * The number of times part one, part two or both parts have been solved
+     *
+     * @return the count
+     */
+    public long getSolveCount();
+
+    /**
+     * The number of phases which ended with an error, or were cancelled
+     *
+     * @return the count
+     */
+    public long getFailureCount();
+
+    /**
+     * The number of times each phase has completed
+     *
+     * @return the counts, by phase description
+     */
+    public Map<String, Long> getCompletedPhases();
+
+    /**
+     * The wall clock time of the most recent run of each phase
+     *
+     * @return the times in milliseconds, by phase description
+     */
+    public Map<String, Double> getLastPhaseMillis();
+
+    /**
+     * The total wall clock time of every completed phase
+     *
+     * @return the time in milliseconds
+     */
+    public double getTotalMillis();
+
+    /**
+     * The hot loop counters of the instance which most recently completed a
+     * phase, see Counter
+     *
+     * @return the counts, by counter name
+     */
+    public Map<String, Long> getCounters();
+
+    /**
+     * Reset every count and time to zero
+     */
+    public void resetStatistics();
+}
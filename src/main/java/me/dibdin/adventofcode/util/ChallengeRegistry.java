@@ -0,0 +1,117 @@
+package me.dibdin.adventofcode.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import me.dibdin.adventofcode.Challenge;
+
+/**
+ * Registry of every challenge that has a solution, mapping the year and day
+ * to the constructor of the class which solves it.
+ *
+ * The constructors are referenced directly, so a missing or renamed class is
+ * a compile error, and new instances are created without any reflection. Add
+ * new days to the table below as they are solved.
+ */
+public class ChallengeRegistry {
+
+    /**
+     * The constructors, indexed by year and day
+     */
+    private static final Map<ChallengeId, Supplier<Challenge>> CONSTRUCTORS = createRegistry();
+
+    /**
+     * The available challenges, in year and day order
+     */
+    private static final List<ChallengeId> AVAILABLE = createAvailableList();
+
+    /**
+     * Build the table of constructors
+     *
+     * @return the table
+     */
+    private static Map<ChallengeId, Supplier<Challenge>> createRegistry() {
+        HashMap<ChallengeId, Supplier<Challenge>> registry = new HashMap<ChallengeId, Supplier<Challenge>>();
+
+        // Year 2020
+        register(registry, 2020, 1, me.dibdin.adventofcode.year2020.Day1::new);
+        register(registry, 2020, 2, me.dibdin.adventofcode.year2020.Day2::new);
+        register(registry, 2020, 3, me.dibdin.adventofcode.year2020.Day3::new);
+        register(registry, 2020, 4, me.dibdin.adventofcode.year2020.Day4::new);
+        register(registry, 2020, 5, me.dibdin.adventofcode.year2020.Day5::new);
+        register(registry, 2020, 6, me.dibdin.adventofcode.year2020.Day6::new);
+        register(registry, 2020, 7, me.dibdin.adventofcode.year2020.Day7::new);
+
+        // Year 2021
+        register(registry, 2021, 1, me.dibdin.adventofcode.year2021.Day1::new);
+        register(registry, 2021, 2, me.dibdin.adventofcode.year2021.Day2::new);
+        register(registry, 2021, 3, me.dibdin.adventofcode.year2021.Day3::new);
+        register(registry, 2021, 4, me.dibdin.adventofcode.year2021.Day4::new);
+        register(registry, 2021, 5, me.dibdin.adventofcode.year2021.Day5::new);
+        register(registry, 2021, 6, me.dibdin.adventofcode.year2021.Day6::new);
+        register(registry, 2021, 7, me.dibdin.adventofcode.year2021.Day7::new);
+        register(registry, 2021, 8, me.dibdin.adventofcode.year2021.Day8::new);
+        register(registry, 2021, 9, me.dibdin.adventofcode.year2021.Day9::new);
+        register(registry, 2021, 10, me.dibdin.adventofcode.year2021.Day10::new);
+        register(registry, 2021, 11, me.dibdin.adventofcode.year2021.Day11::new);
+        register(registry, 2021, 12, me.dibdin.adventofcode.year2021.Day12::new);
+        register(registry, 2021, 13, me.dibdin.adventofcode.year2021.Day13::new);
+        register(registry, 2021, 14, me.dibdin.adventofcode.year2021.Day14::new);
+        register(registry, 2021, 15, me.dibdin.adventofcode.year2021.Day15::new);
+        register(registry, 2021, 16, me.dibdin.adventofcode.year2021.Day16::new);
+        register(registry, 2021, 17, me.dibdin.adventofcode.year2021.Day17::new);
+        register(registry, 2021, 18, me.dibdin.adventofcode.year2021.Day18::new);
+        register(registry, 2021, 19, me.dibdin.adventofcode.year2021.Day19::new);
+        register(registry, 2021, 20, me.dibdin.adventofcode.year2021.Day20::new);
+
+        return Collections.unmodifiableMap(registry);
+    }
+
+    /**
+     * Add a constructor to the table
+     *
+     * @param registry    the table to add to
+     * @param year        the year of the challenge
+     * @param day         the day of the challenge
+     * @param constructor the constructor of the class which solves the challenge
+     */
+    private static void register(Map<ChallengeId, Supplier<Challenge>> registry, int year, int day,
+            Supplier<Challenge> constructor) {
+        registry.put(new ChallengeId(year, day), constructor);
+    }
+
+    /**
+     * Build the sorted list of available challenges
+     *
+     * @return the list
+     */
+    private static List<ChallengeId> createAvailableList() {
+        ArrayList<ChallengeId> list = new ArrayList<ChallengeId>(CONSTRUCTORS.keySet());
+        Collections.sort(list);
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Get the constructor of the challenge for the specified year and day
+     *
+     * @param year the year of the challenge
+     * @param day  the day of the challenge
+     * @return the constructor, or null if there is no solution for that day
+     */
+    public static Supplier<Challenge> getConstructor(int year, int day) {
+        return CONSTRUCTORS.get(new ChallengeId(year, day));
+    }
+
+    /**
+     * Returns the list of all the challenges which have a solution
+     *
+     * @return the year and day of each challenge, in year and day order
+     */
+    public static List<ChallengeId> getAvailableChallenges() {
+        return AVAILABLE;
+    }
+}
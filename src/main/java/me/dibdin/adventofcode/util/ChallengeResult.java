@@ -0,0 +1,181 @@
+package me.dibdin.adventofcode.util;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The outcome of solving a challenge, with the answers and the measurements
+ * of each phase
+ */
+public class ChallengeResult {
+    private final ChallengeId id;
+    private String name = null;
+    private long partOne;
+    private long partTwo;
+    private Map<Phase, PhaseTiming> timings = Collections.emptyMap();
+    private Map<String, Long> counters = Collections.emptyMap();
+    private boolean cached = false;
+    private Throwable error = null;
+
+    /**
+     * Create an empty result for the specified challenge
+     *
+     * @param id the year and day of the challenge
+     */
+    public ChallengeResult(ChallengeId id) {
+        this.id = id;
+    }
+
+    /**
+     * The year and day of the challenge
+     *
+     * @return the challenge identifier
+     */
+    public ChallengeId getId() {
+        return id;
+    }
+
+    /**
+     * The name of the challenge, or null if it could not be created
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Set the name of the challenge
+     *
+     * @param name the name
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * The answer to part one
+     *
+     * @return the answer
+     */
+    public long getPartOne() {
+        return partOne;
+    }
+
+    /**
+     * Set the answer to part one
+     *
+     * @param partOne the answer
+     */
+    public void setPartOne(long partOne) {
+        this.partOne = partOne;
+    }
+
+    /**
+     * The answer to part two
+     *
+     * @return the answer
+     */
+    public long getPartTwo() {
+        return partTwo;
+    }
+
+    /**
+     * Set the answer to part two
+     *
+     * @param partTwo the answer
+     */
+    public void setPartTwo(long partTwo) {
+        this.partTwo = partTwo;
+    }
+
+    /**
+     * The measurements of each phase that was run
+     *
+     * @return the measurements, by phase
+     */
+    public Map<Phase, PhaseTiming> getTimings() {
+        return timings;
+    }
+
+    /**
+     * Set the measurements of each phase that was run
+     *
+     * @param timings the measurements, by phase
+     */
+    public void setTimings(Map<Phase, PhaseTiming> timings) {
+        this.timings = timings;
+    }
+
+    /**
+     * The counts of events in the hot loops of the challenge
+     *
+     * @return the counts, by counter name
+     */
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    /**
+     * Set the counts of events in the hot loops of the challenge
+     *
+     * @param counters the counts, by counter name
+     */
+    public void setCounters(Map<String, Long> counters) {
+        this.counters = counters;
+    }
+
+    /**
+     * The total wall clock time of every phase that was run
+     *
+     * @return the time in nanoseconds
+     */
+    public long getTotalWallNanos() {
+        return timings.values().stream().mapToLong(PhaseTiming::getWallNanos).sum();
+    }
+
+    /**
+     * Were the answers found in the result cache, rather than solved?
+     *
+     * @return true if the answers came from the cache
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    /**
+     * Record whether the answers came from the result cache
+     *
+     * @param cached true if the answers came from the cache
+     */
+    public void setCached(boolean cached) {
+        this.cached = cached;
+    }
+
+    /**
+     * The error which stopped the challenge being solved, if any
+     *
+     * @return the error, or null if the challenge was solved
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * Record the error which stopped the challenge being solved
+     *
+     * @param error the error
+     */
+    public void setError(Throwable error) {
+        this.error = error;
+    }
+
+    /**
+     * Was the challenge solved without error?
+     *
+     * @return true if solved, otherwise false
+     */
+    public boolean isSolved() {
+        return error == null;
+    }
+}
@@ -0,0 +1,136 @@
+package me.dibdin.adventofcode.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.TreeMap;
+
+import jdk.jfr.Name;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Converts a flight recording into the Chrome trace event format, which can
+ * be opened in Perfetto or chrome://tracing, to show when each phase of each
+ * challenge ran on each thread.
+ *
+ * Each ChallengeEvent becomes a complete ("X") event on the thread which ran
+ * the phase, and each SolverStepEvent becomes a complete event on its thread,
+ * which the viewers nest inside the phase it ran within.
+ */
+public class ChromeTrace {
+
+    /**
+     * Write the challenge phases and solver steps in a flight recording as a
+     * Chrome trace
+     *
+     * @param recording the flight recording
+     * @param file      where to write the trace
+     * @return the number of spans written
+     * @throws IOException if the recording can't be read, or the trace can't be
+     *                     written
+     */
+    public static int write(Path recording, Path file) throws IOException {
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recording);
+        String phaseEvent = ChallengeEvent.class.getAnnotation(Name.class).value();
+        String stepEvent = SolverStepEvent.class.getAnnotation(Name.class).value();
+
+        // times are relative to the first span
+        Instant origin = null;
+        for (RecordedEvent event : events) {
+            String type = event.getEventType().getName();
+            if ((type.equals(phaseEvent) || type.equals(stepEvent))
+                    && ((origin == null) || event.getStartTime().isBefore(origin))) {
+                origin = event.getStartTime();
+            }
+        }
+
+        int spans = 0;
+        TreeMap<Long, String> threads = new TreeMap<Long, String>();
+        try (Writer out = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+            String separator = "\n";
+
+            for (RecordedEvent event : events) {
+                String type = event.getEventType().getName();
+                RecordedThread thread = event.getThread();
+                if ((!type.equals(phaseEvent) && !type.equals(stepEvent)) || (thread == null)) {
+                    continue;
+                }
+                threads.put(thread.getJavaThreadId(), thread.getJavaName());
+
+                String label = event.getInt("year") + "/" + event.getInt("day") + " ";
+                StringBuilder args = new StringBuilder();
+                if (type.equals(phaseEvent)) {
+                    label += event.getString("phase");
+                    args.append("\"name\":").append(quote(event.getString("name")));
+                } else {
+                    label += event.getString("step");
+                    args.append("\"count\":").append(event.getLong("count"));
+                }
+
+                out.write(separator);
+                separator = ",\n";
+                out.write(String.format("{\"name\":%s,\"cat\":\"%s\",\"ph\":\"X\",\"ts\":%d,\"dur\":%d,"
+                        + "\"pid\":1,\"tid\":%d,\"args\":{%s}}",
+                        quote(label), type.equals(phaseEvent) ? "phase" : "step",
+                        micros(Duration.between(origin, event.getStartTime())), micros(event.getDuration()),
+                        thread.getJavaThreadId(), args));
+                spans++;
+            }
+
+            // name the threads, so pool workers can be told apart
+            for (Long id : threads.keySet()) {
+                out.write(separator);
+                separator = ",\n";
+                out.write(String.format("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":%d,"
+                        + "\"args\":{\"name\":%s}}", id, quote(threads.get(id))));
+            }
+
+            out.write("\n]}\n");
+        }
+
+        return spans;
+    }
+
+    /**
+     * Convert a duration to whole microseconds, the unit of Chrome traces
+     *
+     * @param duration the duration
+     * @return the number of microseconds
+     */
+    private static long micros(Duration duration) {
+        return duration.toNanos() / 1_000;
+    }
+
+    /**
+     * Quote a string as a JSON string
+     *
+     * @param value the string, or null
+     * @return the quoted string, or null
+     */
+    private static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if ((c == '"') || (c == '\\')) {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,89 @@
+package me.dibdin.adventofcode.util;
+
+import java.util.HashMap;
+
+/**
+ * Simple parser for command line options in the form "--name value" or
+ * "--flag"
+ */
+public class CommandLine {
+
+    private final HashMap<String, String> options = new HashMap<String, String>();
+
+    /**
+     * Parse the command line arguments
+     *
+     * @param args the arguments passed to main
+     * @throws IllegalArgumentException if an argument is not an option
+     */
+    public CommandLine(String[] args) throws IllegalArgumentException {
+        int i = 0;
+        while (i < args.length) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+
+            String name = args[i].substring(2);
+            if (((i + 1) < args.length) && !args[i + 1].startsWith("--")) {
+                // an option with a value
+                options.put(name, args[i + 1]);
+                i += 2;
+            } else {
+                // a flag
+                options.put(name, "true");
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Were any options given?
+     *
+     * @return true if there were no options
+     */
+    public boolean isEmpty() {
+        return options.isEmpty();
+    }
+
+    /**
+     * Was the specified option given?
+     *
+     * @param name the name of the option, without the leading "--"
+     * @return true if the option was given
+     */
+    public boolean hasOption(String name) {
+        return options.containsKey(name);
+    }
+
+    /**
+     * Get the value of an option
+     *
+     * @param name         the name of the option, without the leading "--"
+     * @param defaultValue the value to return if the option was not given
+     * @return the value of the option
+     */
+    public String getOption(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * Get the value of an option as an integer
+     *
+     * @param name         the name of the option, without the leading "--"
+     * @param defaultValue the value to return if the option was not given
+     * @return the value of the option
+     * @throws IllegalArgumentException if the value is not an integer
+     */
+    public int getIntOption(String name, int defaultValue) throws IllegalArgumentException {
+        String value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option --" + name + " must be a number, not " + value);
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package me.dibdin.adventofcode.util;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.function.Supplier;
+
+import me.dibdin.adventofcode.Challenge;
+
+/**
+ * Finds how the time taken by a challenge grows with the size of its puzzle
+ * input, by solving generated inputs of doubling size until a run takes longer
+ * than a limit.
+ *
+ * The growth of each phase is fitted to a power law, time = c * size^k, by a
+ * least squares fit of log(time) against log(size). An exponent near 1 is
+ * linear, near 2 quadratic, and so on. Only the larger sizes are fitted, as the
+ * smallest runs are dominated by fixed costs.
+ */
+public class ComplexityProfiler {
+
+    /**
+     * The phases which are measured
+     */
+    public static final Phase[] PHASES = { Phase.PARSE, Phase.PART_ONE, Phase.PART_TWO };
+
+    // runs shorter than this are too noisy to fit
+    private static final double MIN_FIT_MILLIS = 1.0;
+
+    private final long maxMillis;
+    private final long seed;
+    private final int startSize;
+    private final int maxSize;
+
+    /**
+     * Constructor.
+     *
+     * @param maxMillis the longest a run may take, before the sizes stop growing
+     * @param seed      the seed for the generated inputs
+     * @param startSize the size of the first run
+     * @param maxSize   the largest size to try
+     */
+    public ComplexityProfiler(long maxMillis, long seed, int startSize, int maxSize) {
+        this.maxMillis = maxMillis;
+        this.seed = seed;
+        this.startSize = Math.max(1, startSize);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * The measurements of one run at one size
+     */
+    public static class Sample {
+        private final int size;
+        private final int inputBytes;
+        private final EnumMap<Phase, Double> millis;
+
+        /**
+         * Constructor.
+         *
+         * @param size       the size of the generated input
+         * @param inputBytes the length of the generated input
+         * @param millis     the wall clock time of each phase
+         */
+        public Sample(int size, int inputBytes, Map<Phase, Double> millis) {
+            this.size = size;
+            this.inputBytes = inputBytes;
+            this.millis = new EnumMap<Phase, Double>(millis);
+        }
+
+        /**
+         * The size of the generated input
+         *
+         * @return the size
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * The length of the generated input
+         *
+         * @return the number of bytes
+         */
+        public int getInputBytes() {
+            return inputBytes;
+        }
+
+        /**
+         * The wall clock time of a phase
+         *
+         * @param phase the phase
+         * @return the time in milliseconds
+         */
+        public double getMillis(Phase phase) {
+            return millis.getOrDefault(phase, 0.0);
+        }
+
+        /**
+         * The wall clock time of all the phases together
+         *
+         * @return the time in milliseconds
+         */
+        public double getTotalMillis() {
+            return millis.values().stream().mapToDouble(Double::doubleValue).sum();
+        }
+    }
+
+    /**
+     * The measurements of one challenge at each size, and why the sizes stopped
+     * growing
+     */
+    public static class Profile {
+        private final ChallengeId id;
+        private final List<Sample> samples;
+        private final String stopReason;
+
+        /**
+         * Constructor.
+         *
+         * @param id         the challenge
+         * @param samples    the runs which completed, smallest first
+         * @param stopReason why no larger size was run
+         */
+        public Profile(ChallengeId id, List<Sample> samples, String stopReason) {
+            this.id = id;
+            this.samples = Collections.unmodifiableList(new ArrayList<Sample>(samples));
+            this.stopReason = stopReason;
+        }
+
+        /**
+         * The challenge which was profiled
+         *
+         * @return the year and day
+         */
+        public ChallengeId getId() {
+            return id;
+        }
+
+        /**
+         * The runs which completed, smallest first
+         *
+         * @return the samples
+         */
+        public List<Sample> getSamples() {
+            return samples;
+        }
+
+        /**
+         * Why no larger size was run
+         *
+         * @return the reason
+         */
+        public String getStopReason() {
+            return stopReason;
+        }
+
+        /**
+         * The largest size which completed
+         *
+         * @return the size, or zero if no run completed
+         */
+        public int getLargestSize() {
+            return samples.isEmpty() ? 0 : samples.get(samples.size() - 1).getSize();
+        }
+
+        /**
+         * The fitted growth exponent of a phase, from the runs long enough to
+         * measure
+         *
+         * @param phase the phase
+         * @return the exponent, or NaN if there are too few runs to fit
+         */
+        public double getExponent(Phase phase) {
+            ArrayList<Sample> measurable = new ArrayList<Sample>();
+            for (Sample sample : samples) {
+                if (sample.getMillis(phase) >= MIN_FIT_MILLIS) {
+                    measurable.add(sample);
+                }
+            }
+
+            // fit the largest few, where fixed costs matter least
+            List<Sample> fitted = measurable.subList(Math.max(0, measurable.size() - 4), measurable.size());
+            double[] sizes = new double[fitted.size()];
+            double[] millis = new double[fitted.size()];
+            for (int i = 0; i < fitted.size(); i++) {
+                sizes[i] = fitted.get(i).getSize();
+                millis[i] = fitted.get(i).getMillis(phase);
+            }
+            return fitExponent(sizes, millis);
+        }
+    }
+
+    /**
+     * Fit time = c * size^k to the measurements, by least squares on the
+     * logarithms
+     *
+     * @param sizes  the sizes
+     * @param millis the time taken at each size
+     * @return the exponent k, or NaN if there are fewer than two distinct sizes
+     */
+    public static double fitExponent(double[] sizes, double[] millis) {
+        int n = sizes.length;
+        if (n < 2) {
+            return Double.NaN;
+        }
+
+        double sumX = 0;
+        double sumY = 0;
+        for (int i = 0; i < n; i++) {
+            sumX += Math.log(sizes[i]);
+            sumY += Math.log(millis[i]);
+        }
+        double meanX = sumX / n;
+        double meanY = sumY / n;
+
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < n; i++) {
+            double dx = Math.log(sizes[i]) - meanX;
+            covariance += dx * (Math.log(millis[i]) - meanY);
+            variance += dx * dx;
+        }
+        return (variance == 0) ? Double.NaN : (covariance / variance);
+    }
+
+    /**
+     * Profile a challenge, solving generated inputs of doubling size, each with
+     * a new instance
+     *
+     * @param id          the challenge
+     * @param constructor creates an instance of the challenge
+     * @param generator   generates puzzle input for the challenge
+     * @return the measurements
+     */
+    public Profile profile(ChallengeId id, Supplier<Challenge> constructor, InputGenerator generator) {
+        ArrayList<Sample> samples = new ArrayList<Sample>();
+        String stopReason = "reached the largest size";
+
+        for (int size = startSize; size <= maxSize; size *= 2) {
+            // generate the same input for a size, whatever sizes came before
+            ByteInput input;
+            try {
+                input = generator.generateInput(size, new Random(seed + size));
+            } catch (RuntimeException | OutOfMemoryError e) {
+                stopReason = "failed to generate size " + size + ": " + e;
+                break;
+            }
+
+            // allow a run to overshoot the limit, but not to run forever
+            Challenge challenge = constructor.get();
+            challenge.setCancellationToken(new CancellationToken(Duration.ofMillis(maxMillis * 10)));
+
+            try {
+                challenge.timedSetPuzzleInput(input);
+                challenge.timedSolvePartOne();
+                challenge.timedSolvePartTwo();
+            } catch (CancellationException e) {
+                stopReason = "cancelled at size " + size + ", after " + (maxMillis * 10) + " ms";
+                break;
+            } catch (RuntimeException | OutOfMemoryError e) {
+                stopReason = "failed at size " + size + ": " + e;
+                break;
+            }
+
+            EnumMap<Phase, Double> millis = new EnumMap<Phase, Double>(Phase.class);
+            for (Phase phase : PHASES) {
+                PhaseTiming timing = challenge.getTimings().get(phase);
+                millis.put(phase, (timing == null) ? 0.0 : timing.getWallNanos() / 1_000_000.0);
+            }
+            Sample sample = new Sample(size, input.size(), millis);
+            samples.add(sample);
+
+            if (sample.getTotalMillis() > maxMillis) {
+                stopReason = "exceeded " + maxMillis + " ms at size " + size;
+                break;
+            }
+
+            // don't start a run which is likely to take far too long
+            if (samples.size() >= 2) {
+                Sample previous = samples.get(samples.size() - 2);
+                double growth = sample.getTotalMillis() / Math.max(previous.getTotalMillis(), MIN_FIT_MILLIS);
+                if ((sample.getTotalMillis() * growth) > (maxMillis * 10.0)) {
+                    stopReason = "size " + (size * 2) + " projected to take over " + (maxMillis * 10) + " ms";
+                    break;
+                }
+            }
+        }
+
+        return new Profile(id, samples, stopReason);
+    }
+
+    /**
+     * Print the time of each phase at each size, and the fitted growth
+     *
+     * @param profile the measurements of a challenge
+     * @param out     where to print the table
+     */
+    public static void print(Profile profile, PrintStream out) {
+        String format = "%10s %12s %12s %12s %12s%n";
+        out.printf(format, "Size", "Input bytes", "Parse ms", "Part 1 ms", "Part 2 ms");
+
+        for (Sample sample : profile.getSamples()) {
+            out.printf(format, sample.getSize(), sample.getInputBytes(), millis(sample.getMillis(Phase.PARSE)),
+                    millis(sample.getMillis(Phase.PART_ONE)), millis(sample.getMillis(Phase.PART_TWO)));
+        }
+        out.printf(format, "Growth", "", exponent(profile.getExponent(Phase.PARSE)),
+                exponent(profile.getExponent(Phase.PART_ONE)), exponent(profile.getExponent(Phase.PART_TWO)));
+        out.println("Stopped: " + profile.getStopReason());
+    }
+
+    /**
+     * Print a summary of the fitted growth and the largest size of each
+     * challenge, one challenge per row
+     *
+     * @param profiles the measurements of each challenge
+     * @param out      where to print the table
+     */
+    public static void printSummary(List<Profile> profiles, PrintStream out) {
+        String format = "%-4s %-3s %10s %10s %10s %10s  %s%n";
+        out.printf(format, "Year", "Day", "Max size", "Parse", "Part 1", "Part 2", "Stopped");
+
+        for (Profile profile : profiles) {
+            out.printf(format, profile.getId().getYear(), profile.getId().getDay(), profile.getLargestSize(),
+                    exponent(profile.getExponent(Phase.PARSE)), exponent(profile.getExponent(Phase.PART_ONE)),
+                    exponent(profile.getExponent(Phase.PART_TWO)), profile.getStopReason());
+        }
+    }
+
+    /**
+     * Format a time for the tables
+     *
+     * @param millis the time in milliseconds
+     * @return the formatted time
+     */
+    private static String millis(double millis) {
+        return String.format("%.3f", millis);
+    }
+
+    /**
+     * Format a growth exponent for the tables
+     *
+     * @param exponent the exponent
+     * @return the formatted exponent, or "-" if there was too little to fit
+     */
+    private static String exponent(double exponent) {
+        return Double.isNaN(exponent) ? "-" : String.format("n^%.2f", exponent);
+    }
+}
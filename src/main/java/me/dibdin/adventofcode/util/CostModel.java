@@ -0,0 +1,210 @@
+package me.dibdin.adventofcode.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Estimates how long each phase of a challenge will take, from the size of its
+ * puzzle input and the timings recorded on previous runs, so that a batch can
+ * start the slowest work first.
+ *
+ * The model keeps the time per byte of input of each phase of each challenge,
+ * smoothed over runs, and scales it by the size of the input to estimate. A
+ * challenge which has never been timed is estimated at the average time per
+ * byte of the challenges which have, or at a default rate when nothing has
+ * been timed at all.
+ *
+ * The model is stored as text, one line per challenge and phase:
+ *
+ * <pre>
+ * year day phase nanos-per-byte
+ * </pre>
+ */
+public class CostModel {
+
+    /**
+     * The time per byte assumed when nothing has been timed
+     */
+    public static final double DEFAULT_NANOS_PER_BYTE = 100;
+
+    // the weight of each new timing against the previous ones
+    private static final double SMOOTHING = 0.5;
+
+    // the phases which are modelled
+    private static final Phase[] PHASES = new Phase[] { Phase.PARSE, Phase.PART_ONE, Phase.PART_TWO,
+            Phase.BOTH_PARTS };
+
+    private final TreeMap<ChallengeId, EnumMap<Phase, Double>> rates =
+            new TreeMap<ChallengeId, EnumMap<Phase, Double>>();
+
+    /**
+     * The default location of the model, in the user's home directory
+     *
+     * @return the file
+     */
+    public static Path getDefaultPath() {
+        return Paths.get(System.getProperty("user.home"), ".adventofcode", "costs.txt");
+    }
+
+    /**
+     * Load a model. A file which doesn't exist gives an empty model, and lines
+     * which can't be read are skipped.
+     *
+     * @param path the file
+     * @return the model
+     * @throws IOException if the file exists but can't be read
+     */
+    public static CostModel load(Path path) throws IOException {
+        CostModel model = new CostModel();
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return model;
+        }
+
+        for (String line : lines) {
+            String[] fields = line.trim().split("\\s+");
+            if (fields.length != 4) {
+                continue;
+            }
+            try {
+                ChallengeId id = new ChallengeId(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]));
+                double rate = Double.parseDouble(fields[3]);
+                if (rate >= 0) {
+                    model.rates.computeIfAbsent(id, k -> new EnumMap<Phase, Double>(Phase.class))
+                            .put(Phase.valueOf(fields[2]), rate);
+                }
+            } catch (IllegalArgumentException e) {
+                // a line from another version, or a corrupt one
+            }
+        }
+        return model;
+    }
+
+    /**
+     * Save the model, replacing the file in one step so that a reader never sees
+     * a partial model
+     *
+     * @param path the file
+     * @throws IOException if the file can't be written
+     */
+    public synchronized void save(Path path) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<ChallengeId, EnumMap<Phase, Double>> entry : rates.entrySet()) {
+            for (Map.Entry<Phase, Double> rate : entry.getValue().entrySet()) {
+                sb.append(entry.getKey().getYear()).append(' ').append(entry.getKey().getDay()).append(' ')
+                        .append(rate.getKey().name()).append(' ').append(rate.getValue()).append('\n');
+            }
+        }
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        Files.write(temp, sb.toString().getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Record the timings of a run
+     *
+     * @param id         the year and day of the challenge
+     * @param inputBytes the size of the puzzle input
+     * @param timings    the timings of each phase which was run
+     */
+    public synchronized void record(ChallengeId id, long inputBytes, Map<Phase, PhaseTiming> timings) {
+        EnumMap<Phase, Double> known = rates.computeIfAbsent(id, k -> new EnumMap<Phase, Double>(Phase.class));
+        for (Phase phase : PHASES) {
+            PhaseTiming timing = timings.get(phase);
+            if (timing == null) {
+                continue;
+            }
+            double rate = (double) timing.getWallNanos() / Math.max(1, inputBytes);
+            Double previous = known.get(phase);
+            known.put(phase, (previous == null) ? rate : (SMOOTHING * rate) + ((1 - SMOOTHING) * previous));
+        }
+    }
+
+    /**
+     * Whether any timings have been recorded for a challenge
+     *
+     * @param id the year and day of the challenge
+     * @return true if the challenge has been timed
+     */
+    public synchronized boolean isKnown(ChallengeId id) {
+        return rates.containsKey(id);
+    }
+
+    /**
+     * Estimate the time of a phase. Both parts are estimated from the time of
+     * solving them together, or else from the sum of the parts, and each part
+     * from its own time, or else from half the time of both.
+     *
+     * @param id         the year and day of the challenge
+     * @param phase      PARSE, PART_ONE, PART_TWO or BOTH_PARTS
+     * @param inputBytes the size of the puzzle input
+     * @return the estimated time in nanoseconds
+     */
+    public synchronized long estimate(ChallengeId id, Phase phase, long inputBytes) {
+        return Math.round(getRate(id, phase) * Math.max(1, inputBytes));
+    }
+
+    /**
+     * The time per byte of a phase, falling back to the related phases, and then
+     * to the average of the other challenges
+     *
+     * @param id    the year and day of the challenge
+     * @param phase the phase
+     * @return the time per byte, in nanoseconds
+     */
+    private double getRate(ChallengeId id, Phase phase) {
+        EnumMap<Phase, Double> known = rates.get(id);
+        if (known == null) {
+            return getAverageRate(phase);
+        }
+
+        Double rate = known.get(phase);
+        if (rate != null) {
+            return rate;
+        }
+        if ((phase == Phase.BOTH_PARTS) && known.containsKey(Phase.PART_ONE) && known.containsKey(Phase.PART_TWO)) {
+            return known.get(Phase.PART_ONE) + known.get(Phase.PART_TWO);
+        }
+        if (((phase == Phase.PART_ONE) || (phase == Phase.PART_TWO)) && known.containsKey(Phase.BOTH_PARTS)) {
+            return known.get(Phase.BOTH_PARTS) / 2;
+        }
+        return getAverageRate(phase);
+    }
+
+    /**
+     * The average time per byte of a phase, over every challenge which has been
+     * timed
+     *
+     * @param phase the phase
+     * @return the time per byte, in nanoseconds
+     */
+    private double getAverageRate(Phase phase) {
+        ArrayList<Double> known = new ArrayList<Double>();
+        for (EnumMap<Phase, Double> challenge : rates.values()) {
+            Double rate = challenge.get(phase);
+            if (rate != null) {
+                known.add(rate);
+            }
+        }
+
+        if (known.isEmpty()) {
+            return (phase == Phase.BOTH_PARTS) ? 2 * DEFAULT_NANOS_PER_BYTE : DEFAULT_NANOS_PER_BYTE;
+        }
+        return known.stream().mapToDouble(Double::doubleValue).average().getAsDouble();
+    }
+}
@@ -0,0 +1,70 @@
+package me.dibdin.adventofcode.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts events in the hot loops of a challenge, such as nodes visited or
+ * operations performed, to show how an algorithm scales with its input.
+ *
+ * Counters are switched off unless the JVM is started with
+ * "-Dadventofcode.counters=true". As the switch is a constant, the JIT removes
+ * the counting completely when counters are off. When on, counts are striped
+ * across threads, so challenges solved in parallel don't contend.
+ */
+public class Counter {
+
+    /**
+     * Are counters switched on?
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("adventofcode.counters");
+
+    private final String name;
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Create a counter, starting at zero
+     *
+     * @param name the name of the counter, for reports
+     */
+    public Counter(String name) {
+        this.name = name;
+    }
+
+    /**
+     * The name of the counter
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Add one to the count, if counters are switched on
+     */
+    public void increment() {
+        if (ENABLED) {
+            count.increment();
+        }
+    }
+
+    /**
+     * Add to the count, if counters are switched on
+     *
+     * @param amount the amount to add
+     */
+    public void add(long amount) {
+        if (ENABLED) {
+            count.add(amount);
+        }
+    }
+
+    /**
+     * The current count
+     *
+     * @return the count, or zero if counters are switched off
+     */
+    public long get() {
+        return count.sum();
+    }
+}
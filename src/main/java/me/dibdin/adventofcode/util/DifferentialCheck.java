@@ -0,0 +1,263 @@
+package me.dibdin.adventofcode.util;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import me.dibdin.adventofcode.Challenge;
+
+/**
+ * Checks that two strategies of a challenge give the same answers, by solving
+ * the same puzzle inputs with each, so a faster strategy can be trusted before
+ * it becomes the default.
+ *
+ * Each input is parsed and solved by a new instance for each strategy, and the
+ * time taken by each strategy to solve both parts is kept for comparison. An
+ * exception from either strategy counts as a mismatch.
+ */
+public class DifferentialCheck {
+
+    private final Supplier<Challenge> constructor;
+    private final String first;
+    private final String second;
+
+    /**
+     * Constructor.
+     *
+     * @param constructor the constructor of the challenge
+     * @param first       the name of the strategy to check against, usually the
+     *                    default
+     * @param second      the name of the strategy to check
+     * @throws IllegalArgumentException if the challenge lacks either strategy
+     */
+    public DifferentialCheck(Supplier<Challenge> constructor, String first, String second)
+            throws IllegalArgumentException {
+        this.constructor = constructor;
+        this.first = first;
+        this.second = second;
+
+        // fail now, rather than on every input
+        constructor.get().setStrategy(first);
+        constructor.get().setStrategy(second);
+    }
+
+    /**
+     * The answers of both strategies for one puzzle input
+     */
+    public static class Comparison {
+        private final String label;
+        private final long[] firstResults;
+        private final long[] secondResults;
+        private final double firstMillis;
+        private final double secondMillis;
+        private final String error;
+
+        /**
+         * Constructor.
+         *
+         * @param label         describes the puzzle input
+         * @param firstResults  the answers of the first strategy, or null if it
+         *                      failed
+         * @param secondResults the answers of the second strategy, or null if it
+         *                      failed
+         * @param firstMillis   the time the first strategy took to solve both parts
+         * @param secondMillis  the time the second strategy took to solve both parts
+         * @param error         why a strategy failed, or null
+         */
+        public Comparison(String label, long[] firstResults, long[] secondResults, double firstMillis,
+                double secondMillis, String error) {
+            this.label = label;
+            this.firstResults = firstResults;
+            this.secondResults = secondResults;
+            this.firstMillis = firstMillis;
+            this.secondMillis = secondMillis;
+            this.error = error;
+        }
+
+        /**
+         * Describes the puzzle input
+         *
+         * @return the label
+         */
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * The answers of the first strategy
+         *
+         * @return the answers, formatted as { PART_ONE, PART_TWO }, or null if it
+         *         failed
+         */
+        public long[] getFirstResults() {
+            return firstResults;
+        }
+
+        /**
+         * The answers of the second strategy
+         *
+         * @return the answers, formatted as { PART_ONE, PART_TWO }, or null if it
+         *         failed
+         */
+        public long[] getSecondResults() {
+            return secondResults;
+        }
+
+        /**
+         * The time the first strategy took to solve both parts
+         *
+         * @return the time in milliseconds
+         */
+        public double getFirstMillis() {
+            return firstMillis;
+        }
+
+        /**
+         * The time the second strategy took to solve both parts
+         *
+         * @return the time in milliseconds
+         */
+        public double getSecondMillis() {
+            return secondMillis;
+        }
+
+        /**
+         * Why a strategy failed
+         *
+         * @return the strategy and its error, or null if both solved
+         */
+        public String getError() {
+            return error;
+        }
+
+        /**
+         * Did both strategies give the same answers?
+         *
+         * @return true if both solved, with the same answers
+         */
+        public boolean isMatch() {
+            return (error == null) && (firstResults[0] == secondResults[0]) && (firstResults[1] == secondResults[1]);
+        }
+    }
+
+    /**
+     * Solve a puzzle input with both strategies
+     *
+     * @param label describes the puzzle input, for the report
+     * @param input the puzzle input
+     * @return the answers of both strategies
+     */
+    public Comparison compare(String label, ByteInput input) {
+        long[] firstResults = null;
+        long[] secondResults = null;
+        double[] millis = new double[2];
+        String error = null;
+
+        try {
+            firstResults = solve(first, input, millis, 0);
+        } catch (RuntimeException e) {
+            error = first + ": " + e;
+        }
+        try {
+            secondResults = solve(second, input, millis, 1);
+        } catch (RuntimeException e) {
+            error = (error == null) ? (second + ": " + e) : (error + ", " + second + ": " + e);
+        }
+
+        return new Comparison(label, firstResults, secondResults, millis[0], millis[1], error);
+    }
+
+    /**
+     * Solve generated puzzle inputs of random sizes with both strategies. Each
+     * input is generated from its own seed, which is in its label, so that a
+     * mismatch can be reproduced.
+     *
+     * @param generator the generator of puzzle input for the challenge
+     * @param inputs    the number of inputs to generate
+     * @param maxSize   the largest size to generate
+     * @param seed      the seed of the first input, incremented for each
+     *                  following input
+     * @return the answers of both strategies for each input
+     */
+    public List<Comparison> compareGenerated(InputGenerator generator, int inputs, int maxSize, long seed) {
+        ArrayList<Comparison> comparisons = new ArrayList<Comparison>();
+        for (int i = 0; i < inputs; i++) {
+            Random random = new Random(seed + i);
+            int size = 1 + random.nextInt(Math.max(1, maxSize));
+            ByteInput input = generator.generateInput(size, random);
+            comparisons.add(compare(String.format("seed %d, size %d", seed + i, size), input));
+        }
+        return comparisons;
+    }
+
+    /**
+     * Parse and solve a puzzle input with one strategy
+     *
+     * @param strategy the name of the strategy
+     * @param input    the puzzle input
+     * @param millis   where to put the time taken to solve both parts
+     * @param index    the index of millis to put the time in
+     * @return the answers, formatted as { PART_ONE, PART_TWO }
+     */
+    private long[] solve(String strategy, ByteInput input, double[] millis, int index) {
+        Challenge challenge = constructor.get();
+        challenge.setStrategy(strategy);
+        challenge.setPuzzleInput(input);
+        long[] results = new long[] { challenge.timedSolvePartOne(), challenge.timedSolvePartTwo() };
+
+        Map<Phase, PhaseTiming> timings = challenge.getTimings();
+        millis[index] = (timings.get(Phase.PART_ONE).getWallNanos() + timings.get(Phase.PART_TWO).getWallNanos())
+                / 1_000_000.0;
+        return results;
+    }
+
+    /**
+     * Print the answers and times of both strategies, one puzzle input per row,
+     * then the number of mismatches
+     *
+     * @param comparisons the answers of both strategies for each input
+     * @param out         where to print the table
+     * @return the number of inputs where the strategies did not match
+     */
+    public int print(List<Comparison> comparisons, PrintStream out) {
+        String format = "%-24s %-12s %20s %20s %12s%n";
+        out.printf(format, "Input", "Strategy", "Part One", "Part Two", "Solve ms");
+
+        int mismatches = 0;
+        for (Comparison comparison : comparisons) {
+            printRow(format, comparison.getLabel(), first, comparison.getFirstResults(),
+                    comparison.getFirstMillis(), out);
+            printRow(format, "", second, comparison.getSecondResults(), comparison.getSecondMillis(), out);
+            if (!comparison.isMatch()) {
+                mismatches++;
+                out.println("  MISMATCH" + ((comparison.getError() == null) ? "" : " " + comparison.getError()));
+            }
+        }
+
+        out.println(String.format("%d inputs, %d mismatches between %s and %s", comparisons.size(), mismatches,
+                first, second));
+        return mismatches;
+    }
+
+    /**
+     * Print the answers and time of one strategy
+     *
+     * @param format   the format of the row
+     * @param label    describes the puzzle input
+     * @param strategy the name of the strategy
+     * @param results  the answers, or null if the strategy failed
+     * @param millis   the time taken to solve both parts
+     * @param out      where to print the row
+     */
+    private static void printRow(String format, String label, String strategy, long[] results, double millis,
+            PrintStream out) {
+        if (results == null) {
+            out.printf(format, label, strategy, "-", "-", "-");
+        } else {
+            out.printf(format, label, strategy, results[0], results[1], String.format("%.3f", millis));
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package me.dibdin.adventofcode.util;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * A Java Flight Recorder recording of the challenges being solved, which can
+ * summarise where each challenge spent its time.
+ *
+ * The recording uses the JDK "profile" settings, sampling running threads
+ * every millisecond, and records a ChallengeEvent for each phase of each
+ * challenge. Samples are matched to challenges by the thread and time of the
+ * phase they fall within.
+ */
+public class FlightRecording {
+
+    private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+
+    private final Recording recording;
+
+    /**
+     * Helper class to hold the time a thread spent in one phase of a challenge
+     */
+    private static class PhaseInterval {
+        private final ChallengeId id;
+        private final Instant start;
+        private final Instant end;
+
+        private PhaseInterval(ChallengeId id, Instant start, Instant end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+        }
+
+        private boolean contains(Instant time) {
+            return !time.isBefore(start) && !time.isAfter(end);
+        }
+    }
+
+    /**
+     * Create a recording, ready to start
+     *
+     * @param solverSteps true to also record SolverStepEvents, which are off by
+     *                    default as they can be frequent
+     * @throws IOException    if the JDK profile settings can't be read
+     * @throws ParseException if the JDK profile settings are invalid
+     */
+    public FlightRecording(boolean solverSteps) throws IOException, ParseException {
+        this(solverSteps, true);
+    }
+
+    /**
+     * Create a recording, ready to start
+     *
+     * @param solverSteps      true to also record SolverStepEvents, which are off
+     *                         by default as they can be frequent
+     * @param executionSamples true to profile with the JDK "profile" settings,
+     *                         false to record only the challenge events
+     * @throws IOException    if the JDK profile settings can't be read
+     * @throws ParseException if the JDK profile settings are invalid
+     */
+    public FlightRecording(boolean solverSteps, boolean executionSamples) throws IOException, ParseException {
+        if (executionSamples) {
+            recording = new Recording(Configuration.getConfiguration("profile"));
+            recording.enable(EXECUTION_SAMPLE).withPeriod(Duration.ofMillis(1));
+        } else {
+            recording = new Recording();
+        }
+        recording.enable(ChallengeEvent.class);
+        if (solverSteps) {
+            recording.enable(SolverStepEvent.class);
+        }
+    }
+
+    /**
+     * Start recording
+     */
+    public void start() {
+        recording.start();
+    }
+
+    /**
+     * Stop recording, and write the recording to a file
+     *
+     * @param file where to write the recording
+     * @throws IOException if the file can't be written
+     */
+    public void stop(Path file) throws IOException {
+        recording.stop();
+        recording.dump(file);
+        recording.close();
+    }
+
+    /**
+     * Count the execution samples in a recording, by challenge and by the method
+     * which was running when the sample was taken
+     *
+     * @param file  the recording
+     * @param names filled with the name of each challenge found
+     * @return the number of samples, by challenge and method
+     * @throws IOException if the recording can't be read
+     */
+    public static Map<ChallengeId, Map<String, Long>> countSamples(Path file, Map<ChallengeId, String> names)
+            throws IOException {
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        // find when each thread was working on each challenge
+        HashMap<Long, List<PhaseInterval>> intervals = new HashMap<Long, List<PhaseInterval>>();
+        String phaseEvent = ChallengeEvent.class.getAnnotation(Name.class).value();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(phaseEvent) && (event.getThread() != null)) {
+                ChallengeId id = new ChallengeId(event.getInt("year"), event.getInt("day"));
+                names.put(id, event.getString("name"));
+                intervals.computeIfAbsent(event.getThread().getJavaThreadId(), k -> new ArrayList<PhaseInterval>())
+                        .add(new PhaseInterval(id, event.getStartTime(), event.getEndTime()));
+            }
+        }
+
+        // count the top frame of each sample taken during a challenge
+        TreeMap<ChallengeId, Map<String, Long>> counts = new TreeMap<ChallengeId, Map<String, Long>>();
+        for (RecordedEvent event : events) {
+            if (!event.getEventType().getName().equals(EXECUTION_SAMPLE) || (event.getStackTrace() == null)
+                    || event.getStackTrace().getFrames().isEmpty()) {
+                continue;
+            }
+
+            RecordedThread thread = event.getThread("sampledThread");
+            List<PhaseInterval> threadIntervals = (thread == null) ? null : intervals.get(thread.getJavaThreadId());
+            if (threadIntervals == null) {
+                continue;
+            }
+
+            for (PhaseInterval interval : threadIntervals) {
+                if (interval.contains(event.getStartTime())) {
+                    RecordedFrame frame = event.getStackTrace().getFrames().get(0);
+                    RecordedMethod method = frame.getMethod();
+                    String frameName = method.getType().getName() + "." + method.getName();
+                    counts.computeIfAbsent(interval.id, k -> new HashMap<String, Long>()).merge(frameName, 1L,
+                            Long::sum);
+                    break;
+                }
+            }
+        }
+
+        return counts;
+    }
+
+    /**
+     * Print the methods most often found running, for each challenge in a
+     * recording
+     *
+     * @param file  the recording
+     * @param limit the number of methods to print for each challenge
+     * @param out   where to print the summary
+     * @throws IOException if the recording can't be read
+     */
+    public static void printHottestFrames(Path file, int limit, PrintStream out) throws IOException {
+        HashMap<ChallengeId, String> names = new HashMap<ChallengeId, String>();
+        Map<ChallengeId, Map<String, Long>> counts = countSamples(file, names);
+
+        out.println("Hottest methods, by number of samples");
+        for (Map.Entry<ChallengeId, Map<String, Long>> entry : counts.entrySet()) {
+            long total = entry.getValue().values().stream().mapToLong(Long::longValue).sum();
+            out.printf("%s %s (%d samples)%n", entry.getKey(), names.get(entry.getKey()), total);
+
+            entry.getValue().entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .limit(limit)
+                    .forEach(frame -> out.printf("  %8d %5.1f%%  %s%n", frame.getValue(),
+                            (100.0 * frame.getValue()) / total, frame.getKey()));
+        }
+    }
+}
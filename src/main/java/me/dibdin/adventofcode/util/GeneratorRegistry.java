@@ -0,0 +1,100 @@
+package me.dibdin.adventofcode.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of the input generator for every challenge, mapping the year and
+ * day to the method which generates its puzzle input.
+ *
+ * As with ChallengeRegistry, the methods are referenced directly, so a missing
+ * generator is a compile error. Add new days to the table below alongside
+ * their solutions.
+ */
+public class GeneratorRegistry {
+
+    /**
+     * The generators, indexed by year and day
+     */
+    private static final Map<ChallengeId, InputGenerator> GENERATORS = createRegistry();
+
+    /**
+     * Build the table of generators
+     *
+     * @return the table
+     */
+    private static Map<ChallengeId, InputGenerator> createRegistry() {
+        HashMap<ChallengeId, InputGenerator> registry = new HashMap<ChallengeId, InputGenerator>();
+
+        // Year 2020
+        register(registry, 2020, 1, me.dibdin.adventofcode.year2020.InputGenerators::day1);
+        register(registry, 2020, 2, me.dibdin.adventofcode.year2020.InputGenerators::day2);
+        register(registry, 2020, 3, me.dibdin.adventofcode.year2020.InputGenerators::day3);
+        register(registry, 2020, 4, me.dibdin.adventofcode.year2020.InputGenerators::day4);
+        register(registry, 2020, 5, me.dibdin.adventofcode.year2020.InputGenerators::day5);
+        register(registry, 2020, 6, me.dibdin.adventofcode.year2020.InputGenerators::day6);
+        register(registry, 2020, 7, me.dibdin.adventofcode.year2020.InputGenerators::day7);
+
+        // Year 2021
+        register(registry, 2021, 1, me.dibdin.adventofcode.year2021.InputGenerators::day1);
+        register(registry, 2021, 2, me.dibdin.adventofcode.year2021.InputGenerators::day2);
+        register(registry, 2021, 3, me.dibdin.adventofcode.year2021.InputGenerators::day3);
+        register(registry, 2021, 4, me.dibdin.adventofcode.year2021.InputGenerators::day4);
+        register(registry, 2021, 5, me.dibdin.adventofcode.year2021.InputGenerators::day5);
+        register(registry, 2021, 6, me.dibdin.adventofcode.year2021.InputGenerators::day6);
+        register(registry, 2021, 7, me.dibdin.adventofcode.year2021.InputGenerators::day7);
+        register(registry, 2021, 8, me.dibdin.adventofcode.year2021.InputGenerators::day8);
+        register(registry, 2021, 9, me.dibdin.adventofcode.year2021.InputGenerators::day9);
+        register(registry, 2021, 10, me.dibdin.adventofcode.year2021.InputGenerators::day10);
+        register(registry, 2021, 11, me.dibdin.adventofcode.year2021.InputGenerators::day11);
+        register(registry, 2021, 12, me.dibdin.adventofcode.year2021.InputGenerators::day12);
+        register(registry, 2021, 13, me.dibdin.adventofcode.year2021.InputGenerators::day13);
+        register(registry, 2021, 14, me.dibdin.adventofcode.year2021.InputGenerators::day14);
+        register(registry, 2021, 15, me.dibdin.adventofcode.year2021.InputGenerators::day15);
+        register(registry, 2021, 16, me.dibdin.adventofcode.year2021.InputGenerators::day16);
+        register(registry, 2021, 17, me.dibdin.adventofcode.year2021.InputGenerators::day17);
+        register(registry, 2021, 18, me.dibdin.adventofcode.year2021.InputGenerators::day18);
+        register(registry, 2021, 19, me.dibdin.adventofcode.year2021.InputGenerators::day19);
+        register(registry, 2021, 20, me.dibdin.adventofcode.year2021.InputGenerators::day20);
+
+        return Collections.unmodifiableMap(registry);
+    }
+
+    /**
+     * Add a generator to the table
+     *
+     * @param registry  the table to add to
+     * @param year      the year of the challenge
+     * @param day       the day of the challenge
+     * @param generator the generator of puzzle input for the challenge
+     */
+    private static void register(Map<ChallengeId, InputGenerator> registry, int year, int day,
+            InputGenerator generator) {
+        registry.put(new ChallengeId(year, day), generator);
+    }
+
+    /**
+     * Get the input generator for the specified year and day
+     *
+     * @param year the year of the challenge
+     * @param day  the day of the challenge
+     * @return the generator, or null if there is no generator for that day
+     */
+    public static InputGenerator getGenerator(int year, int day) {
+        return GENERATORS.get(new ChallengeId(year, day));
+    }
+
+    /**
+     * Returns the list of all the challenges which have an input generator
+     *
+     * @return the year and day of each challenge, in year and day order
+     */
+    public static List<ChallengeId> getAvailableGenerators() {
+        ArrayList<ChallengeId> list = new ArrayList<ChallengeId>(GENERATORS.keySet());
+        Collections.sort(list);
+        return list;
+    }
+}
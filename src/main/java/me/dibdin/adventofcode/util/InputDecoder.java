@@ -1,6 +1,7 @@
 package me.dibdin.adventofcode.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -23,4 +24,51 @@ public class InputDecoder {
 
         return puzzle;
     }
+
+    /**
+     * Decode every number in the input, in order, whether they are on separate
+     * lines or separated by other characters on the same line
+     * 
+     * @param input the puzzle input
+     * @return the numbers
+     */
+    public static int[] decodeAsIntArray(ByteInput input) {
+        LineCursor cursor = input.lines();
+        int[] numbers = new int[64];
+        int count = 0;
+
+        while (cursor.nextLine()) {
+            while (cursor.hasNextInt()) {
+                if (count == numbers.length) {
+                    numbers = Arrays.copyOf(numbers, count * 2);
+                }
+                numbers[count++] = cursor.nextInt();
+            }
+        }
+
+        return Arrays.copyOf(numbers, count);
+    }
+
+    /**
+     * Decode a grid of single digits, one row per line, ignoring empty lines
+     * 
+     * @param input the puzzle input
+     * @return the grid, indexed by row then column
+     */
+    public static int[][] decodeAsTwoDimensionalIntArray(ByteInput input) {
+        LineCursor cursor = input.lines();
+        ArrayList<int[]> rows = new ArrayList<int[]>();
+
+        while (cursor.nextLine()) {
+            if (!cursor.isEmpty()) {
+                int[] row = new int[cursor.length()];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = cursor.digitAt(i);
+                }
+                rows.add(row);
+            }
+        }
+
+        return rows.toArray(new int[rows.size()][]);
+    }
 }
@@ -0,0 +1,44 @@
+package me.dibdin.adventofcode.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates valid puzzle input for a challenge at any scale, so that solutions
+ * can be tried against inputs much larger than the bundled ones.
+ *
+ * What the size controls depends on the puzzle, such as the number of lines,
+ * the width of a grid, the range of the coordinates or the depth of nesting.
+ * Each generator documents its own meaning, and doubling the size should
+ * roughly double whatever a solution has to scale with.
+ */
+@FunctionalInterface
+public interface InputGenerator {
+
+    /**
+     * Generate a puzzle input
+     *
+     * @param size   how large the puzzle should be, at least 1
+     * @param random the source of randomness, so the same seed gives the same
+     *               input
+     * @return the lines of the puzzle input
+     */
+    public List<String> generate(int size, Random random);
+
+    /**
+     * Generate a puzzle input, ready to be passed to a challenge
+     *
+     * @param size   how large the puzzle should be, at least 1
+     * @param random the source of randomness, so the same seed gives the same
+     *               input
+     * @return the puzzle input
+     */
+    public default ByteInput generateInput(int size, Random random) {
+        StringBuilder sb = new StringBuilder();
+        for (String line : generate(size, random)) {
+            sb.append(line).append('\n');
+        }
+        return ByteInput.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
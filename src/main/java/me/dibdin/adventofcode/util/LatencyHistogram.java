@@ -0,0 +1,131 @@
+package me.dibdin.adventofcode.util;
+
+/**
+ * A histogram of latencies, in the style of HdrHistogram, for reporting
+ * percentiles of repeated measurements in fixed memory.
+ *
+ * Values below 128 are counted exactly. Larger values are counted in buckets
+ * which double in size with each power of two, with 64 buckets per power of
+ * two, so every value is recorded to within 1/64 of its true value.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT / 2;
+
+    private final long[] counts = new long[indexOf(Long.MAX_VALUE) + 1];
+    private long totalCount = 0;
+    private long min = Long.MAX_VALUE;
+    private long max = 0;
+    private double sum = 0;
+
+    /**
+     * Record a value
+     *
+     * @param value the value, which must not be negative
+     * @throws IllegalArgumentException if the value is negative
+     */
+    public void record(long value) throws IllegalArgumentException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value " + value);
+        }
+
+        counts[indexOf(value)]++;
+        totalCount++;
+        min = Long.min(min, value);
+        max = Long.max(max, value);
+        sum += value;
+    }
+
+    /**
+     * The number of values recorded
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return totalCount;
+    }
+
+    /**
+     * The smallest value recorded
+     *
+     * @return the value, or zero if nothing has been recorded
+     */
+    public long getMin() {
+        return (totalCount == 0) ? 0 : min;
+    }
+
+    /**
+     * The largest value recorded
+     *
+     * @return the value, or zero if nothing has been recorded
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * The mean of the values recorded
+     *
+     * @return the mean, or zero if nothing has been recorded
+     */
+    public double getMean() {
+        return (totalCount == 0) ? 0 : (sum / totalCount);
+    }
+
+    /**
+     * The value which the given percentage of recorded values are less than or
+     * equal to, to the precision of the histogram
+     *
+     * @param percentile the percentage, from 0 to 100
+     * @return the value, or zero if nothing has been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+
+        long target = Long.max(1, (long) Math.ceil((percentile / 100.0) * totalCount));
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= target) {
+                return Long.min(highestValueOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Find the bucket which counts a value
+     *
+     * @param value the value
+     * @return the index of the bucket
+     */
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        // keep the top bits of the value, and count how many were dropped
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        return (shift * HALF_SUB_BUCKET_COUNT) + (int) (value >>> shift);
+    }
+
+    /**
+     * The highest value counted by a bucket
+     *
+     * @param index the index of the bucket
+     * @return the value
+     */
+    private static long highestValueOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        int shift = (index / HALF_SUB_BUCKET_COUNT) - 1;
+        long subBucket = index - (shift * HALF_SUB_BUCKET_COUNT);
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,196 @@
+package me.dibdin.adventofcode.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+/**
+ * Walks through puzzle input bytes one line at a time, and through the fields
+ * of the current line, without copying or decoding the bytes.
+ *
+ * Call nextLine() to move to the next line, then read it either by index with
+ * byteAt(), or as a sequence of numbers with hasNextInt() and nextInt().
+ * Line endings may be "\n" or "\r\n".
+ */
+public class LineCursor {
+
+    private final ByteBuffer buffer;
+    private final int limit;
+
+    // start of the next line in the buffer
+    private int next = 0;
+
+    // the current line, from lineStart (inclusive) to lineEnd (exclusive)
+    private int lineStart = 0;
+    private int lineEnd = 0;
+
+    // where to continue reading fields in the current line
+    private int position = 0;
+
+    /**
+     * Create a new cursor, positioned before the first line of the buffer
+     *
+     * @param buffer the bytes to read, from position zero to the limit
+     */
+    LineCursor(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.limit = buffer.limit();
+    }
+
+    /**
+     * Move to the next line
+     *
+     * @return true if there was another line, otherwise false
+     */
+    public boolean nextLine() {
+        if (next >= limit) {
+            return false;
+        }
+
+        lineStart = next;
+        int i = next;
+        while ((i < limit) && (buffer.get(i) != '\n')) {
+            i++;
+        }
+        next = i + 1;
+        lineEnd = ((i > lineStart) && (buffer.get(i - 1) == '\r')) ? (i - 1) : i;
+        position = lineStart;
+
+        return true;
+    }
+
+    /**
+     * The length of the current line, excluding the line ending
+     *
+     * @return the number of bytes
+     */
+    public int length() {
+        return lineEnd - lineStart;
+    }
+
+    /**
+     * Is the current line empty?
+     *
+     * @return true if the line has no bytes
+     */
+    public boolean isEmpty() {
+        return lineEnd == lineStart;
+    }
+
+    /**
+     * Get a byte from the current line
+     *
+     * @param index the index within the line
+     * @return the byte
+     */
+    public byte byteAt(int index) {
+        return buffer.get(lineStart + index);
+    }
+
+    /**
+     * Get the value of a decimal digit from the current line
+     *
+     * @param index the index within the line
+     * @return the value of the digit, 0 - 9
+     */
+    public int digitAt(int index) {
+        return buffer.get(lineStart + index) - '0';
+    }
+
+    /**
+     * Does the current line start with the given ASCII text?
+     *
+     * @param prefix the text to match
+     * @return true if the line starts with the text
+     */
+    public boolean startsWith(String prefix) {
+        if (prefix.length() > length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (buffer.get(lineStart + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Skip forward to the next number in the current line, where a number is a
+     * sequence of digits, optionally preceded by a minus sign
+     *
+     * @return true if there is another number in the line
+     */
+    public boolean hasNextInt() {
+        while (position < lineEnd) {
+            byte b = buffer.get(position);
+            if (isDigit(b)) {
+                return true;
+            }
+            if ((b == '-') && ((position + 1) < lineEnd) && isDigit(buffer.get(position + 1))) {
+                return true;
+            }
+            position++;
+        }
+        return false;
+    }
+
+    /**
+     * Read the next number in the current line, skipping over any other bytes
+     *
+     * @return the number
+     * @throws NoSuchElementException if there are no more numbers in the line
+     */
+    public int nextInt() throws NoSuchElementException {
+        return (int) nextLong();
+    }
+
+    /**
+     * Read the next number in the current line, skipping over any other bytes
+     *
+     * @return the number
+     * @throws NoSuchElementException if there are no more numbers in the line
+     */
+    public long nextLong() throws NoSuchElementException {
+        if (!hasNextInt()) {
+            throw new NoSuchElementException("No more numbers in the line");
+        }
+
+        boolean negative = buffer.get(position) == '-';
+        if (negative) {
+            position++;
+        }
+
+        long value = 0;
+        while ((position < lineEnd) && isDigit(buffer.get(position))) {
+            value = (value * 10) + (buffer.get(position) - '0');
+            position++;
+        }
+
+        return negative ? -value : value;
+    }
+
+    /**
+     * Decode the current line as a String
+     *
+     * @return the line
+     */
+    @Override
+    public String toString() {
+        byte[] bytes = new byte[length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(lineStart + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Is the byte an ASCII decimal digit?
+     *
+     * @param b the byte
+     * @return true if a digit
+     */
+    private static boolean isDigit(byte b) {
+        return (b >= '0') && (b <= '9');
+    }
+}
@@ -0,0 +1,32 @@
+package me.dibdin.adventofcode.util;
+
+/**
+ * The phases of solving a challenge
+ */
+public enum Phase {
+    LOAD("Load"),
+    PARSE("Parse"),
+    PART_ONE("Part One"),
+    PART_TWO("Part Two"),
+    BOTH_PARTS("Both Parts");
+
+    private final String description;
+
+    /**
+     * Constructor.
+     *
+     * @param description the description of the phase
+     */
+    private Phase(String description) {
+        this.description = description;
+    }
+
+    /**
+     * The description of the phase, for display to the user
+     *
+     * @return the description
+     */
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,85 @@
+package me.dibdin.adventofcode.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures the wall clock time, CPU time and heap allocation of the current
+ * thread between a call to start and a call to stop.
+ *
+ * A timer must be started and stopped on the same thread.
+ */
+public class PhaseTimer {
+
+    private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+
+    /**
+     * The extended bean which can report allocated bytes, or null if the JVM
+     * doesn't provide one
+     */
+    private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = createAllocationBean();
+
+    private long wallStart;
+    private long cpuStart;
+    private long allocatedStart;
+
+    /**
+     * Find the extended thread bean and switch on allocation measurement, if
+     * supported
+     *
+     * @return the bean, or null if not supported
+     */
+    private static com.sun.management.ThreadMXBean createAllocationBean() {
+        if (THREAD_BEAN instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREAD_BEAN;
+            if (bean.isThreadAllocatedMemorySupported()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+                return bean;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Create and start a new timer
+     *
+     * @return the started timer
+     */
+    public static PhaseTimer start() {
+        PhaseTimer timer = new PhaseTimer();
+        timer.allocatedStart = allocatedBytes();
+        timer.cpuStart = cpuNanos();
+        timer.wallStart = System.nanoTime();
+        return timer;
+    }
+
+    /**
+     * Stop the timer
+     *
+     * @return the measurements since the timer was started
+     */
+    public PhaseTiming stop() {
+        long wall = System.nanoTime() - wallStart;
+        long cpu = (cpuStart < 0) ? -1 : (cpuNanos() - cpuStart);
+        long allocated = (allocatedStart < 0) ? -1 : (allocatedBytes() - allocatedStart);
+        return new PhaseTiming(wall, cpu, allocated);
+    }
+
+    /**
+     * The CPU time used by the current thread
+     *
+     * @return the time in nanoseconds, or -1 if not supported
+     */
+    private static long cpuNanos() {
+        return THREAD_BEAN.isCurrentThreadCpuTimeSupported() ? THREAD_BEAN.getCurrentThreadCpuTime() : -1;
+    }
+
+    /**
+     * The total bytes allocated by the current thread
+     *
+     * @return the number of bytes, or -1 if not supported
+     */
+    private static long allocatedBytes() {
+        return (ALLOCATION_BEAN == null) ? -1 : ALLOCATION_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
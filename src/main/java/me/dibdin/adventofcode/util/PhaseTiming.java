@@ -0,0 +1,63 @@
+package me.dibdin.adventofcode.util;
+
+/**
+ * The measurements taken while running one phase of a challenge
+ */
+public class PhaseTiming {
+    private final long wallNanos;
+    private final long cpuNanos;
+    private final long allocatedBytes;
+
+    /**
+     * Create a new set of measurements
+     *
+     * @param wallNanos      the elapsed wall clock time in nanoseconds
+     * @param cpuNanos       the CPU time used by the thread in nanoseconds, or -1
+     *                       if not supported
+     * @param allocatedBytes the bytes allocated by the thread, or -1 if not
+     *                       supported
+     */
+    public PhaseTiming(long wallNanos, long cpuNanos, long allocatedBytes) {
+        this.wallNanos = wallNanos;
+        this.cpuNanos = cpuNanos;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /**
+     * The elapsed wall clock time
+     *
+     * @return the time in nanoseconds
+     */
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * The CPU time used by the thread which ran the phase
+     *
+     * @return the time in nanoseconds, or -1 if not supported by the JVM
+     */
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    /**
+     * The bytes allocated on the heap by the thread which ran the phase
+     *
+     * @return the number of bytes, or -1 if not supported by the JVM
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Returns a string representation, in the format of "wall ms, cpu ms, bytes"
+     *
+     * @return the formatted string
+     */
+    @Override
+    public String toString() {
+        return String.format("wall %.3f ms, cpu %.3f ms, allocated %d bytes", wallNanos / 1_000_000.0,
+                cpuNanos / 1_000_000.0, allocatedBytes);
+    }
+}
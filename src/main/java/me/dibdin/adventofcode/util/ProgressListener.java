@@ -0,0 +1,19 @@
+package me.dibdin.adventofcode.util;
+
+import me.dibdin.adventofcode.Challenge;
+
+/**
+ * Receives progress reports from the long loops of a challenge
+ */
+@FunctionalInterface
+public interface ProgressListener {
+
+    /**
+     * Called as a challenge makes progress through a loop
+     *
+     * @param challenge the challenge reporting progress
+     * @param done      the number of steps completed so far
+     * @param total     the total number of steps, or zero if not known in advance
+     */
+    public void progress(Challenge challenge, long done, long total);
+}
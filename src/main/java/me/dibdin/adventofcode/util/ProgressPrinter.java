@@ -0,0 +1,67 @@
+package me.dibdin.adventofcode.util;
+
+import java.io.PrintStream;
+
+import me.dibdin.adventofcode.Challenge;
+
+/**
+ * Prints the progress of a challenge, with an estimate of the time remaining,
+ * on a single line which is overwritten as progress is made
+ */
+public class ProgressPrinter implements ProgressListener {
+
+    private static final long PRINT_INTERVAL_NANOS = 250_000_000L;
+
+    private final PrintStream out;
+    private long loopStart = 0;
+    private long lastDone = Long.MAX_VALUE;
+    private long lastPrint = 0;
+    private boolean printed = false;
+
+    /**
+     * Create a new printer
+     *
+     * @param out where to print the progress
+     */
+    public ProgressPrinter(PrintStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Print the progress, at most four times a second
+     */
+    @Override
+    public synchronized void progress(Challenge challenge, long done, long total) {
+        long now = System.nanoTime();
+
+        // progress going backwards means a new loop has started
+        if (done < lastDone) {
+            loopStart = now;
+        }
+        lastDone = done;
+
+        if ((now - lastPrint) < PRINT_INTERVAL_NANOS) {
+            return;
+        }
+        lastPrint = now;
+
+        if ((total > 0) && (done > 0)) {
+            double remaining = ((now - loopStart) / 1_000_000_000.0) * (total - done) / done;
+            out.printf("\r%s: %5.1f%% complete, about %.1f s remaining   ", challenge.getName(),
+                    (100.0 * done) / total, remaining);
+        } else {
+            out.printf("\r%s: %d steps complete   ", challenge.getName(), done);
+        }
+        printed = true;
+    }
+
+    /**
+     * Move to a new line, if any progress has been printed
+     */
+    public synchronized void finish() {
+        if (printed) {
+            out.println("");
+            printed = false;
+        }
+    }
+}
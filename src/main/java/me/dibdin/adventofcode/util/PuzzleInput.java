@@ -0,0 +1,75 @@
+package me.dibdin.adventofcode.util;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Utility class to load the puzzle input files bundled with the challenges
+ */
+public class PuzzleInput {
+
+    /**
+     * Path of the puzzle input on the classpath, formatted with year and day
+     */
+    private static final String PATH_TEMPLATE = "data/year%d/day%d.txt";
+
+    /**
+     * The name of the resource which holds the puzzle input
+     *
+     * @param year the year of the challenge
+     * @param day  the day of the challenge
+     * @return the resource name
+     */
+    public static String getResourceName(int year, int day) {
+        return String.format(PATH_TEMPLATE, year, day);
+    }
+
+    /**
+     * Open the puzzle input as a stream of lines. The caller is responsible for
+     * closing the stream.
+     *
+     * @param year the year of the challenge
+     * @param day  the day of the challenge
+     * @return the lines of the puzzle input
+     * @throws FileNotFoundException if there is no input for the challenge
+     */
+    public static Stream<String> open(int year, int day) throws FileNotFoundException {
+        String filename = getResourceName(year, day);
+        InputStream stream = ClassLoader.getSystemResourceAsStream(filename);
+        if (stream == null) {
+            throw new FileNotFoundException("Unable to find puzzle input " + filename);
+        }
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        return reader.lines().onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                // nothing useful to do if the close fails
+            }
+        });
+    }
+
+    /**
+     * Read all the lines of the puzzle input into memory, so that loading can be
+     * separated from parsing.
+     *
+     * @param year the year of the challenge
+     * @param day  the day of the challenge
+     * @return the lines of the puzzle input
+     * @throws FileNotFoundException if there is no input for the challenge
+     */
+    public static List<String> load(int year, int day) throws FileNotFoundException {
+        try (Stream<String> stream = open(year, day)) {
+            return stream.collect(Collectors.toCollection(ArrayList<String>::new));
+        }
+    }
+}
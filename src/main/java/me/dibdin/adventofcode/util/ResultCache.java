@@ -0,0 +1,413 @@
+package me.dibdin.adventofcode.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import me.dibdin.adventofcode.Challenge;
+
+/**
+ * An on-disk cache of challenge results, so that a challenge doesn't have to
+ * be solved again when neither its input nor its solution has changed.
+ *
+ * Results are keyed by the year and day, a hash of the puzzle input and a hash
+ * of the bytecode of the class which solves the challenge, together with every
+ * class of this project it depends on, such as AbstractChallenge and the
+ * parsing helpers, and the strategy it solves with. Classes which only measure,
+ * report or cache a challenge, such as SolverMetrics, can't change its answers,
+ * so are not hashed. Each result is
+ * stored in its own file, and the least recently used files are deleted when
+ * the cache grows beyond its maximum number of entries.
+ */
+public class ResultCache {
+
+    /**
+     * The default maximum number of results to keep
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private static final String SUFFIX = ".result";
+
+    // the internal names of the classes of this project
+    private static final Pattern PROJECT_CLASS = Pattern.compile("me/dibdin/adventofcode/[\\w/$]+");
+
+    // the classes of this project which only measure, report, stop or cache a
+    // challenge, and can't change its answers, so are left out of its hash, so
+    // that a change to them doesn't throw away every cached result
+    private static final Set<String> NOT_HASHED = Set.of(
+            "me/dibdin/adventofcode/util/CancellationToken",
+            "me/dibdin/adventofcode/util/ChallengeEvent",
+            "me/dibdin/adventofcode/util/ChallengeMetrics",
+            "me/dibdin/adventofcode/util/ChallengeMetricsMXBean",
+            "me/dibdin/adventofcode/util/Counter",
+            "me/dibdin/adventofcode/util/PhaseTimer",
+            "me/dibdin/adventofcode/util/PhaseTiming",
+            "me/dibdin/adventofcode/util/ProgressListener",
+            "me/dibdin/adventofcode/util/ResultCache",
+            "me/dibdin/adventofcode/util/SnapshotCache",
+            "me/dibdin/adventofcode/util/SolverMetrics",
+            "me/dibdin/adventofcode/util/SolverMetricsMXBean",
+            "me/dibdin/adventofcode/util/SolverStepEvent");
+
+    // the hash of each class, which can't change while the JVM is running
+    private static final ConcurrentHashMap<Class<?>, String> CLASS_HASHES = new ConcurrentHashMap<Class<?>, String>();
+
+    private final Path directory;
+    private final int maxEntries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Create a cache in the specified directory
+     *
+     * @param directory  where to store the results, created if it doesn't exist
+     * @param maxEntries the maximum number of results to keep
+     */
+    public ResultCache(Path directory, int maxEntries) {
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * The default location of the cache, in the user's home directory
+     *
+     * @return the directory
+     */
+    public static Path getDefaultDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".adventofcode", "cache");
+    }
+
+    /**
+     * Create the key for the results of a challenge and its input, which
+     * includes the strategy the challenge solves with, so that choosing another
+     * strategy solves again
+     *
+     * @param challenge the challenge
+     * @param input     the puzzle input
+     * @return the key
+     * @throws IOException if the bytecode of the challenge can't be read
+     */
+    public static String createKey(Challenge challenge, ByteInput input) throws IOException {
+        return createParsedKey(challenge, input) + "-" + challenge.getStrategy();
+    }
+
+    /**
+     * Create the key for the parsed input of a challenge, which doesn't depend
+     * on the strategy the challenge solves with
+     *
+     * @param challenge the challenge
+     * @param input     the puzzle input
+     * @return the key
+     * @throws IOException if the bytecode of the challenge can't be read
+     */
+    public static String createParsedKey(Challenge challenge, ByteInput input) throws IOException {
+        return String.format("%d-%d-%s-%s", challenge.getYear(), challenge.getDay(),
+                hashInput(input), hashClass(challenge.getClass()));
+    }
+
+    /**
+     * Hash the bytes of the puzzle input
+     *
+     * @param input the puzzle input
+     * @return the hash, as hex
+     */
+    public static String hashInput(ByteInput input) {
+        MessageDigest digest = createDigest();
+        ByteBuffer buffer = input.getBuffer();
+        digest.update(buffer);
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Hash the bytecode of a class and every class of this project it depends
+     * on, such as its nested classes, its superclasses and the helpers it calls,
+     * so that any change to the code which solves or parses a challenge changes
+     * the hash. The hash of each class is only calculated once.
+     *
+     * @param cls the class to hash
+     * @return the hash, as hex
+     * @throws IOException if the bytecode can't be read
+     */
+    public static String hashClass(Class<?> cls) throws IOException {
+        String hash = CLASS_HASHES.get(cls);
+        if (hash == null) {
+            hash = hashBytecode(readDependencies(cls));
+            CLASS_HASHES.put(cls, hash);
+        }
+        return hash;
+    }
+
+    /**
+     * Hash the bytecode of some classes
+     *
+     * @param bytecode the bytecode, by class name
+     * @return the hash, as hex
+     */
+    static String hashBytecode(SortedMap<String, byte[]> bytecode) {
+        MessageDigest digest = createDigest();
+        for (Map.Entry<String, byte[]> entry : bytecode.entrySet()) {
+            digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update(entry.getValue());
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Read the bytecode of a class, and of every class of this project which it
+     * refers to, directly or indirectly. The references are found from the class
+     * names in the constant pool of each class file. Classes which can't change
+     * the answers, and their nested classes, are skipped, along with anything
+     * only they refer to.
+     *
+     * @param cls the class
+     * @return the bytecode, by class name
+     * @throws IOException if the bytecode of the class can't be read
+     */
+    static SortedMap<String, byte[]> readDependencies(Class<?> cls) throws IOException {
+        ClassLoader loader = (cls.getClassLoader() == null) ? ClassLoader.getSystemClassLoader()
+                : cls.getClassLoader();
+        TreeMap<String, byte[]> bytecode = new TreeMap<String, byte[]>();
+        ArrayDeque<String> pending = new ArrayDeque<String>();
+        pending.add(cls.getName().replace('.', '/'));
+
+        while (!pending.isEmpty()) {
+            String name = pending.poll();
+            int nested = name.indexOf('$');
+            if (bytecode.containsKey(name) || NOT_HASHED.contains((nested < 0) ? name : name.substring(0, nested))) {
+                continue;
+            }
+
+            try (InputStream stream = loader.getResourceAsStream(name + ".class")) {
+                if (stream == null) {
+                    if (bytecode.isEmpty()) {
+                        throw new IOException("Unable to read bytecode of " + cls.getName());
+                    }
+                    // a name which isn't a class, such as a string constant
+                    continue;
+                }
+                byte[] bytes = stream.readAllBytes();
+                bytecode.put(name, bytes);
+                pending.addAll(findProjectClasses(bytes));
+            }
+        }
+
+        return bytecode;
+    }
+
+    /**
+     * Find the names of the classes of this project in the constant pool of a
+     * class file, which holds the name of every class it refers to, either as a
+     * class or within the descriptor of a field or method
+     *
+     * @param bytes the class file
+     * @return the internal names of the classes, such as
+     *         "me/dibdin/adventofcode/util/LineCursor"
+     * @throws IOException if the class file is malformed
+     */
+    private static List<String> findProjectClasses(byte[] bytes) throws IOException {
+        ArrayList<String> names = new ArrayList<String>();
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        in.skipBytes(8); // magic and version
+        int count = in.readUnsignedShort();
+
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1: // Utf8
+                    Matcher matcher = PROJECT_CLASS.matcher(in.readUTF());
+                    while (matcher.find()) {
+                        names.add(matcher.group());
+                    }
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    in.skipBytes(8);
+                    i++; // takes two entries
+                    break;
+                case 7: // Class
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    in.skipBytes(2);
+                    break;
+                case 15: // MethodHandle
+                    in.skipBytes(3);
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    in.skipBytes(4);
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+
+        return names;
+    }
+
+    /**
+     * Look up a result
+     *
+     * @param key the key of the result
+     * @return the results, formatted as { PART_ONE, PART_TWO }, or null if not in
+     *         the cache
+     */
+    public long[] get(String key) {
+        Path file = directory.resolve(key + SUFFIX);
+
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            long[] results = new long[] { Long.parseLong(lines.get(0)), Long.parseLong(lines.get(1)) };
+
+            // mark as recently used
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            hits.incrementAndGet();
+            return results;
+        } catch (IOException | RuntimeException e) {
+            // not cached, or unreadable - either way, it has to be solved
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Store a result, then remove the least recently used results if the cache is
+     * too large
+     *
+     * @param key     the key of the result
+     * @param results the results, formatted as { PART_ONE, PART_TWO }
+     * @throws IOException if the result can't be written
+     */
+    public void put(String key, long[] results) throws IOException {
+        Files.createDirectories(directory);
+
+        // write to a temporary file, then move into place, so a reader never sees
+        // a partial result
+        Path temp = Files.createTempFile(directory, key, ".tmp");
+        Files.write(temp, (results[0] + "\n" + results[1] + "\n").getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, directory.resolve(key + SUFFIX), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+
+        evictLeastRecentlyUsed(directory, SUFFIX, maxEntries);
+    }
+
+    /**
+     * Delete the least recently used files with the given suffix, until there
+     * are no more than the maximum number left in the directory
+     *
+     * @param directory  the directory holding the files
+     * @param suffix     the suffix of the files to consider
+     * @param maxEntries the maximum number of files to keep
+     * @throws IOException if the directory can't be read
+     */
+    static synchronized void evictLeastRecentlyUsed(Path directory, String suffix, int maxEntries)
+            throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(path -> path.getFileName().toString().endsWith(suffix))
+                    .collect(Collectors.toCollection(ArrayList<Path>::new));
+        }
+
+        if (files.size() <= maxEntries) {
+            return;
+        }
+
+        // oldest first
+        files.sort(Comparator.comparing(path -> {
+            try {
+                return Files.getLastModifiedTime(path);
+            } catch (IOException e) {
+                return FileTime.fromMillis(0);
+            }
+        }));
+
+        for (int i = 0; i < (files.size() - maxEntries); i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    /**
+     * The number of lookups which found a result
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * The number of lookups which didn't find a result
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Reset the numbers of hits and misses to zero
+     */
+    public void resetStatistics() {
+        hits.set(0);
+        misses.set(0);
+    }
+
+    /**
+     * Create a SHA-256 digest
+     *
+     * @return the digest
+     */
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every JVM is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Format bytes as hex
+     *
+     * @param bytes the bytes
+     * @return the hex string
+     */
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,184 @@
+package me.dibdin.adventofcode.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Streams the result of each input to a writer as it is solved, either as CSV
+ * with a header row, or as JSON Lines with one object per input.
+ *
+ * Results are written in the order they are solved, from any thread. Writers
+ * are serialised with a lock rather than by synchronizing, so a virtual thread
+ * blocked writing doesn't hold on to its carrier thread.
+ */
+public class ResultSink implements Closeable {
+
+    /**
+     * The formats a sink can write
+     */
+    public enum Format {
+        CSV, JSON
+    }
+
+    // the phases given a column of their own
+    private static final Phase[] PHASES = { Phase.LOAD, Phase.PARSE, Phase.BOTH_PARTS };
+
+    private final Writer writer;
+    private final Format format;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Constructor.
+     *
+     * @param writer where to write the results, which is closed with the sink
+     * @param format the format of the results
+     * @throws IOException if the header can't be written
+     */
+    public ResultSink(Writer writer, Format format) throws IOException {
+        this.writer = writer;
+        this.format = format;
+
+        if (format == Format.CSV) {
+            writer.write("input,part_one,part_two,load_ms,parse_ms,solve_ms,error\n");
+        }
+    }
+
+    /**
+     * Get the format for a file name, from its extension
+     *
+     * @param name the file name
+     * @return JSON for ".json" or ".jsonl" files, otherwise CSV
+     */
+    public static Format formatOf(String name) {
+        String lower = name.toLowerCase();
+        return (lower.endsWith(".json") || lower.endsWith(".jsonl")) ? Format.JSON : Format.CSV;
+    }
+
+    /**
+     * Write the result of one input
+     *
+     * @param input  the name of the input
+     * @param result the result of solving the input
+     * @throws IOException if the result can't be written
+     */
+    public void write(String input, ChallengeResult result) throws IOException {
+        Map<Phase, PhaseTiming> timings = result.getTimings();
+        String error = result.isSolved() ? "" : String.valueOf(result.getError());
+
+        StringBuilder sb = new StringBuilder();
+        if (format == Format.CSV) {
+            sb.append(csv(input)).append(',');
+            sb.append(result.isSolved() ? Long.toString(result.getPartOne()) : "").append(',');
+            sb.append(result.isSolved() ? Long.toString(result.getPartTwo()) : "");
+            for (Phase phase : PHASES) {
+                sb.append(',').append(millis(timings.get(phase)));
+            }
+            sb.append(',').append(csv(error)).append('\n');
+        } else {
+            sb.append("{\"input\":").append(json(input));
+            if (result.isSolved()) {
+                sb.append(",\"partOne\":").append(result.getPartOne());
+                sb.append(",\"partTwo\":").append(result.getPartTwo());
+            }
+            for (Phase phase : PHASES) {
+                String millis = millis(timings.get(phase));
+                if (!millis.isEmpty()) {
+                    sb.append(",\"").append(jsonName(phase)).append("Millis\":").append(millis);
+                }
+            }
+            if (!result.isSolved()) {
+                sb.append(",\"error\":").append(json(error));
+            }
+            sb.append("}\n");
+        }
+
+        lock.lock();
+        try {
+            writer.write(sb.toString());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flush any buffered results
+     *
+     * @throws IOException if the results can't be written
+     */
+    public void flush() throws IOException {
+        lock.lock();
+        try {
+            writer.flush();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            writer.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Format the wall clock time of a phase
+     *
+     * @param timing the measurements of the phase
+     * @return the time in milliseconds, or an empty string if the phase did not
+     *         run
+     */
+    private static String millis(PhaseTiming timing) {
+        return (timing == null) ? "" : String.format("%.3f", timing.getWallNanos() / 1_000_000.0);
+    }
+
+    /**
+     * The name of a phase, as a JSON field name
+     *
+     * @param phase the phase
+     * @return the name in camel case, such as "bothParts"
+     */
+    private static String jsonName(Phase phase) {
+        String name = phase.getDescription().replace(" ", "");
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * Quote a CSV field, if it needs quoting
+     *
+     * @param value the value of the field
+     * @return the field
+     */
+    private static String csv(String value) {
+        if ((value.indexOf(',') < 0) && (value.indexOf('"') < 0) && (value.indexOf('\n') < 0)) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Quote a JSON string
+     *
+     * @param value the string
+     * @return the quoted string
+     */
+    private static String json(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if ((c == '"') || (c == '\\')) {
+                sb.append('\\').append(c);
+            } else if (c < ' ') {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
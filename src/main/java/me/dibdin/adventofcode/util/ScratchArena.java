@@ -0,0 +1,136 @@
+package me.dibdin.adventofcode.util;
+
+import java.util.Arrays;
+
+/**
+ * Reusable scratch arrays for the hot loops of a solution, so that a loop
+ * which needs a fresh buffer on every iteration can reuse the same few arrays
+ * instead of creating garbage.
+ *
+ * Each arena belongs to one thread, so needs no locking. Arrays are requested
+ * by type and slot number, and the array in a slot is reused for as long as
+ * the same length is requested. A requested array is always cleared to zero,
+ * just like a new one, so the caller must keep hold of the array while it is
+ * in use rather than requesting it again.
+ *
+ * Double buffering, where each iteration reads one buffer and writes the other,
+ * uses two slots and swaps them between iterations.
+ *
+ * An array is only good until the next request for the same slot on the same
+ * thread, so a solution must not keep one after it returns. The arrays are
+ * kept for the life of the thread, at the size last requested.
+ */
+public final class ScratchArena {
+
+    /**
+     * The number of slots of each type
+     */
+    public static final int SLOTS = 4;
+
+    private final int[][] ints = new int[SLOTS][];
+    private final long[][] longs = new long[SLOTS][];
+    private final boolean[][] booleans = new boolean[SLOTS][];
+    private final byte[][] bytes = new byte[SLOTS][];
+
+    /**
+     * An array of ints, cleared to zero
+     *
+     * @param slot   the slot, from 0 to SLOTS - 1
+     * @param length the length of the array
+     * @return the array
+     */
+    public int[] ints(int slot, int length) {
+        int[] array = ints[slot];
+        if ((array == null) || (array.length != length)) {
+            array = new int[length];
+            ints[slot] = array;
+        } else {
+            Arrays.fill(array, 0);
+        }
+        return array;
+    }
+
+    /**
+     * An array of longs, cleared to zero
+     *
+     * @param slot   the slot, from 0 to SLOTS - 1
+     * @param length the length of the array
+     * @return the array
+     */
+    public long[] longs(int slot, int length) {
+        long[] array = longs[slot];
+        if ((array == null) || (array.length != length)) {
+            array = new long[length];
+            longs[slot] = array;
+        } else {
+            Arrays.fill(array, 0);
+        }
+        return array;
+    }
+
+    /**
+     * An array of booleans, cleared to false
+     *
+     * @param slot   the slot, from 0 to SLOTS - 1
+     * @param length the length of the array
+     * @return the array
+     */
+    public boolean[] booleans(int slot, int length) {
+        boolean[] array = booleans[slot];
+        if ((array == null) || (array.length != length)) {
+            array = new boolean[length];
+            booleans[slot] = array;
+        } else {
+            Arrays.fill(array, false);
+        }
+        return array;
+    }
+
+    /**
+     * An array of bytes, cleared to zero
+     *
+     * @param slot   the slot, from 0 to SLOTS - 1
+     * @param length the length of the array
+     * @return the array
+     */
+    public byte[] bytes(int slot, int length) {
+        byte[] array = bytes[slot];
+        if ((array == null) || (array.length != length)) {
+            array = new byte[length];
+            bytes[slot] = array;
+        } else {
+            Arrays.fill(array, (byte) 0);
+        }
+        return array;
+    }
+
+    /**
+     * Swap the arrays of longs in two slots, without clearing them, to switch
+     * the current and next buffers of a double buffered loop
+     *
+     * @param current the slot of the current buffer
+     * @param next    the slot of the next buffer
+     * @return the array now in the current slot, which was the next buffer
+     */
+    public long[] swapLongs(int current, int next) {
+        long[] array = longs[next];
+        longs[next] = longs[current];
+        longs[current] = array;
+        return array;
+    }
+
+    /**
+     * Swap the arrays of bytes in two slots, without clearing them, to switch
+     * the current and next buffers of a double buffered loop
+     *
+     * @param current the slot of the current buffer
+     * @param next    the slot of the next buffer
+     * @return the array now in the current slot, which was the next buffer
+     */
+    public byte[] swapBytes(int current, int next) {
+        byte[] array = bytes[next];
+        bytes[next] = bytes[current];
+        bytes[current] = array;
+        return array;
+    }
+}
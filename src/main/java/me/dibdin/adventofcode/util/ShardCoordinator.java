@@ -0,0 +1,563 @@
+package me.dibdin.adventofcode.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Shards puzzle inputs across worker processes, so that a run over many inputs
+ * is not limited by the heap of a single JVM.
+ *
+ * The coordinator listens on the loopback address, and starts each worker with
+ * a WorkerLauncher, which by default runs a ShardWorker in a new local JVM.
+ * Each worker connects back and is sent one job at a time over the framed
+ * ShardProtocol, with the puzzle input inside the job, so a launcher which
+ * starts workers on other hosts needs no change to the protocol.
+ *
+ * A job is retried on another worker, up to the maximum number of attempts,
+ * if its worker crashes, stops answering, runs out of memory, or times out.
+ * Workers which crash or stop answering are killed and replaced. A job which
+ * fails with an error from the solution is not retried, as it would fail
+ * again.
+ */
+public class ShardCoordinator implements Closeable {
+
+    /**
+     * Starts a worker, which must connect to the coordinator's port and say
+     * HELLO with the given worker id
+     */
+    @FunctionalInterface
+    public interface WorkerLauncher {
+        /**
+         * Start a worker
+         *
+         * @param workerId the id the worker must send in its HELLO
+         * @param port     the port of the coordinator
+         * @return the worker process
+         * @throws IOException if the worker can't be started
+         */
+        public Process launch(int workerId, int port) throws IOException;
+    }
+
+    // how long a new worker has to connect
+    private static final long CONNECT_TIMEOUT_MILLIS = 30_000;
+
+    // extra time a worker has to answer after the job timeout, before it is killed
+    private static final long ANSWER_GRACE_MILLIS = 5_000;
+
+    // a driver gives up after this many workers in a row fail to start
+    private static final int MAX_LAUNCH_FAILURES = 3;
+
+    private final ServerSocket server;
+    private final int workers;
+    private final WorkerLauncher launcher;
+    private final AtomicInteger nextWorkerId = new AtomicInteger();
+    private final Map<Integer, CompletableFuture<Socket>> connecting =
+            new ConcurrentHashMap<Integer, CompletableFuture<Socket>>();
+    private Duration timeout = null;
+    private int maxAttempts = 2;
+
+    /**
+     * A puzzle input to shard, which is only read when it is sent to a worker
+     */
+    public static class Input {
+        private final ChallengeId id;
+        private final String name;
+        private final Path path;
+
+        /**
+         * An input in a file
+         *
+         * @param id   the year and day of the challenge
+         * @param path the file
+         */
+        public Input(ChallengeId id, Path path) {
+            this.id = id;
+            this.name = path.getFileName().toString();
+            this.path = path;
+        }
+
+        /**
+         * The bundled input of a challenge
+         *
+         * @param id the year and day of the challenge
+         */
+        public Input(ChallengeId id) {
+            this.id = id;
+            this.name = id.getYear() + "/" + id.getDay();
+            this.path = null;
+        }
+
+        /**
+         * The name of the input, for reporting
+         *
+         * @return the file name, or the year and day of a bundled input
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Read the input
+         *
+         * @return the bytes of the input
+         * @throws IOException if the input can't be read
+         */
+        private byte[] read() throws IOException {
+            if (path != null) {
+                return Files.readAllBytes(path);
+            }
+
+            ByteBuffer buffer = ByteInput.forPuzzle(id.getYear(), id.getDay()).getBuffer();
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return bytes;
+        }
+    }
+
+    /**
+     * Helper class to track an input through its attempts
+     */
+    private static class Task {
+        private final long jobId;
+        private final Input input;
+        private int attempts = 0;
+
+        private Task(long jobId, Input input) {
+            this.jobId = jobId;
+            this.input = input;
+        }
+    }
+
+    /**
+     * Helper class to hold a running worker and its connection
+     */
+    private static class Worker {
+        private final Process process;
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+
+        private Worker(Process process, Socket socket) throws IOException {
+            this.process = process;
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+    }
+
+    /**
+     * Helper class to hold the state shared by the drivers of one run
+     */
+    private static class Run {
+        private final LinkedBlockingDeque<Task> queue = new LinkedBlockingDeque<Task>();
+        private final CountDownLatch done;
+        private final ResultSink sink;
+        private final ThroughputRunner.Summary summary = new ThroughputRunner.Summary();
+        private final AtomicInteger liveDrivers;
+        private final AtomicReference<IOException> sinkError = new AtomicReference<IOException>();
+        private final AtomicReference<Throwable> launchError = new AtomicReference<Throwable>();
+
+        private Run(int tasks, int drivers, ResultSink sink) {
+            this.done = new CountDownLatch(tasks);
+            this.liveDrivers = new AtomicInteger(drivers);
+            this.sink = sink;
+        }
+    }
+
+    /**
+     * Create a coordinator, listening on any free port of the loopback address
+     *
+     * @param workers  the number of workers to run at once
+     * @param launcher starts each worker
+     * @throws IOException if the port can't be opened
+     */
+    public ShardCoordinator(int workers, WorkerLauncher launcher) throws IOException {
+        this.server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        this.workers = workers;
+        this.launcher = launcher;
+
+        Thread acceptor = new Thread(this::accept, "shard-coordinator-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Create a launcher which runs each worker in a new JVM on this host, with
+     * the same classpath as this JVM
+     *
+     * @param jvmOptions options for each worker JVM, such as "-Xmx512m"
+     * @return the launcher
+     */
+    public static WorkerLauncher localLauncher(List<String> jvmOptions) {
+        return (workerId, port) -> {
+            ArrayList<String> command = new ArrayList<String>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(jvmOptions);
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(ShardWorker.class.getName());
+            command.add(InetAddress.getLoopbackAddress().getHostAddress());
+            command.add(Integer.toString(port));
+            command.add(Integer.toString(workerId));
+
+            return new ProcessBuilder(command).redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        };
+    }
+
+    /**
+     * The port workers connect to
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Limit how long a worker may spend on each job. Jobs which take longer are
+     * retried, and reported as errors once they run out of attempts.
+     *
+     * @param timeout the time limit for each job, or null for no limit
+     */
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Set how many times a job is tried, before it is reported as an error
+     *
+     * @param maxAttempts the number of attempts, at least one
+     */
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    /**
+     * Solve each input on the workers, writing each result to the sink as it is
+     * solved. The workers are started when the run starts, and shut down when
+     * it ends.
+     *
+     * @param inputs the puzzle inputs
+     * @param sink   where to write the results
+     * @return the totals of the run
+     * @throws IOException          if a result can't be written to the sink
+     * @throws InterruptedException if interrupted while waiting for the inputs to
+     *                              be solved
+     */
+    public ThroughputRunner.Summary run(List<Input> inputs, ResultSink sink)
+            throws IOException, InterruptedException {
+        int drivers = Math.max(1, Math.min(workers, inputs.size()));
+        Run run = new Run(inputs.size(), drivers, sink);
+        for (int i = 0; i < inputs.size(); i++) {
+            run.queue.add(new Task(i, inputs.get(i)));
+        }
+
+        long start = System.nanoTime();
+        ArrayList<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < drivers; i++) {
+            Thread thread = new Thread(() -> drive(run), "shard-coordinator-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+
+        run.done.await();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        run.summary.setElapsedNanos(System.nanoTime() - start);
+
+        sink.flush();
+        if (run.sinkError.get() != null) {
+            throw run.sinkError.get();
+        }
+        return run.summary;
+    }
+
+    /**
+     * Stop listening for workers
+     */
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+
+    /**
+     * Accept connections from workers, and hand each one to the driver which
+     * started that worker
+     */
+    private void accept() {
+        while (!server.isClosed()) {
+            Socket socket = null;
+            try {
+                socket = server.accept();
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout((int) CONNECT_TIMEOUT_MILLIS);
+                int workerId = ShardProtocol.readHello(
+                        ShardProtocol.readFrame(new DataInputStream(socket.getInputStream())));
+
+                CompletableFuture<Socket> future = connecting.get(workerId);
+                if ((future == null) || !future.complete(socket)) {
+                    socket.close();
+                }
+            } catch (IOException e) {
+                // the server has been closed, or a worker failed to say HELLO
+                if (socket != null) {
+                    try {
+                        socket.close();
+                    } catch (IOException e2) {
+                        // already closed
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Run a worker, and keep it busy with jobs from the queue until every job is
+     * done, replacing the worker whenever it fails
+     *
+     * @param run the state of the run
+     */
+    private void drive(Run run) {
+        Worker worker = null;
+        int launchFailures = 0;
+
+        try {
+            while (run.done.getCount() > 0) {
+                Task task = run.queue.poll(100, TimeUnit.MILLISECONDS);
+                if (task == null) {
+                    continue;
+                }
+
+                if (worker == null) {
+                    try {
+                        worker = startWorker();
+                        launchFailures = 0;
+                    } catch (IOException e) {
+                        run.queue.addFirst(task);
+                        run.launchError.set(e);
+                        if (++launchFailures >= MAX_LAUNCH_FAILURES) {
+                            return;
+                        }
+                        continue;
+                    }
+                }
+
+                try {
+                    if (!solve(run, worker, task)) {
+                        stopWorker(worker);
+                        worker = null;
+                    }
+                } catch (IOException e) {
+                    // the worker has crashed or stopped answering
+                    stopWorker(worker);
+                    worker = null;
+                    retry(run, task, (e instanceof SocketTimeoutException)
+                            ? new ShardProtocol.ShardException("Worker stopped answering")
+                            : new ShardProtocol.ShardException("Worker failed: " + e));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (worker != null) {
+                shutdownWorker(worker);
+            }
+
+            // if no driver is left, nothing else can be solved
+            if (run.liveDrivers.decrementAndGet() == 0) {
+                Task task;
+                while ((task = run.queue.poll()) != null) {
+                    ChallengeResult result = new ChallengeResult(task.input.id);
+                    result.setError(new ShardProtocol.ShardException("No worker could be started: "
+                            + run.launchError.get()));
+                    complete(run, task, result);
+                }
+            }
+        }
+    }
+
+    /**
+     * Send a job to a worker, and wait for its result
+     *
+     * @param run    the state of the run
+     * @param worker the worker
+     * @param task   the job
+     * @return false if the worker should be replaced
+     * @throws IOException if the worker crashes or stops answering
+     */
+    private boolean solve(Run run, Worker worker, Task task) throws IOException {
+        ChallengeResult result = new ChallengeResult(task.input.id);
+        task.attempts++;
+
+        // read the input here, so a worker on another host doesn't need the file
+        PhaseTimer timer = PhaseTimer.start();
+        byte[] input;
+        try {
+            input = task.input.read();
+        } catch (IOException e) {
+            result.setError(e);
+            complete(run, task, result);
+            return true;
+        }
+        PhaseTiming load = timer.stop();
+
+        long timeoutMillis = (timeout == null) ? 0 : timeout.toMillis();
+        worker.socket.setSoTimeout((timeout == null) ? 0 : (int) (timeoutMillis + ANSWER_GRACE_MILLIS));
+        ShardProtocol.writeJob(worker.out, new ShardProtocol.Job(task.jobId, task.input.id, input), timeoutMillis);
+        input = null;
+
+        ShardProtocol.Frame frame = ShardProtocol.readFrame(worker.in);
+        if (ShardProtocol.readResultJobId(frame) != task.jobId) {
+            throw new IOException("Worker answered the wrong job");
+        }
+        ShardProtocol.readResult(frame, result);
+
+        // merge the time spent loading here with the worker's timings
+        EnumMap<Phase, PhaseTiming> timings = new EnumMap<Phase, PhaseTiming>(Phase.class);
+        timings.put(Phase.LOAD, load);
+        timings.putAll(result.getTimings());
+        result.setTimings(timings);
+
+        if (ShardProtocol.readResultStatus(frame) == ShardProtocol.RETRY) {
+            retry(run, task, result.getError());
+            return false;
+        }
+        complete(run, task, result);
+        return true;
+    }
+
+    /**
+     * Try a job again, unless it has run out of attempts
+     *
+     * @param run   the state of the run
+     * @param task  the job
+     * @param error why the last attempt failed
+     */
+    private void retry(Run run, Task task, Throwable error) {
+        if (task.attempts < maxAttempts) {
+            run.queue.addLast(task);
+        } else {
+            ChallengeResult result = new ChallengeResult(task.input.id);
+            result.setError(new ShardProtocol.ShardException(
+                    "Failed after " + task.attempts + " attempts: " + error));
+            complete(run, task, result);
+        }
+    }
+
+    /**
+     * Record the final result of a job
+     *
+     * @param run    the state of the run
+     * @param task   the job
+     * @param result the result
+     */
+    private void complete(Run run, Task task, ChallengeResult result) {
+        run.summary.record(result);
+        try {
+            run.sink.write(task.input.getName(), result);
+        } catch (IOException e) {
+            run.sinkError.compareAndSet(null, e);
+        }
+        run.done.countDown();
+    }
+
+    /**
+     * Start a worker, and wait for it to connect
+     *
+     * @return the worker
+     * @throws IOException if the worker can't be started, or doesn't connect
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private Worker startWorker() throws IOException, InterruptedException {
+        int workerId = nextWorkerId.incrementAndGet();
+        CompletableFuture<Socket> future = new CompletableFuture<Socket>();
+        connecting.put(workerId, future);
+
+        Process process = null;
+        try {
+            process = launcher.launch(workerId, getPort());
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CONNECT_TIMEOUT_MILLIS);
+            while (true) {
+                try {
+                    return new Worker(process, future.get(100, TimeUnit.MILLISECONDS));
+                } catch (TimeoutException e) {
+                    if (!process.isAlive() || (System.nanoTime() > deadline)) {
+                        throw new IOException("Worker " + workerId + " did not connect");
+                    }
+                } catch (ExecutionException e) {
+                    throw new IOException("Worker " + workerId + " did not connect", e.getCause());
+                }
+            }
+        } catch (IOException e) {
+            if (process != null) {
+                process.destroyForcibly();
+            }
+            throw e;
+        } finally {
+            connecting.remove(workerId);
+        }
+    }
+
+    /**
+     * Ask a worker to exit, and kill it if it doesn't
+     *
+     * @param worker the worker
+     */
+    private static void shutdownWorker(Worker worker) {
+        try {
+            ShardProtocol.writeFrame(worker.out, ShardProtocol.SHUTDOWN, new byte[0]);
+            if (worker.process.waitFor(5, TimeUnit.SECONDS)) {
+                worker.socket.close();
+                return;
+            }
+        } catch (IOException e) {
+            // the worker has already gone
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        stopWorker(worker);
+    }
+
+    /**
+     * Kill a worker
+     *
+     * @param worker the worker
+     */
+    private static void stopWorker(Worker worker) {
+        try {
+            worker.socket.close();
+        } catch (IOException e) {
+            // already closed
+        }
+        worker.process.destroyForcibly();
+    }
+}
@@ -0,0 +1,336 @@
+package me.dibdin.adventofcode.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The framed protocol between a ShardCoordinator and its ShardWorkers.
+ *
+ * Every message is a frame: a four byte length, then a one byte type, then
+ * the payload, with numbers in big endian order. The puzzle input is sent
+ * inside each job, so the worker needs no access to the coordinator's files,
+ * and can run on another host.
+ *
+ * <pre>
+ * HELLO     worker to coordinator, on connecting: version, worker id
+ * JOB       coordinator to worker: job id, year, day, timeout ms, input
+ * RESULT    worker to coordinator: job id, status, part one, part two,
+ *           timings as (phase, wall ns, cpu ns, allocated bytes), error
+ * SHUTDOWN  coordinator to worker: no more jobs, so exit
+ * </pre>
+ */
+public class ShardProtocol {
+
+    /**
+     * The version of the protocol, which must match at both ends
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The types of frame
+     */
+    public static final byte HELLO = 1;
+    public static final byte JOB = 2;
+    public static final byte RESULT = 3;
+    public static final byte SHUTDOWN = 4;
+
+    /**
+     * The status of a result
+     */
+    public static final byte SOLVED = 0;
+    public static final byte FAILED = 1;
+    public static final byte RETRY = 2;
+
+    // the largest frame accepted, to fail fast on a corrupt length
+    private static final int MAX_FRAME_LENGTH = 1 << 30;
+
+    /**
+     * A frame read from a connection
+     */
+    public static class Frame {
+        private final byte type;
+        private final byte[] payload;
+
+        /**
+         * Constructor.
+         *
+         * @param type    the type of the frame
+         * @param payload the payload, after the type
+         */
+        public Frame(byte type, byte[] payload) {
+            this.type = type;
+            this.payload = payload;
+        }
+
+        /**
+         * The type of the frame
+         *
+         * @return one of HELLO, JOB, RESULT or SHUTDOWN
+         */
+        public byte getType() {
+            return type;
+        }
+
+        /**
+         * Read the payload of the frame
+         *
+         * @return a stream over the payload
+         */
+        public DataInputStream getPayload() {
+            return new DataInputStream(new ByteArrayInputStream(payload));
+        }
+    }
+
+    /**
+     * A puzzle input to be solved by a worker
+     */
+    public static class Job {
+        private final long id;
+        private final ChallengeId challenge;
+        private final byte[] input;
+
+        /**
+         * Constructor.
+         *
+         * @param id        the id of the job, unique within a run
+         * @param challenge the year and day of the challenge
+         * @param input     the bytes of the puzzle input
+         */
+        public Job(long id, ChallengeId challenge, byte[] input) {
+            this.id = id;
+            this.challenge = challenge;
+            this.input = input;
+        }
+
+        /**
+         * The id of the job
+         *
+         * @return the id
+         */
+        public long getId() {
+            return id;
+        }
+
+        /**
+         * The year and day of the challenge
+         *
+         * @return the challenge
+         */
+        public ChallengeId getChallenge() {
+            return challenge;
+        }
+
+        /**
+         * The bytes of the puzzle input
+         *
+         * @return the input
+         */
+        public byte[] getInput() {
+            return input;
+        }
+    }
+
+    /**
+     * Write a frame
+     *
+     * @param out     the connection
+     * @param type    the type of the frame
+     * @param payload the payload
+     * @throws IOException if the frame can't be written
+     */
+    public static void writeFrame(DataOutputStream out, byte type, byte[] payload) throws IOException {
+        out.writeInt(payload.length + 1);
+        out.writeByte(type);
+        out.write(payload);
+        out.flush();
+    }
+
+    /**
+     * Read the next frame
+     *
+     * @param in the connection
+     * @return the frame
+     * @throws IOException if the connection fails or closes, or the frame is
+     *                     invalid
+     */
+    public static Frame readFrame(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if ((length < 1) || (length > MAX_FRAME_LENGTH)) {
+            throw new ProtocolException("Invalid frame length " + length);
+        }
+        byte type = in.readByte();
+        byte[] payload = new byte[length - 1];
+        in.readFully(payload);
+        return new Frame(type, payload);
+    }
+
+    /**
+     * Send the HELLO frame, from a worker which has just connected
+     *
+     * @param out      the connection
+     * @param workerId the id given to the worker when it was started
+     * @throws IOException if the frame can't be written
+     */
+    public static void writeHello(DataOutputStream out, int workerId) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream payload = new DataOutputStream(bytes);
+        payload.writeInt(VERSION);
+        payload.writeInt(workerId);
+        writeFrame(out, HELLO, bytes.toByteArray());
+    }
+
+    /**
+     * Read the worker id from a HELLO frame
+     *
+     * @param frame the frame
+     * @return the worker id
+     * @throws IOException if the frame is not a HELLO of this version
+     */
+    public static int readHello(Frame frame) throws IOException {
+        DataInputStream payload = frame.getPayload();
+        if ((frame.getType() != HELLO) || (payload.readInt() != VERSION)) {
+            throw new ProtocolException("Expected HELLO, version " + VERSION);
+        }
+        return payload.readInt();
+    }
+
+    /**
+     * Send a job to a worker
+     *
+     * @param out           the connection
+     * @param job           the job
+     * @param timeoutMillis how long the worker may spend on the job, or zero for
+     *                      no limit
+     * @throws IOException if the frame can't be written
+     */
+    public static void writeJob(DataOutputStream out, Job job, long timeoutMillis) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(job.getInput().length + 32);
+        DataOutputStream payload = new DataOutputStream(bytes);
+        payload.writeLong(job.getId());
+        payload.writeInt(job.getChallenge().getYear());
+        payload.writeInt(job.getChallenge().getDay());
+        payload.writeLong(timeoutMillis);
+        payload.writeInt(job.getInput().length);
+        payload.write(job.getInput());
+        writeFrame(out, JOB, bytes.toByteArray());
+    }
+
+    /**
+     * Send the result of a job to the coordinator
+     *
+     * @param out    the connection
+     * @param jobId  the id of the job
+     * @param status SOLVED, FAILED, or RETRY if another worker should try again
+     * @param result the result, with its answers, timings and any error
+     * @throws IOException if the frame can't be written
+     */
+    public static void writeResult(DataOutputStream out, long jobId, byte status, ChallengeResult result)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream payload = new DataOutputStream(bytes);
+        payload.writeLong(jobId);
+        payload.writeByte(status);
+        payload.writeLong(result.isSolved() ? result.getPartOne() : 0);
+        payload.writeLong(result.isSolved() ? result.getPartTwo() : 0);
+
+        Map<Phase, PhaseTiming> timings = result.getTimings();
+        payload.writeInt(timings.size());
+        for (Map.Entry<Phase, PhaseTiming> entry : timings.entrySet()) {
+            payload.writeUTF(entry.getKey().name());
+            payload.writeLong(entry.getValue().getWallNanos());
+            payload.writeLong(entry.getValue().getCpuNanos());
+            payload.writeLong(entry.getValue().getAllocatedBytes());
+        }
+        payload.writeUTF(result.isSolved() ? "" : String.valueOf(result.getError()));
+        writeFrame(out, RESULT, bytes.toByteArray());
+    }
+
+    /**
+     * Read the id of the job from a RESULT frame
+     *
+     * @param frame the frame
+     * @return the job id
+     * @throws IOException if the frame is not a RESULT
+     */
+    public static long readResultJobId(Frame frame) throws IOException {
+        if (frame.getType() != RESULT) {
+            throw new ProtocolException("Expected RESULT, not frame type " + frame.getType());
+        }
+        return frame.getPayload().readLong();
+    }
+
+    /**
+     * Read the status of a RESULT frame
+     *
+     * @param frame the frame
+     * @return SOLVED, FAILED or RETRY
+     * @throws IOException if the frame is not a RESULT
+     */
+    public static byte readResultStatus(Frame frame) throws IOException {
+        DataInputStream payload = frame.getPayload();
+        payload.readLong();
+        return payload.readByte();
+    }
+
+    /**
+     * Read the answers, timings and error of a RESULT frame into a result
+     *
+     * @param frame  the frame
+     * @param result the result to fill in
+     * @throws IOException if the frame is not a valid RESULT
+     */
+    public static void readResult(Frame frame, ChallengeResult result) throws IOException {
+        DataInputStream payload = frame.getPayload();
+        payload.readLong();
+        byte status = payload.readByte();
+        long partOne = payload.readLong();
+        long partTwo = payload.readLong();
+
+        EnumMap<Phase, PhaseTiming> timings = new EnumMap<Phase, PhaseTiming>(Phase.class);
+        int count = payload.readInt();
+        for (int i = 0; i < count; i++) {
+            try {
+                Phase phase = Phase.valueOf(payload.readUTF());
+                timings.put(phase, new PhaseTiming(payload.readLong(), payload.readLong(), payload.readLong()));
+            } catch (IllegalArgumentException e) {
+                throw new ProtocolException("Unknown phase in RESULT");
+            }
+        }
+        String error = payload.readUTF();
+
+        result.setTimings(timings);
+        if (status == SOLVED) {
+            result.setPartOne(partOne);
+            result.setPartTwo(partTwo);
+        } else {
+            result.setError(new ShardException(error));
+        }
+    }
+
+    /**
+     * An error reported by a worker, or the failure of a worker
+     */
+    public static class ShardException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Constructor.
+         *
+         * @param message the description of the error
+         */
+        public ShardException(String message) {
+            super(message);
+        }
+
+        @Override
+        public String toString() {
+            return getMessage();
+        }
+    }
+}
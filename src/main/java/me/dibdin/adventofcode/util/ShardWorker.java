@@ -0,0 +1,139 @@
+package me.dibdin.adventofcode.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+import me.dibdin.adventofcode.Challenge;
+
+/**
+ * A worker process, which connects to a ShardCoordinator and solves the jobs
+ * it is sent, one at a time, until told to shut down. See ShardProtocol.
+ *
+ * The worker keeps its own instance of each challenge it has solved, and
+ * reuses it for later jobs. A job which is cancelled by its timeout is
+ * reported for retrying, and the instance is discarded. If the worker runs out
+ * of memory or stack, it also reports the job for retrying, and then exits,
+ * as its heap can no longer be trusted.
+ */
+public class ShardWorker {
+
+    private final Map<ChallengeId, Challenge> instances = new HashMap<ChallengeId, Challenge>();
+
+    /**
+     * Entry point of a worker process, started by a ShardCoordinator, or by hand
+     * on another host
+     *
+     * @param args the host and port of the coordinator, and the worker id
+     */
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            System.err.println("Usage: ShardWorker host port workerId");
+            System.exit(2);
+        }
+
+        try {
+            new ShardWorker().run(args[0], Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+        } catch (NumberFormatException e) {
+            System.err.println("The port and worker id must be numbers");
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("Worker " + args[2] + " lost its connection: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Connect to a coordinator, and solve jobs until told to shut down or the
+     * connection closes
+     *
+     * @param host     the host of the coordinator
+     * @param port     the port of the coordinator
+     * @param workerId the id the coordinator gave this worker
+     * @throws IOException if the connection fails
+     */
+    public void run(String host, int port, int workerId) throws IOException {
+        try (Socket socket = new Socket(host, port);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            socket.setTcpNoDelay(true);
+            ShardProtocol.writeHello(out, workerId);
+
+            while (true) {
+                ShardProtocol.Frame frame;
+                try {
+                    frame = ShardProtocol.readFrame(in);
+                } catch (EOFException e) {
+                    // the coordinator has gone away
+                    return;
+                }
+
+                if (frame.getType() == ShardProtocol.SHUTDOWN) {
+                    return;
+                } else if ((frame.getType() == ShardProtocol.JOB) && !solve(frame, out)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Solve a job, and send its result
+     *
+     * @param frame the JOB frame
+     * @param out   the connection
+     * @return false if the worker must exit
+     * @throws IOException if the job can't be read or the result sent
+     */
+    private boolean solve(ShardProtocol.Frame frame, DataOutputStream out) throws IOException {
+        DataInputStream payload = frame.getPayload();
+        long jobId = payload.readLong();
+        ChallengeId id = new ChallengeId(payload.readInt(), payload.readInt());
+        long timeoutMillis = payload.readLong();
+        byte[] input = new byte[payload.readInt()];
+        payload.readFully(input);
+
+        ChallengeResult result = new ChallengeResult(id);
+        try {
+            Challenge challenge = instances.get(id);
+            if (challenge == null) {
+                challenge = ChallengeFactory.getChallengeInstance(id.getYear(), id.getDay());
+                instances.put(id, challenge);
+            }
+            challenge.setCancellationToken(
+                    (timeoutMillis > 0) ? new CancellationToken(Duration.ofMillis(timeoutMillis)) : null);
+
+            challenge.timedSetPuzzleInput(ByteInput.wrap(input));
+            long[] results = challenge.timedSolveBoth();
+            result.setPartOne(results[0]);
+            result.setPartTwo(results[1]);
+            result.setTimings(challenge.getTimings());
+            ShardProtocol.writeResult(out, jobId, ShardProtocol.SOLVED, result);
+        } catch (ClassNotFoundException e) {
+            result.setError(e);
+            ShardProtocol.writeResult(out, jobId, ShardProtocol.FAILED, result);
+        } catch (CancellationException e) {
+            instances.remove(id);
+            result.setError(new CancellationException("Timed out after " + timeoutMillis + " ms"));
+            ShardProtocol.writeResult(out, jobId, ShardProtocol.RETRY, result);
+        } catch (RuntimeException e) {
+            instances.remove(id);
+            result.setError(e);
+            ShardProtocol.writeResult(out, jobId, ShardProtocol.FAILED, result);
+        } catch (OutOfMemoryError | StackOverflowError e) {
+            instances.clear();
+            result.setError(e);
+            ShardProtocol.writeResult(out, jobId, ShardProtocol.RETRY, result);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,200 @@
+package me.dibdin.adventofcode.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import me.dibdin.adventofcode.Challenge;
+
+/**
+ * An on-disk cache of parsed puzzle input, for challenges which implement
+ * Snapshottable.
+ *
+ * The first time a challenge is parsed, its snapshot is written to a binary
+ * file. Later runs with the same input and solution memory-map the file and
+ * restore the snapshot, instead of parsing the text. Snapshots are keyed in
+ * the same way as the ResultCache, but without the strategy, which doesn't
+ * change the parsed input, and the least recently used are deleted when there
+ * are more than the maximum number of entries.
+ *
+ * Each file starts with a header of a magic number, the format version and the
+ * number of ints in the snapshot. A file with a bad header, or which can't be
+ * restored, is parsed again and rewritten.
+ */
+public class SnapshotCache {
+
+    /**
+     * The default maximum number of snapshots to keep
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 64;
+
+    private static final String SUFFIX = ".snapshot";
+
+    /**
+     * The header of a snapshot file: "AOCS", the version of the format, and the
+     * number of ints which follow
+     */
+    private static final int MAGIC = 0x414f4353;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+
+    private final Path directory;
+    private final int maxEntries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Create a cache in the specified directory
+     *
+     * @param directory  where to store the snapshots, created if it doesn't exist
+     * @param maxEntries the maximum number of snapshots to keep
+     */
+    public SnapshotCache(Path directory, int maxEntries) {
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * The default location of the cache, in the user's home directory
+     *
+     * @return the directory
+     */
+    public static Path getDefaultDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".adventofcode", "snapshots");
+    }
+
+    /**
+     * Set the puzzle input of a challenge, restoring it from a snapshot if one
+     * exists, otherwise parsing the input and saving a snapshot for next time.
+     * The time taken is recorded as the PARSE phase either way.
+     *
+     * @param challenge the challenge
+     * @param input     the puzzle input
+     * @throws IOException if the snapshot can't be read or written
+     */
+    public void setPuzzleInput(Challenge challenge, ByteInput input) throws IOException {
+        if (!(challenge instanceof Snapshottable)) {
+            challenge.timedSetPuzzleInput(input);
+            return;
+        }
+
+        Snapshottable snapshottable = (Snapshottable) challenge;
+        String key = ResultCache.createParsedKey(challenge, input);
+
+        ChallengeEvent event = ChallengeEvent.begin(challenge, Phase.PARSE);
+        PhaseTimer timer = PhaseTimer.start();
+        IntBuffer snapshot = load(key);
+        if (snapshot != null) {
+            try {
+                snapshottable.readSnapshot(snapshot);
+                challenge.recordTiming(Phase.PARSE, timer.stop());
+                event.commit();
+                return;
+            } catch (RuntimeException e) {
+                // a snapshot which doesn't match the solution, so parse it again
+                hits.decrementAndGet();
+                misses.incrementAndGet();
+            }
+        }
+
+        challenge.timedSetPuzzleInput(input);
+        store(key, snapshottable.writeSnapshot());
+    }
+
+    /**
+     * Memory-map a snapshot
+     *
+     * @param key the key of the snapshot
+     * @return the snapshot, or null if it isn't in the cache, or its header is
+     *         bad
+     * @throws IOException if the snapshot exists, but can't be mapped
+     */
+    public IntBuffer load(String key) throws IOException {
+        Path file = directory.resolve(key + SUFFIX);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            // a truncated file, or an older format, is treated as missing
+            if ((bytes.limit() < HEADER_BYTES) || (bytes.getInt() != MAGIC) || (bytes.getInt() != VERSION)
+                    || (bytes.getInt() != ((bytes.limit() - HEADER_BYTES) / Integer.BYTES))
+                    || (((bytes.limit() - HEADER_BYTES) % Integer.BYTES) != 0)) {
+                misses.incrementAndGet();
+                return null;
+            }
+
+            // mark as recently used
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            hits.incrementAndGet();
+            return bytes.slice().asIntBuffer();
+        } catch (NoSuchFileException e) {
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Store a snapshot, then remove the least recently used snapshots if the
+     * cache is too large
+     *
+     * @param key      the key of the snapshot
+     * @param snapshot the snapshot
+     * @throws IOException if the snapshot can't be written
+     */
+    public void store(String key, int[] snapshot) throws IOException {
+        Files.createDirectories(directory);
+
+        ByteBuffer bytes = ByteBuffer.allocate(HEADER_BYTES + (snapshot.length * Integer.BYTES));
+        bytes.putInt(MAGIC).putInt(VERSION).putInt(snapshot.length);
+        bytes.asIntBuffer().put(snapshot);
+        bytes.rewind();
+
+        // write to a temporary file, then move into place, so a reader never sees
+        // a partial snapshot
+        Path temp = Files.createTempFile(directory, key, ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+        Files.move(temp, directory.resolve(key + SUFFIX), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+
+        ResultCache.evictLeastRecentlyUsed(directory, SUFFIX, maxEntries);
+    }
+
+    /**
+     * The number of lookups which found a snapshot
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * The number of lookups which didn't find a snapshot
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Reset the numbers of hits and misses to zero
+     */
+    public void resetStatistics() {
+        hits.set(0);
+        misses.set(0);
+    }
+}
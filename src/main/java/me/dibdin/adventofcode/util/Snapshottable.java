@@ -0,0 +1,66 @@
+package me.dibdin.adventofcode.util;
+
+import java.nio.IntBuffer;
+
+/**
+ * Implemented by challenges which can save their parsed puzzle input as a
+ * snapshot - a flat array of ints - and restore it again, so that repeated
+ * runs can skip parsing the text of the input.
+ *
+ * A snapshot only needs to be readable by the same version of the class that
+ * wrote it, as the snapshot cache is keyed by the class bytecode.
+ */
+public interface Snapshottable {
+
+    /**
+     * Save the parsed puzzle input
+     *
+     * @return the snapshot
+     * @throws IllegalStateException if no puzzle input has been set
+     */
+    public int[] writeSnapshot() throws IllegalStateException;
+
+    /**
+     * Restore the parsed puzzle input, replacing any input already set
+     *
+     * @param snapshot the snapshot, positioned at the start
+     */
+    public void readSnapshot(IntBuffer snapshot);
+
+    /**
+     * Flatten a two dimensional array into a snapshot, as the number of rows,
+     * followed by the length and values of each row
+     *
+     * @param array the array to flatten
+     * @return the snapshot
+     */
+    public static int[] flatten(int[][] array) {
+        int size = 1;
+        for (int[] row : array) {
+            size += row.length + 1;
+        }
+
+        IntBuffer buffer = IntBuffer.allocate(size);
+        buffer.put(array.length);
+        for (int[] row : array) {
+            buffer.put(row.length);
+            buffer.put(row);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Read a two dimensional array, written by flatten, from a snapshot
+     *
+     * @param snapshot the snapshot, positioned at the start of the array
+     * @return the array
+     */
+    public static int[][] unflatten(IntBuffer snapshot) {
+        int[][] array = new int[snapshot.get()][];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = new int[snapshot.get()];
+            snapshot.get(array[i]);
+        }
+        return array;
+    }
+}
@@ -0,0 +1,363 @@
+package me.dibdin.adventofcode.util;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import me.dibdin.adventofcode.Challenge;
+
+/**
+ * A long running server which solves challenges on request, so that scripts
+ * can solve challenges repeatedly in a JVM which has already been warmed up,
+ * rather than paying for JVM startup and JIT compilation on every call.
+ *
+ * The server only listens on the loopback address, and uses a simple line
+ * based protocol. Each request is one of:
+ *
+ * <pre>
+ * SOLVE year day path    solve using the puzzle input in the file
+ * SOLVE year day         solve using the lines which follow, up to "END"
+ * QUIT                   close the connection
+ * SHUTDOWN               close the connection and stop the server
+ * </pre>
+ *
+ * and is answered with a single line, either
+ * "OK partOne partTwo phase=ms ..." or "ERROR message".
+ *
+ * Each worker thread keeps its own instance of every challenge it has solved,
+ * and reuses it for later requests. An instance which fails is discarded, and
+ * a request which takes longer than the time limit is cancelled. Each
+ * connection holds a worker thread, so a connection which sends nothing for
+ * the idle time limit is closed, to free its thread for other clients.
+ */
+public class SolverDaemon {
+
+    /**
+     * The default port to listen on
+     */
+    public static final int DEFAULT_PORT = 7270;
+
+    /**
+     * The default time a connection may wait between requests before it is
+     * closed
+     */
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofSeconds(60);
+
+    /**
+     * The longest time to wait before accepting again, after accepting a
+     * connection has failed
+     */
+    private static final long MAX_ACCEPT_BACKOFF_MILLIS = 1000;
+
+    private final ServerSocket server;
+    private final int threads;
+    private final ExecutorService pool;
+    private final ThreadLocal<Map<ChallengeId, Challenge>> instances = ThreadLocal
+            .withInitial(HashMap<ChallengeId, Challenge>::new);
+    private volatile Duration timeout = null;
+    private volatile Duration idleTimeout = DEFAULT_IDLE_TIMEOUT;
+
+    /**
+     * Create a server listening on the loopback address
+     *
+     * @param port    the port to listen on, or zero for any free port
+     * @param threads the number of connections to serve at the same time
+     * @throws IOException if the port can't be opened
+     */
+    public SolverDaemon(int port, int threads) throws IOException {
+        server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.threads = threads;
+        pool = Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * Set the time limit for each request, after which it is cancelled
+     *
+     * @param timeout the time limit, or null for no limit
+     */
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Set the time a connection may wait between requests, or in the middle of
+     * inline puzzle input, before it is closed. This only applies to
+     * connections accepted afterwards.
+     *
+     * @param idleTimeout the time limit, or null for no limit
+     */
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * The port the server is listening on
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Solve every available challenge with its bundled puzzle input on every
+     * worker thread, so that the solutions are compiled by the JIT, and each
+     * thread has its instances ready, before the first request arrives. Call
+     * this before serve, while every worker thread is free.
+     *
+     * @param iterations the number of times to solve each challenge
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public void warmUp(int iterations) throws InterruptedException {
+        // each task waits for the others before finishing, so that no thread can
+        // take a second task, and every thread warms up its own instances
+        CountDownLatch warmed = new CountDownLatch(threads);
+        ArrayList<Future<?>> tasks = new ArrayList<Future<?>>();
+        for (int t = 0; t < threads; t++) {
+            tasks.add(pool.submit(() -> {
+                try {
+                    warmUpThread(iterations);
+                } finally {
+                    warmed.countDown();
+                }
+                warmed.await();
+                return null;
+            }));
+        }
+
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (ExecutionException e) {
+                // a thread which was interrupted is only partly warmed up
+            }
+        }
+    }
+
+    /**
+     * Solve every available challenge on the current thread
+     *
+     * @param iterations the number of times to solve each challenge
+     */
+    private void warmUpThread(int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            for (ChallengeId id : ChallengeFactory.getAvailableChallenges()) {
+                try {
+                    solve(id, ByteInput.forPuzzle(id.getYear(), id.getDay()));
+                } catch (Exception e) {
+                    // a challenge which can't be solved won't be warmed up
+                }
+            }
+        }
+    }
+
+    /**
+     * Accept connections until the server is shut down. If accepting fails, such
+     * as when too many files are open, wait a little longer after each failure
+     * before trying again.
+     */
+    public void serve() {
+        long backoff = 0;
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                pool.execute(() -> handle(socket));
+                backoff = 0;
+            } catch (IOException e) {
+                if (server.isClosed()) {
+                    // the server has been shut down
+                    return;
+                }
+
+                backoff = Math.min(Math.max(2 * backoff, 10), MAX_ACCEPT_BACKOFF_MILLIS);
+                System.err.println("Unable to accept a connection, trying again in " + backoff + " ms: "
+                        + e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop accepting connections, and stop the worker threads once they have
+     * finished their current requests
+     */
+    public void shutdown() {
+        try {
+            server.close();
+        } catch (IOException e) {
+            // already closed
+        }
+        pool.shutdown();
+    }
+
+    /**
+     * Answer each request on a connection, until the client quits
+     *
+     * @param socket the connection
+     */
+    private void handle(Socket socket) {
+        Duration idle = idleTimeout;
+        try (Socket s = socket;
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+                PrintWriter out = new PrintWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8),
+                        true)) {
+
+            if (idle != null) {
+                s.setSoTimeout((int) Math.min(Math.max(idle.toMillis(), 1), Integer.MAX_VALUE));
+            }
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] tokens = line.trim().split("\\s+", 4);
+
+                if (tokens[0].equalsIgnoreCase("QUIT")) {
+                    return;
+                } else if (tokens[0].equalsIgnoreCase("SHUTDOWN")) {
+                    out.println("OK");
+                    shutdown();
+                    return;
+                } else if (tokens[0].equalsIgnoreCase("SOLVE") && (tokens.length >= 3)) {
+                    out.println(solveRequest(tokens, in));
+                } else if (!tokens[0].isEmpty()) {
+                    out.println("ERROR Unknown request: " + line);
+                }
+            }
+        } catch (SocketTimeoutException e) {
+            // the client has been idle for too long, so free the thread
+        } catch (SocketException e) {
+            // the client has gone away
+        } catch (IOException e) {
+            // nothing can be sent to the client
+        }
+    }
+
+    /**
+     * Read the puzzle input for a SOLVE request, then solve it
+     *
+     * @param tokens the tokens of the request line
+     * @param in     the connection, for reading inline puzzle input
+     * @return the response line
+     * @throws IOException if the connection fails
+     */
+    private String solveRequest(String[] tokens, BufferedReader in) throws IOException {
+        // inline input has to be read, even if the request is invalid
+        ByteInput input = null;
+        if (tokens.length == 3) {
+            input = readInline(in);
+        }
+
+        try {
+            ChallengeId id = new ChallengeId(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]));
+            if (input == null) {
+                input = ByteInput.map(Paths.get(tokens[3]));
+            }
+            return solve(id, input);
+        } catch (NumberFormatException e) {
+            return "ERROR Invalid year or day";
+        } catch (ClassNotFoundException e) {
+            return error(e.getMessage());
+        } catch (IOException e) {
+            return error("Unable to read puzzle input: " + e.getMessage());
+        } catch (CancellationException e) {
+            return "ERROR Stopped: the time limit was reached";
+        } catch (RuntimeException | Error e) {
+            // even running out of memory or stack only fails this request
+            return error(e.toString());
+        }
+    }
+
+    /**
+     * Create an error response, on a single line so that the client can't
+     * mistake the rest of the message for the answers to later requests
+     *
+     * @param message the error message, which may contain line breaks
+     * @return the response line
+     */
+    static String error(String message) {
+        return "ERROR " + String.valueOf(message).replaceAll("\\R", " ");
+    }
+
+    /**
+     * Read inline puzzle input, up to a line containing only "END"
+     *
+     * @param in the connection
+     * @return the input
+     * @throws IOException if the connection fails, or closes before the end
+     */
+    private static ByteInput readInline(BufferedReader in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        String line;
+        while (!"END".equals(line = in.readLine())) {
+            if (line == null) {
+                throw new EOFException("Connection closed before the end of the puzzle input");
+            }
+            bytes.write(line.getBytes(StandardCharsets.UTF_8));
+            bytes.write('\n');
+        }
+        return ByteInput.wrap(bytes.toByteArray());
+    }
+
+    /**
+     * Solve a challenge, reusing this thread's instance of it, unless a solve
+     * fails and leaves the instance in an unknown state
+     *
+     * @param id    the year and day of the challenge
+     * @param input the puzzle input
+     * @return the response line
+     * @throws ClassNotFoundException if there is no solution for the year and day
+     */
+    private String solve(ChallengeId id, ByteInput input) throws ClassNotFoundException {
+        Map<ChallengeId, Challenge> threadInstances = instances.get();
+        Challenge challenge = threadInstances.get(id);
+        if (challenge == null) {
+            challenge = ChallengeFactory.getChallengeInstance(id.getYear(), id.getDay());
+            threadInstances.put(id, challenge);
+        }
+
+        long[] results;
+        Duration limit = timeout;
+        challenge.setCancellationToken((limit == null) ? null : new CancellationToken(limit));
+        try {
+            challenge.timedSetPuzzleInput(input);
+            results = challenge.timedSolveBoth();
+        } catch (RuntimeException | Error e) {
+            threadInstances.remove(id);
+            throw e;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("OK ").append(results[0]).append(' ').append(results[1]);
+        for (Map.Entry<Phase, PhaseTiming> entry : challenge.getTimings().entrySet()) {
+            sb.append(' ').append(entry.getKey().name().toLowerCase()).append('=')
+                    .append(TimingReport.millis(entry.getValue().getWallNanos()));
+        }
+        return sb.toString();
+    }
+}
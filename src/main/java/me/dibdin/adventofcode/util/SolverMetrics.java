@@ -0,0 +1,229 @@
+package me.dibdin.adventofcode.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import me.dibdin.adventofcode.Challenge;
+
+/**
+ * Metrics of the challenges being solved, published as MBeans so they can be
+ * watched from JConsole or any other JMX client during long running sessions.
+ *
+ * Nothing is recorded until register is called. After that, a
+ * ChallengeMetrics MBean is registered for each challenge the first time one
+ * of its phases starts, named "me.dibdin.adventofcode:type=Challenge,year=Y,day=D",
+ * alongside this MBean, named "me.dibdin.adventofcode:type=Solver".
+ */
+public class SolverMetrics implements SolverMetricsMXBean {
+
+    /**
+     * The JMX domain of the MBeans
+     */
+    public static final String DOMAIN = "me.dibdin.adventofcode";
+
+    private static volatile SolverMetrics instance = null;
+
+    private final MBeanServer server;
+    private final ConcurrentSkipListMap<ChallengeId, ChallengeMetrics> challenges =
+            new ConcurrentSkipListMap<ChallengeId, ChallengeMetrics>();
+    private volatile ResultCache resultCache = null;
+    private volatile SnapshotCache snapshotCache = null;
+
+    /**
+     * Constructor.
+     *
+     * @param server where to register the MBeans
+     */
+    private SolverMetrics(MBeanServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Start recording metrics, and register the MBeans with the platform MBean
+     * server. Calling this again returns the metrics already registered.
+     *
+     * @return the metrics
+     * @throws JMException if the MBeans can't be registered
+     */
+    public static synchronized SolverMetrics register() throws JMException {
+        if (instance == null) {
+            SolverMetrics metrics = new SolverMetrics(ManagementFactory.getPlatformMBeanServer());
+            metrics.server.registerMBean(metrics, new ObjectName(DOMAIN + ":type=Solver"));
+            instance = metrics;
+        }
+        return instance;
+    }
+
+    /**
+     * The metrics being recorded
+     *
+     * @return the metrics, or null if register hasn't been called
+     */
+    public static SolverMetrics getInstance() {
+        return instance;
+    }
+
+    /**
+     * The name of the MBean of a challenge
+     *
+     * @param id the year and day of the challenge
+     * @return the name
+     * @throws JMException if the name is invalid
+     */
+    public static ObjectName getObjectName(ChallengeId id) throws JMException {
+        return new ObjectName(String.format("%s:type=Challenge,year=%d,day=%d", DOMAIN, id.getYear(), id.getDay()));
+    }
+
+    /**
+     * Record that the current thread has started a phase of a challenge
+     *
+     * @param challenge the challenge
+     * @param phase     the phase
+     */
+    public static void phaseStarted(Challenge challenge, Phase phase) {
+        SolverMetrics metrics = instance;
+        if (metrics != null) {
+            metrics.getChallengeMetrics(challenge).phaseStarted(phase);
+        }
+    }
+
+    /**
+     * Record that a phase of a challenge has completed, on the current thread
+     *
+     * @param challenge the challenge
+     * @param phase     the phase
+     * @param timing    the measurements of the phase
+     */
+    public static void phaseCompleted(Challenge challenge, Phase phase, PhaseTiming timing) {
+        SolverMetrics metrics = instance;
+        if (metrics != null) {
+            metrics.getChallengeMetrics(challenge).phaseCompleted(challenge, phase, timing);
+        }
+    }
+
+    /**
+     * Record that the phase of a challenge the current thread was running has
+     * failed, or been cancelled
+     *
+     * @param challenge the challenge
+     */
+    public static void phaseFailed(Challenge challenge) {
+        SolverMetrics metrics = instance;
+        if (metrics != null) {
+            metrics.getChallengeMetrics(challenge).phaseFailed();
+        }
+    }
+
+    /**
+     * Publish the hits and misses of a result cache
+     *
+     * @param cache the cache, or null for none
+     */
+    public void setResultCache(ResultCache cache) {
+        this.resultCache = cache;
+    }
+
+    /**
+     * Publish the hits and misses of a snapshot cache
+     *
+     * @param cache the cache, or null for none
+     */
+    public void setSnapshotCache(SnapshotCache cache) {
+        this.snapshotCache = cache;
+    }
+
+    /**
+     * Find the metrics of a challenge, registering its MBean the first time
+     *
+     * @param challenge the challenge
+     * @return the metrics
+     */
+    public ChallengeMetrics getChallengeMetrics(Challenge challenge) {
+        ChallengeId id = new ChallengeId(challenge.getYear(), challenge.getDay());
+        ChallengeMetrics metrics = challenges.get(id);
+        if (metrics == null) {
+            metrics = challenges.computeIfAbsent(id, key -> {
+                ChallengeMetrics created = new ChallengeMetrics(key, challenge.getName());
+                try {
+                    server.registerMBean(created, getObjectName(key));
+                } catch (JMException e) {
+                    // still recorded, and reported by the solver MBean, just not visible on its own
+                }
+                return created;
+            });
+        }
+        return metrics;
+    }
+
+    @Override
+    public String[] getRunningChallenges() {
+        return challenges.values().stream().filter(ChallengeMetrics::isRunning)
+                .map(metrics -> metrics.getYear() + "/" + metrics.getDay()).toArray(String[]::new);
+    }
+
+    @Override
+    public long getSolveCount() {
+        return challenges.values().stream().mapToLong(ChallengeMetrics::getSolveCount).sum();
+    }
+
+    @Override
+    public long getFailureCount() {
+        return challenges.values().stream().mapToLong(ChallengeMetrics::getFailureCount).sum();
+    }
+
+    @Override
+    public long getResultCacheHits() {
+        ResultCache cache = resultCache;
+        return (cache == null) ? 0 : cache.getHits();
+    }
+
+    @Override
+    public long getResultCacheMisses() {
+        ResultCache cache = resultCache;
+        return (cache == null) ? 0 : cache.getMisses();
+    }
+
+    @Override
+    public double getResultCacheHitRate() {
+        ResultCache cache = resultCache;
+        if (cache == null) {
+            return 0;
+        }
+        long hits = cache.getHits();
+        long lookups = hits + cache.getMisses();
+        return (lookups == 0) ? 0 : ((double) hits / lookups);
+    }
+
+    @Override
+    public long getSnapshotCacheHits() {
+        SnapshotCache cache = snapshotCache;
+        return (cache == null) ? 0 : cache.getHits();
+    }
+
+    @Override
+    public long getSnapshotCacheMisses() {
+        SnapshotCache cache = snapshotCache;
+        return (cache == null) ? 0 : cache.getMisses();
+    }
+
+    @Override
+    public void resetStatistics() {
+        for (Map.Entry<ChallengeId, ChallengeMetrics> entry : challenges.entrySet()) {
+            entry.getValue().resetStatistics();
+        }
+
+        ResultCache results = resultCache;
+        if (results != null) {
+            results.resetStatistics();
+        }
+        SnapshotCache snapshots = snapshotCache;
+        if (snapshots != null) {
+            snapshots.resetStatistics();
+        }
+    }
+}
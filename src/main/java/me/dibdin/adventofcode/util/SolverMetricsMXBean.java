@@ -0,0 +1,70 @@
+package me.dibdin.adventofcode.util;
+
+/**
+ * JMX view of the metrics across every challenge, and of the caches
+ */
+public interface SolverMetricsMXBean {
+
+    /**
+     * The challenges which are running a phase now
+     *
+     * @return the year and day of each running challenge, formatted "year/day"
+     */
+    public String[] getRunningChallenges();
+
+    /**
+     * The number of times part one, part two or both parts of any challenge have
+     * been solved
+     *
+     * @return the count
+     */
+    public long getSolveCount();
+
+    /**
+     * The number of phases of any challenge which ended with an error, or were
+     * cancelled
+     *
+     * @return the count
+     */
+    public long getFailureCount();
+
+    /**
+     * The number of results found in the result cache
+     *
+     * @return the count, or zero if there is no result cache
+     */
+    public long getResultCacheHits();
+
+    /**
+     * The number of results not found in the result cache
+     *
+     * @return the count, or zero if there is no result cache
+     */
+    public long getResultCacheMisses();
+
+    /**
+     * The proportion of lookups which found a result in the result cache
+     *
+     * @return the hit rate, from 0 to 1, or zero if there have been no lookups
+     */
+    public double getResultCacheHitRate();
+
+    /**
+     * The number of snapshots found in the snapshot cache
+     *
+     * @return the count, or zero if there is no snapshot cache
+     */
+    public long getSnapshotCacheHits();
+
+    /**
+     * The number of snapshots not found in the snapshot cache
+     *
+     * @return the count, or zero if there is no snapshot cache
+     */
+    public long getSnapshotCacheMisses();
+
+    /**
+     * Reset the statistics of every challenge, and of the caches
+     */
+    public void resetStatistics();
+}
@@ -0,0 +1,63 @@
+package me.dibdin.adventofcode.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event for a major step inside a solver, such as one
+ * round of an algorithm. These events can be frequent, so are only recorded
+ * when enabled in the recording settings.
+ */
+@Name("adventofcode.SolverStep")
+@Label("Solver Step")
+@Description("A major step inside the solution to a challenge")
+@Category("Advent of Code")
+@Enabled(false)
+@StackTrace(false)
+public class SolverStepEvent extends jdk.jfr.Event {
+
+    @Label("Year")
+    int year;
+
+    @Label("Day")
+    int day;
+
+    @Label("Step")
+    String step;
+
+    @Label("Count")
+    @Description("The number of items processed by the step")
+    long count;
+
+    /**
+     * Create an event, and start timing it
+     *
+     * @param year the year of the challenge
+     * @param day  the day of the challenge
+     * @param step a description of the step
+     * @return the event, to be committed when the step ends
+     */
+    public static SolverStepEvent begin(int year, int day, String step) {
+        SolverStepEvent event = new SolverStepEvent();
+        if (event.isEnabled()) {
+            event.year = year;
+            event.day = day;
+            event.step = step;
+            event.begin();
+        }
+        return event;
+    }
+
+    /**
+     * Set the number of items processed by the step
+     *
+     * @param count the number of items
+     */
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,47 @@
+package me.dibdin.adventofcode.util;
+
+import java.util.function.LongSupplier;
+
+/**
+ * One algorithm for solving both parts of a challenge, such as a brute force
+ * search or an optimised engine, against the input parsed by the challenge.
+ *
+ * A challenge registers each of its strategies by name, and solves with
+ * whichever one is selected. Every strategy must give the same answers, which
+ * DifferentialCheck can confirm before a faster one is made the default.
+ */
+public interface SolverStrategy {
+
+    /**
+     * Solve part one of the puzzle
+     *
+     * @return the result
+     */
+    public long solvePartOne();
+
+    /**
+     * Solve part two of the puzzle
+     *
+     * @return the result
+     */
+    public long solvePartTwo();
+
+    /**
+     * Create a strategy from a method for each part
+     *
+     * @param partOne solves part one
+     * @param partTwo solves part two
+     * @return the strategy
+     */
+    public static SolverStrategy of(LongSupplier partOne, LongSupplier partTwo) {
+        return new SolverStrategy() {
+            public long solvePartOne() {
+                return partOne.getAsLong();
+            }
+
+            public long solvePartTwo() {
+                return partTwo.getAsLong();
+            }
+        };
+    }
+}
@@ -0,0 +1,359 @@
+package me.dibdin.adventofcode.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import me.dibdin.adventofcode.Challenge;
+
+/**
+ * Solves one challenge against many puzzle inputs in parallel, such as the
+ * inputs of many different accounts, and streams each result to a sink as
+ * soon as it is solved.
+ *
+ * Inputs are submitted to a fixed pool of threads, with no more than the size
+ * of the queue waiting at once, so a very long list of inputs is never all
+ * loaded at once. Submitting blocks while the queue is full.
+ *
+ * Each thread keeps its own instance of the challenge, which is reused for
+ * every input it solves, so anything a challenge keeps between inputs is only
+ * created once per thread. Challenges replace all of their puzzle state when
+ * given new input, so reuse is safe. An instance which fails is discarded,
+ * in case it was left part way through solving.
+ *
+ * For very many small inputs, where reading the inputs and writing the results
+ * is as slow as solving them, each input can instead be given a thread of its
+ * own to read it and write its result, leaving the fixed pool to parse and
+ * solve. On Java 21, with the jar built by the "java21" profile, these are
+ * virtual threads. See VirtualThreads.
+ */
+public class ThroughputRunner {
+
+    private final ExecutorService pool;
+    private final int maxInFlight;
+    private final Semaphore permits;
+    private Duration timeout = null;
+    private boolean threadPerInput = false;
+
+    /**
+     * Create a runner
+     *
+     * @param threads       the number of threads to solve with
+     * @param queueCapacity the number of inputs which may wait for a thread
+     */
+    public ThroughputRunner(int threads, int queueCapacity) {
+        this.pool = Executors.newFixedThreadPool(threads);
+        this.maxInFlight = threads + Math.max(0, queueCapacity);
+        this.permits = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Limit how long each input may spend parsing and solving. Inputs which take
+     * longer are cancelled, and reported as errors.
+     *
+     * @param timeout the time limit for each input, or null for no limit
+     */
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Read each input and write its result on a thread of its own, a virtual
+     * thread where available, and use the pool only to parse and solve. The
+     * queue capacity then limits how many inputs are read and waiting to be
+     * solved at once.
+     *
+     * @param threadPerInput true to give each input its own thread
+     */
+    public void setThreadPerInput(boolean threadPerInput) {
+        this.threadPerInput = threadPerInput;
+    }
+
+    /**
+     * The totals of a run over many inputs
+     */
+    public static class Summary {
+        private long inputs = 0;
+        private long failures = 0;
+        private long elapsedNanos = 0;
+        private final EnumMap<Phase, LatencyHistogram> histograms = new EnumMap<Phase, LatencyHistogram>(
+                Phase.class);
+
+        /**
+         * Constructor.
+         */
+        Summary() {
+            for (Phase phase : new Phase[] { Phase.LOAD, Phase.PARSE, Phase.BOTH_PARTS }) {
+                histograms.put(phase, new LatencyHistogram());
+            }
+        }
+
+        /**
+         * Count the result of one input
+         *
+         * @param result the result
+         */
+        synchronized void record(ChallengeResult result) {
+            inputs++;
+            if (!result.isSolved()) {
+                failures++;
+                return;
+            }
+            for (Map.Entry<Phase, LatencyHistogram> entry : histograms.entrySet()) {
+                PhaseTiming timing = result.getTimings().get(entry.getKey());
+                if (timing != null) {
+                    entry.getValue().record(timing.getWallNanos());
+                }
+            }
+        }
+
+        /**
+         * Set the wall clock time of the whole run
+         *
+         * @param elapsedNanos the time in nanoseconds
+         */
+        synchronized void setElapsedNanos(long elapsedNanos) {
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * The number of inputs, solved or not
+         *
+         * @return the number of inputs
+         */
+        public synchronized long getInputs() {
+            return inputs;
+        }
+
+        /**
+         * The number of inputs which could not be solved
+         *
+         * @return the number of failures
+         */
+        public synchronized long getFailures() {
+            return failures;
+        }
+
+        /**
+         * The wall clock time of the whole run
+         *
+         * @return the time in nanoseconds
+         */
+        public synchronized long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * The number of inputs solved, or failed, each second
+         *
+         * @return the throughput
+         */
+        public synchronized double getInputsPerSecond() {
+            return (elapsedNanos == 0) ? 0 : (inputs * 1e9) / elapsedNanos;
+        }
+
+        /**
+         * The distribution of the wall clock time of each phase, over the inputs
+         * which were solved
+         *
+         * @return the histograms, by phase
+         */
+        public synchronized Map<Phase, LatencyHistogram> getHistograms() {
+            return new EnumMap<Phase, LatencyHistogram>(histograms);
+        }
+    }
+
+    /**
+     * List the inputs to solve. A directory gives every file in it, in name
+     * order. Any other file is read as a manifest, listing one input per line,
+     * relative to the manifest. Blank lines and lines starting with "#" are
+     * ignored.
+     *
+     * @param source a directory of inputs, or a manifest
+     * @return the inputs
+     * @throws IOException if the directory or manifest can't be read
+     */
+    public static List<Path> listInputs(Path source) throws IOException {
+        if (Files.isDirectory(source)) {
+            try (Stream<Path> files = Files.list(source)) {
+                return files.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+        }
+
+        Path directory = source.toAbsolutePath().getParent();
+        ArrayList<Path> inputs = new ArrayList<Path>();
+        for (String line : Files.readAllLines(source)) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                inputs.add(directory.resolve(line));
+            }
+        }
+        return inputs;
+    }
+
+    /**
+     * Solve a challenge against each input, writing each result to the sink as
+     * it is solved
+     *
+     * @param year   the year of the challenge
+     * @param day    the day of the challenge
+     * @param inputs the puzzle inputs
+     * @param sink   where to write the results
+     * @return the totals of the run
+     * @throws ClassNotFoundException if there is no solution for the year and day
+     * @throws IOException            if a result can't be written to the sink
+     * @throws InterruptedException   if interrupted while waiting for the inputs
+     *                                to be solved
+     */
+    public Summary run(int year, int day, List<Path> inputs, ResultSink sink)
+            throws ClassNotFoundException, IOException, InterruptedException {
+        Supplier<Challenge> constructor = ChallengeFactory.getChallengeConstructor(year, day);
+        ThreadLocal<Challenge> solvers = ThreadLocal.withInitial(constructor);
+        ChallengeId id = new ChallengeId(year, day);
+
+        Summary summary = new Summary();
+        AtomicReference<IOException> sinkError = new AtomicReference<IOException>();
+        ExecutorService perInput = threadPerInput ? VirtualThreads.newThreadPerTaskExecutor("throughput-input-")
+                : pool;
+        long start = System.nanoTime();
+
+        for (Path input : inputs) {
+            // wait for room in the queue
+            permits.acquire();
+            try {
+                perInput.execute(() -> {
+                    try {
+                        ChallengeResult result = threadPerInput ? readAndSolve(id, solvers, input)
+                                : solve(id, solvers, input);
+                        summary.record(result);
+                        sink.write(input.getFileName().toString(), result);
+                    } catch (IOException e) {
+                        sinkError.compareAndSet(null, e);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        // wait for every input to finish
+        permits.acquire(maxInFlight);
+        permits.release(maxInFlight);
+        summary.setElapsedNanos(System.nanoTime() - start);
+        if (threadPerInput) {
+            perInput.shutdown();
+        }
+
+        sink.flush();
+        if (sinkError.get() != null) {
+            throw sinkError.get();
+        }
+        return summary;
+    }
+
+    /**
+     * Load, parse and solve one input, with the challenge kept by this thread
+     *
+     * @param id      the year and day of the challenge
+     * @param solvers the instance of the challenge kept by each thread
+     * @param path    the puzzle input
+     * @return the result, which holds the error if the input couldn't be solved
+     */
+    private ChallengeResult solve(ChallengeId id, ThreadLocal<Challenge> solvers, Path path) {
+        ChallengeResult result = new ChallengeResult(id);
+        try {
+            PhaseTimer timer = PhaseTimer.start();
+            ByteInput input = ByteInput.map(path);
+            return solve(result, solvers, input, timer.stop());
+        } catch (IOException e) {
+            result.setError(e);
+            return result;
+        }
+    }
+
+    /**
+     * Read one input into memory on this thread, then parse and solve it in the
+     * pool, waiting for the result. The input is read rather than mapped, so
+     * that the pool doesn't wait on the disk while parsing.
+     *
+     * @param id      the year and day of the challenge
+     * @param solvers the instance of the challenge kept by each thread of the
+     *                pool
+     * @param path    the puzzle input
+     * @return the result, which holds the error if the input couldn't be solved
+     */
+    private ChallengeResult readAndSolve(ChallengeId id, ThreadLocal<Challenge> solvers, Path path) {
+        ChallengeResult result = new ChallengeResult(id);
+        try {
+            PhaseTimer timer = PhaseTimer.start();
+            ByteInput input = ByteInput.wrap(Files.readAllBytes(path));
+            PhaseTiming load = timer.stop();
+            return pool.submit(() -> solve(result, solvers, input, load)).get();
+        } catch (IOException e) {
+            result.setError(e);
+        } catch (ExecutionException e) {
+            result.setError(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.setError(e);
+        }
+        return result;
+    }
+
+    /**
+     * Parse and solve one loaded input, with the challenge kept by this thread
+     *
+     * @param result  the result to fill in
+     * @param solvers the instance of the challenge kept by each thread
+     * @param input   the puzzle input
+     * @param load    the measurements of loading the input
+     * @return the result, which holds the error if the input couldn't be solved
+     */
+    private ChallengeResult solve(ChallengeResult result, ThreadLocal<Challenge> solvers, ByteInput input,
+            PhaseTiming load) {
+        Challenge challenge = solvers.get();
+        result.setName(challenge.getName());
+
+        try {
+            challenge.recordTiming(Phase.LOAD, load);
+            if (timeout != null) {
+                challenge.setCancellationToken(new CancellationToken(timeout));
+            }
+            challenge.timedSetPuzzleInput(input);
+            long[] results = challenge.timedSolveBoth();
+
+            result.setPartOne(results[0]);
+            result.setPartTwo(results[1]);
+            result.setTimings(challenge.getTimings());
+        } catch (RuntimeException | Error e) {
+            // start again with a new instance
+            solvers.remove();
+            result.setError(e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Shut down the threads used by the runner
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
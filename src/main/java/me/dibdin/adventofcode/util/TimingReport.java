@@ -0,0 +1,201 @@
+package me.dibdin.adventofcode.util;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formats answers and phase measurements as tables for the user
+ */
+public class TimingReport {
+
+    /**
+     * Print the measurements of each phase of a single challenge
+     *
+     * @param timings the measurements, by phase
+     * @param out     where to print the table
+     */
+    public static void printPhases(Map<Phase, PhaseTiming> timings, PrintStream out) {
+        String format = "%-9s %12s %12s %16s%n";
+        out.printf(format, "Phase", "Wall ms", "CPU ms", "Allocated bytes");
+
+        for (Map.Entry<Phase, PhaseTiming> entry : timings.entrySet()) {
+            PhaseTiming timing = entry.getValue();
+            out.printf(format, entry.getKey().getDescription(), millis(timing.getWallNanos()),
+                    millis(timing.getCpuNanos()), timing.getAllocatedBytes());
+        }
+    }
+
+    /**
+     * Print the answers and the wall clock time of each phase, one challenge per
+     * row
+     *
+     * @param results the results to print
+     * @param out     where to print the table
+     */
+    public static void printResults(List<ChallengeResult> results, PrintStream out) {
+        String format = "%-4s %-3s %-26s %16s %16s %10s %10s %10s %10s %10s %12s %s%n";
+        out.printf(format, "Year", "Day", "Name", "Part One", "Part Two", "Load ms", "Parse ms", "Part 1 ms",
+                "Part 2 ms", "Both ms", "Alloc MB", "");
+
+        long totalNanos = 0;
+        for (ChallengeResult result : results) {
+            ChallengeId id = result.getId();
+            String name = (result.getName() == null) ? "" : result.getName();
+
+            if (result.isSolved()) {
+                Map<Phase, PhaseTiming> timings = result.getTimings();
+                long allocated = timings.values().stream().mapToLong(PhaseTiming::getAllocatedBytes).sum();
+                out.printf(format, id.getYear(), id.getDay(), name, result.getPartOne(), result.getPartTwo(),
+                        wallMillis(timings, Phase.LOAD), wallMillis(timings, Phase.PARSE),
+                        wallMillis(timings, Phase.PART_ONE), wallMillis(timings, Phase.PART_TWO),
+                        wallMillis(timings, Phase.BOTH_PARTS),
+                        String.format("%.1f", allocated / (1024.0 * 1024.0)), result.isCached() ? "cached" : "");
+                totalNanos += result.getTotalWallNanos();
+            } else {
+                out.printf("%-4s %-3s %-26s ERROR: %s%n", id.getYear(), id.getDay(), name, result.getError());
+            }
+        }
+
+        out.printf("Total time across all challenges: %s ms%n", millis(totalNanos));
+    }
+
+    /**
+     * Print the counts of events in the hot loops of a single challenge
+     *
+     * @param counters the counts, by counter name
+     * @param out      where to print the table
+     */
+    public static void printCounters(Map<String, Long> counters, PrintStream out) {
+        String format = "%-26s %16s%n";
+        out.printf(format, "Counter", "Count");
+
+        for (Map.Entry<String, Long> entry : counters.entrySet()) {
+            out.printf(format, entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Print the counts of events in the hot loops of each challenge which has
+     * counters, one counter per row
+     *
+     * @param results the results to print
+     * @param out     where to print the table
+     */
+    public static void printResultCounters(List<ChallengeResult> results, PrintStream out) {
+        String format = "%-4s %-3s %-26s %16s%n";
+        out.printf(format, "Year", "Day", "Counter", "Count");
+
+        for (ChallengeResult result : results) {
+            ChallengeId id = result.getId();
+            for (Map.Entry<String, Long> entry : result.getCounters().entrySet()) {
+                out.printf(format, id.getYear(), id.getDay(), entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Print the percentiles of the wall clock time of each phase, from repeated
+     * runs of a challenge
+     *
+     * @param histograms the wall clock times in nanoseconds, by phase
+     * @param out        where to print the table
+     */
+    public static void printHistograms(Map<Phase, LatencyHistogram> histograms, PrintStream out) {
+        String format = "%-10s %8s %12s %12s %12s %12s %12s %12s%n";
+        out.printf(format, "Phase", "Runs", "Min ms", "Mean ms", "p50 ms", "p90 ms", "p99 ms", "Max ms");
+
+        for (Map.Entry<Phase, LatencyHistogram> entry : histograms.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            out.printf(format, entry.getKey().getDescription(), histogram.getCount(), millis(histogram.getMin()),
+                    millis((long) histogram.getMean()), millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)), millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getMax()));
+        }
+    }
+
+    /**
+     * Print the percentiles of the heap allocation of each phase, from repeated
+     * runs of a challenge
+     *
+     * @param histograms the allocated bytes, by phase
+     * @param out        where to print the table
+     */
+    public static void printAllocations(Map<Phase, LatencyHistogram> histograms, PrintStream out) {
+        String format = "%-9s %8s %12s %12s %12s %12s %12s%n";
+        out.printf(format, "Phase", "Runs", "Min KB", "Mean KB", "p50 KB", "p99 KB", "Max KB");
+
+        for (Map.Entry<Phase, LatencyHistogram> entry : histograms.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            out.printf(format, entry.getKey().getDescription(), histogram.getCount(), kilobytes(histogram.getMin()),
+                    kilobytes((long) histogram.getMean()), kilobytes(histogram.getValueAtPercentile(50)),
+                    kilobytes(histogram.getValueAtPercentile(99)), kilobytes(histogram.getMax()));
+        }
+    }
+
+    /**
+     * Print the heap allocation of each phase, one challenge per row
+     *
+     * @param results the results to print
+     * @param out     where to print the table
+     */
+    public static void printResultAllocations(List<ChallengeResult> results, PrintStream out) {
+        String format = "%-4s %-3s %-26s %12s %12s %12s %12s %12s%n";
+        out.printf(format, "Year", "Day", "Name", "Load KB", "Parse KB", "Part 1 KB", "Part 2 KB", "Both KB");
+
+        for (ChallengeResult result : results) {
+            if (result.isSolved()) {
+                ChallengeId id = result.getId();
+                Map<Phase, PhaseTiming> timings = result.getTimings();
+                out.printf(format, id.getYear(), id.getDay(), result.getName(),
+                        allocatedKilobytes(timings, Phase.LOAD), allocatedKilobytes(timings, Phase.PARSE),
+                        allocatedKilobytes(timings, Phase.PART_ONE), allocatedKilobytes(timings, Phase.PART_TWO),
+                        allocatedKilobytes(timings, Phase.BOTH_PARTS));
+            }
+        }
+    }
+
+    /**
+     * The heap allocation of a phase, in kilobytes
+     *
+     * @param timings the measurements, by phase
+     * @param phase   the phase
+     * @return the formatted allocation, or "-" if the phase was not run
+     */
+    private static String allocatedKilobytes(Map<Phase, PhaseTiming> timings, Phase phase) {
+        PhaseTiming timing = timings.get(phase);
+        return (timing == null) ? "-" : kilobytes(timing.getAllocatedBytes());
+    }
+
+    /**
+     * Format bytes as kilobytes
+     *
+     * @param bytes the number of bytes
+     * @return the formatted number of kilobytes, or "-" if not measured
+     */
+    public static String kilobytes(long bytes) {
+        return (bytes < 0) ? "-" : String.format("%.1f", bytes / 1024.0);
+    }
+
+    /**
+     * The wall clock time of a phase, in milliseconds
+     *
+     * @param timings the measurements, by phase
+     * @param phase   the phase
+     * @return the formatted time, or "-" if the phase was not run
+     */
+    private static String wallMillis(Map<Phase, PhaseTiming> timings, Phase phase) {
+        PhaseTiming timing = timings.get(phase);
+        return (timing == null) ? "-" : millis(timing.getWallNanos());
+    }
+
+    /**
+     * Format nanoseconds as milliseconds
+     *
+     * @param nanos the time in nanoseconds
+     * @return the formatted time in milliseconds, or "-" if not measured
+     */
+    public static String millis(long nanos) {
+        return (nanos < 0) ? "-" : String.format("%.3f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,41 @@
+package me.dibdin.adventofcode.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates a thread for each task, for tasks which spend most of their time
+ * waiting on I/O or on other threads.
+ *
+ * This is the version for Java 11, which has no virtual threads, so each task
+ * gets a daemon platform thread. Building with the "java21" profile adds a
+ * version for Java 21 and later to the jar, which gives each task a virtual
+ * thread instead. See src/main/java21.
+ */
+public class VirtualThreads {
+
+    /**
+     * Whether tasks are given virtual threads
+     *
+     * @return false, as this version has no virtual threads
+     */
+    public static boolean isAvailable() {
+        return false;
+    }
+
+    /**
+     * Create an executor which starts a new thread for each task
+     *
+     * @param prefix the prefix of the name of each thread
+     * @return the executor
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -1,18 +1,35 @@
 package me.dibdin.adventofcode.year2020;
 
 import me.dibdin.adventofcode.AbstractChallenge;
+import me.dibdin.adventofcode.util.ByteInput;
+import me.dibdin.adventofcode.util.InputDecoder;
+import me.dibdin.adventofcode.util.SolverStrategy;
 
 import java.util.stream.Stream;
 
 public class Day1 extends AbstractChallenge {
 
+    // the total which the entries must add up to
+    private static final int TOTAL = 2020;
+
     int[] puzzle = null;
 
     public Day1() {
         super ("Report Repair", 2020, 1);
+
+        addStrategy("brute-force", SolverStrategy.of(this::bruteForcePartOne, this::bruteForcePartTwo));
+        addStrategy("lookup", SolverStrategy.of(this::lookupPartOne, this::lookupPartTwo));
     }
 
     public long solvePartOne() {
+        return strategy().solvePartOne();
+    }
+
+    public long solvePartTwo() {
+        return strategy().solvePartTwo();
+    }
+
+    private long bruteForcePartOne() {
         if (puzzle == null) { 
             throw new IllegalStateException("No puzzle input set");
         }
@@ -34,7 +51,7 @@ public class Day1 extends AbstractChallenge {
         return -1;
     }
 
-    public long solvePartTwo() {
+    private long bruteForcePartTwo() {
         if (puzzle == null) { 
             throw new IllegalStateException("No puzzle input set");
         }
@@ -58,8 +75,77 @@ public class Day1 extends AbstractChallenge {
         return -1;
     }
 
+    /**
+     * Solve part one by looking up the entry which completes the pair with each
+     * entry, among the entries before it, rather than trying every pair
+     *
+     * @return the product of the pair, or -1 if there is none
+     */
+    private long lookupPartOne() {
+        if (puzzle == null) {
+            throw new IllegalStateException("No puzzle input set");
+        }
+
+        boolean[] seen = new boolean[TOTAL + 1];
+        for (int entry : puzzle) {
+            if ((entry >= 0) && (entry <= TOTAL)) {
+                if (seen[TOTAL - entry]) {
+                    return (long) entry * (TOTAL - entry);
+                }
+                seen[entry] = true;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Solve part two by looking up the entry which completes the triple with
+     * each pair of entries, rather than trying every triple
+     *
+     * @return the product of the triple, or -1 if there is none
+     */
+    private long lookupPartTwo() {
+        if (puzzle == null) {
+            throw new IllegalStateException("No puzzle input set");
+        }
+
+        // the number of times each entry occurs
+        int[] counts = new int[TOTAL + 1];
+        for (int entry : puzzle) {
+            if ((entry >= 0) && (entry <= TOTAL)) {
+                counts[entry]++;
+            }
+        }
+
+        for (int i = 0; i < puzzle.length; i++) {
+            for (int j = (i + 1); j < puzzle.length; j++) {
+                int third = TOTAL - puzzle[i] - puzzle[j];
+                if ((third < 0) || (third > TOTAL)) {
+                    continue;
+                }
+
+                // the third entry can't be either entry of the pair itself
+                int available = counts[third] - ((puzzle[i] == third) ? 1 : 0) - ((puzzle[j] == third) ? 1 : 0);
+                if (available > 0) {
+                    return (long) puzzle[i] * puzzle[j] * third;
+                }
+            }
+        }
+
+        return -1;
+    }
+
     public void setPuzzleInput(Stream<String> input) {
         // Convert the input into an array of integers
         this.puzzle = input.mapToInt(Integer::parseInt).toArray(); 
     }
-}
\ No newline at end of file
+
+    /**
+     * Decode the puzzle input directly from bytes, without creating a String for
+     * each line.
+     */
+    public void setPuzzleInput(ByteInput input) {
+        puzzle = InputDecoder.decodeAsIntArray(input);
+    }
+}
@@ -0,0 +1,274 @@
+package me.dibdin.adventofcode.year2020;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generators of valid puzzle input for the 2020 challenges, at any scale. See
+ * InputGenerator, and GeneratorRegistry for where they are registered.
+ */
+public class InputGenerators {
+
+    private static final String[] ADJECTIVES = { "bright", "clear", "dark", "dim", "dotted", "drab", "dull", "faded",
+            "light", "mirrored", "muted", "pale", "plaid", "posh", "shiny", "striped", "vibrant", "wavy" };
+    private static final String[] COLOURS = { "aqua", "beige", "black", "blue", "bronze", "brown", "coral", "crimson",
+            "cyan", "fuchsia", "gold", "gray", "green", "indigo", "lavender", "lime", "magenta", "maroon", "olive",
+            "orange", "plum", "purple", "red", "salmon", "silver", "tan", "teal", "tomato", "turquoise", "violet",
+            "white", "yellow" };
+
+    /**
+     * Day 1: Report Repair. The size is the number of expense entries. One pair
+     * and one triple which sum to 2020 are placed at the end, so the searches
+     * have to look at every other entry first.
+     *
+     * @param size   the number of entries, at least 5
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day1(int size, Random random) {
+        int pair = 100 + random.nextInt(800);
+        int first = 100 + random.nextInt(500);
+        int second = 100 + random.nextInt(500);
+        int[] answers = { pair, 2020 - pair, first, second, 2020 - first - second };
+
+        // entries over 1010 can't form a pair or triple which sums to 2020 by
+        // themselves, so just avoid those which complete one with the answers
+        HashSet<Integer> avoid = new HashSet<Integer>();
+        for (int i = 0; i < answers.length; i++) {
+            avoid.add(2020 - answers[i]);
+            for (int j = i + 1; j < answers.length; j++) {
+                avoid.add(2020 - answers[i] - answers[j]);
+            }
+        }
+
+        ArrayList<String> lines = new ArrayList<String>();
+        while (lines.size() < (Math.max(size, 5) - 5)) {
+            int entry = 1011 + random.nextInt(1000);
+            if (!avoid.contains(entry)) {
+                lines.add(Integer.toString(entry));
+            }
+        }
+        for (int answer : answers) {
+            lines.add(Integer.toString(answer));
+        }
+
+        return lines;
+    }
+
+    /**
+     * Day 2: Password Philosophy. The size is the number of passwords.
+     *
+     * @param size   the number of passwords
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day2(int size, Random random) {
+        ArrayList<String> lines = new ArrayList<String>();
+
+        for (int i = 0; i < size; i++) {
+            int length = 5 + random.nextInt(15);
+            char letter = (char) ('a' + random.nextInt(6));
+            int lower = 1 + random.nextInt(length - 1);
+            int upper = lower + 1 + random.nextInt(length - lower);
+
+            StringBuilder password = new StringBuilder();
+            for (int j = 0; j < length; j++) {
+                password.append((char) ('a' + random.nextInt(6)));
+            }
+            lines.add(String.format("%d-%d %c: %s", lower, upper, letter, password));
+        }
+
+        return lines;
+    }
+
+    /**
+     * Day 3: Toboggan Trajectory. The size is the height of the map, which is
+     * always 31 squares wide.
+     *
+     * @param size   the height of the map
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day3(int size, Random random) {
+        ArrayList<String> lines = new ArrayList<String>();
+
+        for (int y = 0; y < size; y++) {
+            StringBuilder sb = new StringBuilder();
+            for (int x = 0; x < 31; x++) {
+                sb.append(random.nextInt(5) == 0 ? '#' : '.');
+            }
+            lines.add(sb.toString());
+        }
+
+        return lines;
+    }
+
+    /**
+     * Day 4: Passport Processing. The size is the number of passports, each with
+     * a mix of missing, valid and invalid fields.
+     *
+     * @param size   the number of passports
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day4(int size, Random random) {
+        ArrayList<String> lines = new ArrayList<String>();
+        String[] eyeColours = { "amb", "blu", "brn", "gry", "grn", "hzl", "oth", "xry" };
+
+        for (int i = 0; i < size; i++) {
+            ArrayList<String> fields = new ArrayList<String>();
+            fields.add("byr:" + (1900 + random.nextInt(130)));
+            fields.add("iyr:" + (2005 + random.nextInt(20)));
+            fields.add("eyr:" + (2015 + random.nextInt(20)));
+            fields.add("hgt:" + (random.nextBoolean() ? (140 + random.nextInt(60)) + "cm"
+                    : (random.nextInt(10) == 0) ? Integer.toString(150 + random.nextInt(40))
+                            : (55 + random.nextInt(25)) + "in"));
+            fields.add("hcl:" + (random.nextInt(10) == 0 ? "" : "#")
+                    + String.format("%06x", random.nextInt(0x1000000)));
+            fields.add("ecl:" + eyeColours[random.nextInt(eyeColours.length)]);
+            fields.add("pid:" + String.format(random.nextInt(10) == 0 ? "%d" : "%09d", random.nextInt(1000000000)));
+            if (random.nextBoolean()) {
+                fields.add("cid:" + (100 + random.nextInt(250)));
+            }
+
+            // leave out a field from some passports
+            if (random.nextInt(4) == 0) {
+                fields.remove(random.nextInt(fields.size()));
+            }
+            Collections.shuffle(fields, random);
+
+            // spread the fields over several lines
+            if (i > 0) {
+                lines.add("");
+            }
+            int start = 0;
+            while (start < fields.size()) {
+                int end = Math.min(fields.size(), start + 1 + random.nextInt(4));
+                lines.add(String.join(" ", fields.subList(start, end)));
+                start = end;
+            }
+        }
+
+        return lines;
+    }
+
+    /**
+     * Day 5: Binary Boarding. The size is the number of boarding passes, up to
+     * the 1000 or so seats on the plane, with one seat missing from the middle.
+     *
+     * @param size   the number of boarding passes, capped at 1000
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day5(int size, Random random) {
+        int count = Math.max(3, Math.min(size, 1000));
+        int first = 8 + random.nextInt(1024 - count - 16);
+        int missing = first + 1 + random.nextInt(count - 1);
+
+        ArrayList<String> lines = new ArrayList<String>();
+        for (int seatId = first; seatId <= (first + count); seatId++) {
+            if (seatId != missing) {
+                StringBuilder sb = new StringBuilder();
+                for (int bit = 9; bit >= 0; bit--) {
+                    boolean set = ((seatId >> bit) & 1) == 1;
+                    sb.append((bit >= 3) ? (set ? 'B' : 'F') : (set ? 'R' : 'L'));
+                }
+                lines.add(sb.toString());
+            }
+        }
+        Collections.shuffle(lines, random);
+
+        return lines;
+    }
+
+    /**
+     * Day 6: Custom Customs. The size is the number of groups of people.
+     *
+     * @param size   the number of groups
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day6(int size, Random random) {
+        ArrayList<String> lines = new ArrayList<String>();
+
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                lines.add("");
+            }
+
+            int people = 1 + random.nextInt(5);
+            for (int j = 0; j < people; j++) {
+                StringBuilder answers = new StringBuilder();
+                for (char question = 'a'; question <= 'z'; question++) {
+                    if (random.nextInt(3) == 0) {
+                        answers.append(question);
+                    }
+                }
+                if (answers.length() == 0) {
+                    answers.append((char) ('a' + random.nextInt(26)));
+                }
+                lines.add(answers.toString());
+            }
+        }
+
+        return lines;
+    }
+
+    /**
+     * Day 7: Handy Haversacks. The size is the number of bag colours, arranged in
+     * layers of eight, where each bag holds bags from the next layer down. The
+     * shiny gold bag is in the second layer, so the depth of nesting inside it
+     * grows with the size.
+     *
+     * @param size   the number of bag colours, at least 16
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day7(int size, Random random) {
+        int layers = Math.max(2, size / 8);
+
+        // name every bag, making the second bag of the second layer shiny gold
+        ArrayList<String> names = new ArrayList<String>();
+        for (int i = 0; i < (layers * 8); i++) {
+            String colour = COLOURS[(i / ADJECTIVES.length) % COLOURS.length];
+            int repeat = i / (ADJECTIVES.length * COLOURS.length);
+            names.add(ADJECTIVES[i % ADJECTIVES.length] + " " + colour + ((repeat > 0) ? repeat : ""));
+        }
+        int gold = names.indexOf("shiny gold");
+        if (gold >= 0) {
+            names.set(gold, names.get(9));
+        }
+        names.set(9, "shiny gold");
+
+        ArrayList<String> lines = new ArrayList<String>();
+        for (int layer = 0; layer < layers; layer++) {
+            for (int i = 0; i < 8; i++) {
+                String name = names.get((layer * 8) + i);
+
+                if (layer == (layers - 1)) {
+                    lines.add(name + " bags contain no other bags.");
+                } else {
+                    // hold some of the bags in the next layer
+                    ArrayList<Integer> inner = new ArrayList<Integer>();
+                    for (int j = 0; j < 8; j++) {
+                        inner.add(((layer + 1) * 8) + j);
+                    }
+                    Collections.shuffle(inner, random);
+
+                    ArrayList<String> contents = new ArrayList<String>();
+                    for (int index : inner.subList(0, 1 + random.nextInt(3))) {
+                        int count = 1 + random.nextInt(3);
+                        contents.add(count + " " + names.get(index) + ((count == 1) ? " bag" : " bags"));
+                    }
+                    lines.add(name + " bags contain " + String.join(", ", contents) + ".");
+                }
+            }
+        }
+        Collections.shuffle(lines, random);
+
+        return lines;
+    }
+}
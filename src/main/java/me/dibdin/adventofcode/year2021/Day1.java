@@ -1,6 +1,8 @@
 package me.dibdin.adventofcode.year2021;
 
 import me.dibdin.adventofcode.AbstractChallenge;
+import me.dibdin.adventofcode.util.ByteInput;
+import me.dibdin.adventofcode.util.InputDecoder;
 
 import java.util.stream.Stream;
 import java.lang.IllegalStateException;
@@ -57,4 +59,12 @@ public class Day1 extends AbstractChallenge {
     public void setPuzzleInput(Stream<String> input) {
         this.puzzle = input.mapToInt(Integer::parseInt).toArray(); 
     }
-}
\ No newline at end of file
+
+    /**
+     * Decode the puzzle input directly from bytes, without creating a String for
+     * each line.
+     */
+    public void setPuzzleInput(ByteInput input) {
+        puzzle = InputDecoder.decodeAsIntArray(input);
+    }
+}
@@ -1,19 +1,27 @@
 package me.dibdin.adventofcode.year2021;
 
-import java.util.Arrays;
+import java.nio.IntBuffer;
 import java.util.stream.Stream;
 
 import me.dibdin.adventofcode.AbstractChallenge;
+import me.dibdin.adventofcode.util.Counter;
 import me.dibdin.adventofcode.util.InputDecoder;
+import me.dibdin.adventofcode.util.ByteInput;
+import me.dibdin.adventofcode.util.ScratchArena;
+import me.dibdin.adventofcode.util.Snapshottable;
 
 /**
  * Advent of Code Challenge 2021 - Day 11: Dumbo Octopus.
  * https://adventofcode.com/2021/day/11
  */
-public class Day11 extends AbstractChallenge {
+public class Day11 extends AbstractChallenge implements Snapshottable {
 
     int[][] puzzle = null;
 
+    // counters of the work done by the simulation
+    private final Counter cyclesSimulated = createCounter("Cycles simulated");
+    private final Counter propagationPasses = createCounter("Flash propagation passes");
+
     /**
      * Constructor.
      */
@@ -21,17 +29,22 @@ public class Day11 extends AbstractChallenge {
         super("Dumbo Octopus", 2021, 11);
     }
 
+    // the scratch slots of the energy levels and flashes of the simulation
+    private static final int OCTOPUSES = 0;
+    private static final int FLASHES = 0;
+
     /**
-     * Increament the given element of the array if it is a valid index
+     * Increament the given element of the grid if it is a valid index
      * 
-     * @param array the array to increament
-     * @param i     the first dimensional index of the array
-     * @param j     the second dimensional index of the array
-     * @return True if index was valid, otherwise false
+     * @param grid    the grid to increament, row by row
+     * @param rows    the number of rows in the grid
+     * @param columns the number of columns in the grid
+     * @param i       the row of the element
+     * @param j       the column of the element
      */
-    private void increamentIfValid(int[][] array, int i, int j) {
-        if ((i >= 0) && (i < array.length) && (j >= 0) && (j < array[i].length)) {
-            array[i][j]++;
+    private void increamentIfValid(int[] grid, int rows, int columns, int i, int j) {
+        if ((i >= 0) && (i < rows) && (j >= 0) && (j < columns)) {
+            grid[(i * columns) + j]++;
         }
     }
 
@@ -40,63 +53,69 @@ public class Day11 extends AbstractChallenge {
      */
     private class SimulationResults {
         private long totalFlashes = 0;
-        private long finalCycle = 0;
+        private long allFlashCycle = -1;
     }
 
     /**
-     * Run the simulation, for the specified number of cycles, optionally ending
-     * when all flash
+     * Run the simulation, counting the flashes for the specified number of
+     * cycles, and optionally continuing until all flash
      * 
-     * @param cycles          the number of cycles to run
-     * @param endWhenAllFlash when true, ends when all octopuses flash
-     * @return the total number of flash and the final cycle
+     * @param cycles          the number of cycles to count the flashes for
+     * @param endWhenAllFlash when true, continues until all octopuses flash
+     * @return the total number of flashes and the first cycle when all flash
      */
     private SimulationResults runSimulation(int cycles, boolean endWhenAllFlash) {
 
         // help object to return multiple results
         SimulationResults results = new SimulationResults();
 
-        // copy the puzzle array
-        int[][] octopusArray = Arrays.stream(puzzle).map(int[]::clone).toArray(int[][]::new);
-
-        // run the simulation for 100 increaments
-        for (int time = 1; time <= cycles; time++) {
+        // copy the puzzle into a scratch grid, row by row
+        int rows = puzzle.length;
+        int columns = puzzle[0].length;
+        ScratchArena scratch = scratch();
+        int[] octopuses = scratch.ints(OCTOPUSES, rows * columns);
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(puzzle[i], 0, octopuses, i * columns, columns);
+        }
 
-            // increament the cycle
-            results.finalCycle++;
+        // run the simulation for the requested cycles, and until all flash if
+        // requested
+        for (int time = 1; (time <= cycles) || (endWhenAllFlash && (results.allFlashCycle < 0)); time++) {
+            reportProgress(time - 1, endWhenAllFlash ? 0 : cycles);
+            cyclesSimulated.increment();
 
             // first, increase energy levels by 1
-            for (int i = 0; i < octopusArray.length; i++) {
-                for (int j = 0; j < octopusArray[i].length; j++) {
-                    octopusArray[i][j]++;
-                }
+            for (int k = 0; k < octopuses.length; k++) {
+                octopuses[k]++;
             }
 
             // find all the octopus that flash
             boolean flashedThisLoop = true;
-            boolean[][] flashes = new boolean[octopusArray.length][octopusArray[0].length];
+            boolean[] flashes = scratch.booleans(FLASHES, octopuses.length);
 
             while (flashedThisLoop) {
 
                 // only repeat loop if an octopus flashes
                 flashedThisLoop = false;
+                propagationPasses.increment();
 
                 // for each of the octopuses - do they flash?
-                for (int i = 0; i < octopusArray.length; i++) {
-                    for (int j = 0; j < octopusArray[i].length; j++) {
-                        if ((octopusArray[i][j] > 9) && !flashes[i][j]) {
+                for (int i = 0; i < rows; i++) {
+                    for (int j = 0; j < columns; j++) {
+                        int k = (i * columns) + j;
+                        if ((octopuses[k] > 9) && !flashes[k]) {
                             flashedThisLoop = true;
-                            flashes[i][j] = true;
+                            flashes[k] = true;
 
                             // increase energy around
-                            increamentIfValid(octopusArray, i - 1, j - 1);
-                            increamentIfValid(octopusArray, i - 1, j);
-                            increamentIfValid(octopusArray, i - 1, j + 1);
-                            increamentIfValid(octopusArray, i, j - 1);
-                            increamentIfValid(octopusArray, i, j + 1);
-                            increamentIfValid(octopusArray, i + 1, j - 1);
-                            increamentIfValid(octopusArray, i + 1, j);
-                            increamentIfValid(octopusArray, i + 1, j + 1);
+                            increamentIfValid(octopuses, rows, columns, i - 1, j - 1);
+                            increamentIfValid(octopuses, rows, columns, i - 1, j);
+                            increamentIfValid(octopuses, rows, columns, i - 1, j + 1);
+                            increamentIfValid(octopuses, rows, columns, i, j - 1);
+                            increamentIfValid(octopuses, rows, columns, i, j + 1);
+                            increamentIfValid(octopuses, rows, columns, i + 1, j - 1);
+                            increamentIfValid(octopuses, rows, columns, i + 1, j);
+                            increamentIfValid(octopuses, rows, columns, i + 1, j + 1);
                         }
                     }
                 }
@@ -105,19 +124,19 @@ public class Day11 extends AbstractChallenge {
             // Count the number of flashes and reset the
             // energy of the octopuses that have flashed
             int numberOfFlashes = 0;
-            for (int i = 0; i < octopusArray.length; i++) {
-                for (int j = 0; j < octopusArray[i].length; j++) {
-                    if (flashes[i][j]) {
-                        octopusArray[i][j] = 0;
-                        numberOfFlashes++;
-                    }
+            for (int k = 0; k < octopuses.length; k++) {
+                if (flashes[k]) {
+                    octopuses[k] = 0;
+                    numberOfFlashes++;
                 }
             }
-            results.totalFlashes += numberOfFlashes;
+            if (time <= cycles) {
+                results.totalFlashes += numberOfFlashes;
+            }
 
-            // optionally end when all have flashed
-            if (endWhenAllFlash && (numberOfFlashes == (flashes.length * flashes[0].length))) {
-                return results;
+            // record the first cycle when all have flashed
+            if ((results.allFlashCycle < 0) && (numberOfFlashes == flashes.length)) {
+                results.allFlashCycle = time;
             }
         }
 
@@ -146,8 +165,22 @@ public class Day11 extends AbstractChallenge {
         }
 
         // run the simulation until all the octopus flash
-        SimulationResults results = runSimulation(Integer.MAX_VALUE, true);
-        return results.finalCycle;
+        SimulationResults results = runSimulation(0, true);
+        return results.allFlashCycle;
+    }
+
+    /**
+     * Solve both parts of the puzzle, with a single simulation which runs for
+     * 100 cycles and until all the octopus flash
+     */
+    @Override
+    public long[] solveBoth() {
+        if (puzzle == null) {
+            throw new IllegalStateException("No puzzle input set");
+        }
+
+        SimulationResults results = runSimulation(100, true);
+        return new long[] { results.totalFlashes, results.allFlashCycle };
     }
 
     /**
@@ -157,4 +190,29 @@ public class Day11 extends AbstractChallenge {
     public void setPuzzleInput(Stream<String> input) {
         puzzle = InputDecoder.decodeAsTwoDimensionalIntArray(input);
     }
-}
\ No newline at end of file
+
+    /**
+     * Decode the puzzle input directly from bytes, without creating a String for
+     * each line.
+     */
+    public void setPuzzleInput(ByteInput input) {
+        puzzle = InputDecoder.decodeAsTwoDimensionalIntArray(input);
+    }
+
+    /**
+     * Save the grid of the puzzle
+     */
+    public int[] writeSnapshot() throws IllegalStateException {
+        if (puzzle == null) {
+            throw new IllegalStateException("No puzzle input to save");
+        }
+        return Snapshottable.flatten(puzzle);
+    }
+
+    /**
+     * Restore the grid saved by writeSnapshot
+     */
+    public void readSnapshot(IntBuffer snapshot) {
+        puzzle = Snapshottable.unflatten(snapshot);
+    }
+}
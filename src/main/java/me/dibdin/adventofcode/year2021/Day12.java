@@ -7,6 +7,7 @@ import java.util.Iterator;
 import java.util.stream.Stream;
 
 import me.dibdin.adventofcode.AbstractChallenge;
+import me.dibdin.adventofcode.util.Counter;
 
 /**
  * Advent of Code Challenge 2021 - Day 12: Passage Pathing.
@@ -16,6 +17,10 @@ public class Day12 extends AbstractChallenge {
 
     HashMap<String, ArrayList<String>> puzzle = null;
 
+    // counters of the work done searching for routes
+    private final Counter cavesVisited = createCounter("Caves visited");
+    private final Counter routesFound = createCounter("Routes found");
+
     /**
      * Constructor.
      */
@@ -32,6 +37,9 @@ public class Day12 extends AbstractChallenge {
      */
     private void mapRoutes(String cave, ArrayDeque<String> breadcrumbs, ArrayList<String> validRoutes,
             boolean canVisitASingleSmallCaveTwice) {
+        checkpoint();
+        cavesVisited.increment();
+
         // add the cave to the breadcrumbs trail
         breadcrumbs.addLast(cave);
 
@@ -44,6 +52,7 @@ public class Day12 extends AbstractChallenge {
             } else if (path.equals("end")) {
                 // found the end - record the route
                 validRoutes.add(String.join(",", breadcrumbs) + "," + path);
+                routesFound.increment();
             } else if (breadcrumbs.contains(path) && path.toLowerCase().equals(path)) {
                 // this is a small cave we've already been to, are we allowed to continue
                 if (canVisitASingleSmallCaveTwice) {
@@ -1,11 +1,13 @@
 package me.dibdin.adventofcode.year2021;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.stream.Stream;
 
 import me.dibdin.adventofcode.AbstractChallenge;
+import me.dibdin.adventofcode.util.ScratchArena;
 
 /**
  * Advent of Code Challenge 2021 - Day 14: Extended Polymerization.
@@ -17,6 +19,17 @@ public class Day14 extends AbstractChallenge {
     HashMap<String, Character> pairInsertionRules = null;
     boolean isInputSet = false;
 
+    // the index of the element inserted between each pair, or -1 for none
+    int[] insertions = null;
+
+    // the number of possible elements, one for each capital letter
+    private static final int ELEMENTS = 26;
+
+    // the scratch slots of the double buffered pairs, and the element counters
+    private static final int PAIRS = 0;
+    private static final int NEXT_PAIRS = 1;
+    private static final int COUNTERS = 2;
+
     /**
      * Constructor.
      */
@@ -25,67 +38,116 @@ public class Day14 extends AbstractChallenge {
     }
 
     /**
-     * Increase the existing value stored under key in the map by value
+     * The index of an element, for the arrays of counts
      * 
-     * @param map   the map the use
-     * @param key   the key that stores the existing value
-     * @param value the value to increament by
+     * @param element the element, a capital letter
+     * @return the index, from 0 to ELEMENTS - 1
      */
-    private void increamentValueInMap(Map<String, Long> map, String key, Long value) {
-        Long storedValue = map.get(key);
-        if (storedValue == null) {
-            map.put(key, value);
-        } else {
-            map.put(key, storedValue + value);
+    private static int elementIndex(char element) {
+        if ((element < 'A') || (element > 'Z')) {
+            throw new IllegalArgumentException("Elements must be capital letters, not '" + element + "'");
         }
+        return element - 'A';
+    }
+
+    /**
+     * The index of a pair of elements, for the arrays of counts
+     * 
+     * @param first  the index of the first element
+     * @param second the index of the second element
+     * @return the index, from 0 to ELEMENTS * ELEMENTS - 1
+     */
+    private static int pairIndex(int first, int second) {
+        return (first * ELEMENTS) + second;
     }
 
     /**
-     * Run the polymerization cycles
+     * Run the polymerization cycles, and find the difference between the most
+     * and least common elements after each of the requested number of cycles
      * 
-     * @param cycles how many cycles to run for
-     * @return a mapping of the letters to the number of occurances after the
-     *         process
+     * @param cycles the number of cycles to report on, in ascending order
+     * @return the difference between the most and least common elements, after
+     *         each of the requested number of cycles
      */
-    private Map<String, Long> polymerization(int cycles) {
-        HashMap<String, Long> pairs = new HashMap<String, Long>();
-        HashMap<String, Long> counters = new HashMap<String, Long>();
+    private long[] polymerization(int... cycles) {
+        ScratchArena scratch = scratch();
+        long[] pairs = scratch.longs(PAIRS, ELEMENTS * ELEMENTS);
+        long[] counters = scratch.longs(COUNTERS, ELEMENTS);
+        long[] results = new long[cycles.length];
 
         // add the pairs to the pool
         for (int i = 0; i < (polymerTemplate.length() - 1); i++) {
-            increamentValueInMap(pairs, polymerTemplate.substring(i, i + 2), 1L);
+            pairs[pairIndex(elementIndex(polymerTemplate.charAt(i)),
+                    elementIndex(polymerTemplate.charAt(i + 1)))]++;
         }
 
         // add the polyerTemplate letters to the counter
         for (int i = 0; i < polymerTemplate.length(); i++) {
-            increamentValueInMap(counters, polymerTemplate.substring(i, i + 1), 1L);
+            counters[elementIndex(polymerTemplate.charAt(i))]++;
         }
 
         // run the sequence
-        for (int j = 0; j < cycles; j++) {
+        int next = 0;
+        for (int j = 0; j <= cycles[cycles.length - 1]; j++) {
+
+            // record the result if this is one of the requested cycles
+            while ((next < cycles.length) && (cycles[next] == j)) {
+                results[next++] = difference(counters);
+            }
+            if (next == cycles.length) {
+                break;
+            }
 
             // for each pair in the pool
-            HashMap<String, Long> newPairs = new HashMap<String, Long>();
-            for (String pair : pairs.keySet()) {
+            long[] newPairs = scratch.longs(NEXT_PAIRS, pairs.length);
+            for (int pair = 0; pair < pairs.length; pair++) {
 
                 // take this pair from the pool
-                Long numberOfPairs = pairs.get(pair);
+                long numberOfPairs = pairs[pair];
+                if (numberOfPairs == 0) {
+                    continue;
+                }
+
+                // a pair without a rule stays as it is
+                int insertElement = insertions[pair];
+                if (insertElement < 0) {
+                    newPairs[pair] += numberOfPairs;
+                    continue;
+                }
 
                 // split the pair, polyermize with the inserted element, then put both pairs in
                 // the pool
-                Character insertElement = pairInsertionRules.get(pair);
-                increamentValueInMap(newPairs, pair.substring(0, 1) + insertElement, numberOfPairs);
-                increamentValueInMap(newPairs, insertElement + pair.substring(1, 2), numberOfPairs);
+                newPairs[pairIndex(pair / ELEMENTS, insertElement)] += numberOfPairs;
+                newPairs[pairIndex(insertElement, pair % ELEMENTS)] += numberOfPairs;
 
                 // increase the counters with the number of insertedElements
-                increamentValueInMap(counters, String.valueOf(insertElement), numberOfPairs);
+                counters[insertElement] += numberOfPairs;
             }
             // get ready for the next cycle
-            pairs = newPairs;
+            pairs = scratch.swapLongs(PAIRS, NEXT_PAIRS);
         }
 
         // end of polymerization
-        return counters;
+        return results;
+    }
+
+    /**
+     * Find the difference between the most and least common elements
+     * 
+     * @param counters the number of occurances of each element
+     * @return the difference between the max and min counts, of the elements
+     *         which occur
+     */
+    private long difference(long[] counters) {
+        long min = Long.MAX_VALUE;
+        long max = 0;
+        for (long count : counters) {
+            if (count > 0) {
+                min = Math.min(min, count);
+                max = Math.max(max, count);
+            }
+        }
+        return max - min;
     }
 
     /**
@@ -96,15 +158,8 @@ public class Day14 extends AbstractChallenge {
             throw new IllegalStateException("No puzzle input set");
         }
 
-        // Run the polymerisation for 40 cycles
-        Map<String, Long> counters = polymerization(10);
-
-        // Find the min and max
-        long min = counters.values().stream().mapToLong(Long::valueOf).min().getAsLong();
-        long max = counters.values().stream().mapToLong(Long::valueOf).max().getAsLong();
-
-        // Return the differece between min and max
-        return max - min;
+        // Run the polymerisation for 10 cycles
+        return polymerization(10)[0];
     }
 
     /**
@@ -116,14 +171,20 @@ public class Day14 extends AbstractChallenge {
         }
 
         // Run the polymerisation for 40 cycles
-        Map<String, Long> counters = polymerization(40);
+        return polymerization(40)[0];
+    }
 
-        // Find the min and max
-        long min = counters.values().stream().mapToLong(Long::valueOf).min().getAsLong();
-        long max = counters.values().stream().mapToLong(Long::valueOf).max().getAsLong();
+    /**
+     * Solve both parts of the puzzle, as the first 10 cycles of part two are
+     * part one
+     */
+    @Override
+    public long[] solveBoth() {
+        if (!isInputSet) {
+            throw new IllegalStateException("No puzzle input set");
+        }
 
-        // Return the differece between min and max
-        return max - min;
+        return polymerization(10, 40);
     }
 
     /**
@@ -145,6 +206,14 @@ public class Day14 extends AbstractChallenge {
                 pairInsertionRules.put(tokens[0], tokens[1].charAt(0));
             }
         }
+
+        // index the rules by pair, for the arrays of counts
+        insertions = new int[ELEMENTS * ELEMENTS];
+        Arrays.fill(insertions, -1);
+        for (Map.Entry<String, Character> rule : pairInsertionRules.entrySet()) {
+            int pair = pairIndex(elementIndex(rule.getKey().charAt(0)), elementIndex(rule.getKey().charAt(1)));
+            insertions[pair] = elementIndex(rule.getValue());
+        }
         isInputSet = true;
     }
 }
\ No newline at end of file
@@ -1,21 +1,30 @@
 package me.dibdin.adventofcode.year2021;
 
+import java.nio.IntBuffer;
 import java.util.Comparator;
 import java.util.PriorityQueue;
 import java.util.stream.Stream;
 
 import me.dibdin.adventofcode.AbstractChallenge;
+import me.dibdin.adventofcode.util.Counter;
 import me.dibdin.adventofcode.util.InputDecoder;
+import me.dibdin.adventofcode.util.ByteInput;
+import me.dibdin.adventofcode.util.Snapshottable;
+import me.dibdin.adventofcode.util.SolverStepEvent;
 
 /**
  * Advent of Code Challenge 2021 - Day 15: Chiton.
  * https://adventofcode.com/2021/day/15
  */
-public class Day15 extends AbstractChallenge {
+public class Day15 extends AbstractChallenge implements Snapshottable {
 
     int[][] puzzle = null;
     boolean readyToSolve = false;
 
+    // counters of the work done by Dijkstra's algorithm
+    private final Counter nodesPopped = createCounter("Nodes popped");
+    private final Counter decreaseKeys = createCounter("Decrease-key operations");
+
     /**
      * Constructor.
      */
@@ -48,9 +57,25 @@ public class Day15 extends AbstractChallenge {
         }
     }
 
-    class CompareNodeweight implements Comparator<GraphNode> {
+    /**
+     * An entry in the priority queue, holding the weight of the node when it was
+     * queued. A node is queued again each time its weight is lowered, rather than
+     * being removed and re-added, and the entries left behind are skipped once
+     * the node has been visited.
+     */
+    class QueueEntry {
+        public GraphNode node;
+        public int weight;
+
+        QueueEntry(GraphNode node, int weight) {
+            this.node = node;
+            this.weight = weight;
+        }
+    }
+
+    class CompareNodeweight implements Comparator<QueueEntry> {
 
-        public int compare(GraphNode n1, GraphNode n2) {
+        public int compare(QueueEntry n1, QueueEntry n2) {
             return n1.weight - n2.weight;
         }
 
@@ -68,7 +93,8 @@ public class Day15 extends AbstractChallenge {
      * @return the total weight of the shortest path
      */
     private int findShortestPath(int[][] grid) {
-        PriorityQueue<GraphNode> pq = new PriorityQueue<GraphNode>(grid.length * grid[0].length, new CompareNodeweight());
+        SolverStepEvent event = SolverStepEvent.begin(getYear(), getDay(), "Dijkstra search");
+        PriorityQueue<QueueEntry> pq = new PriorityQueue<QueueEntry>(grid.length * grid[0].length, new CompareNodeweight());
 
         GraphNode[][] nodes = new GraphNode[grid.length][grid[0].length];
 
@@ -79,24 +105,36 @@ public class Day15 extends AbstractChallenge {
                 nodes[y][x].y = y;
                 nodes[y][x].weight = Integer.MAX_VALUE;
                 nodes[y][x].visited = false;
-                pq.add(nodes[y][x]);
             }
         }
 
-        // set the starting node to zero
-        pq.remove(nodes[0][0]);
+        // start from the top left, with zero weight
         nodes[0][0].weight = 0;
-        pq.add(nodes[0][0]);
+        pq.add(new QueueEntry(nodes[0][0], 0));
 
         GraphNode endNode = nodes[nodes.length -1][nodes[0].length-1];
 
+        int visitedCount = 0;
         while (pq.size() > 0) {
-            // remove the node with the smallest weight from the queue
-            GraphNode current = pq.poll();
+            // remove the node with the smallest weight from the queue, skipping
+            // entries for nodes which were reached more cheaply since queueing
+            GraphNode current = pq.poll().node;
+            if (current.visited) {
+                continue;
+            }
             current.visited = true;
+            nodesPopped.increment();
+
+            // report progress every 1024 nodes
+            visitedCount++;
+            if ((visitedCount & 0x3FF) == 0) {
+                reportProgress(visitedCount, nodes.length * nodes[0].length);
+            }
 
             // have we reached the end point
             if (current.equals(endNode)) {
+                event.setCount(visitedCount);
+                event.commit();
                 return current.weight;
             }
 
@@ -106,9 +144,9 @@ public class Day15 extends AbstractChallenge {
                 if (!left.visited) {
                     int tempWeight = current.weight + grid[current.y][current.x - 1];
                     if (tempWeight < left.weight) {
-                        pq.remove(left);
+                        decreaseKeys.increment();
                         left.weight = tempWeight;
-                        pq.add(left);
+                        pq.add(new QueueEntry(left, tempWeight));
                     }
                 }
             }
@@ -119,9 +157,9 @@ public class Day15 extends AbstractChallenge {
                 if (!right.visited) {
                     int tempWeight = current.weight + grid[current.y][current.x + 1];
                     if (tempWeight < right.weight) {
-                        pq.remove(right);
+                        decreaseKeys.increment();
                         right.weight = tempWeight;
-                        pq.add(right);
+                        pq.add(new QueueEntry(right, tempWeight));
                     }
                 }
             }
@@ -132,9 +170,9 @@ public class Day15 extends AbstractChallenge {
                 if (!up.visited) {
                     int tempWeight = current.weight + grid[current.y - 1][current.x];
                     if (tempWeight < up.weight) {
-                        pq.remove(up);
+                        decreaseKeys.increment();
                         up.weight = tempWeight;
-                        pq.add(up);
+                        pq.add(new QueueEntry(up, tempWeight));
                     }
                 }
             }
@@ -145,9 +183,9 @@ public class Day15 extends AbstractChallenge {
                 if (!down.visited) {
                     int tempWeight = current.weight + grid[current.y + 1][current.x];
                     if (tempWeight < down.weight) {
-                        pq.remove(down);
+                        decreaseKeys.increment();
                         down.weight = tempWeight;
-                        pq.add(down);
+                        pq.add(new QueueEntry(down, tempWeight));
                     }
                 }
             }
@@ -203,4 +241,33 @@ public class Day15 extends AbstractChallenge {
 
         readyToSolve = true;
     }
-}
\ No newline at end of file
+
+    /**
+     * Decode the puzzle input directly from bytes, without creating a String for
+     * each line.
+     */
+    public void setPuzzleInput(ByteInput input) {
+        puzzle = InputDecoder.decodeAsTwoDimensionalIntArray(input);
+
+        readyToSolve = true;
+    }
+
+    /**
+     * Save the grid of the puzzle
+     */
+    public int[] writeSnapshot() throws IllegalStateException {
+        if (!readyToSolve) {
+            throw new IllegalStateException("No puzzle input to save");
+        }
+        return Snapshottable.flatten(puzzle);
+    }
+
+    /**
+     * Restore the grid saved by writeSnapshot
+     */
+    public void readSnapshot(IntBuffer snapshot) {
+        puzzle = Snapshottable.unflatten(snapshot);
+
+        readyToSolve = true;
+    }
+}
@@ -1,16 +1,20 @@
 package me.dibdin.adventofcode.year2021;
 
+import java.nio.IntBuffer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import me.dibdin.adventofcode.AbstractChallenge;
+import me.dibdin.adventofcode.util.ByteInput;
+import me.dibdin.adventofcode.util.InputDecoder;
+import me.dibdin.adventofcode.util.Snapshottable;
 
 /**
  * Advent of Code Challenge 2021 - Day 17: Trick Shot.
  * https://adventofcode.com/2021/day/X
  */
-public class Day17 extends AbstractChallenge {
+public class Day17 extends AbstractChallenge implements Snapshottable {
 
     // puzzle data
     int targetMinX;
@@ -19,9 +23,13 @@ public class Day17 extends AbstractChallenge {
     int targetMaxY;
     boolean readyToSolve = false;
 
-    enum ReturnStat {
-        HEIGHT, HITS
-    };
+    /**
+     * Helper class to return both statistics from the simulation
+     */
+    private class SimulationResults {
+        private int highestYPosition = Integer.MIN_VALUE;
+        private int hits = 0;
+    }
 
     /**
      * Constructor.
@@ -32,13 +40,11 @@ public class Day17 extends AbstractChallenge {
 
     /**
      * Run the simulation by taking multiple shots at the target
-     * @param returnStat which statistic should be returned - max trajectory height or number of hits on the target
-     * @return the value of the requested statistic
+     * @return the statistics - max trajectory height and number of hits on the target
      */
-    private int runSimulation(ReturnStat returnStat) {
+    private SimulationResults runSimulation() {
         // initialise the stats
-        int highestYPosition = Integer.MIN_VALUE;
-        int hits = 0;
+        SimulationResults results = new SimulationResults();
 
         // find the minimum velocity X, using the formula for triangular numbers
         int triangleNumberSeries = 1;
@@ -79,11 +85,11 @@ public class Day17 extends AbstractChallenge {
                     // have we hit the target
                     if ((targetMinX <= x) && (x <= targetMaxX) && (y <= targetMaxY) && (y >= targetMinY)) {
                         // bullseye!!!
-                        hits++;
+                        results.hits++;
 
                         // did this shot set a new height record?
-                        if (height > highestYPosition) {
-                            highestYPosition = height;
+                        if (height > results.highestYPosition) {
+                            results.highestYPosition = height;
                         }
                         break;
                     }
@@ -103,15 +109,8 @@ public class Day17 extends AbstractChallenge {
             }
         }
 
-        // all simulations complete, so return the requested statistic
-        switch (returnStat) {
-            case HEIGHT:
-                return highestYPosition;
-            case HITS:
-                return hits;
-            default:
-                return -1;
-        }
+        // all simulations complete
+        return results;
     }
 
     /**
@@ -122,7 +121,7 @@ public class Day17 extends AbstractChallenge {
             throw new IllegalStateException("No puzzle input set");
         }
 
-        return runSimulation(ReturnStat.HEIGHT);
+        return runSimulation().highestYPosition;
 
     }
 
@@ -134,7 +133,20 @@ public class Day17 extends AbstractChallenge {
             throw new IllegalStateException("No puzzle input set");
         }
 
-        return runSimulation(ReturnStat.HITS);
+        return runSimulation().hits;
+    }
+
+    /**
+     * Solve both parts of the puzzle, from a single simulation
+     */
+    @Override
+    public long[] solveBoth() {
+        if (!readyToSolve) {
+            throw new IllegalStateException("No puzzle input set");
+        }
+
+        SimulationResults results = runSimulation();
+        return new long[] { results.highestYPosition, results.hits };
     }
 
     /**
@@ -158,4 +170,44 @@ public class Day17 extends AbstractChallenge {
 
         readyToSolve = true;
     }
-}
\ No newline at end of file
+
+    /**
+     * Decode the puzzle input directly from bytes, reading the four numbers of
+     * the target area without a regular expression.
+     */
+    public void setPuzzleInput(ByteInput input) {
+        int[] numbers = InputDecoder.decodeAsIntArray(input);
+
+        // store the decoded numbers, in the order "x=minX..maxX, y=minY..maxY"
+        if (numbers.length == 4) {
+            targetMinX = numbers[0];
+            targetMaxX = numbers[1];
+            targetMinY = numbers[2];
+            targetMaxY = numbers[3];
+        }
+
+        readyToSolve = true;
+    }
+
+    /**
+     * Save the target area, in the order minX, maxX, minY, maxY
+     */
+    public int[] writeSnapshot() throws IllegalStateException {
+        if (!readyToSolve) {
+            throw new IllegalStateException("No puzzle input to save");
+        }
+        return new int[] { targetMinX, targetMaxX, targetMinY, targetMaxY };
+    }
+
+    /**
+     * Restore the target area saved by writeSnapshot
+     */
+    public void readSnapshot(IntBuffer snapshot) {
+        targetMinX = snapshot.get();
+        targetMaxX = snapshot.get();
+        targetMinY = snapshot.get();
+        targetMaxY = snapshot.get();
+
+        readyToSolve = true;
+    }
+}
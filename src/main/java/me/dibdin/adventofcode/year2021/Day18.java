@@ -8,6 +8,7 @@ import java.util.stream.Stream;
 import me.dibdin.adventofcode.util.TreeNode;
 
 import me.dibdin.adventofcode.AbstractChallenge;
+import me.dibdin.adventofcode.util.Counter;
 
 /**
  * Advent of Code Challenge 2021 - Day 18: Snailfish.
@@ -19,6 +20,11 @@ public class Day18 extends AbstractChallenge {
     ArrayList<String> puzzle = null;
     boolean readyToSolve = false;
 
+    // counters of the work done reducing Snailfish numbers
+    private final Counter reductions = createCounter("Reductions");
+    private final Counter explodes = createCounter("Explodes");
+    private final Counter splits = createCounter("Splits");
+
     /**
      * Constructor
      */
@@ -73,6 +79,7 @@ public class Day18 extends AbstractChallenge {
 
         // loop until we've finished reducing the nodes
         boolean reduced;
+        reductions.increment();
 
         do {
             reduced = false;
@@ -103,6 +110,7 @@ public class Day18 extends AbstractChallenge {
                                     explodingPair.getRight().getValue());
                 }
                 explodingPair.setValue(0);
+                explodes.increment();
 
                 reduced = true;
             } else {
@@ -122,6 +130,7 @@ public class Day18 extends AbstractChallenge {
                             node.setLeft(new TreeNode<Integer>(value / 2));
                             node.setRight(new TreeNode<Integer>((value / 2) + 1));
                         }
+                        splits.increment();
                         reduced = true;
                         break;
                     }
@@ -142,7 +151,10 @@ public class Day18 extends AbstractChallenge {
         Iterator<String> puzzleIterator = puzzle.iterator();
         TreeNode<Integer> root = TreeNode.parseTreeNode(puzzleIterator.next());
 
+        int count = 1;
         while (puzzleIterator.hasNext()) {
+            reportProgress(count++, puzzle.size());
+
             // add this number with the next, then reduce
             root = new TreeNode<Integer>(root, TreeNode.parseTreeNode(puzzleIterator.next()));
             reduce(root);
@@ -163,6 +175,7 @@ public class Day18 extends AbstractChallenge {
 
         // search for the largest magnitude off all possible sums
         for (int i = 0; i < puzzle.size(); i++) {
+            reportProgress(i, puzzle.size());
             for (int j = 0; j < puzzle.size(); j++) {
                 if (i != j) {
                     TreeNode<Integer> root = new TreeNode<Integer>(
@@ -1,5 +1,6 @@
 package me.dibdin.adventofcode.year2021;
 
+import java.nio.IntBuffer;
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -12,19 +13,28 @@ import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import me.dibdin.adventofcode.AbstractChallenge;
+import me.dibdin.adventofcode.util.Counter;
 import me.dibdin.adventofcode.util.Point3D;
 import me.dibdin.adventofcode.util.Vector3D;
+import me.dibdin.adventofcode.util.ByteInput;
+import me.dibdin.adventofcode.util.LineCursor;
+import me.dibdin.adventofcode.util.Snapshottable;
+import me.dibdin.adventofcode.util.SolverStepEvent;
 
 /**
  * Advent of Code Challenge 2021 - Day 19: Beacon Scanner.
  * https://adventofcode.com/2021/day/19
  */
-public class Day19 extends AbstractChallenge {
+public class Day19 extends AbstractChallenge implements Snapshottable {
 
     // puzzle data: scanner, point
     ArrayList<Point3D[]> puzzle = null;
     boolean readyToSolve = false;
 
+    // counters of the work done aligning scanners
+    private final Counter rotationsTried = createCounter("Rotations tried");
+    private final Counter scannersAligned = createCounter("Scanners aligned");
+
     /**
      * Constructor.
      */
@@ -75,11 +85,14 @@ public class Day19 extends AbstractChallenge {
     }
 
     /**
-     * Enum type to request specific return types
+     * Utility class to hold the scanners once they are aligned to scanner zero
      */
-    private enum ReturnStat {
-        NUMBER_OF_BEACONS,
-        MAX_MANHATTAN_DISTANCE_BETWEEN_SCANNERS
+    private class Alignment {
+        // the beacons of each scanner, aligned to scanner zero
+        Point3D[][] alignedScanners;
+
+        // the scanner positions relative to scanner zero
+        Point3D[] scannerPositions;
     }
 
     /**
@@ -167,7 +180,7 @@ public class Day19 extends AbstractChallenge {
     }
 
     /**
-     * Solve the puzzle, and return the requested statistic.
+     * Align all the scanners to scanner zero.
      * 1) create vectors all all the points detected by each sensor
      * 2) comparing the squared distance of vectors, work out the number of matches
      * in lengths between pairs of scanners.
@@ -178,12 +191,12 @@ public class Day19 extends AbstractChallenge {
      * and end of the vector. Add this vector and it's rotated beacons to the map.
      * 4) Repeat step 3 until all scanners have been added.
      * 
-     * @param returnStat the requested statistic
-     * @return the value of the statistic
+     * @return the aligned scanners and their positions
      */
-    private long solve(ReturnStat returnStat) {
+    private Alignment alignScanners() {
 
         // create vector objects for all possible pairs in each of the vectors
+        SolverStepEvent vectorsEvent = SolverStepEvent.begin(getYear(), getDay(), "Create beacon vectors");
         ArrayList<Vector3D[]> scannerVectors = new ArrayList<Vector3D[]>();
         ArrayList<Vector3D> vectors = new ArrayList<Vector3D>();
 
@@ -199,8 +212,11 @@ public class Day19 extends AbstractChallenge {
             scannerVectors.add(vectors.toArray(new Vector3D[vectors.size()]));
             vectors.clear();
         }
+        vectorsEvent.setCount(puzzle.size());
+        vectorsEvent.commit();
 
         // for each scanner, find another scanner which overlaps
+        SolverStepEvent matchEvent = SolverStepEvent.begin(getYear(), getDay(), "Match scanner pairs");
         ArrayList<ArrayList<ScannerMatches>> scannerMatches = new ArrayList<ArrayList<ScannerMatches>>();
 
         for (int scanner = 0; scanner < puzzle.size(); scanner++) {
@@ -237,6 +253,8 @@ public class Day19 extends AbstractChallenge {
             matches.sort(Comparator.comparingInt(ScannerMatches::getCount).reversed());
             scannerMatches.add(matches);
         }
+        matchEvent.setCount((long) puzzle.size() * (puzzle.size() - 1));
+        matchEvent.commit();
 
         // Stores the list of all scanners with their beacons, aligned to scanner zero
         Point3D[][] alignedScanners = new Point3D[puzzle.size()][];
@@ -255,7 +273,9 @@ public class Day19 extends AbstractChallenge {
         // starting with scanner zero, expand the map, rotating scanners to
         // align with scanner zero
         boolean matchFound;
+        int alignedCount = 1;
         do {
+            reportProgress(alignedCount, puzzle.size());
             matchFound = false;
 
             // find the best match to a scanner we already have in the map
@@ -277,6 +297,7 @@ public class Day19 extends AbstractChallenge {
 
             // can we add another scanner to the map?
             if (matchFound) {
+                SolverStepEvent alignEvent = SolverStepEvent.begin(getYear(), getDay(), "Align scanner");
                 // find the rotation that gives the most consistent x,y,z offset
                 HashMap<RotationAndOffsetMatches, Integer> matchCounts = new HashMap<RotationAndOffsetMatches, Integer>();
 
@@ -290,6 +311,7 @@ public class Day19 extends AbstractChallenge {
                     if (scannerVectorArray[s].getDistanceSquared() == pairVectorArray[p].getDistanceSquared()) {
                         // found a matching vector, so try rotating the pair, so that the x,y,z offset
                         // between the two start points is the same for the end point
+                        rotationsTried.add(24);
                         for (int r = 0; r < 24; r++) {
                             // rotate the vector
                             Vector3D rotatedVector = rotate(pairVectorArray[p], r);
@@ -362,40 +384,55 @@ public class Day19 extends AbstractChallenge {
                 }
                 v.sort(Comparator.comparingInt(Vector3D::getDistanceSquared));
                 alignedVectors[scannerPair] = v.toArray(new Vector3D[v.size()]);
+                alignedCount++;
+                scannersAligned.increment();
+                alignEvent.setCount(matchCounts.size());
+                alignEvent.commit();
             }
 
         } while (matchFound);
 
-        // Calculate the final statistic
-        switch (returnStat) {
-            // return the number of unique beacons in the puzzle
-            case NUMBER_OF_BEACONS:
-                HashSet<Point3D> beaconPositions = new HashSet<Point3D>();
-                for (Point3D[] scannerBeacons : alignedScanners) {
-                    beaconPositions.addAll(Arrays.asList(scannerBeacons));
-                }
-                return beaconPositions.size();
+        Alignment alignment = new Alignment();
+        alignment.alignedScanners = alignedScanners;
+        alignment.scannerPositions = scannerPositions;
+        return alignment;
+    }
 
-            // work out the greatest Manhattan distance between the scanners
-            case MAX_MANHATTAN_DISTANCE_BETWEEN_SCANNERS:
-                long maxManhattanDistance = Long.MIN_VALUE;
-                for (int i = 0; i < scannerPositions.length; i++) {
-                    for (int j = 0; j < scannerPositions.length; j++) {
-                        if (i != j) {
-                            long distance = new Vector3D(scannerPositions[i], scannerPositions[j])
-                                    .getManattanDistance();
-                            if (distance > maxManhattanDistance) {
-                                maxManhattanDistance = distance;
-                            }
-                        }
+    /**
+     * Count the number of unique beacons
+     * 
+     * @param alignment the aligned scanners
+     * @return the number of beacons
+     */
+    private long countBeacons(Alignment alignment) {
+        HashSet<Point3D> beaconPositions = new HashSet<Point3D>();
+        for (Point3D[] scannerBeacons : alignment.alignedScanners) {
+            beaconPositions.addAll(Arrays.asList(scannerBeacons));
+        }
+        return beaconPositions.size();
+    }
+
+    /**
+     * Work out the greatest Manhattan distance between the scanners
+     * 
+     * @param alignment the aligned scanners
+     * @return the greatest distance
+     */
+    private long findMaxManhattanDistance(Alignment alignment) {
+        Point3D[] scannerPositions = alignment.scannerPositions;
+        long maxManhattanDistance = Long.MIN_VALUE;
+        for (int i = 0; i < scannerPositions.length; i++) {
+            for (int j = 0; j < scannerPositions.length; j++) {
+                if (i != j) {
+                    long distance = new Vector3D(scannerPositions[i], scannerPositions[j])
+                            .getManattanDistance();
+                    if (distance > maxManhattanDistance) {
+                        maxManhattanDistance = distance;
                     }
                 }
-                return maxManhattanDistance;
-
-            // impossible to get here get here!!!
-            default:
-                return -1;
+            }
         }
+        return maxManhattanDistance;
     }
 
     /**
@@ -406,7 +443,7 @@ public class Day19 extends AbstractChallenge {
             throw new IllegalStateException("No puzzle input set");
         }
 
-        return solve(ReturnStat.NUMBER_OF_BEACONS);
+        return countBeacons(alignScanners());
     }
 
     /**
@@ -417,7 +454,20 @@ public class Day19 extends AbstractChallenge {
             throw new IllegalStateException("No puzzle input set");
         }
 
-        return solve(ReturnStat.MAX_MANHATTAN_DISTANCE_BETWEEN_SCANNERS);
+        return findMaxManhattanDistance(alignScanners());
+    }
+
+    /**
+     * Solve both parts of the puzzle, aligning the scanners only once
+     */
+    @Override
+    public long[] solveBoth() {
+        if (!readyToSolve) {
+            throw new IllegalStateException("No puzzle input set");
+        }
+
+        Alignment alignment = alignScanners();
+        return new long[] { countBeacons(alignment), findMaxManhattanDistance(alignment) };
     }
 
     /**
@@ -459,4 +509,80 @@ public class Day19 extends AbstractChallenge {
 
         readyToSolve = true;
     }
-}
\ No newline at end of file
+
+    /**
+     * Decode the puzzle input directly from bytes, reading the x,y,z numbers of
+     * each beacon without a regular expression.
+     */
+    public void setPuzzleInput(ByteInput input) {
+
+        // load all the scanners from the input
+        puzzle = new ArrayList<Point3D[]>();
+
+        LineCursor cursor = input.lines();
+        ArrayList<Point3D> currentScanner = null;
+        while (cursor.nextLine()) {
+            if (cursor.startsWith("---")) {
+                // found the start of a new scanner
+                if (currentScanner != null) {
+                    // store the scanner that we've just finished reading
+                    puzzle.add(currentScanner.toArray(new Point3D[currentScanner.size()]));
+                }
+                currentScanner = new ArrayList<Point3D>();
+            } else if (cursor.hasNextInt()) {
+                // found a line with beacon's x,y,z position
+                currentScanner.add(new Point3D(cursor.nextInt(), cursor.nextInt(), cursor.nextInt()));
+            }
+        }
+
+        // add the final scanner, if required
+        if ((currentScanner != null) && (currentScanner.size() > 0)) {
+            puzzle.add(currentScanner.toArray(new Point3D[currentScanner.size()]));
+        }
+
+        readyToSolve = true;
+    }
+
+    /**
+     * Save the scanners, as the number of beacons seen by each scanner followed
+     * by the x,y,z position of each beacon
+     */
+    public int[] writeSnapshot() throws IllegalStateException {
+        if (!readyToSolve) {
+            throw new IllegalStateException("No puzzle input to save");
+        }
+
+        int size = 0;
+        for (Point3D[] scanner : puzzle) {
+            size += 1 + (scanner.length * 3);
+        }
+
+        int[] snapshot = new int[size];
+        int index = 0;
+        for (Point3D[] scanner : puzzle) {
+            snapshot[index++] = scanner.length;
+            for (Point3D beacon : scanner) {
+                snapshot[index++] = beacon.x;
+                snapshot[index++] = beacon.y;
+                snapshot[index++] = beacon.z;
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Restore the scanners saved by writeSnapshot
+     */
+    public void readSnapshot(IntBuffer snapshot) {
+        puzzle = new ArrayList<Point3D[]>();
+        while (snapshot.hasRemaining()) {
+            Point3D[] scanner = new Point3D[snapshot.get()];
+            for (int i = 0; i < scanner.length; i++) {
+                scanner[i] = new Point3D(snapshot.get(), snapshot.get(), snapshot.get());
+            }
+            puzzle.add(scanner);
+        }
+
+        readyToSolve = true;
+    }
+}
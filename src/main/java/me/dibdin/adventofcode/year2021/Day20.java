@@ -1,11 +1,12 @@
 package me.dibdin.adventofcode.year2021;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Iterator;
 import java.util.stream.Stream;
 
 import me.dibdin.adventofcode.AbstractChallenge;
+import me.dibdin.adventofcode.util.ScratchArena;
+import me.dibdin.adventofcode.util.SolverStepEvent;
 
 /**
  * Advent of Code Challenge 2021 - Day 20: Trench Map.
@@ -29,25 +30,9 @@ public class Day20 extends AbstractChallenge {
         super("Trench Map", 2021, 20);
     }
 
-    /**
-     * If the i and j indexes are valid for array, return true if the array[i][j] is equal
-     * to match. If the i and j indexes are out of bounds for the array, return true if
-     * infinite is equal to match.
-     * 
-     * @param array the array for the loop up
-     * @param i the primary index of the two dimensional array
-     * @param j the secondary index of the two dimensional array
-     * @param match the char to match to either the array index or the infinite char
-     * @param infinite the infinite char to compare if the array if index out of bounds
-     * @return true if a match if found, otherwise false
-     */
-    private boolean match(char[][] array, int i, int j, char match, char infinite) {
-        if ((i >= 0) && (i < array.length) && (j >= 0) && (j < array[i].length)) {
-            return array[i][j] == match;
-        } else {
-            return infinite == match;
-        }
-    }
+    // the scratch slots of the double buffered image
+    private static final int IMAGE = 0;
+    private static final int PROCESSED = 1;
 
     /**
      * Solve the puzzle by running image enhancement algorithm for a given number of times
@@ -56,51 +41,70 @@ public class Day20 extends AbstractChallenge {
      */
     private int solve(int rounds) {
 
-        // initial setup for the enhancement algorithm
-        char[][] imageArray = Arrays.copyOf(puzzle, puzzle.length);
-        char infinite = DARK_PIXEL;
-        StringBuilder sb = new StringBuilder("123456789");
+        // the image grows by a pixel on every side each round, so both buffers are
+        // made big enough for the final image, with the puzzle in the centre.
+        // Pixels are 1 for light and 0 for dark
+        int width = puzzle[0].length + (2 * rounds);
+        int height = puzzle.length + (2 * rounds);
+        ScratchArena scratch = scratch();
+        byte[] imageArray = scratch.bytes(IMAGE, width * height);
+        byte[] processedImage = scratch.bytes(PROCESSED, width * height);
+        for (int i = 0; i < puzzle.length; i++) {
+            for (int j = 0; j < puzzle[i].length; j++) {
+                imageArray[((i + rounds) * width) + j + rounds] = (byte) ((puzzle[i][j] == LIGHT_PIXEL) ? 1 : 0);
+            }
+        }
+
+        // the bounds of the image, with the bottom and right exclusive, and the
+        // pixel of the infinite space around it
+        int top = rounds;
+        int left = rounds;
+        int bottom = top + puzzle.length;
+        int right = left + puzzle[0].length;
+        int infinite = 0;
 
         // repeat for the request number of rounds
         while (rounds > 0) {
             rounds--;
-
-            // array for the results of this round, adding padding on all sides 
-            char[][] processedImage = new char[imageArray.length + 2][imageArray[0].length + 2];
-
-            // enhannce the image, place the results in processedImage
-            // image array is centered over processed image
-            for (int i = 0; i < processedImage.length; i++) {
-                for (int j = 0; j < processedImage[i].length; j++) {
-                    // top row
-                    sb.setCharAt(0, match(imageArray, i - 2, j - 2, LIGHT_PIXEL, infinite) ? '1' : '0');
-                    sb.setCharAt(1, match(imageArray, i - 2, j - 1, LIGHT_PIXEL, infinite) ? '1' : '0');
-                    sb.setCharAt(2, match(imageArray, i - 2, j, LIGHT_PIXEL, infinite) ? '1' : '0');
-                    // middle row
-                    sb.setCharAt(3, match(imageArray, i - 1, j - 2, LIGHT_PIXEL, infinite) ? '1' : '0');
-                    sb.setCharAt(4, match(imageArray, i - 1, j - 1, LIGHT_PIXEL, infinite) ? '1' : '0');
-                    sb.setCharAt(5, match(imageArray, i - 1, j, LIGHT_PIXEL, infinite) ? '1' : '0');
-                    // bottom row
-                    sb.setCharAt(6, match(imageArray, i, j - 2, LIGHT_PIXEL, infinite) ? '1' : '0');
-                    sb.setCharAt(7, match(imageArray, i, j - 1, LIGHT_PIXEL, infinite) ? '1' : '0');
-                    sb.setCharAt(8, match(imageArray, i, j, LIGHT_PIXEL, infinite) ? '1' : '0');
-
-                    processedImage[i][j] = enhancement[Integer.valueOf(sb.toString(), 2)];
+            SolverStepEvent event = SolverStepEvent.begin(getYear(), getDay(), "Enhancement round");
+
+            // the results of this round add padding on all sides
+            top--;
+            left--;
+            bottom++;
+            right++;
+
+            // enhance the image, place the results in processedImage. The index into
+            // the enhancement is the 3x3 square around each pixel, read as binary,
+            // with anything outside the last image being the infinite pixel
+            for (int i = top; i < bottom; i++) {
+                for (int j = left; j < right; j++) {
+                    int index = 0;
+                    for (int row = i - 1; row <= i + 1; row++) {
+                        boolean rowInside = (row > top) && (row < (bottom - 1));
+                        for (int column = j - 1; column <= j + 1; column++) {
+                            boolean inside = rowInside && (column > left) && (column < (right - 1));
+                            index = (index << 1) | (inside ? imageArray[(row * width) + column] : infinite);
+                        }
+                    }
+                    processedImage[(i * width) + j] = (byte) ((enhancement[index] == LIGHT_PIXEL) ? 1 : 0);
                 }
             }
 
             // prepare for the next round
-            imageArray = processedImage;
-            infinite = (infinite == LIGHT_PIXEL) ? enhancement[511] : enhancement[0];
+            byte[] previousImage = imageArray;
+            imageArray = scratch.swapBytes(IMAGE, PROCESSED);
+            processedImage = previousImage;
+            infinite = (enhancement[(infinite == 1) ? 511 : 0] == LIGHT_PIXEL) ? 1 : 0;
+            event.setCount((long) (bottom - top) * (right - left));
+            event.commit();
         }
 
-        // count the number of LIGHT_PIXELs
+        // count the number of light pixels
         int count = 0;
-        for (int i = 0; i < imageArray.length; i++) {
-            for (int j = 0; j < imageArray[i].length; j++) {
-                if (imageArray[i][j] == LIGHT_PIXEL) {
-                    count++;
-                }
+        for (int i = top; i < bottom; i++) {
+            for (int j = left; j < right; j++) {
+                count += imageArray[(i * width) + j];
             }
         }
 
@@ -26,7 +26,6 @@ public class Day4 extends AbstractChallenge {
      */
     public class Board {
         private int[][] grid = new int[rows][cols];
-        private boolean[][] mark = new boolean[rows][cols];
 
         /**
          * Add a row of numbers to the board
@@ -38,6 +37,23 @@ public class Day4 extends AbstractChallenge {
                 grid[rowIndex] = row;
             } 
         }
+    }
+
+    /**
+     * Inner class to represent the marks made on a Bingo board during one game,
+     * so that the board itself is never changed by solving
+     */
+    private class MarkedBoard {
+        private final int[][] grid;
+        private final boolean[][] mark = new boolean[rows][cols];
+
+        /**
+         * Start a game with no marks on the board
+         * @param board the board to play
+         */
+        private MarkedBoard(Board board) {
+            this.grid = board.grid;
+        }
 
         /**
          * Mark the specified number in baord
@@ -53,17 +69,6 @@ public class Day4 extends AbstractChallenge {
             }
         }
 
-        /**
-         * Reset the marks on the board
-         */
-        public void clearAllMarks() {
-            for (int row = 0; row < rows; row++) {
-                for (int col = 0; col < cols; col++) {
-                    mark[row][col] = false;
-                }
-            }
-        }
-
         /**
          * Does this board had a marked line?
          * @return true if there is a completely marked row or column
@@ -118,6 +123,19 @@ public class Day4 extends AbstractChallenge {
         super ("Giant Squid", 2021, 4);
     }
 
+    /**
+     * Start a game on every board
+     * 
+     * @return the boards, with no marks
+     */
+    private List<MarkedBoard> startGame() {
+        List<MarkedBoard> boardsinPlay = new ArrayList<MarkedBoard>(boards.size());
+        for (Board board : boards) {
+            boardsinPlay.add(new MarkedBoard(board));
+        }
+        return boardsinPlay;
+    }
+
     /**
      * Solve part one of the puzzle
      */
@@ -126,15 +144,13 @@ public class Day4 extends AbstractChallenge {
             throw new IllegalStateException("No puzzle input set");
         }
 
-        // clear all the marks on the boards
-        for (Board board : boards) {
-            board.clearAllMarks();
-        }
+        // start a game on each board, with no marks
+        List<MarkedBoard> boardsinPlay = startGame();
 
         // for each number in the caller array
         for (int i = 0; i < caller.length; i++) {
             //mark in each of the boards
-            for (Board board : boards) {
+            for (MarkedBoard board : boardsinPlay) {
                 board.mark(caller[i]);
                 if (board.isBingo()) {
                     return board.getSumOfUnmarkedNumbers() * caller[i];
@@ -153,13 +169,8 @@ public class Day4 extends AbstractChallenge {
             throw new IllegalStateException("No puzzle input set");
         }
 
-        // clear all the marks on the board
-        for (Board board : boards) {
-            board.clearAllMarks();
-        }
-
-        // create a list of all boards in play
-        List<Board> boardsinPlay = new ArrayList<Board>(boards);
+        // create a list of all boards in play, with no marks
+        List<MarkedBoard> boardsinPlay = startGame();
 
         // for each number in the caller array
         for (int i = 0; i < caller.length; i++) {
@@ -1,9 +1,12 @@
 package me.dibdin.adventofcode.year2021;
 
 import me.dibdin.adventofcode.AbstractChallenge;
+import me.dibdin.adventofcode.util.ByteInput;
+import me.dibdin.adventofcode.util.LineCursor;
+import me.dibdin.adventofcode.util.Snapshottable;
 
+import java.nio.IntBuffer;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.regex.Pattern;
@@ -14,10 +17,13 @@ import java.lang.IllegalStateException;
  * Advent of Code Challenge 2021 - Day 5: Hydrothermal Venture.
  * https://adventofcode.com/2021/day/5
  */
-public class Day5 extends AbstractChallenge {
+public class Day5 extends AbstractChallenge implements Snapshottable {
 
     ArrayList<Line> puzzle = null;
-    int[][] grid = null;
+
+    // size of the grid needed to map every line
+    int gridRows = 0;
+    int gridCols = 0;
 
     /**
      * Helper class to represent a line
@@ -90,9 +96,10 @@ public class Day5 extends AbstractChallenge {
     /**
      * Map a horizonal line
      * 
+     * @param grid the grid to map the line into
      * @param line the line to map
      */
-    private void mapHorizontalLine(Line line) {
+    private void mapHorizontalLine(int[][] grid, Line line) {
         int x = line.getX1();
         while (x != line.getX2()) {
             grid[line.getY1()][x]++;
@@ -104,9 +111,10 @@ public class Day5 extends AbstractChallenge {
     /**
      * Map a vertical line
      * 
+     * @param grid the grid to map the line into
      * @param line the line to map
      */
-    private void mapVerticalLine(Line line) {
+    private void mapVerticalLine(int[][] grid, Line line) {
         int y = line.getY1();
         while (y != line.getY2()) {
             grid[y][line.getX1()]++;
@@ -118,9 +126,10 @@ public class Day5 extends AbstractChallenge {
     /**
      * Map a diagonal line
      * 
+     * @param grid the grid to map the line into
      * @param line the line to map
      */
-    private void mapDiagonalLine(Line line) {
+    private void mapDiagonalLine(int[][] grid, Line line) {
         int x = line.getX1();
         int y = line.getY1();
         while (x != line.getX2() && y != line.getY2()) {
@@ -134,9 +143,10 @@ public class Day5 extends AbstractChallenge {
     /**
      * Count how map times the lines cross on the map
      * 
+     * @param grid the grid the lines have been mapped into
      * @return the count
      */
-    private long countOverlaps() {
+    private long countOverlaps(int[][] grid) {
         int result = 0;
         for (int row = 0; row < grid.length; row++) {
             for (int col = 0; col < grid[row].length; col++) {
@@ -152,54 +162,50 @@ public class Day5 extends AbstractChallenge {
      * Solve part one of the puzzle
      */
     public long solvePartOne() {
-        if ((puzzle == null) || (grid == null)) {
+        if (puzzle == null) {
             throw new IllegalStateException("No puzzle input set");
         }
 
-        // clear the grid
-        for (int[] row : grid) {
-            Arrays.fill(row, 0);
-        }
+        // create an empty grid for this solve
+        int[][] grid = new int[gridRows][gridCols];
 
         // map the lines into the grid
         for (Line line : puzzle) {
             if (line.getY1() == line.getY2()) {
-                mapHorizontalLine(line);
+                mapHorizontalLine(grid, line);
             } else if (line.getX1() == line.getX2()) {
-                mapVerticalLine(line);
+                mapVerticalLine(grid, line);
             }
         }
 
         // find the number of overlaps
-        return countOverlaps();
+        return countOverlaps(grid);
     }
 
     /**
      * Solve part two of the puzzle
      */
     public long solvePartTwo() {
-        if ((puzzle == null) || (grid == null)) {
+        if (puzzle == null) {
             throw new IllegalStateException("No puzzle input set");
         }
 
-        // clear the grid
-        for (int[] row : grid) {
-            Arrays.fill(row, 0);
-        }
+        // create an empty grid for this solve
+        int[][] grid = new int[gridRows][gridCols];
 
         // map the lines into the grid
         for (Line line : puzzle) {
             if (line.getY1() == line.getY2()) {
-                mapHorizontalLine(line);
+                mapHorizontalLine(grid, line);
             } else if (line.getX1() == line.getX2()) {
-                mapVerticalLine(line);
+                mapVerticalLine(grid, line);
             } else {
-                mapDiagonalLine(line);
+                mapDiagonalLine(grid, line);
             }
         }
 
         // find the number of overlaps
-        return countOverlaps();
+        return countOverlaps(grid);
     }
 
     /**
@@ -223,13 +229,67 @@ public class Day5 extends AbstractChallenge {
             }
         }).filter(x -> x != null).collect(Collectors.toCollection(ArrayList<Line>::new));
 
-        // create the grid
+        sizeGrid();
+    }
+
+    /**
+     * Decode the puzzle input directly from bytes, reading the four numbers of
+     * each "x1,y1 -> x2,y2" line without a regular expression.
+     */
+    public void setPuzzleInput(ByteInput input) {
+        puzzle = new ArrayList<Line>();
+
+        LineCursor cursor = input.lines();
+        while (cursor.nextLine()) {
+            if (cursor.hasNextInt()) {
+                puzzle.add(new Line(cursor.nextInt(), cursor.nextInt(), cursor.nextInt(), cursor.nextInt()));
+            }
+        }
+
+        sizeGrid();
+    }
+
+    /**
+     * Save the lines, as the four co-ordinates of each line
+     */
+    public int[] writeSnapshot() throws IllegalStateException {
+        if (puzzle == null) {
+            throw new IllegalStateException("No puzzle input to save");
+        }
+
+        int[] snapshot = new int[puzzle.size() * 4];
+        for (int i = 0; i < puzzle.size(); i++) {
+            Line line = puzzle.get(i);
+            snapshot[(i * 4)] = line.getX1();
+            snapshot[(i * 4) + 1] = line.getY1();
+            snapshot[(i * 4) + 2] = line.getX2();
+            snapshot[(i * 4) + 3] = line.getY2();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Restore the lines saved by writeSnapshot
+     */
+    public void readSnapshot(IntBuffer snapshot) {
+        puzzle = new ArrayList<Line>();
+        while (snapshot.remaining() >= 4) {
+            puzzle.add(new Line(snapshot.get(), snapshot.get(), snapshot.get(), snapshot.get()));
+        }
+        sizeGrid();
+    }
+
+    /**
+     * Work out the size of grid needed to hold every line of the puzzle
+     */
+    private void sizeGrid() {
         int cols = 0;
         int rows = 0;
         for (Line line : puzzle) {
             cols = Integer.max(Integer.max(cols, line.getX1()), line.getX2());
             rows = Integer.max(Integer.max(rows, line.getY1()), line.getY2());
         }
-        grid = new int[rows + 1][cols + 1];
+        gridRows = rows + 1;
+        gridCols = cols + 1;
     }
-}
\ No newline at end of file
+}
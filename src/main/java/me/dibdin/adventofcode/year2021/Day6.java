@@ -1,8 +1,10 @@
 package me.dibdin.adventofcode.year2021;
 
 import me.dibdin.adventofcode.AbstractChallenge;
+import me.dibdin.adventofcode.util.ByteInput;
+import me.dibdin.adventofcode.util.InputDecoder;
+import me.dibdin.adventofcode.util.ScratchArena;
 
-import java.util.Arrays;
 import java.util.Iterator;
 import java.util.stream.Stream;
 import java.lang.IllegalStateException;
@@ -15,6 +17,10 @@ public class Day6 extends AbstractChallenge {
 
     int[] puzzle = null;
 
+    // the scratch slots of the double buffered shoal
+    private static final int SHOAL = 0;
+    private static final int NEXT_DAY = 1;
+
     /**
      * Constructor.
      */
@@ -23,33 +29,58 @@ public class Day6 extends AbstractChallenge {
     }
 
     /**
-     * Move through the lifecycle of the lantern fish for specified number of days
-     * @param days the number of days to simulate
-     * @return the number of fish at the end of the simulation
+     * Move through the lifecycle of the lantern fish, counting the fish at the
+     * end of each of the requested days
+     * @param days the days to count the fish on, in ascending order
+     * @return the number of fish at the end of each of the requested days
      */
-    private long lifecycle(int days) {
-        long shoal[] = new long[9];
+    private long[] lifecycle(int... days) {
+        ScratchArena scratch = scratch();
+        long shoal[] = scratch.longs(SHOAL, 9);
+        long counts[] = new long[days.length];
 
         // add the fish to the shoal, with one bucket for each day
         for (int timer : puzzle) {
             shoal[timer]++;
         }
 
-        // for each day
-        for (int day = 0; day < days; day++) {
+        // for each day, until the last requested day
+        int next = 0;
+        for (int day = 0; day < days[days.length - 1]; day++) {
+            // record the total number of fish in the shoal on the requested days
+            while ((next < days.length) && (days[next] == day)) {
+                counts[next++] = sum(shoal);
+            }
+
             // decreament the timer, moving fish into the next bucket
-            long nextDay[] = new long[shoal.length];
+            long nextDay[] = scratch.longs(NEXT_DAY, shoal.length);
             for (int timer = 8; timer > 0; timer--) {
                 nextDay[timer -1] = shoal[timer];
             }
             nextDay[6] += shoal[0]; // reset timer
             nextDay[8] += shoal[0]; // add the spawn
-            shoal = nextDay;
+            shoal = scratch.swapLongs(SHOAL, NEXT_DAY);
         }
 
-        // return the total number of fish in the shoal
-        return Arrays.stream(shoal).sum();
+        // record the total number of fish in the shoal at the end
+        while (next < days.length) {
+            counts[next++] = sum(shoal);
+        }
 
+        return counts;
+    }
+
+    /**
+     * Count the fish in the shoal
+     * @param shoal the number of fish with each timer
+     * @return the total number of fish
+     */
+    private static long sum(long[] shoal) {
+        long total = 0;
+        for (long fish : shoal) {
+            total += fish;
+        }
+        return total;
     }
 
     /**
@@ -60,7 +91,7 @@ public class Day6 extends AbstractChallenge {
             throw new IllegalStateException("No puzzle input set");
         }
 
-        return lifecycle(80);
+        return lifecycle(80)[0];
     }
 
     /**
@@ -71,7 +102,20 @@ public class Day6 extends AbstractChallenge {
             throw new IllegalStateException("No puzzle input set");
         }
 
-        return lifecycle(256);
+        return lifecycle(256)[0];
+    }
+
+    /**
+     * Solve both parts of the puzzle, as the first 80 days of part two are
+     * part one
+     */
+    @Override
+    public long[] solveBoth() {
+        if (puzzle == null) {
+            throw new IllegalStateException("No puzzle input set");
+        }
+
+        return lifecycle(80, 256);
     }
 
     /**
@@ -85,4 +129,12 @@ public class Day6 extends AbstractChallenge {
 
         puzzle = Stream.of(tokens).mapToInt(Integer::parseInt).toArray();
     }
-}
\ No newline at end of file
+
+    /**
+     * Decode the puzzle input directly from bytes, without creating a String for
+     * each line.
+     */
+    public void setPuzzleInput(ByteInput input) {
+        puzzle = InputDecoder.decodeAsIntArray(input);
+    }
+}
@@ -1,10 +1,14 @@
 package me.dibdin.adventofcode.year2021;
 
 import java.util.Arrays;
-import java.util.function.IntFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import me.dibdin.adventofcode.AbstractChallenge;
+import me.dibdin.adventofcode.util.ByteInput;
+import me.dibdin.adventofcode.util.InputDecoder;
+import me.dibdin.adventofcode.util.SolverStrategy;
 
 /**
  * Advent of Code Challenge 2021 - Day 7: The Treachery of Whales.
@@ -12,6 +16,14 @@ import me.dibdin.adventofcode.AbstractChallenge;
  */
 public class Day7 extends AbstractChallenge {
 
+    /**
+     * The fuel usage for a distance travelled, in part one and part two, where
+     * the fuel cost function is the sum of triangular numbers. Distances are
+     * long, as the fuel for a distance over 46340 is too large for an int.
+     */
+    private static final LongUnaryOperator LINEAR_FUEL = n -> n;
+    private static final LongUnaryOperator TRIANGULAR_FUEL = n -> (n * (n + 1)) / 2;
+
     int[] puzzle = null;
 
     /**
@@ -19,16 +31,38 @@ public class Day7 extends AbstractChallenge {
      */
     public Day7() {
         super("The Treachery of Whales", 2021, 7);
+
+        addStrategy("brute-force", SolverStrategy.of(() -> solve(LINEAR_FUEL), () -> solve(TRIANGULAR_FUEL)));
+        addStrategy("parallel", SolverStrategy.of(() -> solveInParallel(LINEAR_FUEL),
+                () -> solveInParallel(TRIANGULAR_FUEL)));
+        addStrategy("closed-form", SolverStrategy.of(this::solveAtMedian, this::solveNearMean));
+    }
+
+    /**
+     * Calculate the fuel used by all the crabs to move to a position
+     * 
+     * @param position  the position to move to
+     * @param fuelUsage a function which returns the fuel usage for a given distance
+     *                  travelled
+     * @return the fuel used
+     */
+    private long fuelUsed(int position, LongUnaryOperator fuelUsage) {
+        long fuelUsedForThisPosition = 0;
+        for (int crab : puzzle) {
+            long crabDistance = ((position > crab) ? (long) position - crab : (long) crab - position);
+            fuelUsedForThisPosition += fuelUsage.applyAsLong(crabDistance);
+        }
+        return fuelUsedForThisPosition;
     }
 
     /**
-     * Solve the puzzle
+     * Solve the puzzle, by trying every position
      * 
      * @param fuelUsage a function which returns the fuel usage for a given distance
      *                  travelled
      * @return the lowest fuel usage
      */
-    private long solve(IntFunction<Integer> fuelUsage) {
+    private long solve(LongUnaryOperator fuelUsage) {
         if (puzzle == null) {
             throw new IllegalStateException("No puzzle input set");
         }
@@ -37,15 +71,11 @@ public class Day7 extends AbstractChallenge {
         int minPosition = Arrays.stream(puzzle).min().getAsInt();
         int maxPosition = Arrays.stream(puzzle).max().getAsInt();
 
-        int leastFuelUsed = Integer.MAX_VALUE; // assuming the least fuel used will be less than this!!
+        long leastFuelUsed = Long.MAX_VALUE;
 
         // calculate the fuel useage for all the crabs for every possible position.
         for (int position = minPosition; position <= maxPosition; position++) {
-            int fuelUsedForThisPosition = 0;
-            for (int crab : puzzle) {
-                int crabDistance = ((position > crab) ? position - crab : crab - position);
-                fuelUsedForThisPosition += fuelUsage.apply(crabDistance);
-            }
+            long fuelUsedForThisPosition = fuelUsed(position, fuelUsage);
             // does this position have a lower fuel useage?
             if (fuelUsedForThisPosition < leastFuelUsed) {
                 leastFuelUsed = fuelUsedForThisPosition;
@@ -55,20 +85,94 @@ public class Day7 extends AbstractChallenge {
         return leastFuelUsed;
     }
 
+    /**
+     * Solve the puzzle, by trying every position, with the positions shared
+     * between the threads of the fork join pool the caller runs in, such as the
+     * pool of a BatchRunner, or otherwise the common pool
+     * 
+     * @param fuelUsage a function which returns the fuel usage for a given distance
+     *                  travelled
+     * @return the lowest fuel usage
+     */
+    private long solveInParallel(LongUnaryOperator fuelUsage) {
+        if (puzzle == null) {
+            throw new IllegalStateException("No puzzle input set");
+        }
+
+        int minPosition = Arrays.stream(puzzle).min().getAsInt();
+        int maxPosition = Arrays.stream(puzzle).max().getAsInt();
+
+        return IntStream.rangeClosed(minPosition, maxPosition)
+                .parallel()
+                .mapToLong(position -> fuelUsed(position, fuelUsage))
+                .min()
+                .getAsLong();
+    }
+
+    /**
+     * Solve part one directly: the total distance to a position is least at the
+     * median position
+     * 
+     * @return the lowest fuel usage
+     */
+    private long solveAtMedian() {
+        if (puzzle == null) {
+            throw new IllegalStateException("No puzzle input set");
+        }
+
+        int[] sorted = puzzle.clone();
+        Arrays.sort(sorted);
+        int median = sorted[sorted.length / 2];
+
+        long fuelUsed = 0;
+        for (int crab : puzzle) {
+            fuelUsed += Math.abs((long) crab - median);
+        }
+        return fuelUsed;
+    }
+
+    /**
+     * Solve part two directly: the fuel is a convex function of the position,
+     * which is least within half a step of the mean position, so only the whole
+     * positions around the mean need trying
+     * 
+     * @return the lowest fuel usage
+     */
+    private long solveNearMean() {
+        if (puzzle == null) {
+            throw new IllegalStateException("No puzzle input set");
+        }
+
+        long sum = 0;
+        for (int crab : puzzle) {
+            sum += crab;
+        }
+        long mean = Math.floorDiv(sum, puzzle.length);
+
+        long leastFuelUsed = Long.MAX_VALUE;
+        for (long position = mean - 1; position <= (mean + 2); position++) {
+            long fuelUsed = 0;
+            for (int crab : puzzle) {
+                long distance = Math.abs(crab - position);
+                fuelUsed += (distance * (distance + 1)) / 2;
+            }
+            leastFuelUsed = Math.min(leastFuelUsed, fuelUsed);
+        }
+        return leastFuelUsed;
+    }
+
     /**
      * Solve part one of the puzzle
      */
     public long solvePartOne() {
-        return solve(n -> n);
+        return strategy().solvePartOne();
     }
 
     /**
      * Solve part two of the puzzle
      */
     public long solvePartTwo() {
-        // fuel cost function is the sum of triangular numbers
-        return solve(n -> (n * (n + 1)) / 2);
-
+        return strategy().solvePartTwo();
     }
 
     /**
@@ -80,4 +184,12 @@ public class Day7 extends AbstractChallenge {
                 .mapToInt(Integer::parseInt)
                 .toArray();
     }
-}
\ No newline at end of file
+
+    /**
+     * Decode the puzzle input directly from bytes, without creating a String for
+     * each line.
+     */
+    public void setPuzzleInput(ByteInput input) {
+        puzzle = InputDecoder.decodeAsIntArray(input);
+    }
+}
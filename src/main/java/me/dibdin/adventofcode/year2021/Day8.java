@@ -1,5 +1,6 @@
 package me.dibdin.adventofcode.year2021;
 
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -8,12 +9,13 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import me.dibdin.adventofcode.AbstractChallenge;
+import me.dibdin.adventofcode.util.Snapshottable;
 
 /**
  * Advent of Code Challenge 2021 - Day 8: Seven Segment Search.
  * https://adventofcode.com/2021/day/8
  */
-public class Day8 extends AbstractChallenge {
+public class Day8 extends AbstractChallenge implements Snapshottable {
 
     ArrayList<String[]> signalsPatterns = null;
     ArrayList<String[]> outputValues = null;
@@ -222,4 +224,77 @@ public class Day8 extends AbstractChallenge {
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Save the patterns, with the segments of each sorted pattern as a bitmask,
+     * so that no letters need sorting when the snapshot is read
+     */
+    public int[] writeSnapshot() throws IllegalStateException {
+        if ((signalsPatterns == null) || (outputValues == null)) {
+            throw new IllegalStateException("No puzzle input to save");
+        }
+
+        int[] snapshot = new int[signalsPatterns.size() * 14];
+        int index = 0;
+        for (int i = 0; i < signalsPatterns.size(); i++) {
+            for (String pattern : signalsPatterns.get(i)) {
+                snapshot[index++] = toSegments(pattern);
+            }
+            for (String value : outputValues.get(i)) {
+                snapshot[index++] = toSegments(value);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Restore the patterns saved by writeSnapshot
+     */
+    public void readSnapshot(IntBuffer snapshot) {
+        signalsPatterns = new ArrayList<String[]>();
+        outputValues = new ArrayList<String[]>();
+
+        while (snapshot.remaining() >= 14) {
+            String[] patterns = new String[10];
+            for (int i = 0; i < patterns.length; i++) {
+                patterns[i] = fromSegments(snapshot.get());
+            }
+            String[] values = new String[4];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = fromSegments(snapshot.get());
+            }
+            signalsPatterns.add(patterns);
+            outputValues.add(values);
+        }
+    }
+
+    /**
+     * Convert a pattern into a bitmask of its segments, with bit 0 for 'a'
+     *
+     * @param pattern the pattern
+     * @return the bitmask
+     */
+    private static int toSegments(String pattern) {
+        int segments = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            segments |= 1 << (pattern.charAt(i) - 'a');
+        }
+        return segments;
+    }
+
+    /**
+     * Convert a bitmask of segments into a pattern, with the letters in order
+     *
+     * @param segments the bitmask
+     * @return the pattern
+     */
+    private static String fromSegments(int segments) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 7; i++) {
+            if ((segments & (1 << i)) != 0) {
+                sb.append((char) ('a' + i));
+            }
+        }
+        return sb.toString();
+    }
+}
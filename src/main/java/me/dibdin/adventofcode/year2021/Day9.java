@@ -1,16 +1,19 @@
 package me.dibdin.adventofcode.year2021;
 
+import java.nio.IntBuffer;
 import java.util.Arrays;
 import java.util.stream.Stream;
 
 import me.dibdin.adventofcode.AbstractChallenge;
 import me.dibdin.adventofcode.util.InputDecoder;
+import me.dibdin.adventofcode.util.ByteInput;
+import me.dibdin.adventofcode.util.Snapshottable;
 
 /**
  * Advent of Code Challenge 2021 - Day 9: Smoke Basin.
  * https://adventofcode.com/2021/day/9
  */
-public class Day9 extends AbstractChallenge {
+public class Day9 extends AbstractChallenge implements Snapshottable {
 
     int[][] puzzle = null;
 
@@ -147,4 +150,29 @@ public class Day9 extends AbstractChallenge {
     public void setPuzzleInput(Stream<String> input) {
         puzzle = InputDecoder.decodeAsTwoDimensionalIntArray(input);
     }
-}
\ No newline at end of file
+
+    /**
+     * Decode the puzzle input directly from bytes, without creating a String for
+     * each line.
+     */
+    public void setPuzzleInput(ByteInput input) {
+        puzzle = InputDecoder.decodeAsTwoDimensionalIntArray(input);
+    }
+
+    /**
+     * Save the grid of the puzzle
+     */
+    public int[] writeSnapshot() throws IllegalStateException {
+        if (puzzle == null) {
+            throw new IllegalStateException("No puzzle input to save");
+        }
+        return Snapshottable.flatten(puzzle);
+    }
+
+    /**
+     * Restore the grid saved by writeSnapshot
+     */
+    public void readSnapshot(IntBuffer snapshot) {
+        puzzle = Snapshottable.unflatten(snapshot);
+    }
+}
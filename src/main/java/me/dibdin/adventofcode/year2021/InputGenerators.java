@@ -0,0 +1,898 @@
+package me.dibdin.adventofcode.year2021;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+
+import me.dibdin.adventofcode.util.Point3D;
+
+/**
+ * Generators of valid puzzle input for the 2021 challenges, at any scale. See
+ * InputGenerator, and GeneratorRegistry for where they are registered.
+ */
+public class InputGenerators {
+
+    // the segments lit for each digit on a seven segment display
+    private static final String[] SEGMENTS = { "abcefg", "cf", "acdeg", "acdfg", "bcdf", "abdfg", "abdefg", "acf",
+            "abcdefg", "abcdfg" };
+
+    // the opening brackets, and their matching closing brackets
+    private static final String OPENERS = "([{<";
+    private static final String CLOSERS = ")]}>";
+
+    // the elements of the polymer
+    private static final String ELEMENTS = "BCFHKNOPSV";
+
+    /**
+     * Day 1: Sonar Sweep. The size is the number of depth measurements.
+     *
+     * @param size   the number of measurements
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day1(int size, Random random) {
+        ArrayList<String> lines = new ArrayList<String>();
+
+        int depth = 100 + random.nextInt(100);
+        for (int i = 0; i < size; i++) {
+            depth = Math.max(1, depth + random.nextInt(30) - 10);
+            lines.add(Integer.toString(depth));
+        }
+
+        return lines;
+    }
+
+    /**
+     * Day 2: Dive! The size is the number of commands.
+     *
+     * @param size   the number of commands
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day2(int size, Random random) {
+        ArrayList<String> lines = new ArrayList<String>();
+        String[] commands = { "forward", "down", "up" };
+
+        for (int i = 0; i < size; i++) {
+            lines.add(commands[random.nextInt(commands.length)] + " " + (1 + random.nextInt(9)));
+        }
+
+        return lines;
+    }
+
+    /**
+     * Day 3: Binary Diagnostic. The size is the number of report lines, rounded up
+     * to a power of two. Every number of that many bits appears once, so the
+     * ratings can always be found.
+     *
+     * @param size   the number of lines, at least 32
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day3(int size, Random random) {
+        int bits = Math.max(5, 32 - Integer.numberOfLeadingZeros(Math.max(size, 1) - 1));
+
+        ArrayList<String> lines = new ArrayList<String>();
+        for (int i = 0; i < (1 << bits); i++) {
+            String binary = Integer.toBinaryString(i);
+            lines.add("0".repeat(bits - binary.length()) + binary);
+        }
+        Collections.shuffle(lines, random);
+
+        return lines;
+    }
+
+    /**
+     * Day 4: Giant Squid. The size is the number of bingo boards. Every number is
+     * drawn, so every board wins eventually.
+     *
+     * @param size   the number of boards
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day4(int size, Random random) {
+        ArrayList<Integer> numbers = new ArrayList<Integer>();
+        for (int i = 0; i < 100; i++) {
+            numbers.add(i);
+        }
+
+        ArrayList<String> lines = new ArrayList<String>();
+        Collections.shuffle(numbers, random);
+        ArrayList<String> draws = new ArrayList<String>();
+        for (int number : numbers) {
+            draws.add(Integer.toString(number));
+        }
+        lines.add(String.join(",", draws));
+
+        for (int board = 0; board < size; board++) {
+            lines.add("");
+            Collections.shuffle(numbers, random);
+            for (int row = 0; row < 5; row++) {
+                StringBuilder sb = new StringBuilder();
+                for (int column = 0; column < 5; column++) {
+                    sb.append((column > 0) ? " " : "").append(String.format("%2d", numbers.get((row * 5) + column)));
+                }
+                lines.add(sb.toString());
+            }
+        }
+
+        return lines;
+    }
+
+    /**
+     * Day 5: Hydrothermal Venture. The size is the number of vent lines, which
+     * are spread over a square area as wide as the size.
+     *
+     * @param size   the number of lines, and the width of the area
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day5(int size, Random random) {
+        ArrayList<String> lines = new ArrayList<String>();
+        int range = Math.max(10, size);
+
+        while (lines.size() < size) {
+            int x1 = random.nextInt(range);
+            int y1 = random.nextInt(range);
+            int x2 = x1;
+            int y2 = y1;
+
+            switch (random.nextInt(3)) {
+                case 0: // horizontal
+                    x2 = random.nextInt(range);
+                    break;
+                case 1: // vertical
+                    y2 = random.nextInt(range);
+                    break;
+                default: // diagonal
+                    int dx = random.nextBoolean() ? 1 : -1;
+                    int dy = random.nextBoolean() ? 1 : -1;
+                    int maxLength = Math.min((dx > 0) ? (range - 1 - x1) : x1, (dy > 0) ? (range - 1 - y1) : y1);
+                    int length = (maxLength > 0) ? random.nextInt(maxLength + 1) : 0;
+                    x2 = x1 + (dx * length);
+                    y2 = y1 + (dy * length);
+                    break;
+            }
+
+            if ((x1 != x2) || (y1 != y2)) {
+                lines.add(String.format("%d,%d -> %d,%d", x1, y1, x2, y2));
+            }
+        }
+
+        return lines;
+    }
+
+    /**
+     * Day 6: Lanternfish. The size is the number of fish.
+     *
+     * @param size   the number of fish
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day6(int size, Random random) {
+        ArrayList<String> timers = new ArrayList<String>();
+        for (int i = 0; i < size; i++) {
+            timers.add(Integer.toString(1 + random.nextInt(5)));
+        }
+        return List.of(String.join(",", timers));
+    }
+
+    /**
+     * Day 7: The Treachery of Whales. The size is the number of crabs, which are
+     * spread over as many horizontal positions.
+     *
+     * @param size   the number of crabs, and the range of their positions
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day7(int size, Random random) {
+        ArrayList<String> positions = new ArrayList<String>();
+        for (int i = 0; i < size; i++) {
+            positions.add(Integer.toString(random.nextInt(size)));
+        }
+        return List.of(String.join(",", positions));
+    }
+
+    /**
+     * Day 8: Seven Segment Search. The size is the number of displays, each with
+     * its own random wiring of the segments.
+     *
+     * @param size   the number of displays
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day8(int size, Random random) {
+        ArrayList<String> lines = new ArrayList<String>();
+
+        for (int i = 0; i < size; i++) {
+            // wire each segment to a random signal
+            ArrayList<Character> wiring = new ArrayList<Character>();
+            for (char c = 'a'; c <= 'g'; c++) {
+                wiring.add(c);
+            }
+            Collections.shuffle(wiring, random);
+
+            ArrayList<String> patterns = new ArrayList<String>();
+            for (int digit = 0; digit < 10; digit++) {
+                patterns.add(scramble(SEGMENTS[digit], wiring, random));
+            }
+            Collections.shuffle(patterns, random);
+
+            ArrayList<String> outputs = new ArrayList<String>();
+            for (int j = 0; j < 4; j++) {
+                outputs.add(scramble(SEGMENTS[random.nextInt(10)], wiring, random));
+            }
+
+            lines.add(String.join(" ", patterns) + " | " + String.join(" ", outputs));
+        }
+
+        return lines;
+    }
+
+    /**
+     * Map the segments of a digit through the wiring, in a random order
+     *
+     * @param segments the segments of the digit
+     * @param wiring   the signal wired to each segment
+     * @param random   the source of randomness
+     * @return the signals
+     */
+    private static String scramble(String segments, List<Character> wiring, Random random) {
+        ArrayList<Character> signals = new ArrayList<Character>();
+        for (char segment : segments.toCharArray()) {
+            signals.add(wiring.get(segment - 'a'));
+        }
+        Collections.shuffle(signals, random);
+
+        StringBuilder sb = new StringBuilder();
+        for (char signal : signals) {
+            sb.append(signal);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Day 9: Smoke Basin. The size is the width and height of the height map.
+     *
+     * @param size   the width and height, at least 5
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day9(int size, Random random) {
+        // plenty of 9s, to divide the map into several basins
+        return digitGrid(Math.max(size, 5), random, 0, 9, 0.3);
+    }
+
+    /**
+     * Day 10: Syntax Scoring. The size is the number of lines, each either
+     * corrupted or incomplete, with an odd number of incomplete lines.
+     *
+     * @param size   the number of lines
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day10(int size, Random random) {
+        boolean[] incomplete = new boolean[size];
+        int incompleteCount = 0;
+        for (int i = 0; i < size; i++) {
+            incomplete[i] = random.nextBoolean();
+            incompleteCount += incomplete[i] ? 1 : 0;
+        }
+        if ((incompleteCount % 2) == 0) {
+            incomplete[0] = !incomplete[0];
+        }
+
+        ArrayList<String> lines = new ArrayList<String>();
+        for (int i = 0; i < size; i++) {
+            StringBuilder sb = new StringBuilder();
+            ArrayDeque<Integer> open = new ArrayDeque<Integer>();
+
+            // a random sequence of balanced brackets, left open part way
+            int length = 20 + random.nextInt(80);
+            for (int j = 0; j < length; j++) {
+                if (open.isEmpty() || (random.nextInt(100) < 55)) {
+                    int bracket = random.nextInt(OPENERS.length());
+                    open.push(bracket);
+                    sb.append(OPENERS.charAt(bracket));
+                } else {
+                    sb.append(CLOSERS.charAt(open.pop()));
+                }
+            }
+            if (open.isEmpty()) {
+                int bracket = random.nextInt(OPENERS.length());
+                open.push(bracket);
+                sb.append(OPENERS.charAt(bracket));
+            }
+
+            // corrupt it with the wrong closing bracket
+            if (!incomplete[i]) {
+                int wrong = (open.peek() + 1 + random.nextInt(CLOSERS.length() - 1)) % CLOSERS.length();
+                sb.append(CLOSERS.charAt(wrong));
+            }
+            lines.add(sb.toString());
+        }
+
+        return lines;
+    }
+
+    /**
+     * Day 11: Dumbo Octopus. The size is the width and height of the grid.
+     *
+     * Part two needs every octopus to flash at once eventually, which random
+     * grids larger than about 10 by 10 rarely do. So a few random grids are
+     * simulated, and if none of them synchronise, the grid is filled with just
+     * two neighbouring energy levels instead. Those always synchronise, as the
+     * first flash sets off every other octopus.
+     *
+     * @param size   the width and height
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day11(int size, Random random) {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            List<String> lines = digitGrid(size, random, 0, 9, 0);
+            if (octopusesSynchronise(lines, 1000)) {
+                return lines;
+            }
+        }
+
+        int level = random.nextInt(9);
+        ArrayList<String> lines = new ArrayList<String>();
+        for (int y = 0; y < size; y++) {
+            StringBuilder sb = new StringBuilder();
+            for (int x = 0; x < size; x++) {
+                sb.append(level + (random.nextInt(4) == 0 ? 1 : 0));
+            }
+            lines.add(sb.toString());
+        }
+        return lines;
+    }
+
+    /**
+     * Do all the octopuses in a grid flash at once within the given number of
+     * steps?
+     *
+     * @param lines    the grid of energy levels
+     * @param maxSteps the number of steps to simulate
+     * @return true if every octopus flashes in the same step
+     */
+    private static boolean octopusesSynchronise(List<String> lines, int maxSteps) {
+        int height = lines.size();
+        int width = lines.get(0).length();
+        int[][] energy = new int[height][width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                energy[y][x] = lines.get(y).charAt(x) - '0';
+            }
+        }
+
+        ArrayDeque<int[]> flashing = new ArrayDeque<int[]>();
+        for (int step = 0; step < maxSteps; step++) {
+            int flashes = 0;
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (++energy[y][x] == 10) {
+                        flashing.add(new int[] { y, x });
+                    }
+                }
+            }
+
+            // each flash adds energy to the neighbours, which may flash in turn
+            while (!flashing.isEmpty()) {
+                int[] octopus = flashing.poll();
+                flashes++;
+                for (int y = Math.max(0, octopus[0] - 1); y <= Math.min(height - 1, octopus[0] + 1); y++) {
+                    for (int x = Math.max(0, octopus[1] - 1); x <= Math.min(width - 1, octopus[1] + 1); x++) {
+                        if (++energy[y][x] == 10) {
+                            flashing.add(new int[] { y, x });
+                        }
+                    }
+                }
+            }
+
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (energy[y][x] > 9) {
+                        energy[y][x] = 0;
+                    }
+                }
+            }
+            if (flashes == (width * height)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Day 12: Passage Pathing. The size is the number of small caves, with one big
+     * cave for every four small caves. Big caves are never connected to each
+     * other, so there are a finite number of routes, but the number grows quickly
+     * with the size.
+     *
+     * @param size   the number of small caves
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day12(int size, Random random) {
+        ArrayList<String> small = new ArrayList<String>();
+        ArrayList<String> big = new ArrayList<String>();
+        for (int i = 0; i < Math.max(size, 2); i++) {
+            small.add(caveName(i, 'a'));
+        }
+        for (int i = 0; i < Math.max(1, size / 4); i++) {
+            big.add(caveName(i, 'A'));
+        }
+
+        LinkedHashSet<String> edges = new LinkedHashSet<String>();
+
+        // join each cave to one already joined, so every cave can be reached
+        ArrayList<String> joined = new ArrayList<String>();
+        joined.add(small.get(0));
+        edges.add("start-" + small.get(0));
+        ArrayList<String> caves = new ArrayList<String>(small.subList(1, small.size()));
+        caves.addAll(big);
+        Collections.shuffle(caves, random);
+        for (String cave : caves) {
+            String other;
+            do {
+                other = joined.get(random.nextInt(joined.size()));
+            } while (Character.isUpperCase(cave.charAt(0)) && Character.isUpperCase(other.charAt(0)));
+            edges.add(other + "-" + cave);
+            joined.add(cave);
+        }
+
+        // a few more passages between small caves, and from big caves
+        for (int i = 0; i < (small.size() / 2); i++) {
+            String from = small.get(random.nextInt(small.size()));
+            String to = small.get(random.nextInt(small.size()));
+            if (!from.equals(to) && !edges.contains(to + "-" + from)) {
+                edges.add(from + "-" + to);
+            }
+        }
+        for (String cave : big) {
+            String to = small.get(random.nextInt(small.size()));
+            if (!edges.contains(to + "-" + cave)) {
+                edges.add(cave + "-" + to);
+            }
+        }
+
+        edges.add("start-" + small.get(random.nextInt(small.size())));
+        edges.add(joined.get(joined.size() - 1) + "-end");
+        edges.add(small.get(random.nextInt(small.size())) + "-end");
+
+        ArrayList<String> lines = new ArrayList<String>(edges);
+        Collections.shuffle(lines, random);
+        return lines;
+    }
+
+    /**
+     * Name a cave with letters, counting from "a" or "A"
+     *
+     * @param index the number of the cave
+     * @param first the first letter, which gives the case of the name
+     * @return the name
+     */
+    private static String caveName(int index, char first) {
+        StringBuilder sb = new StringBuilder();
+        do {
+            sb.append((char) (first + (index % 26)));
+            index /= 26;
+        } while (index > 0);
+
+        // never clash with "start" or "end", which have more than one letter
+        return (sb.length() == 1) ? sb.append(sb.charAt(0)).toString() : sb.toString();
+    }
+
+    /**
+     * Day 13: Transparent Origami. The size is the number of dots. The folds
+     * always finish on a sheet of 40 by 6, and there are more folds for more
+     * dots, so the dots don't run out of room.
+     *
+     * @param size   the number of dots
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day13(int size, Random random) {
+        int folds = 2;
+        while ((240L << (2 * folds)) < (2L * size)) {
+            folds++;
+        }
+
+        // the fold lines, from the last fold to the first
+        int[] xFolds = new int[folds];
+        int[] yFolds = new int[folds];
+        xFolds[0] = 40;
+        yFolds[0] = 6;
+        for (int i = 1; i < folds; i++) {
+            xFolds[i] = (2 * xFolds[i - 1]) + 1;
+            yFolds[i] = (2 * yFolds[i - 1]) + 1;
+        }
+
+        // place each dot on the folded sheet, then unfold it at random
+        LinkedHashSet<String> dots = new LinkedHashSet<String>();
+        while (dots.size() < size) {
+            int x = random.nextInt(40);
+            int y = random.nextInt(6);
+            for (int i = 0; i < folds; i++) {
+                if (random.nextBoolean()) {
+                    x = (2 * xFolds[i]) - x;
+                }
+                if (random.nextBoolean()) {
+                    y = (2 * yFolds[i]) - y;
+                }
+            }
+            dots.add(x + "," + y);
+        }
+
+        ArrayList<String> lines = new ArrayList<String>(dots);
+        Collections.shuffle(lines, random);
+        lines.add("");
+        for (int i = folds - 1; i >= 0; i--) {
+            lines.add("fold along x=" + xFolds[i]);
+            lines.add("fold along y=" + yFolds[i]);
+        }
+        return lines;
+    }
+
+    /**
+     * Day 14: Extended Polymerization. The size is the length of the polymer
+     * template. There is a rule for every pair of elements.
+     *
+     * @param size   the length of the template, at least 2
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day14(int size, Random random) {
+        StringBuilder template = new StringBuilder();
+        for (int i = 0; i < Math.max(size, 2); i++) {
+            template.append(ELEMENTS.charAt(random.nextInt(ELEMENTS.length())));
+        }
+
+        ArrayList<String> lines = new ArrayList<String>();
+        lines.add(template.toString());
+        lines.add("");
+        for (char first : ELEMENTS.toCharArray()) {
+            for (char second : ELEMENTS.toCharArray()) {
+                lines.add("" + first + second + " -> " + ELEMENTS.charAt(random.nextInt(ELEMENTS.length())));
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Day 15: Chiton. The size is the width and height of the risk map.
+     *
+     * @param size   the width and height, at least 2
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day15(int size, Random random) {
+        return digitGrid(Math.max(size, 2), random, 1, 9, 0);
+    }
+
+    /**
+     * Day 16: Packet Decoder. The size is the number of packets in the
+     * transmission, nested in a random tree of operators.
+     *
+     * @param size   the number of packets
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day16(int size, Random random) {
+        StringBuilder bits = new StringBuilder(encodePacket(Math.max(size, 1), random));
+
+        // pad to a whole number of hex digits
+        while ((bits.length() % 4) != 0) {
+            bits.append('0');
+        }
+
+        StringBuilder hex = new StringBuilder();
+        for (int i = 0; i < bits.length(); i += 4) {
+            hex.append(Character.toUpperCase(Character.forDigit(Integer.parseInt(bits.substring(i, i + 4), 2), 16)));
+        }
+        return List.of(hex.toString());
+    }
+
+    /**
+     * Encode a random packet, with the given number of packets inside it
+     *
+     * @param packets the number of packets, including this one
+     * @param random  the source of randomness
+     * @return the packet, as a string of bits
+     */
+    private static String encodePacket(int packets, Random random) {
+        String version = toBits(random.nextInt(8), 3);
+
+        // a literal value, in groups of four bits
+        if (packets == 1) {
+            String value = Integer.toBinaryString(random.nextInt(1 << 12));
+            value = "0".repeat((4 - (value.length() % 4)) % 4) + value;
+            StringBuilder sb = new StringBuilder(version).append("100");
+            for (int i = 0; i < value.length(); i += 4) {
+                sb.append(((i + 4) < value.length()) ? '1' : '0').append(value, i, i + 4);
+            }
+            return sb.toString();
+        }
+
+        // an operator, where comparisons must have exactly two packets inside
+        int type;
+        int children;
+        if (packets == 3) {
+            type = 5 + random.nextInt(3);
+            children = 2;
+        } else {
+            type = random.nextInt(4);
+            children = Math.min(packets - 1, 1 + random.nextInt(4));
+        }
+
+        // share out the packets between the children
+        int[] counts = new int[children];
+        for (int i = 0; i < children; i++) {
+            counts[i] = 1;
+        }
+        for (int i = children; i < (packets - 1); i++) {
+            counts[random.nextInt(children)]++;
+        }
+
+        StringBuilder body = new StringBuilder();
+        for (int count : counts) {
+            body.append(encodePacket(count, random));
+        }
+
+        // give the length in bits if it fits, otherwise the number of packets
+        StringBuilder sb = new StringBuilder(version).append(toBits(type, 3));
+        if ((body.length() < (1 << 15)) && random.nextBoolean()) {
+            sb.append('0').append(toBits(body.length(), 15));
+        } else {
+            sb.append('1').append(toBits(children, 11));
+        }
+        return sb.append(body).toString();
+    }
+
+    /**
+     * Format a number as a fixed number of bits
+     *
+     * @param value  the number
+     * @param length the number of bits
+     * @return the bits
+     */
+    private static String toBits(int value, int length) {
+        String binary = Integer.toBinaryString(value);
+        return "0".repeat(length - binary.length()) + binary;
+    }
+
+    /**
+     * Day 17: Trick Shot. The size is the depth of the target area below the
+     * launcher, with the target area as far away as in the real puzzles.
+     *
+     * @param size   the depth of the target, at least 10
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day17(int size, Random random) {
+        int depth = Math.max(size, 10);
+        int minY = -depth - random.nextInt(1 + (depth / 10));
+        int maxY = minY + (depth / 3) + 1;
+        int minX = (depth * 3) + random.nextInt(1 + (depth / 2));
+        int maxX = minX + (depth / 3) + 1;
+
+        return List.of(String.format("target area: x=%d..%d, y=%d..%d", minX, maxX, minY, maxY));
+    }
+
+    /**
+     * Day 18: Snailfish. The size is the number of snailfish numbers to add.
+     *
+     * @param size   the number of snailfish numbers, at least 2
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day18(int size, Random random) {
+        ArrayList<String> lines = new ArrayList<String>();
+        for (int i = 0; i < Math.max(size, 2); i++) {
+            lines.add(snailfishPair(0, random));
+        }
+        return lines;
+    }
+
+    /**
+     * Create a random snailfish pair, nested no more than four deep
+     *
+     * @param depth  how deep this pair is nested
+     * @param random the source of randomness
+     * @return the pair
+     */
+    private static String snailfishPair(int depth, Random random) {
+        return "[" + snailfishElement(depth + 1, random) + "," + snailfishElement(depth + 1, random) + "]";
+    }
+
+    /**
+     * Create a random element of a snailfish pair, either a number or a pair
+     *
+     * @param depth  how deep this element is nested
+     * @param random the source of randomness
+     * @return the element
+     */
+    private static String snailfishElement(int depth, Random random) {
+        if ((depth >= 4) || (random.nextInt(3) == 0)) {
+            return Integer.toString(random.nextInt(10));
+        }
+        return snailfishPair(depth, random);
+    }
+
+    /**
+     * Day 19: Beacon Scanner. The size is the number of scanners, placed in a
+     * chain where each scanner overlaps the one before it by at least 12
+     * beacons, and each reports its beacons in one of the 24 orientations.
+     *
+     * @param size   the number of scanners, at least 2
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day19(int size, Random random) {
+        int scanners = Math.max(size, 2);
+
+        // walk the scanners away from the first, about 1100 along one axis at a time
+        Point3D[] positions = new Point3D[scanners];
+        positions[0] = new Point3D(0, 0, 0);
+        for (int i = 1; i < scanners; i++) {
+            int[] step = { random.nextInt(200) - 100, random.nextInt(200) - 100, random.nextInt(200) - 100 };
+            step[random.nextInt(3)] = (random.nextBoolean() ? 1 : -1) * (1050 + random.nextInt(100));
+            positions[i] = new Point3D(positions[i - 1].x + step[0], positions[i - 1].y + step[1],
+                    positions[i - 1].z + step[2]);
+        }
+
+        // some beacons seen only by each scanner, and 12 in each overlap
+        HashSet<Point3D> beacons = new HashSet<Point3D>();
+        for (int i = 0; i < scanners; i++) {
+            for (int j = 0; j < 14; j++) {
+                beacons.add(new Point3D(positions[i].x + random.nextInt(2001) - 1000,
+                        positions[i].y + random.nextInt(2001) - 1000, positions[i].z + random.nextInt(2001) - 1000));
+            }
+            if (i > 0) {
+                Point3D a = positions[i - 1];
+                Point3D b = positions[i];
+                for (int j = 0; j < 12; j++) {
+                    beacons.add(new Point3D(overlap(a.x, b.x, random), overlap(a.y, b.y, random),
+                            overlap(a.z, b.z, random)));
+                }
+            }
+        }
+
+        // report every beacon in range of each scanner, relative to the scanner
+        ArrayList<String> lines = new ArrayList<String>();
+        for (int i = 0; i < scanners; i++) {
+            if (i > 0) {
+                lines.add("");
+            }
+            lines.add("--- scanner " + i + " ---");
+
+            int rotation = (i == 0) ? 0 : random.nextInt(24);
+            ArrayList<String> seen = new ArrayList<String>();
+            for (Point3D beacon : beacons) {
+                int x = beacon.x - positions[i].x;
+                int y = beacon.y - positions[i].y;
+                int z = beacon.z - positions[i].z;
+                if ((Math.abs(x) <= 1000) && (Math.abs(y) <= 1000) && (Math.abs(z) <= 1000)) {
+                    int[] rotated = rotate(new int[] { x, y, z }, rotation);
+                    seen.add(rotated[0] + "," + rotated[1] + "," + rotated[2]);
+                }
+            }
+            Collections.shuffle(seen, random);
+            lines.addAll(seen);
+        }
+
+        return lines;
+    }
+
+    /**
+     * A random coordinate in range of two scanners
+     *
+     * @param a the coordinate of one scanner
+     * @param b the coordinate of the other scanner
+     * @return the coordinate
+     */
+    private static int overlap(int a, int b, Random random) {
+        int low = Math.max(a, b) - 1000;
+        int high = Math.min(a, b) + 1000;
+        return low + random.nextInt(high - low + 1);
+    }
+
+    /**
+     * Rotate a point into one of the 24 orientations, by choosing which axis
+     * faces forward and which way, then turning about that axis
+     *
+     * @param point    the x, y and z of the point
+     * @param rotation the orientation, from 0 to 23
+     * @return the rotated x, y and z
+     */
+    private static int[] rotate(int[] point, int rotation) {
+        // face forward along each axis, both ways
+        int[] facing;
+        switch (rotation / 4) {
+            case 0:
+                facing = new int[] { point[0], point[1], point[2] };
+                break;
+            case 1:
+                facing = new int[] { -point[0], -point[1], point[2] };
+                break;
+            case 2:
+                facing = new int[] { point[1], point[2], point[0] };
+                break;
+            case 3:
+                facing = new int[] { -point[1], -point[2], point[0] };
+                break;
+            case 4:
+                facing = new int[] { point[2], point[0], point[1] };
+                break;
+            default:
+                facing = new int[] { -point[2], -point[0], point[1] };
+                break;
+        }
+
+        // turn about the forward axis
+        for (int i = 0; i < (rotation % 4); i++) {
+            facing = new int[] { facing[0], -facing[2], facing[1] };
+        }
+        return facing;
+    }
+
+    /**
+     * Day 20: Trench Map. The size is the width and height of the image.
+     *
+     * @param size   the width and height of the image
+     * @param random the source of randomness
+     * @return the lines of the puzzle input
+     */
+    public static List<String> day20(int size, Random random) {
+        char[] algorithm = new char[512];
+        for (int i = 0; i < algorithm.length; i++) {
+            algorithm[i] = random.nextBoolean() ? '#' : '.';
+        }
+
+        // if dark pixels light up, lit pixels must go dark, or infinitely many
+        // pixels would be lit
+        if (algorithm[0] == '#') {
+            algorithm[511] = '.';
+        }
+
+        ArrayList<String> lines = new ArrayList<String>();
+        lines.add(new String(algorithm));
+        lines.add("");
+        for (int y = 0; y < size; y++) {
+            StringBuilder sb = new StringBuilder();
+            for (int x = 0; x < size; x++) {
+                sb.append(random.nextBoolean() ? '#' : '.');
+            }
+            lines.add(sb.toString());
+        }
+        return lines;
+    }
+
+    /**
+     * Create a square grid of random digits
+     *
+     * @param size      the width and height
+     * @param random    the source of randomness
+     * @param min       the smallest digit
+     * @param max       the largest digit
+     * @param nineRatio the share of digits which are forced to 9, or zero for
+     *                  none
+     * @return the lines of the grid
+     */
+    private static List<String> digitGrid(int size, Random random, int min, int max, double nineRatio) {
+        ArrayList<String> lines = new ArrayList<String>();
+        for (int y = 0; y < size; y++) {
+            StringBuilder sb = new StringBuilder();
+            for (int x = 0; x < size; x++) {
+                sb.append((random.nextDouble() < nineRatio) ? 9 : (min + random.nextInt(max - min + 1)));
+            }
+            lines.add(sb.toString());
+        }
+        return lines;
+    }
+}
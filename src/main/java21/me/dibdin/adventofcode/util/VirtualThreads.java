@@ -0,0 +1,35 @@
+package me.dibdin.adventofcode.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates a thread for each task, for tasks which spend most of their time
+ * waiting on I/O or on other threads.
+ *
+ * This is the version for Java 21 and later, built by the "java21" profile
+ * into the versioned part of the jar, which gives each task a virtual thread.
+ * Virtual threads are cheap enough to start one for every task, and release
+ * their carrier thread while blocked.
+ */
+public class VirtualThreads {
+
+    /**
+     * Whether tasks are given virtual threads
+     *
+     * @return true
+     */
+    public static boolean isAvailable() {
+        return true;
+    }
+
+    /**
+     * Create an executor which starts a new virtual thread for each task
+     *
+     * @param prefix the prefix of the name of each thread
+     * @return the executor
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String prefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 0).factory());
+    }
+}
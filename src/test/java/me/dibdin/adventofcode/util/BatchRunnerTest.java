@@ -0,0 +1,93 @@
+package me.dibdin.adventofcode.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for solving a batch of challenges with the Batch Runner
+ */
+@DisplayName("Batch Runner Test")
+class BatchRunnerTest {
+
+    /**
+     * Challenges requested out of year and day order, with their answers for the
+     * bundled puzzle input
+     */
+    private static final List<ChallengeId> IDS = List.of(new ChallengeId(2021, 15), new ChallengeId(2020, 1),
+            new ChallengeId(2021, 1), new ChallengeId(2021, 6));
+    private static final long[][] ANSWERS = new long[][] { { 621, 2904 }, { 802011, 248607374 }, { 1665, 1702 },
+            { 385391, 1728611055389L } };
+
+    @Test
+    @DisplayName("Known Answers Test")
+    void knownAnswersTest() {
+        BatchRunner runner = new BatchRunner(2);
+        List<ChallengeResult> results = runner.run(IDS);
+        runner.shutdown();
+
+        // the results are in the order requested, after loading, parsing and solving
+        assertEquals(IDS.size(), results.size());
+        for (int i = 0; i < IDS.size(); i++) {
+            ChallengeResult result = results.get(i);
+            assertEquals(IDS.get(i), result.getId());
+            assertTrue(result.isSolved(), String.valueOf(result.getError()));
+            assertFalse(result.isCached());
+            assertEquals(ANSWERS[i][0], result.getPartOne(), IDS.get(i).toString());
+            assertEquals(ANSWERS[i][1], result.getPartTwo(), IDS.get(i).toString());
+
+            for (Phase phase : new Phase[] { Phase.LOAD, Phase.PARSE, Phase.BOTH_PARTS }) {
+                assertTrue(result.getTimings().containsKey(phase), IDS.get(i) + " has no " + phase + " timing");
+            }
+        }
+        assertEquals("Sonar Sweep", results.get(2).getName());
+    }
+
+    @Test
+    @DisplayName("Parallel Parts Test")
+    void parallelPartsTest() {
+        BatchRunner runner = new BatchRunner(2);
+        runner.setParallelParts(true);
+        List<ChallengeResult> results = runner.run(IDS);
+        runner.shutdown();
+
+        for (int i = 0; i < IDS.size(); i++) {
+            ChallengeResult result = results.get(i);
+            assertTrue(result.isSolved(), String.valueOf(result.getError()));
+            assertEquals(ANSWERS[i][0], result.getPartOne(), IDS.get(i).toString());
+            assertEquals(ANSWERS[i][1], result.getPartTwo(), IDS.get(i).toString());
+            assertTrue(result.getTimings().containsKey(Phase.PART_ONE));
+            assertTrue(result.getTimings().containsKey(Phase.PART_TWO));
+        }
+    }
+
+    @Test
+    @DisplayName("Unknown Challenge Test")
+    void unknownChallengeTest() {
+        List<ChallengeId> ids = List.of(new ChallengeId(2021, 1), new ChallengeId(1999, 1),
+                new ChallengeId(2021, 6));
+
+        BatchRunner runner = new BatchRunner(2);
+        List<ChallengeResult> results = runner.run(ids);
+        runner.shutdown();
+
+        // only the unknown challenge fails, and the rest of the batch is solved
+        assertEquals(ids.size(), results.size());
+        ChallengeResult unknown = results.get(1);
+        assertEquals(ids.get(1), unknown.getId());
+        assertFalse(unknown.isSolved());
+        assertTrue(unknown.getError() instanceof IllegalStateException, String.valueOf(unknown.getError()));
+        assertNull(unknown.getName());
+
+        assertTrue(results.get(0).isSolved(), String.valueOf(results.get(0).getError()));
+        assertEquals(1665, results.get(0).getPartOne());
+        assertTrue(results.get(2).isSolved(), String.valueOf(results.get(2).getError()));
+        assertEquals(1728611055389L, results.get(2).getPartTwo());
+    }
+}
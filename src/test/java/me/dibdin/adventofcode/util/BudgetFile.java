@@ -0,0 +1,116 @@
+package me.dibdin.adventofcode.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Properties;
+
+/**
+ * Budgets for measurements taken by the tests, such as the heap allocated by a
+ * phase of a challenge, kept in a properties file alongside the tests so that
+ * regressions fail the build.
+ *
+ * Run the tests with "-Dadventofcode.budgets.record=true" to replace the
+ * budgets with the latest measurements, plus some headroom, rather than
+ * checking them. The file is written back to the test sources, ready to be
+ * reviewed and committed.
+ */
+public class BudgetFile {
+
+    /**
+     * True if budgets are being recorded, rather than checked
+     */
+    public static final boolean RECORD = Boolean.getBoolean("adventofcode.budgets.record");
+
+    private static final Path DIRECTORY = Paths.get("src", "test", "resources", "budgets");
+
+    private final String name;
+    private final Properties budgets = new Properties();
+
+    /**
+     * Load a budget file from the test resources
+     *
+     * @param name the name of the file, without the ".properties" suffix
+     * @throws UncheckedIOException if the file exists, but can't be read
+     */
+    public BudgetFile(String name) throws UncheckedIOException {
+        this.name = name;
+
+        try (InputStream stream = ClassLoader.getSystemResourceAsStream("budgets/" + name + ".properties")) {
+            if (stream != null) {
+                budgets.load(stream);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The budget for a measurement
+     *
+     * @param key the key of the measurement
+     * @return the budget, or -1 if there is no budget for the measurement
+     */
+    public synchronized long get(String key) {
+        String value = budgets.getProperty(key);
+        return (value == null) ? -1 : Long.parseLong(value);
+    }
+
+    /**
+     * Replace the budget for a measurement, and write the file back to the test
+     * sources
+     *
+     * @param key    the key of the measurement
+     * @param budget the new budget
+     * @throws UncheckedIOException if the file can't be written
+     */
+    public synchronized void record(String key, long budget) throws UncheckedIOException {
+        budgets.setProperty(key, Long.toString(budget));
+
+        // write in a stable order, so the changes are easy to review
+        ArrayList<String> keys = new ArrayList<String>(budgets.stringPropertyNames());
+        keys.sort(BudgetFile::compareKeys);
+        ArrayList<String> lines = new ArrayList<String>();
+        lines.add("# Recorded with -Dadventofcode.budgets.record=true");
+        for (String recorded : keys) {
+            lines.add(recorded + "=" + budgets.getProperty(recorded));
+        }
+
+        try {
+            Files.createDirectories(DIRECTORY);
+            Files.write(DIRECTORY.resolve(name + ".properties"), lines, StandardCharsets.ISO_8859_1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Order keys by each of their dot separated parts, numerically where both
+     * parts are numbers, so day 2 comes before day 10
+     *
+     * @param a the first key
+     * @param b the second key
+     * @return negative, zero or positive as a is before, equal to or after b
+     */
+    private static int compareKeys(String a, String b) {
+        String[] aParts = a.split("\\.");
+        String[] bParts = b.split("\\.");
+        for (int i = 0; (i < aParts.length) && (i < bParts.length); i++) {
+            int result;
+            if (aParts[i].matches("\\d+") && bParts[i].matches("\\d+")) {
+                result = Long.compare(Long.parseLong(aParts[i]), Long.parseLong(bParts[i]));
+            } else {
+                result = aParts[i].compareTo(bParts[i]);
+            }
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(aParts.length, bParts.length);
+    }
+}
@@ -0,0 +1,75 @@
+package me.dibdin.adventofcode.util;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import me.dibdin.adventofcode.Challenge;
+import me.dibdin.adventofcode.year2021.Day11;
+
+/**
+ * Unit tests for the Cancellation Token, and progress reporting
+ */
+@DisplayName("Cancellation Token Test")
+class CancellationTokenTest {
+
+    @Test
+    @DisplayName("Cancel Test")
+    void cancelTest() {
+        CancellationToken token = new CancellationToken();
+        assertFalse(token.isCancelled());
+        assertDoesNotThrow(token::checkpoint);
+
+        token.cancel();
+        assertTrue(token.isCancelled());
+        assertThrows(CancellationException.class, token::checkpoint);
+    }
+
+    @Test
+    @DisplayName("Deadline Test")
+    void deadlineTest() {
+        assertTrue(new CancellationToken(Duration.ZERO).isCancelled());
+        assertFalse(new CancellationToken(Duration.ofHours(1)).isCancelled());
+    }
+
+    @Test
+    @DisplayName("Cancelled Challenge Test")
+    void cancelledChallengeTest() throws IOException {
+        Challenge challenge = new Day11();
+        challenge.setPuzzleInput(ByteInput.forResource("example-data/year2021/day11.txt"));
+
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        challenge.setCancellationToken(token);
+        assertThrows(CancellationException.class, challenge::solvePartOne);
+
+        challenge.setCancellationToken(null);
+        assertEquals(1656, challenge.solvePartOne());
+    }
+
+    @Test
+    @DisplayName("Progress Test")
+    void progressTest() throws IOException {
+        Challenge challenge = new Day11();
+        challenge.setPuzzleInput(ByteInput.forResource("example-data/year2021/day11.txt"));
+
+        AtomicLong lastDone = new AtomicLong(-1);
+        challenge.setProgressListener((c, done, total) -> {
+            assertEquals(100, total);
+            assertEquals(lastDone.get() + 1, done);
+            lastDone.set(done);
+        });
+        challenge.solvePartOne();
+        assertEquals(99, lastDone.get());
+    }
+}
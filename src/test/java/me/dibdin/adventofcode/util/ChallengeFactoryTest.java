@@ -0,0 +1,63 @@
+package me.dibdin.adventofcode.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import me.dibdin.adventofcode.Challenge;
+
+/**
+ * Unit tests for the Challenge Factory
+ */
+@DisplayName("Challenge Factory Test")
+class ChallengeFactoryTest {
+
+    /**
+     * Check every solution class is in the registry, so a new day can't be
+     * forgotten.
+     */
+    @Test
+    @DisplayName("Every Solution Is Registered Test")
+    void everySolutionIsRegisteredTest() {
+        List<ChallengeId> available = ChallengeFactory.getAvailableChallenges();
+
+        for (int year = 2015; year <= 2030; year++) {
+            for (int day = 1; day <= 25; day++) {
+                String name = String.format("me.dibdin.adventofcode.year%d.Day%d", year, day);
+                try {
+                    Class.forName(name, false, getClass().getClassLoader());
+                    assertTrue(available.contains(new ChallengeId(year, day)), name + " is not registered");
+                } catch (ClassNotFoundException e) {
+                    // no solution for this day
+                }
+            }
+        }
+    }
+
+    /**
+     * Check the factory creates the right challenge for each available day.
+     */
+    @Test
+    @DisplayName("Create Every Challenge Test")
+    void createEveryChallengeTest() throws ClassNotFoundException {
+        for (ChallengeId id : ChallengeFactory.getAvailableChallenges()) {
+            Challenge challenge = ChallengeFactory.getChallengeInstance(id.getYear(), id.getDay());
+            assertEquals(id.getYear(), challenge.getYear());
+            assertEquals(id.getDay(), challenge.getDay());
+        }
+    }
+
+    /**
+     * Check an exception is thrown for a day without a solution.
+     */
+    @Test
+    @DisplayName("Unknown Challenge Test")
+    void unknownChallengeTest() {
+        assertThrows(ClassNotFoundException.class, () -> ChallengeFactory.getChallengeInstance(2021, 26));
+    }
+}
@@ -0,0 +1,50 @@
+package me.dibdin.adventofcode.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import me.dibdin.adventofcode.Challenge;
+import me.dibdin.adventofcode.year2021.Day20;
+
+/**
+ * Unit tests for the Chrome Trace export
+ */
+@DisplayName("Chrome Trace Test")
+class ChromeTraceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Write Trace Test")
+    void writeTraceTest() throws Exception {
+        Path file = directory.resolve("test.jfr");
+        Path trace = directory.resolve("trace.json");
+
+        FlightRecording recording = new FlightRecording(true, false);
+        recording.start();
+        Challenge challenge = new Day20();
+        challenge.timedSetPuzzleInput(ByteInput.forResource("example-data/year2021/day20.txt"));
+        challenge.timedSolvePartOne();
+        recording.stop(file);
+
+        // two phases, and the two enhancement rounds of part one
+        assertEquals(4, ChromeTrace.write(file, trace));
+
+        String json = new String(Files.readAllBytes(trace), StandardCharsets.UTF_8);
+        assertTrue(json.startsWith("{\"displayTimeUnit\":\"ms\",\"traceEvents\":["));
+        assertTrue(json.contains("\"name\":\"2021/20 Parse\",\"cat\":\"phase\",\"ph\":\"X\""));
+        assertTrue(json.contains("\"name\":\"2021/20 Part One\",\"cat\":\"phase\",\"ph\":\"X\""));
+        assertTrue(json.contains("\"name\":\"2021/20 Enhancement round\",\"cat\":\"step\",\"ph\":\"X\""));
+        assertTrue(json.contains("\"name\":\"thread_name\",\"ph\":\"M\""));
+        assertTrue(json.trim().endsWith("]}"));
+    }
+}
@@ -0,0 +1,105 @@
+package me.dibdin.adventofcode.util;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import me.dibdin.adventofcode.Challenge;
+import me.dibdin.adventofcode.year2020.InputGenerators;
+
+/**
+ * Unit tests for the input generators and the ComplexityProfiler
+ */
+@DisplayName("Complexity Profiler Test")
+class ComplexityProfilerTest {
+
+    /**
+     * Every challenge with an input generator
+     *
+     * @return the year and day of each challenge
+     */
+    static List<ChallengeId> generators() {
+        return GeneratorRegistry.getAvailableGenerators();
+    }
+
+    @ParameterizedTest
+    @MethodSource("generators")
+    @DisplayName("Solve Generated Input")
+    void solveGeneratedInputTest(ChallengeId id) throws ClassNotFoundException {
+        InputGenerator generator = GeneratorRegistry.getGenerator(id.getYear(), id.getDay());
+        Supplier<Challenge> constructor = ChallengeFactory.getChallengeConstructor(id.getYear(), id.getDay());
+
+        for (int size : new int[] { 6, 12 }) {
+            for (long seed = 0; seed < 3; seed++) {
+                ByteInput input = generator.generateInput(size, new Random(seed));
+                Challenge challenge = constructor.get();
+                assertDoesNotThrow(() -> {
+                    challenge.setPuzzleInput(input);
+                    challenge.solvePartOne();
+                    challenge.solvePartTwo();
+                }, id + " size " + size + " seed " + seed);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("generators")
+    @DisplayName("Same Seed Gives Same Input")
+    void sameSeedTest(ChallengeId id) {
+        InputGenerator generator = GeneratorRegistry.getGenerator(id.getYear(), id.getDay());
+
+        assertEquals(generator.generate(20, new Random(42)), generator.generate(20, new Random(42)));
+    }
+
+    @Test
+    @DisplayName("Generated Input Has Known Answer")
+    void knownAnswerTest() {
+        // the pair which sums to 2020 is placed first of the last five entries
+        List<String> lines = InputGenerators.day1(1000, new Random(7));
+        int pair = Integer.parseInt(lines.get(lines.size() - 5));
+
+        Challenge challenge = new me.dibdin.adventofcode.year2020.Day1();
+        challenge.setPuzzleInput(lines.stream());
+        assertEquals(1000, lines.size());
+        assertEquals((long) pair * (2020 - pair), challenge.solvePartOne());
+    }
+
+    @Test
+    @DisplayName("Fit Exponent")
+    void fitExponentTest() {
+        double[] sizes = { 100, 200, 400, 800 };
+        double[] linear = { 3, 6, 12, 24 };
+        double[] quadratic = { 1, 4, 16, 64 };
+
+        assertEquals(1.0, ComplexityProfiler.fitExponent(sizes, linear), 1e-9);
+        assertEquals(2.0, ComplexityProfiler.fitExponent(sizes, quadratic), 1e-9);
+        assertTrue(Double.isNaN(ComplexityProfiler.fitExponent(new double[] { 100 }, new double[] { 1 })));
+    }
+
+    @Test
+    @DisplayName("Profile Doubles Size")
+    void profileTest() throws ClassNotFoundException {
+        ComplexityProfiler profiler = new ComplexityProfiler(2000, 1, 64, 1024);
+        ComplexityProfiler.Profile profile = profiler.profile(new ChallengeId(2021, 1),
+                ChallengeFactory.getChallengeConstructor(2021, 1), GeneratorRegistry.getGenerator(2021, 1));
+
+        List<ComplexityProfiler.Sample> samples = profile.getSamples();
+        assertFalse(samples.isEmpty());
+        assertEquals(64, samples.get(0).getSize());
+        for (int i = 1; i < samples.size(); i++) {
+            assertEquals(samples.get(i - 1).getSize() * 2, samples.get(i).getSize());
+            assertTrue(samples.get(i).getInputBytes() > samples.get(i - 1).getInputBytes());
+        }
+        assertEquals(samples.get(samples.size() - 1).getSize(), profile.getLargestSize());
+    }
+}
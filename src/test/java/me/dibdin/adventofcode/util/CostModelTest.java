@@ -0,0 +1,119 @@
+package me.dibdin.adventofcode.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the Cost Model, and batches scheduled by it
+ */
+@DisplayName("Cost Model Test")
+class CostModelTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Estimate From Input Size Test")
+    void estimateTest() {
+        CostModel model = new CostModel();
+        ChallengeId day15 = new ChallengeId(2021, 15);
+        ChallengeId day1 = new ChallengeId(2021, 1);
+
+        // nothing timed, so every challenge costs the default per byte
+        assertFalse(model.isKnown(day15));
+        assertEquals(1000 * CostModel.DEFAULT_NANOS_PER_BYTE, model.estimate(day15, Phase.PARSE, 1000));
+
+        model.record(day15, 1000, timings(Phase.PARSE, 50_000, Phase.PART_ONE, 200_000, Phase.PART_TWO, 800_000));
+        assertTrue(model.isKnown(day15));
+        assertEquals(100_000, model.estimate(day15, Phase.PARSE, 2000));
+        assertEquals(1_600_000, model.estimate(day15, Phase.PART_TWO, 2000));
+
+        // both parts from the sum of the parts, and an unknown challenge from the
+        // average of the known ones
+        assertEquals(1_000_000, model.estimate(day15, Phase.BOTH_PARTS, 1000));
+        assertEquals(800_000, model.estimate(day1, Phase.PART_TWO, 1000));
+
+        // later timings are smoothed into the earlier ones
+        model.record(day15, 1000, timings(Phase.PART_TWO, 400_000));
+        assertEquals(600_000, model.estimate(day15, Phase.PART_TWO, 1000));
+    }
+
+    @Test
+    @DisplayName("Save And Load Test")
+    void saveAndLoadTest() throws IOException {
+        Path file = directory.resolve("costs.txt");
+        assertFalse(CostModel.load(file).isKnown(new ChallengeId(2021, 19)));
+
+        CostModel model = new CostModel();
+        model.record(new ChallengeId(2021, 19), 500, timings(Phase.PARSE, 1000, Phase.BOTH_PARTS, 250_000));
+        model.save(file);
+
+        // an unreadable line is skipped
+        Files.write(file, List.of("not a cost"), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        CostModel loaded = CostModel.load(file);
+        assertTrue(loaded.isKnown(new ChallengeId(2021, 19)));
+        assertEquals(500_000, loaded.estimate(new ChallengeId(2021, 19), Phase.BOTH_PARTS, 1000));
+        assertEquals(250_000, loaded.estimate(new ChallengeId(2021, 19), Phase.PART_ONE, 1000));
+    }
+
+    @Test
+    @DisplayName("Scheduled Batch Test")
+    void scheduledBatchTest() {
+        // a mix of challenges which share work between their parts, and which don't
+        List<ChallengeId> ids = List.of(new ChallengeId(2021, 1), new ChallengeId(2021, 6),
+                new ChallengeId(2021, 15), new ChallengeId(2020, 1), new ChallengeId(2021, 17));
+
+        BatchRunner unscheduled = new BatchRunner(2);
+        List<ChallengeResult> expected = unscheduled.run(ids);
+        unscheduled.shutdown();
+
+        CostModel model = new CostModel();
+        BatchRunner scheduled = new BatchRunner(2);
+        scheduled.setCostModel(model);
+        List<ChallengeResult> results = scheduled.run(ids);
+        scheduled.shutdown();
+
+        // the results are in the order requested, whatever order they were solved in
+        assertEquals(ids.size(), results.size());
+        for (int i = 0; i < ids.size(); i++) {
+            ChallengeResult result = results.get(i);
+            assertEquals(ids.get(i), result.getId());
+            assertTrue(result.isSolved(), String.valueOf(result.getError()));
+            assertEquals(expected.get(i).getPartOne(), result.getPartOne());
+            assertEquals(expected.get(i).getPartTwo(), result.getPartTwo());
+            assertTrue(model.isKnown(ids.get(i)));
+        }
+
+        // day 15 shares no work between its parts, so they were solved separately
+        assertTrue(results.get(2).getTimings().containsKey(Phase.PART_TWO));
+        assertTrue(results.get(1).getTimings().containsKey(Phase.BOTH_PARTS));
+    }
+
+    /**
+     * Create wall clock timings of phases
+     *
+     * @param values pairs of phase and time in nanoseconds
+     * @return the timings
+     */
+    private static EnumMap<Phase, PhaseTiming> timings(Object... values) {
+        EnumMap<Phase, PhaseTiming> timings = new EnumMap<Phase, PhaseTiming>(Phase.class);
+        for (int i = 0; i < values.length; i += 2) {
+            timings.put((Phase) values[i], new PhaseTiming((Integer) values[i + 1], 0, -1));
+        }
+        return timings;
+    }
+}
@@ -0,0 +1,49 @@
+package me.dibdin.adventofcode.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import me.dibdin.adventofcode.Challenge;
+import me.dibdin.adventofcode.year2021.Day15;
+
+/**
+ * Unit tests for the Counters
+ */
+@DisplayName("Counter Test")
+class CounterTest {
+
+    @Test
+    @DisplayName("Count Test")
+    void countTest() {
+        Counter counter = new Counter("Test");
+        counter.increment();
+        counter.add(41);
+
+        assertEquals("Test", counter.getName());
+        assertEquals(Counter.ENABLED ? 42 : 0, counter.get());
+    }
+
+    @Test
+    @DisplayName("Challenge Counters Test")
+    void challengeCountersTest() throws IOException {
+        Challenge challenge = new Day15();
+        challenge.setPuzzleInput(ByteInput.forResource("example-data/year2021/day15.txt"));
+        challenge.solvePartOne();
+
+        // counters are reported in the order they were created
+        Map<String, Long> counters = challenge.getCounters();
+        assertEquals("[Nodes popped, Decrease-key operations]", new ArrayList<String>(counters.keySet()).toString());
+        if (Counter.ENABLED) {
+            assertTrue(counters.get("Nodes popped") > 0);
+        } else {
+            assertEquals(0, counters.get("Nodes popped"));
+        }
+    }
+}
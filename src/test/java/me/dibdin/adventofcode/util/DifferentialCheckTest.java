@@ -0,0 +1,142 @@
+package me.dibdin.adventofcode.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import me.dibdin.adventofcode.AbstractChallenge;
+import me.dibdin.adventofcode.Challenge;
+
+/**
+ * Unit tests for selecting strategies, and the Differential Check between them
+ */
+@DisplayName("Differential Check Test")
+class DifferentialCheckTest {
+
+    /**
+     * A challenge which adds up its input, with a strategy which gets part two
+     * wrong for inputs over ten
+     */
+    private static class Sum extends AbstractChallenge {
+        private long[] values = null;
+
+        Sum() {
+            super("Sum", 2000, 1);
+            addStrategy("correct", SolverStrategy.of(this::sum, this::sum));
+            addStrategy("wrong", SolverStrategy.of(this::sum, () -> Math.min(sum(), 10)));
+        }
+
+        private long sum() {
+            if (values == null) {
+                throw new IllegalStateException("No puzzle input set");
+            }
+            return Arrays.stream(values).sum();
+        }
+
+        public void setPuzzleInput(Stream<String> input) {
+            values = input.mapToLong(Long::parseLong).toArray();
+        }
+
+        public long solvePartOne() {
+            return strategy().solvePartOne();
+        }
+
+        public long solvePartTwo() {
+            return strategy().solvePartTwo();
+        }
+    }
+
+    @Test
+    @DisplayName("Select Strategy Test")
+    void selectStrategyTest() throws ClassNotFoundException {
+        Challenge challenge = ChallengeFactory.getChallengeInstance(2021, 7, "closed-form");
+        assertEquals(List.of("brute-force", "parallel", "closed-form"), challenge.getStrategies());
+        assertEquals("closed-form", challenge.getStrategy());
+
+        challenge.setStrategy(Challenge.DEFAULT_STRATEGY);
+        assertEquals("brute-force", challenge.getStrategy());
+        assertThrows(IllegalArgumentException.class, () -> challenge.setStrategy("quantum"));
+        assertEquals("brute-force", challenge.getStrategy());
+
+        // a challenge with one algorithm has only the default
+        Challenge single = ChallengeFactory.getChallengeInstance(2021, 15, Challenge.DEFAULT_STRATEGY);
+        assertEquals(List.of(Challenge.DEFAULT_STRATEGY), single.getStrategies());
+        assertThrows(IllegalArgumentException.class,
+                () -> ChallengeFactory.getChallengeConstructor(2021, 15, "brute-force"));
+    }
+
+    @Test
+    @DisplayName("Every Strategy Matches Test")
+    void everyStrategyMatchesTest() throws ClassNotFoundException {
+        int checked = 0;
+        for (ChallengeId id : ChallengeFactory.getAvailableChallenges()) {
+            Supplier<Challenge> constructor = ChallengeFactory.getChallengeConstructor(id.getYear(), id.getDay());
+            List<String> strategies = constructor.get().getStrategies();
+            InputGenerator generator = GeneratorRegistry.getGenerator(id.getYear(), id.getDay());
+            if (generator == null) {
+                continue;
+            }
+
+            for (int i = 1; i < strategies.size(); i++) {
+                DifferentialCheck check = new DifferentialCheck(constructor, strategies.get(0), strategies.get(i));
+                for (DifferentialCheck.Comparison comparison : check.compareGenerated(generator, 10, 300, 2021)) {
+                    assertTrue(comparison.isMatch(), String.format("%s: %s against %s differ for %s, %s", id,
+                            strategies.get(0), strategies.get(i), comparison.getLabel(), comparison.getError()));
+                }
+                checked++;
+            }
+        }
+        assertTrue(checked >= 3);
+    }
+
+    @Test
+    @DisplayName("Large Distances Test")
+    void largeDistancesTest() throws ClassNotFoundException {
+        // the fuel for these distances is too large for an int
+        for (String strategy : List.of("brute-force", "parallel", "closed-form")) {
+            Challenge challenge = ChallengeFactory.getChallengeInstance(2021, 7, strategy);
+            challenge.setPuzzleInput(input("0,100000,0,100000,0,100000"));
+            assertEquals(300000, challenge.solvePartOne(), strategy);
+            assertEquals(7500150000L, challenge.solvePartTwo(), strategy);
+        }
+    }
+
+    @Test
+    @DisplayName("Mismatch Found Test")
+    void mismatchFoundTest() {
+        DifferentialCheck check = new DifferentialCheck(Sum::new, "correct", "wrong");
+        assertThrows(IllegalArgumentException.class, () -> new DifferentialCheck(Sum::new, "correct", "missing"));
+
+        assertTrue(check.compare("small", input("1\n2\n3\n")).isMatch());
+
+        DifferentialCheck.Comparison large = check.compare("large", input("10\n20\n"));
+        assertFalse(large.isMatch());
+        assertEquals(30, large.getFirstResults()[1]);
+        assertEquals(10, large.getSecondResults()[1]);
+
+        // a strategy which fails is a mismatch too
+        DifferentialCheck.Comparison broken = check.compare("broken", input("x\n"));
+        assertFalse(broken.isMatch());
+        assertTrue(broken.getError().startsWith("correct: "));
+    }
+
+    /**
+     * Create a puzzle input
+     *
+     * @param text the text of the input
+     * @return the input
+     */
+    private static ByteInput input(String text) {
+        return ByteInput.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
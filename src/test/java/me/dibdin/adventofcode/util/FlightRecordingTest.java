@@ -0,0 +1,55 @@
+package me.dibdin.adventofcode.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import me.dibdin.adventofcode.Challenge;
+import me.dibdin.adventofcode.year2021.Day20;
+
+/**
+ * Unit tests for the Flight Recording, and the events it records
+ */
+@DisplayName("Flight Recording Test")
+class FlightRecordingTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Record Challenge Events Test")
+    void recordChallengeEventsTest() throws Exception {
+        Path file = directory.resolve("test.jfr");
+
+        FlightRecording recording = new FlightRecording(true);
+        recording.start();
+        Challenge challenge = new Day20();
+        challenge.timedSetPuzzleInput(ByteInput.forResource("example-data/year2021/day20.txt"));
+        challenge.timedSolvePartOne();
+        recording.stop(file);
+
+        // an event for each phase, and one for each step of the solution
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        List<String> phases = events.stream()
+                .filter(event -> event.getEventType().getName().equals("adventofcode.ChallengePhase"))
+                .map(event -> event.getString("phase")).collect(Collectors.toList());
+        assertEquals(List.of("Parse", "Part One"), phases);
+        assertEquals(2, events.stream()
+                .filter(event -> event.getEventType().getName().equals("adventofcode.SolverStep")).count());
+
+        // the challenge is found when summarising the samples
+        HashMap<ChallengeId, String> names = new HashMap<ChallengeId, String>();
+        FlightRecording.countSamples(file, names);
+        assertTrue(names.containsKey(new ChallengeId(2021, 20)));
+    }
+}
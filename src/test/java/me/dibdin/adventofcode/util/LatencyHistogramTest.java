@@ -0,0 +1,53 @@
+package me.dibdin.adventofcode.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the Latency Histogram
+ */
+@DisplayName("Latency Histogram Test")
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Small Values Are Exact Test")
+    void smallValuesAreExactTest() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(1, histogram.getMin());
+        assertEquals(50, histogram.getValueAtPercentile(50));
+        assertEquals(90, histogram.getValueAtPercentile(90));
+        assertEquals(99, histogram.getValueAtPercentile(99));
+        assertEquals(100, histogram.getMax());
+        assertEquals(50.5, histogram.getMean());
+    }
+
+    @Test
+    @DisplayName("Large Values Are Within Precision Test")
+    void largeValuesAreWithinPrecisionTest() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1_000_000L);
+        }
+
+        for (double percentile : new double[] { 50, 90, 99 }) {
+            long expected = (long) (percentile * 100) * 1_000_000L;
+            long actual = histogram.getValueAtPercentile(percentile);
+            assertEquals(expected, actual, expected / 64.0, "p" + percentile);
+        }
+        assertEquals(10_000_000_000L, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    @DisplayName("Negative Value Test")
+    void negativeValueTest() {
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram().record(-1));
+    }
+}
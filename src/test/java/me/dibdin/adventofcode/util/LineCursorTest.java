@@ -0,0 +1,99 @@
+package me.dibdin.adventofcode.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for reading byte input with a Line Cursor
+ */
+@DisplayName("Line Cursor Test")
+class LineCursorTest {
+
+    /**
+     * Create input from a String
+     */
+    private ByteInput input(String text) {
+        return ByteInput.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Lines Match BufferedReader Test")
+    void linesMatchBufferedReaderTest() {
+        String text = "first\r\nsecond\n\nfourth\n";
+
+        LineCursor cursor = input(text).lines();
+        assertTrue(cursor.nextLine());
+        assertEquals("first", cursor.toString());
+        assertTrue(cursor.nextLine());
+        assertEquals("second", cursor.toString());
+        assertTrue(cursor.nextLine());
+        assertTrue(cursor.isEmpty());
+        assertTrue(cursor.nextLine());
+        assertTrue(cursor.startsWith("four"));
+        assertEquals(6, cursor.length());
+        assertFalse(cursor.nextLine());
+
+        assertEquals("first,second,,fourth", input(text).toLines().collect(Collectors.joining(",")));
+    }
+
+    @Test
+    @DisplayName("Read Numbers Test")
+    void readNumbersTest() {
+        LineCursor cursor = input("target area: x=20..30, y=-10..-5\n-3-4").lines();
+
+        assertTrue(cursor.nextLine());
+        assertEquals(20, cursor.nextInt());
+        assertEquals(30, cursor.nextInt());
+        assertEquals(-10, cursor.nextInt());
+        assertEquals(-5, cursor.nextLong());
+        assertFalse(cursor.hasNextInt());
+        assertThrows(NoSuchElementException.class, () -> cursor.nextInt());
+
+        assertTrue(cursor.nextLine());
+        assertEquals(-3, cursor.nextInt());
+        assertEquals(-4, cursor.nextInt());
+    }
+
+    @Test
+    @DisplayName("Decode Test")
+    void decodeTest() {
+        assertArrayEquals(new int[] { 3, 4, 3, 1, 2 }, InputDecoder.decodeAsIntArray(input("3,4,3,1,2")));
+
+        int[][] grid = InputDecoder.decodeAsTwoDimensionalIntArray(input("123\n456\n"));
+        assertArrayEquals(new int[] { 1, 2, 3 }, grid[0]);
+        assertArrayEquals(new int[] { 4, 5, 6 }, grid[1]);
+    }
+
+    @Test
+    @DisplayName("Extract Resource Once Test")
+    void extractResourceOnceTest(@TempDir Path directory) throws IOException {
+        Path resource = directory.resolve("input.txt");
+        Files.writeString(resource, "1\n2\n");
+        URL url = resource.toUri().toURL();
+
+        // each solve of the same resource reuses the file it was extracted to
+        Path extracted = ByteInput.extract("test/extract-once.txt", url);
+        assertEquals(extracted, ByteInput.extract("test/extract-once.txt", url));
+        assertEquals("1\n2\n", Files.readString(extracted));
+
+        // unless the file has gone
+        Files.delete(extracted);
+        assertEquals(extracted, ByteInput.extract("test/extract-once.txt", url));
+        assertEquals("1\n2\n", Files.readString(extracted));
+    }
+}
@@ -0,0 +1,119 @@
+package me.dibdin.adventofcode.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import me.dibdin.adventofcode.Challenge;
+import me.dibdin.adventofcode.year2021.Day1;
+import me.dibdin.adventofcode.year2021.Day19;
+import me.dibdin.adventofcode.year2021.Day2;
+import me.dibdin.adventofcode.year2021.Day7;
+
+/**
+ * Unit tests for the Result Cache
+ */
+@DisplayName("Result Cache Test")
+class ResultCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Store And Find Result Test")
+    void storeAndFindResultTest() throws IOException {
+        ResultCache cache = new ResultCache(directory, 10);
+
+        assertNull(cache.get("missing"));
+        cache.put("key", new long[] { 7, 5 });
+        assertArrayEquals(new long[] { 7, 5 }, cache.get("key"));
+    }
+
+    @Test
+    @DisplayName("Key Depends On Input And Solution Test")
+    void keyDependsOnInputAndSolutionTest() throws IOException {
+        Challenge challenge = new Day1();
+        ByteInput input = ByteInput.wrap("199\n200\n".getBytes(StandardCharsets.UTF_8));
+        ByteInput otherInput = ByteInput.wrap("199\n201\n".getBytes(StandardCharsets.UTF_8));
+
+        assertNotEquals(ResultCache.createKey(challenge, input), ResultCache.createKey(challenge, otherInput));
+        assertNotEquals(ResultCache.hashClass(Day1.class), ResultCache.hashClass(Day2.class));
+    }
+
+    @Test
+    @DisplayName("Key Depends On Strategy Test")
+    void keyDependsOnStrategyTest() throws IOException {
+        ByteInput input = ByteInput.wrap("16,1,2,0,4,2,7,1,2,14\n".getBytes(StandardCharsets.UTF_8));
+        Challenge challenge = new Day7();
+        String defaultKey = ResultCache.createKey(challenge, input);
+        String defaultParsedKey = ResultCache.createParsedKey(challenge, input);
+
+        // another strategy has its own results, but the same parsed input
+        challenge.setStrategy("closed-form");
+        assertNotEquals(defaultKey, ResultCache.createKey(challenge, input));
+        assertEquals(defaultParsedKey, ResultCache.createParsedKey(challenge, input));
+    }
+
+    @Test
+    @DisplayName("Key Depends On Helpers Test")
+    void keyDependsOnHelpersTest() throws IOException {
+        // the solution, its superclasses and the helpers it parses with are hashed
+        SortedMap<String, byte[]> bytecode = ResultCache.readDependencies(Day1.class);
+        assertTrue(bytecode.containsKey("me/dibdin/adventofcode/year2021/Day1"));
+        assertTrue(bytecode.containsKey("me/dibdin/adventofcode/AbstractChallenge"));
+        assertTrue(bytecode.containsKey("me/dibdin/adventofcode/Challenge"));
+        assertTrue(bytecode.containsKey("me/dibdin/adventofcode/util/InputDecoder"));
+        assertTrue(bytecode.containsKey("me/dibdin/adventofcode/util/LineCursor"));
+        assertTrue(ResultCache.readDependencies(Day19.class).containsKey("me/dibdin/adventofcode/util/Point3D"));
+        assertEquals(ResultCache.hashClass(Day1.class), ResultCache.hashBytecode(bytecode));
+
+        // but not the classes which only measure or cache it
+        assertFalse(bytecode.containsKey("me/dibdin/adventofcode/util/ResultCache"));
+        assertFalse(bytecode.containsKey("me/dibdin/adventofcode/util/SnapshotCache"));
+        assertFalse(bytecode.containsKey("me/dibdin/adventofcode/util/SolverMetrics"));
+        assertFalse(bytecode.containsKey("me/dibdin/adventofcode/util/ChallengeMetrics$RunningPhase"));
+        assertFalse(bytecode.containsKey("me/dibdin/adventofcode/util/ChallengeEvent"));
+
+        // so changing a helper changes the hash
+        TreeMap<String, byte[]> changed = new TreeMap<String, byte[]>(bytecode);
+        byte[] helper = changed.get("me/dibdin/adventofcode/util/LineCursor").clone();
+        helper[helper.length - 1] ^= 1;
+        changed.put("me/dibdin/adventofcode/util/LineCursor", helper);
+        assertNotEquals(ResultCache.hashBytecode(bytecode), ResultCache.hashBytecode(changed));
+    }
+
+    @Test
+    @DisplayName("Least Recently Used Eviction Test")
+    void leastRecentlyUsedEvictionTest() throws IOException {
+        ResultCache cache = new ResultCache(directory, 2);
+
+        cache.put("first", new long[] { 1, 1 });
+        cache.put("second", new long[] { 2, 2 });
+
+        // make the first result the oldest, then use it so it becomes the newest
+        Files.setLastModifiedTime(directory.resolve("first.result"), FileTime.fromMillis(1000));
+        Files.setLastModifiedTime(directory.resolve("second.result"), FileTime.fromMillis(2000));
+        cache.get("first");
+
+        // adding a third result evicts the least recently used
+        cache.put("third", new long[] { 3, 3 });
+        assertNull(cache.get("second"));
+        assertArrayEquals(new long[] { 1, 1 }, cache.get("first"));
+        assertArrayEquals(new long[] { 3, 3 }, cache.get("third"));
+    }
+}
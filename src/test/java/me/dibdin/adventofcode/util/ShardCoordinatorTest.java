@@ -0,0 +1,137 @@
+package me.dibdin.adventofcode.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import me.dibdin.adventofcode.Challenge;
+
+/**
+ * Unit tests for the ShardCoordinator, ShardWorker and ShardProtocol
+ */
+@DisplayName("Shard Coordinator Test")
+class ShardCoordinatorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Result Frame Round Trip")
+    void resultFrameTest() throws IOException {
+        ChallengeResult sent = new ChallengeResult(new ChallengeId(2021, 15));
+        sent.setPartOne(40);
+        sent.setPartTwo(315);
+        EnumMap<Phase, PhaseTiming> timings = new EnumMap<Phase, PhaseTiming>(Phase.class);
+        timings.put(Phase.PARSE, new PhaseTiming(1000, 900, 2048));
+        timings.put(Phase.BOTH_PARTS, new PhaseTiming(5000, 4000, -1));
+        sent.setTimings(timings);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ShardProtocol.writeResult(new DataOutputStream(bytes), 7, ShardProtocol.SOLVED, sent);
+        ShardProtocol.Frame frame = ShardProtocol
+                .readFrame(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        ChallengeResult received = new ChallengeResult(new ChallengeId(2021, 15));
+        ShardProtocol.readResult(frame, received);
+        assertEquals(7, ShardProtocol.readResultJobId(frame));
+        assertEquals(ShardProtocol.SOLVED, ShardProtocol.readResultStatus(frame));
+        assertEquals(40, received.getPartOne());
+        assertEquals(315, received.getPartTwo());
+        assertEquals(2048, received.getTimings().get(Phase.PARSE).getAllocatedBytes());
+        assertEquals(5000, received.getTimings().get(Phase.BOTH_PARTS).getWallNanos());
+    }
+
+    @Test
+    @DisplayName("Solve On Worker JVMs")
+    void workersTest() throws Exception {
+        // generated inputs, and the answers solved in this JVM
+        ArrayList<ShardCoordinator.Input> inputs = new ArrayList<ShardCoordinator.Input>();
+        HashMap<String, String> expected = new HashMap<String, String>();
+        for (int i = 0; i < 6; i++) {
+            List<String> lines = GeneratorRegistry.getGenerator(2021, 9).generate(20 + i, new Random(i));
+            Path path = directory.resolve("day9-" + i + ".txt");
+            Files.write(path, lines, StandardCharsets.UTF_8);
+            inputs.add(new ShardCoordinator.Input(new ChallengeId(2021, 9), path));
+
+            Challenge challenge = ChallengeFactory.getChallengeInstance(2021, 9);
+            challenge.setPuzzleInput(lines.stream());
+            expected.put(path.getFileName().toString(), challenge.solvePartOne() + "," + challenge.solvePartTwo());
+        }
+        inputs.add(new ShardCoordinator.Input(new ChallengeId(2021, 1)));
+        expected.put("2021/1", "1665,1702");
+
+        StringWriter writer = new StringWriter();
+        ThroughputRunner.Summary summary;
+        try (ShardCoordinator coordinator = new ShardCoordinator(2,
+                ShardCoordinator.localLauncher(List.of("-Xmx128m")));
+                ResultSink sink = new ResultSink(writer, ResultSink.Format.CSV)) {
+            summary = coordinator.run(inputs, sink);
+        }
+
+        assertEquals(7, summary.getInputs());
+        assertEquals(0, summary.getFailures());
+        String[] lines = writer.toString().split("\n");
+        assertEquals(8, lines.length);
+        for (int i = 1; i < lines.length; i++) {
+            String[] fields = lines[i].split(",", -1);
+            assertEquals(expected.get(fields[0]), fields[1] + "," + fields[2], lines[i]);
+
+            // the load is timed by the coordinator, and the rest by the worker
+            assertTrue(!fields[3].isEmpty() && !fields[4].isEmpty() && !fields[5].isEmpty(), lines[i]);
+        }
+    }
+
+    @Test
+    @DisplayName("Retry Timed Out Job")
+    void retryTest() throws Exception {
+        // far too many routes to count in time
+        Path slow = directory.resolve("slow.txt");
+        Files.write(slow, GeneratorRegistry.getGenerator(2021, 12).generate(60, new Random(1)),
+                StandardCharsets.UTF_8);
+        List<ShardCoordinator.Input> inputs = List.of(new ShardCoordinator.Input(new ChallengeId(2021, 12), slow),
+                new ShardCoordinator.Input(new ChallengeId(2021, 2)));
+
+        ArrayList<Integer> launched = new ArrayList<Integer>();
+        ShardCoordinator.WorkerLauncher local = ShardCoordinator.localLauncher(List.of("-Xmx128m"));
+        StringWriter writer = new StringWriter();
+        ThroughputRunner.Summary summary;
+        try (ShardCoordinator coordinator = new ShardCoordinator(1, (workerId, port) -> {
+            launched.add(workerId);
+            return local.launch(workerId, port);
+        }); ResultSink sink = new ResultSink(writer, ResultSink.Format.CSV)) {
+            coordinator.setTimeout(Duration.ofMillis(500));
+            coordinator.setMaxAttempts(2);
+            summary = coordinator.run(inputs, sink);
+        }
+
+        assertEquals(2, summary.getInputs());
+        assertEquals(1, summary.getFailures());
+
+        // the worker is replaced after the first timeout, and the job retried after
+        // the other input
+        assertEquals(2, launched.size());
+        String output = writer.toString();
+        assertTrue(output.contains("slow.txt,,,"), output);
+        assertTrue(output.contains("Failed after 2 attempts"), output);
+        assertTrue(output.contains("2021/2,1604850,1685186100,"), output);
+    }
+}
@@ -0,0 +1,100 @@
+package me.dibdin.adventofcode.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import me.dibdin.adventofcode.Challenge;
+import me.dibdin.adventofcode.year2021.Day15;
+
+/**
+ * Unit tests for the Snapshot Cache
+ */
+@DisplayName("Snapshot Cache Test")
+class SnapshotCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Store And Load Snapshot Test")
+    void storeAndLoadSnapshotTest() throws IOException {
+        SnapshotCache cache = new SnapshotCache(directory, 10);
+
+        assertNull(cache.load("missing"));
+        cache.store("key", new int[] { 1, -2, 3 });
+
+        IntBuffer snapshot = cache.load("key");
+        int[] values = new int[snapshot.remaining()];
+        snapshot.get(values);
+        assertArrayEquals(new int[] { 1, -2, 3 }, values);
+    }
+
+    @Test
+    @DisplayName("Restore Parsed Input Test")
+    void restoreParsedInputTest() throws IOException {
+        SnapshotCache cache = new SnapshotCache(directory, 10);
+        ByteInput input = ByteInput.forResource("example-data/year2021/day15.txt");
+
+        // the first run parses the input, the second restores the snapshot
+        Challenge parsed = new Day15();
+        cache.setPuzzleInput(parsed, input);
+        Challenge restored = new Day15();
+        cache.setPuzzleInput(restored, input);
+
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+        assertTrue(restored.getTimings().containsKey(Phase.PARSE));
+        assertArrayEquals(parsed.solveBoth(), restored.solveBoth());
+    }
+
+    @Test
+    @DisplayName("Bad Snapshot Test")
+    void badSnapshotTest() throws IOException {
+        SnapshotCache cache = new SnapshotCache(directory, 10);
+        cache.store("key", new int[] { 1, 2, 3 });
+        Path file = directory.resolve("key.snapshot");
+
+        // a truncated file, or one without a header, isn't loaded
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 2));
+        assertNull(cache.load("key"));
+        Files.write(file, Arrays.copyOfRange(bytes, 12, bytes.length));
+        assertNull(cache.load("key"));
+    }
+
+    @Test
+    @DisplayName("Parse Again After Bad Snapshot Test")
+    void parseAgainAfterBadSnapshotTest() throws IOException {
+        SnapshotCache cache = new SnapshotCache(directory, 10);
+        ByteInput input = ByteInput.forResource("example-data/year2021/day15.txt");
+        Challenge expected = new Day15();
+        expected.setPuzzleInput(input);
+
+        // a snapshot with a good header, but too short to restore from
+        String key = ResultCache.createParsedKey(expected, input);
+        cache.store(key, new int[] { 1 });
+
+        Challenge challenge = new Day15();
+        cache.setPuzzleInput(challenge, input);
+        assertEquals(1, cache.getMisses());
+        assertArrayEquals(expected.solveBoth(), challenge.solveBoth());
+
+        // the snapshot was rewritten, so the next run restores it
+        Challenge restored = new Day15();
+        cache.setPuzzleInput(restored, input);
+        assertEquals(1, cache.getHits());
+        assertArrayEquals(expected.solveBoth(), restored.solveBoth());
+    }
+}
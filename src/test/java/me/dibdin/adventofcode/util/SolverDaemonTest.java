@@ -0,0 +1,195 @@
+package me.dibdin.adventofcode.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the Solver Daemon
+ */
+@DisplayName("Solver Daemon Test")
+class SolverDaemonTest {
+
+    private SolverDaemon daemon;
+    private Socket socket;
+    private BufferedReader in;
+    private PrintWriter out;
+
+    @BeforeEach
+    void startDaemon() throws IOException {
+        daemon = new SolverDaemon(0, 2);
+        new Thread(daemon::serve).start();
+
+        socket = new Socket(InetAddress.getLoopbackAddress(), daemon.getPort());
+        in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+    }
+
+    @AfterEach
+    void stopDaemon() throws IOException {
+        socket.close();
+        daemon.shutdown();
+    }
+
+    @Test
+    @DisplayName("Solve Inline Input Test")
+    void solveInlineInputTest() throws IOException {
+        // solve twice, to reuse the instance of the challenge
+        for (int i = 0; i < 2; i++) {
+            out.println("SOLVE 2021 1");
+            out.println("199\n200\n208\n210\n200\n207\n240\n269\n260\n263");
+            out.println("END");
+
+            String response = in.readLine();
+            assertTrue(response.startsWith("OK 7 5 "), response);
+            assertTrue(response.contains("parse="), response);
+        }
+    }
+
+    @Test
+    @DisplayName("Errors Test")
+    void errorsTest() throws IOException {
+        out.println("SOLVE 1999 1 missing.txt");
+        assertTrue(in.readLine().startsWith("ERROR "));
+
+        out.println("SOLVE 2021 1 missing.txt");
+        assertTrue(in.readLine().startsWith("ERROR Unable to read puzzle input"));
+
+        out.println("HELLO");
+        assertTrue(in.readLine().startsWith("ERROR Unknown request"));
+
+        out.println("SHUTDOWN");
+        assertEquals("OK", in.readLine());
+    }
+
+    @Test
+    @DisplayName("Solver Error Test")
+    void solverErrorTest() throws IOException {
+        // one deep basin, which overflows the stack of the recursive flood fill
+        int size = 700;
+        String row = "1".repeat(size);
+        out.println("SOLVE 2021 9");
+        out.println("0" + row.substring(1));
+        for (int i = 1; i < size; i++) {
+            out.println(row);
+        }
+        out.println("END");
+        String response = in.readLine();
+        assertTrue(response.startsWith("ERROR java.lang.StackOverflowError"), response);
+
+        // the connection, and the thread, still work
+        out.println("SOLVE 2021 9");
+        out.println("2199943210\n3987894921\n9856789892\n8767896789\n9899965678");
+        out.println("END");
+        response = in.readLine();
+        assertTrue(response.startsWith("OK 15 1134 "), response);
+    }
+
+    @Test
+    @DisplayName("Error On One Line Test")
+    void errorOnOneLineTest() {
+        assertEquals("ERROR java.lang.IllegalStateException: first second  third",
+                SolverDaemon.error(new IllegalStateException("first\nsecond\r\n\rthird").toString()));
+        assertEquals("ERROR null", SolverDaemon.error(null));
+    }
+
+    @Test
+    @DisplayName("Idle Connection Test")
+    void idleConnectionTest() throws IOException {
+        // both worker threads are held by idle connections, until they time out
+        SolverDaemon idle = new SolverDaemon(0, 2);
+        idle.setIdleTimeout(Duration.ofMillis(200));
+        new Thread(idle::serve).start();
+        try (Socket first = new Socket(InetAddress.getLoopbackAddress(), idle.getPort());
+                Socket second = new Socket(InetAddress.getLoopbackAddress(), idle.getPort());
+                Socket third = new Socket(InetAddress.getLoopbackAddress(), idle.getPort())) {
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(first.getInputStream(), StandardCharsets.UTF_8));
+            assertNull(reader.readLine());
+
+            third.setSoTimeout(10_000);
+            reader = new BufferedReader(new InputStreamReader(third.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter writer = new PrintWriter(
+                    new OutputStreamWriter(third.getOutputStream(), StandardCharsets.UTF_8), true);
+            sendInline(writer, "SOLVE 2021 1",
+                    List.of("199", "200", "208", "210", "200", "207", "240", "269", "260", "263"));
+            String response = reader.readLine();
+            assertTrue(response.startsWith("OK 7 5 "), response);
+        } finally {
+            idle.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Time Limit Test")
+    void timeLimitTest() throws IOException {
+        List<String> lines = ByteInput.forResource("data/year2021/day19.txt").toLines()
+                .collect(Collectors.toList());
+
+        daemon.setTimeout(Duration.ofNanos(1));
+        sendInline(out, "SOLVE 2021 19", lines);
+        String response = in.readLine();
+        assertTrue(response.startsWith("ERROR Stopped"), response);
+
+        daemon.setTimeout(null);
+        sendInline(out, "SOLVE 2021 19", lines);
+        response = in.readLine();
+        assertTrue(response.startsWith("OK 353 10832 "), response);
+    }
+
+    @Test
+    @DisplayName("Warm Up Test")
+    void warmUpTest() throws Exception {
+        // warm up every worker thread before serving
+        SolverDaemon warmed = new SolverDaemon(0, 2);
+        try {
+            warmed.warmUp(1);
+            new Thread(warmed::serve).start();
+
+            try (Socket client = new Socket(InetAddress.getLoopbackAddress(), warmed.getPort())) {
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+                PrintWriter writer = new PrintWriter(
+                        new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8), true);
+                sendInline(writer, "SOLVE 2021 1", List.of("199", "200", "208", "210", "200", "207", "240", "269",
+                        "260", "263"));
+                String response = reader.readLine();
+                assertTrue(response.startsWith("OK 7 5 "), response);
+            }
+        } finally {
+            warmed.shutdown();
+        }
+    }
+
+    /**
+     * Send a request with inline puzzle input
+     *
+     * @param writer  the connection
+     * @param request the request line
+     * @param lines   the puzzle input
+     */
+    private static void sendInline(PrintWriter writer, String request, List<String> lines) {
+        writer.println(request);
+        for (String line : lines) {
+            writer.println(line);
+        }
+        writer.println("END");
+    }
+}
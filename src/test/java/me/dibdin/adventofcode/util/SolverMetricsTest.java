@@ -0,0 +1,98 @@
+package me.dibdin.adventofcode.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.concurrent.CancellationException;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import me.dibdin.adventofcode.Challenge;
+import me.dibdin.adventofcode.year2021.Day11;
+import me.dibdin.adventofcode.year2021.Day15;
+
+/**
+ * Unit tests for the SolverMetrics MBeans
+ */
+@DisplayName("Solver Metrics Test")
+class SolverMetricsTest {
+
+    @Test
+    @DisplayName("Challenge MBean Test")
+    void challengeMBeanTest() throws IOException, JMException {
+        SolverMetrics metrics = SolverMetrics.register();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = SolverMetrics.getObjectName(new ChallengeId(2021, 15));
+
+        Challenge challenge = new Day15();
+        challenge.timedSetPuzzleInput(ByteInput.forResource("example-data/year2021/day15.txt"));
+        metrics.getChallengeMetrics(challenge).resetStatistics();
+        challenge.timedSolveBoth();
+        challenge.timedSolvePartOne();
+
+        assertEquals(2021, server.getAttribute(name, "Year"));
+        assertEquals(15, server.getAttribute(name, "Day"));
+        assertEquals(2L, server.getAttribute(name, "SolveCount"));
+        assertEquals(false, server.getAttribute(name, "Running"));
+        assertEquals("", server.getAttribute(name, "CurrentPhase"));
+        assertTrue((Double) server.getAttribute(name, "TotalMillis") > 0);
+
+        // maps are published as tables of keys and values
+        TabularData completed = (TabularData) server.getAttribute(name, "CompletedPhases");
+        CompositeData bothParts = completed.get(new Object[] { Phase.BOTH_PARTS.getDescription() });
+        assertEquals(1L, bothParts.get("value"));
+
+        server.invoke(name, "resetStatistics", null, null);
+        assertEquals(0L, server.getAttribute(name, "SolveCount"));
+    }
+
+    @Test
+    @DisplayName("Failure Test")
+    void failureTest() throws IOException, JMException {
+        SolverMetrics metrics = SolverMetrics.register();
+
+        Challenge challenge = new Day11();
+        challenge.timedSetPuzzleInput(ByteInput.forResource("example-data/year2021/day11.txt"));
+        ChallengeMetrics challengeMetrics = metrics.getChallengeMetrics(challenge);
+        challengeMetrics.resetStatistics();
+
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        challenge.setCancellationToken(token);
+        assertThrows(CancellationException.class, () -> challenge.timedSolvePartTwo());
+
+        assertEquals(1L, challengeMetrics.getFailureCount());
+        assertEquals(0L, challengeMetrics.getSolveCount());
+        assertFalse(challengeMetrics.isRunning());
+    }
+
+    @Test
+    @DisplayName("Cache Statistics Test")
+    void cacheStatisticsTest() throws JMException {
+        SolverMetrics metrics = SolverMetrics.register();
+        ResultCache cache = new ResultCache(Paths.get("target", "metrics-test-cache"), 4);
+        metrics.setResultCache(cache);
+        cache.get("missing");
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(SolverMetrics.DOMAIN + ":type=Solver");
+        assertEquals(1L, server.getAttribute(name, "ResultCacheMisses"));
+        assertEquals(0.0, server.getAttribute(name, "ResultCacheHitRate"));
+
+        server.invoke(name, "resetStatistics", null, null);
+        assertEquals(0L, cache.getMisses());
+        metrics.setResultCache(null);
+    }
+}
@@ -0,0 +1,151 @@
+package me.dibdin.adventofcode.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import me.dibdin.adventofcode.Challenge;
+import me.dibdin.adventofcode.year2021.Day15;
+
+/**
+ * Unit tests for the ThroughputRunner and ResultSink
+ */
+@DisplayName("Throughput Runner Test")
+class ThroughputRunnerTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Write generated inputs for 2021 day 15 to the temporary directory
+     *
+     * @param count the number of inputs
+     * @return the expected answers, by file name
+     * @throws IOException if an input can't be written
+     */
+    private HashMap<String, String> writeInputs(int count) throws IOException {
+        HashMap<String, String> expected = new HashMap<String, String>();
+        InputGenerator generator = GeneratorRegistry.getGenerator(2021, 15);
+
+        for (int i = 0; i < count; i++) {
+            List<String> lines = generator.generate(10 + i, new Random(i));
+            String name = String.format("input%03d.txt", i);
+            Files.write(directory.resolve(name), lines, StandardCharsets.UTF_8);
+
+            Challenge challenge = new Day15();
+            challenge.setPuzzleInput(lines.stream());
+            expected.put(name, challenge.solvePartOne() + "," + challenge.solvePartTwo());
+        }
+        return expected;
+    }
+
+    @Test
+    @DisplayName("Solve Directory To CSV")
+    void csvTest() throws Exception {
+        HashMap<String, String> expected = writeInputs(20);
+        StringWriter writer = new StringWriter();
+
+        ThroughputRunner runner = new ThroughputRunner(3, 2);
+        ThroughputRunner.Summary summary;
+        try (ResultSink sink = new ResultSink(writer, ResultSink.Format.CSV)) {
+            summary = runner.run(2021, 15, ThroughputRunner.listInputs(directory), sink);
+        } finally {
+            runner.shutdown();
+        }
+
+        assertEquals(20, summary.getInputs());
+        assertEquals(0, summary.getFailures());
+        assertTrue(summary.getInputsPerSecond() > 0);
+        assertEquals(20, summary.getHistograms().get(Phase.BOTH_PARTS).getCount());
+
+        // every input is solved, whichever thread's instance solved it
+        String[] lines = writer.toString().split("\n");
+        assertEquals("input,part_one,part_two,load_ms,parse_ms,solve_ms,error", lines[0]);
+        assertEquals(21, lines.length);
+        for (int i = 1; i < lines.length; i++) {
+            String[] fields = lines[i].split(",", -1);
+            assertEquals(expected.get(fields[0]), fields[1] + "," + fields[2]);
+            assertEquals("", fields[6]);
+        }
+    }
+
+    @Test
+    @DisplayName("Solve With A Thread Per Input")
+    void threadPerInputTest() throws Exception {
+        HashMap<String, String> expected = writeInputs(40);
+        ArrayList<Path> inputs = new ArrayList<Path>(ThroughputRunner.listInputs(directory));
+        inputs.add(directory.resolve("missing.txt"));
+        StringWriter writer = new StringWriter();
+
+        ThroughputRunner runner = new ThroughputRunner(2, 16);
+        runner.setThreadPerInput(true);
+        ThroughputRunner.Summary summary;
+        try (ResultSink sink = new ResultSink(writer, ResultSink.Format.CSV)) {
+            summary = runner.run(2021, 15, inputs, sink);
+        } finally {
+            runner.shutdown();
+        }
+
+        assertEquals(41, summary.getInputs());
+        assertEquals(1, summary.getFailures());
+
+        // the inputs are read on their own threads, and solved by the pool
+        String[] lines = writer.toString().split("\n");
+        assertEquals(42, lines.length);
+        for (int i = 1; i < lines.length; i++) {
+            String[] fields = lines[i].split(",", -1);
+            if (fields[0].equals("missing.txt")) {
+                assertTrue(!fields[6].isEmpty(), lines[i]);
+            } else {
+                assertEquals(expected.get(fields[0]), fields[1] + "," + fields[2]);
+                assertTrue(!fields[3].isEmpty() && !fields[5].isEmpty(), lines[i]);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Solve Manifest To JSON")
+    void jsonTest() throws Exception {
+        writeInputs(2);
+        Path manifest = directory.resolve("manifest.txt");
+        Files.write(manifest, List.of("# inputs", "input000.txt", "", "missing.txt", "input001.txt"),
+                StandardCharsets.UTF_8);
+        StringWriter writer = new StringWriter();
+
+        List<Path> inputs = ThroughputRunner.listInputs(manifest);
+        assertEquals(3, inputs.size());
+
+        ThroughputRunner runner = new ThroughputRunner(1, 0);
+        ThroughputRunner.Summary summary;
+        try (ResultSink sink = new ResultSink(writer, ResultSink.formatOf("results.json"))) {
+            summary = runner.run(2021, 15, inputs, sink);
+        } finally {
+            runner.shutdown();
+        }
+
+        assertEquals(3, summary.getInputs());
+        assertEquals(1, summary.getFailures());
+
+        // with one thread, the results are in the order of the manifest
+        String[] lines = writer.toString().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("{\"input\":\"input000.txt\",\"partOne\":"));
+        assertTrue(lines[0].contains("\"bothPartsMillis\":"));
+        assertTrue(lines[1].startsWith("{\"input\":\"missing.txt\","));
+        assertTrue(lines[1].contains("\"error\":"));
+        assertTrue(lines[2].startsWith("{\"input\":\"input001.txt\",\"partOne\":"));
+    }
+}
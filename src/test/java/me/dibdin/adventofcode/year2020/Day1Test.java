@@ -89,4 +89,29 @@ class Day1Test {
             assertEquals(248607374, challenge.solvePartTwo());
         }
     }
+
+    /**
+     * Test the lookup strategy gives the same results as the default.
+     */
+    @Test
+    @DisplayName("Solve With Lookup Strategy Test")
+    @Order(5)
+    void solveWithLookupStrategyTest() {
+        Challenge lookup = new Day1();
+        lookup.setStrategy("lookup");
+
+        lookup.setPuzzleInput(Stream.of("1721", "979", "366", "299", "675", "1456"));
+        assertEquals(514579, lookup.solvePartOne());
+        assertEquals(241861950, lookup.solvePartTwo());
+
+        String filename = String.format("data/year%d/day%d.txt", lookup.getYear(), lookup.getDay());
+        try (Stream<String> stream = new BufferedReader(
+                new InputStreamReader(
+                        ClassLoader.getSystemResourceAsStream(filename)))
+                                .lines()) {
+            lookup.setPuzzleInput(stream);
+            assertEquals(802011, lookup.solvePartOne());
+            assertEquals(248607374, lookup.solvePartTwo());
+        }
+    }
 }
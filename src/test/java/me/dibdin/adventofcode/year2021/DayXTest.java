@@ -1,12 +1,24 @@
 package me.dibdin.adventofcode.year2021;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -15,6 +27,10 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 
 import me.dibdin.adventofcode.Challenge;
+import me.dibdin.adventofcode.util.BudgetFile;
+import me.dibdin.adventofcode.util.ByteInput;
+import me.dibdin.adventofcode.util.Phase;
+import me.dibdin.adventofcode.util.Snapshottable;
 
 /**
  * Unit tests for Year 2021 Challenges
@@ -46,7 +62,7 @@ class DayXTest {
         DAY12(Day12::new, 12, "Passage Pathing", new long[][] { { 226, 3509 }, { 5104, 149220 } }),
         DAY13(Day13::new, 13, "Transparent Origami", new long[][] { { 17, -1 }, { 607, -1 } }), // part 2 prints ASCII art
         DAY14(Day14::new, 14, "Extended Polymerization", new long[][] { { 1588, 2188189693529L }, { 2027, 2265039461737L } }),
-        DAY15(Day15::new, 15, "Chiton", new long[][] { { 40, 315 }, { 621, 2904 } }), // part 2 takes 90s
+        DAY15(Day15::new, 15, "Chiton", new long[][] { { 40, 315 }, { 621, 2904 } }),
         DAY16(Day16::new, 16, "Packet Decoder", new long[][] { { 20, 1 }, { 917, 2536453523344L } }),    
         DAY17(Day17::new, 17, "Trick Shot", new long[][] { { 45, 112 }, { 2628, 1334 } }),
         DAY18(Day18::new, 18, "Snailfish", new long[][] { { 4140, 3993 }, { 4137, 4573 } }),
@@ -125,6 +141,36 @@ class DayXTest {
             "./data/year%d/day%d.txt" // PRODUCTION
     };
 
+    /**
+     * The most bytes each phase may allocate on the heap, with the example input
+     */
+    static final BudgetFile allocationBudgets = new BudgetFile("year2021-allocation");
+
+    /**
+     * The longest each phase may take, in milliseconds, with the production input
+     */
+    static final BudgetFile timeBudgets = new BudgetFile("year2021-time");
+
+    /**
+     * The number of untimed runs before measuring, so the JIT has compiled the
+     * hot loops, and the number of timed runs to take the fastest of
+     */
+    static final int WARMUP_RUNS = 5;
+    static final int MEASURED_RUNS = 3;
+
+    /**
+     * True if the time budgets are checked, set with
+     * "-Dadventofcode.budgets.time=true". Wall clock times depend on the machine
+     * and what else it is running, so they are only checked when asked for.
+     */
+    static final boolean CHECK_TIME_BUDGETS = Boolean.getBoolean("adventofcode.budgets.time");
+
+    /**
+     * Multiplies the time budgets, for slower machines than the one which
+     * recorded them, set with "-Dadventofcode.budgets.scale=2"
+     */
+    static final double TIME_BUDGET_SCALE = Double.parseDouble(System.getProperty("adventofcode.budgets.scale", "1"));
+
     /**
      * Solve part one of the puzzle, first with the sample input, then the
      * production input
@@ -223,6 +269,259 @@ class DayXTest {
         assertEquals(puzzle.getResults()[PRODUCTION][PART_TWO], challenge.solvePartTwo());
     }
 
+    /**
+     * Solve both parts of the puzzle together with the sample input, checking
+     * any work shared between the parts gives the same results
+     * 
+     * @param puzzle The puzzle under test.
+     */
+    @ParameterizedTest
+    @EnumSource(Puzzles.class)
+    @DisplayName("Solve Both Parts")
+    void solveBothTest(Puzzles puzzle) {
+
+        // Initialise the challenge
+        Challenge challenge = puzzle.getChallengeInstance();
+
+        // Open the example input file as a stream
+        final String exampleFilename = String.format(pathTemplate[EXAMPLE], year, puzzle.getDay());
+        final Stream<String> exampleStream = assertDoesNotThrow(() -> {
+            return new BufferedReader(
+                    new InputStreamReader(
+                            ClassLoader.getSystemResourceAsStream(exampleFilename)))
+                                    .lines();
+        });
+
+        // Set the puzzle input
+        assertDoesNotThrow(() -> {
+            challenge.setPuzzleInput(exampleStream);
+        });
+
+        // Check the results are correct
+        assertArrayEquals(puzzle.getResults()[EXAMPLE], challenge.solveBoth());
+    }
+
+    /**
+     * Solve both parts of the puzzle many times, from several threads at once,
+     * against a single parse of the sample input, checking that solving never
+     * changes the parsed input
+     * 
+     * @param puzzle The puzzle under test.
+     */
+    @ParameterizedTest
+    @EnumSource(Puzzles.class)
+    @DisplayName("Solve Concurrently")
+    void solveConcurrentlyTest(Puzzles puzzle) throws Exception {
+
+        // Initialise the challenge, and parse the example input once
+        Challenge challenge = puzzle.getChallengeInstance();
+        final String exampleFilename = String.format(pathTemplate[EXAMPLE], year, puzzle.getDay());
+        challenge.setPuzzleInput(ByteInput.forResource(exampleFilename));
+
+        // Solve each part repeatedly, on several threads
+        ArrayList<Callable<long[]>> tasks = new ArrayList<Callable<long[]>>();
+        for (int i = 0; i < 8; i++) {
+            tasks.add(() -> new long[] { challenge.solvePartOne(), challenge.solvePartTwo() });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            // Check the results are correct every time
+            for (Future<long[]> future : executor.invokeAll(tasks)) {
+                assertArrayEquals(puzzle.getResults()[EXAMPLE], future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Solve both parts of the puzzle with the sample input, decoded directly from
+     * bytes rather than a stream of lines
+     * 
+     * @param puzzle The puzzle under test.
+     */
+    @ParameterizedTest
+    @EnumSource(Puzzles.class)
+    @DisplayName("Solve With Byte Input")
+    void solveWithByteInputTest(Puzzles puzzle) {
+
+        // Initialise the challenge
+        Challenge challenge = puzzle.getChallengeInstance();
+
+        // Map the example input file
+        final String exampleFilename = String.format(pathTemplate[EXAMPLE], year, puzzle.getDay());
+        final ByteInput exampleInput = assertDoesNotThrow(() -> {
+            return ByteInput.forResource(exampleFilename);
+        });
+
+        // Set the puzzle input
+        assertDoesNotThrow(() -> {
+            challenge.setPuzzleInput(exampleInput);
+        });
+
+        // Check the results are correct
+        assertEquals(puzzle.getResults()[EXAMPLE][PART_ONE], challenge.solvePartOne());
+        assertEquals(puzzle.getResults()[EXAMPLE][PART_TWO], challenge.solvePartTwo());
+    }
+
+    /**
+     * Solve both parts of the puzzle with every strategy of challenges which have
+     * more than one, first with the sample input, then the production input
+     * 
+     * @param puzzle The puzzle under test.
+     */
+    @ParameterizedTest
+    @EnumSource(Puzzles.class)
+    @DisplayName("Solve With Every Strategy")
+    void solveWithEveryStrategyTest(Puzzles puzzle) throws IOException {
+
+        // Only challenges with more than one strategy
+        List<String> strategies = puzzle.getChallengeInstance().getStrategies();
+        assumeTrue(strategies.size() > 1);
+
+        ByteInput exampleInput = ByteInput.forResource(String.format(pathTemplate[EXAMPLE], year, puzzle.getDay()));
+        ByteInput productionInput = ByteInput
+                .forResource(String.format(pathTemplate[PRODUCTION], year, puzzle.getDay()));
+
+        for (String strategy : strategies) {
+            Challenge challenge = puzzle.getChallengeInstance();
+            challenge.setStrategy(strategy);
+            assertEquals(strategy, challenge.getStrategy());
+
+            // Check the results are correct
+            challenge.setPuzzleInput(exampleInput);
+            assertArrayEquals(puzzle.getResults()[EXAMPLE],
+                    new long[] { challenge.solvePartOne(), challenge.solvePartTwo() }, strategy);
+            challenge.setPuzzleInput(productionInput);
+            assertArrayEquals(puzzle.getResults()[PRODUCTION],
+                    new long[] { challenge.solvePartOne(), challenge.solvePartTwo() }, strategy);
+        }
+    }
+
+    /**
+     * Check that a snapshot of the parsed input can be restored into a new
+     * instance of the challenge, and gives the same results.
+     * 
+     * @param puzzle The puzzle under test.
+     */
+    @ParameterizedTest
+    @EnumSource(Puzzles.class)
+    @DisplayName("Snapshot Round Trip")
+    void snapshotTest(Puzzles puzzle) {
+
+        // Only challenges which support snapshots
+        Challenge challenge = puzzle.getChallengeInstance();
+        assumeTrue(challenge instanceof Snapshottable);
+
+        // Parse the example input file
+        final String exampleFilename = String.format(pathTemplate[EXAMPLE], year, puzzle.getDay());
+        assertDoesNotThrow(() -> {
+            challenge.setPuzzleInput(ByteInput.forResource(exampleFilename));
+        });
+
+        // Restore the snapshot into a new instance
+        int[] snapshot = ((Snapshottable) challenge).writeSnapshot();
+        Challenge restored = puzzle.getChallengeInstance();
+        ((Snapshottable) restored).readSnapshot(IntBuffer.wrap(snapshot));
+
+        // Check the results are correct
+        assertEquals(puzzle.getResults()[EXAMPLE][PART_ONE], restored.solvePartOne());
+        assertEquals(puzzle.getResults()[EXAMPLE][PART_TWO], restored.solvePartTwo());
+    }
+
+    /**
+     * Check that each phase allocates no more heap than its budget, with the
+     * sample input. Run with "-Dadventofcode.budgets.record=true" to record new
+     * budgets instead.
+     * 
+     * @param puzzle The puzzle under test.
+     */
+    @ParameterizedTest
+    @EnumSource(Puzzles.class)
+    @DisplayName("Allocation Budget")
+    void allocationBudgetTest(Puzzles puzzle) throws IOException {
+
+        // Solve once first, so one-off costs such as loading classes aren't counted
+        final String exampleFilename = String.format(pathTemplate[EXAMPLE], year, puzzle.getDay());
+        Challenge warmup = puzzle.getChallengeInstance();
+        warmup.setPuzzleInput(ByteInput.forResource(exampleFilename));
+        warmup.solveBoth();
+
+        // Parse and solve the example input, measuring each phase
+        Challenge challenge = puzzle.getChallengeInstance();
+        challenge.timedSetPuzzleInput(ByteInput.forResource(exampleFilename));
+        challenge.timedSolvePartOne();
+        challenge.timedSolvePartTwo();
+
+        for (Phase phase : new Phase[] { Phase.PARSE, Phase.PART_ONE, Phase.PART_TWO }) {
+            long allocated = challenge.getTimings().get(phase).getAllocatedBytes();
+            assumeTrue(allocated >= 0, "Allocation measurement not supported by the JVM");
+            String key = String.format("%d.%d.%s", year, puzzle.getDay(), phase.name().toLowerCase());
+
+            if (BudgetFile.RECORD) {
+                // allow for noise, such as the JIT compiling part way through
+                allocationBudgets.record(key, (allocated + (allocated / 4) + 65536) / 1024 * 1024);
+            } else {
+                long budget = allocationBudgets.get(key);
+                assumeFalse(budget < 0, "No allocation budget for " + key);
+                assertTrue(allocated <= budget, String.format("%s allocated %d bytes, over its budget of %d bytes",
+                        key, allocated, budget));
+            }
+        }
+    }
+
+    /**
+     * Check that each phase runs within its time budget, with the production
+     * input, taking the fastest of several runs after warming up. Only run with
+     * "-Dadventofcode.budgets.time=true", or with
+     * "-Dadventofcode.budgets.record=true" to record new budgets instead.
+     * 
+     * @param puzzle The puzzle under test.
+     */
+    @ParameterizedTest
+    @EnumSource(Puzzles.class)
+    @DisplayName("Time Budget")
+    void timeBudgetTest(Puzzles puzzle) throws IOException {
+        assumeTrue(CHECK_TIME_BUDGETS || BudgetFile.RECORD,
+                "Time budgets are only checked with -Dadventofcode.budgets.time=true");
+
+        // Solve repeatedly, keeping the fastest time of each phase once warmed up
+        final String productionFilename = String.format(pathTemplate[PRODUCTION], year, puzzle.getDay());
+        ByteInput input = ByteInput.forResource(productionFilename);
+        Phase[] phases = new Phase[] { Phase.PARSE, Phase.PART_ONE, Phase.PART_TWO };
+        long[] fastest = new long[phases.length];
+        Arrays.fill(fastest, Long.MAX_VALUE);
+
+        for (int run = 0; run < (WARMUP_RUNS + MEASURED_RUNS); run++) {
+            Challenge challenge = puzzle.getChallengeInstance();
+            challenge.timedSetPuzzleInput(input);
+            challenge.timedSolvePartOne();
+            challenge.timedSolvePartTwo();
+
+            if (run >= WARMUP_RUNS) {
+                for (int i = 0; i < phases.length; i++) {
+                    fastest[i] = Long.min(fastest[i], challenge.getTimings().get(phases[i]).getWallNanos());
+                }
+            }
+        }
+
+        for (int i = 0; i < phases.length; i++) {
+            String key = String.format("%d.%d.%s", year, puzzle.getDay(), phases[i].name().toLowerCase());
+            double millis = fastest[i] / 1_000_000.0;
+
+            if (BudgetFile.RECORD) {
+                // timings are noisier than allocations, so allow plenty of headroom
+                timeBudgets.record(key, (long) Math.ceil(Math.max(millis * 3, millis + 20)));
+            } else {
+                long budget = timeBudgets.get(key);
+                assumeFalse(budget < 0, "No time budget for " + key);
+                assertTrue(millis <= (budget * TIME_BUDGET_SCALE), String.format(
+                        "%s took %.3f ms, over its budget of %d ms", key, millis, budget));
+            }
+        }
+    }
+
     /**
      * Check the year, day and name are correct.
      * 